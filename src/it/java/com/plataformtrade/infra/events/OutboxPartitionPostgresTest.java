@@ -0,0 +1,150 @@
+package com.plataformtrade.infra.events;
+
+import com.plataformtrade.infra.persistence.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("OutboxPartitionMaintainer on PostgreSQL Tests")
+class OutboxPartitionPostgresTest extends PostgresIntegrationTest {
+    private static final LocalDate TODAY = LocalDate.now(ZoneOffset.UTC);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private OutboxPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM outbox_events");
+        maintainer = new OutboxPartitionMaintainer(jdbcTemplate, new TransactionTemplate(transactionManager),
+                7, 3, true);
+    }
+
+    @Test
+    @DisplayName("Should create the partitions of today and the coming days")
+    void shouldPremakePartitions() {
+        maintainer.maintain();
+
+        for (int day = 0; day <= 3; day++) {
+            assertTrue(exists(OutboxPartitionMaintainer.partitionName(TODAY.plusDays(day))));
+        }
+        insert("e-1", TODAY.plusDays(2), 0);
+        assertEquals(OutboxPartitionMaintainer.partitionName(TODAY.plusDays(2)), partitionOf("e-1"));
+    }
+
+    @Test
+    @DisplayName("Should move rows stranded in the default partition into their own day's partition")
+    void shouldSplitDefaultPartition() {
+        LocalDate missed = TODAY.plusDays(20);
+        insert("e-1", missed, 0);
+        insert("e-2", missed, 1);
+        assertEquals("outbox_events_default", partitionOf("e-1"));
+
+        maintainer.maintain();
+
+        String partition = OutboxPartitionMaintainer.partitionName(missed);
+        assertEquals(partition, partitionOf("e-1"));
+        assertEquals(partition, partitionOf("e-2"));
+        assertEquals(0, count("outbox_events_default"));
+        insert("e-3", missed, 0);
+        assertEquals(partition, partitionOf("e-3"));
+    }
+
+    @Test
+    @DisplayName("Should drop past-retention partitions once every event in them was sent")
+    void shouldPurgeSentPartitions() {
+        LocalDate sentDay = TODAY.minusDays(30);
+        LocalDate unsentDay = TODAY.minusDays(20);
+        insert("e-1", sentDay, 1);
+        insert("e-2", unsentDay, 1);
+        insert("e-3", unsentDay, 0);
+
+        maintainer.maintain();
+
+        assertFalse(exists(OutboxPartitionMaintainer.partitionName(sentDay)));
+        assertTrue(exists(OutboxPartitionMaintainer.partitionName(unsentDay)));
+        assertEquals(2, count("outbox_events"));
+        assertEquals(0, count("outbox_events_default"));
+    }
+
+    @Test
+    @DisplayName("Should keep dead-lettered events aside when it drops their partition")
+    void shouldKeepDeadLettersOfPurgedPartitions() {
+        jdbcTemplate.update("DELETE FROM outbox_dead_letters");
+        LocalDate failedDay = TODAY.minusDays(30);
+        insert("e-1", failedDay, 1);
+        insert("e-2", failedDay, 2);
+
+        maintainer.maintain();
+
+        assertFalse(exists(OutboxPartitionMaintainer.partitionName(failedDay)));
+        assertEquals(List.of("e-2"), jdbcTemplate.queryForList(
+                "SELECT event_id FROM outbox_dead_letters", String.class));
+    }
+
+    @Test
+    @DisplayName("Should skip maintenance while another instance holds the lock")
+    void shouldSkipWhileLockedElsewhere() throws Exception {
+        LocalDate missed = TODAY.plusDays(40);
+        insert("e-1", missed, 0);
+
+        try (Connection other = dataSource.getConnection()) {
+            try (Statement statement = other.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(" + OutboxPartitionMaintainer.MAINTENANCE_LOCK + ")");
+            }
+            maintainer.maintain();
+            assertEquals("outbox_events_default", partitionOf("e-1"));
+        }
+
+        maintainer.maintain();
+        assertEquals(OutboxPartitionMaintainer.partitionName(missed), partitionOf("e-1"));
+    }
+
+    private void insert(String eventId, LocalDate day, int status) {
+        jdbcTemplate.update("INSERT INTO outbox_events (event_id, aggregate_id, event_type, payload, payload_codec, "
+                        + "occurred_on, status) VALUES (?, 'a-1', 'account.created', '\\x7b7d'::bytea, 1, ?, ?)",
+                eventId, Timestamp.from(day.atTime(12, 0).toInstant(ZoneOffset.UTC)), status);
+    }
+
+    private String partitionOf(String eventId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM outbox_events WHERE event_id = ?",
+                String.class, eventId);
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+}
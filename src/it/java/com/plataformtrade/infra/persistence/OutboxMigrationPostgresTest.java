@@ -0,0 +1,131 @@
+package com.plataformtrade.infra.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations over the unpartitioned outbox_events table the
+ * application used to create, each test in a schema of its own.
+ */
+@DisplayName("V4 outbox partitioning migration on PostgreSQL Tests")
+class OutboxMigrationPostgresTest extends PostgresIntegrationTest {
+    private static final LocalDate TODAY = LocalDate.now(ZoneOffset.UTC);
+
+    private static DriverManagerDataSource dataSource;
+
+    @BeforeAll
+    static void startPostgres() {
+        POSTGRES.start();
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    @Test
+    @DisplayName("Should partition a legacy table and keep today's rows out of the default partition")
+    void shouldMigrateLegacyTable() {
+        JdbcTemplate jdbcTemplate = legacySchema("legacy_text", "text");
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Instant monthAgo = now.minus(30, ChronoUnit.DAYS);
+        jdbcTemplate.update("INSERT INTO outbox_events VALUES ('e-1', 'a-1', 'account.created', '{\"a\":1}', ?, "
+                + "'PENDING', NULL, NULL)", Timestamp.from(now));
+        jdbcTemplate.update("INSERT INTO outbox_events VALUES ('e-2', 'a-2', 'account.created', '{\"a\":2}', ?, "
+                + "'SENT', ?, NULL)", Timestamp.from(monthAgo), Timestamp.from(monthAgo));
+
+        migrate("legacy_text");
+
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('outbox_events')", String.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('outbox_events_legacy')::text", String.class));
+        for (int day = 0; day <= 3; day++) {
+            assertNotNull(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?)::text", String.class, partitionName(TODAY.plusDays(day))));
+        }
+        assertEquals(partitionName(TODAY), partitionOf(jdbcTemplate, "e-1"));
+        assertEquals("outbox_events_default", partitionOf(jdbcTemplate, "e-2"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT status FROM outbox_events WHERE event_id = 'e-1'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT status FROM outbox_events WHERE event_id = 'e-2'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT payload_codec FROM outbox_events WHERE event_id = 'e-1'", Integer.class));
+        assertArrayEquals("{\"a\":1}".getBytes(StandardCharsets.UTF_8), jdbcTemplate.queryForObject(
+                "SELECT payload FROM outbox_events WHERE event_id = 'e-1'", byte[].class));
+    }
+
+    @Test
+    @DisplayName("Should read payloads stored as large objects")
+    void shouldMigrateLargeObjectPayloads() {
+        JdbcTemplate jdbcTemplate = legacySchema("legacy_oid", "oid");
+        jdbcTemplate.update("INSERT INTO outbox_events VALUES ('e-1', 'a-1', 'account.created', "
+                + "lo_from_bytea(0, convert_to('{\"a\":1}', 'UTF8')), now(), 'FAILED', NULL, 'boom')");
+
+        migrate("legacy_oid");
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT status FROM outbox_events", Integer.class));
+        assertArrayEquals("{\"a\":1}".getBytes(StandardCharsets.UTF_8),
+                jdbcTemplate.queryForObject("SELECT payload FROM outbox_events", byte[].class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM pg_largeobject_metadata", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should create the partitioned table on an empty schema")
+    void shouldMigrateEmptySchema() {
+        migrate("fresh");
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE oid = to_regclass('fresh.outbox_events')", String.class));
+    }
+
+    /**
+     * Creates {@code schema} holding outbox_events as Hibernate used to
+     * create it, with the payload column of type {@code payloadType}.
+     */
+    private static JdbcTemplate legacySchema(String schema, String payloadType) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl() + "&currentSchema=" + schema, POSTGRES.getUsername(), POSTGRES.getPassword()));
+        jdbcTemplate.execute("CREATE SCHEMA " + schema);
+        jdbcTemplate.execute("CREATE TABLE outbox_events ("
+                + "event_id varchar(36) PRIMARY KEY, "
+                + "aggregate_id varchar(36) NOT NULL, "
+                + "event_type varchar(120) NOT NULL, "
+                + "payload " + payloadType + " NOT NULL, "
+                + "occurred_on timestamp(6) with time zone NOT NULL, "
+                + "status varchar(255) NOT NULL, "
+                + "sent_at timestamp(6) with time zone, "
+                + "error_message varchar(500))");
+        return jdbcTemplate;
+    }
+
+    private static void migrate(String schema) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(schema)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+    }
+
+    private static String partitionName(LocalDate day) {
+        return "outbox_events_p" + DateTimeFormatter.BASIC_ISO_DATE.format(day);
+    }
+
+    private static String partitionOf(JdbcTemplate jdbcTemplate, String eventId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM outbox_events WHERE event_id = ?",
+                String.class, eventId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.application.trades.TradeRecord;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import com.plataformtrade.infra.persistence.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JdbcTradeStore on PostgreSQL Tests")
+class JdbcTradeStorePostgresTest extends PostgresIntegrationTest {
+    private static final Market MARKET = new Market("BTC-BRL", new BigDecimal("0.01"), new BigDecimal("0.001"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<String> lookups = new ArrayList<>();
+    private JdbcTradeStore store;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM trades");
+        store = new JdbcTradeStore(dataSource, new MarketRepository() {
+            @Override
+            public List<Market> findAll() {
+                return List.of(MARKET);
+            }
+
+            @Override
+            public Optional<Market> findById(String marketId) {
+                lookups.add(marketId);
+                return Optional.of(MARKET).filter(market -> market.getMarketId().equals(marketId));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should copy a batch, looking its market up once")
+    void shouldCopyBatch() {
+        store.write(List.of(trade(1, 0, "t-1", "m-1"), trade(1, 1, "t-1", "m-2"), trade(2, 0, "t-2", "m-3")));
+
+        assertEquals(List.of("BTC-BRL"), lookups);
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT sequence, match_index, maker_order_id, quantity, price FROM trades ORDER BY sequence, match_index");
+        assertEquals(3, rows.size());
+        assertEquals("m-2", rows.get(1).get("maker_order_id"));
+        assertEquals(0, new BigDecimal("1.5").compareTo((BigDecimal) rows.get(1).get("quantity")));
+        assertEquals(0, new BigDecimal("100.25").compareTo((BigDecimal) rows.get(1).get("price")));
+    }
+
+    @Test
+    @DisplayName("Should keep separators and quotes in text columns")
+    void shouldQuoteTextColumns() {
+        store.write(List.of(trade(1, 0, "t,\"1\"", "m\n1")));
+
+        assertEquals(List.of("t,\"1\"", "m\n1"), jdbcTemplate.queryForObject(
+                "SELECT taker_order_id, maker_order_id FROM trades",
+                (rs, row) -> List.of(rs.getString(1), rs.getString(2))));
+    }
+
+    private static TradeRecord trade(long sequence, int matchIndex, String takerOrderId, String makerOrderId) {
+        return new TradeRecord("BTC-BRL", sequence, matchIndex, takerOrderId, makerOrderId, "acc-1", "acc-2",
+                "BUY", 1500, 10025, 1_700_000_000_000L);
+    }
+}
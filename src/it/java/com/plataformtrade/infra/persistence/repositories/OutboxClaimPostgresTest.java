@@ -0,0 +1,161 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.infra.persistence.PostgresIntegrationTest;
+import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
+import com.plataformtrade.infra.persistence.entities.OutboxStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("OutboxEventJpaRepository claim on PostgreSQL Tests")
+class OutboxClaimPostgresTest extends PostgresIntegrationTest {
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Autowired
+    private OutboxEventJpaRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM outbox_events");
+    }
+
+    @Test
+    @DisplayName("Should claim the oldest pending events up to the limit")
+    void shouldClaimOldestPending() {
+        save(event("e-1", "x", 0, OutboxStatus.SENT));
+        save(event("e-2", "x", 1, OutboxStatus.PENDING));
+        save(event("e-3", "y", 2, OutboxStatus.FAILED));
+        save(event("e-4", "y", 3, OutboxStatus.PENDING));
+        save(event("e-5", "z", 4, OutboxStatus.PENDING));
+
+        assertEquals(List.of("e-2", "e-4"), claim(2));
+        assertEquals(List.of("e-2", "e-4", "e-5"), claim(10));
+    }
+
+    @Test
+    @DisplayName("Should skip rows claimed elsewhere and hold back the aggregate's later events")
+    void shouldSkipClaimedRowsAndKeepAggregateOrder() throws Exception {
+        save(event("x-1", "x", 0, OutboxStatus.PENDING));
+        save(event("y-1", "y", 1, OutboxStatus.PENDING));
+        save(event("x-2", "x", 2, OutboxStatus.PENDING));
+        save(event("y-2", "y", 3, OutboxStatus.PENDING));
+        save(event("x-3", "x", 4, OutboxStatus.PENDING));
+
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    List<OutboxEventEntity> events = repository.claimPending(1);
+                    claimed.countDown();
+                    await(release);
+                    events.forEach(event -> event.setStatus(OutboxStatus.SENT));
+                    return ids(events);
+                }));
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+
+        List<String> second = claim(10);
+        release.countDown();
+
+        assertEquals(List.of("x-1"), first.get(10, TimeUnit.SECONDS));
+        assertEquals(List.of("y-1", "y-2"), second);
+        assertEquals(List.of("y-1", "x-2", "y-2", "x-3"), claim(10));
+    }
+
+    @Test
+    @DisplayName("Should hold back an aggregate whose earlier event is locked but was not claimed")
+    void shouldHoldBackBehindLockedEvent() throws Exception {
+        save(event("x-1", "x", 0, OutboxStatus.PENDING));
+        save(event("x-2", "x", 1, OutboxStatus.PENDING));
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT event_id FROM outbox_events WHERE event_id = 'x-1' FOR UPDATE");
+                    locked.countDown();
+                    await(release);
+                }));
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+        assertEquals(List.of(), claim(10));
+        release.countDown();
+        holder.get(10, TimeUnit.SECONDS);
+
+        assertEquals(List.of("x-1", "x-2"), claim(10));
+    }
+
+    @Test
+    @DisplayName("Should wait for an event's next attempt and hold back its aggregate meanwhile")
+    void shouldHoldBackBehindBackingOffEvent() {
+        OutboxEventEntity retried = event("x-1", "x", 0, OutboxStatus.PENDING);
+        retried.setAttempts((short) 1);
+        retried.setNextAttemptAt(Instant.now().plusSeconds(3600));
+        save(retried);
+        save(event("x-2", "x", 1, OutboxStatus.PENDING));
+        save(event("y-1", "y", 2, OutboxStatus.PENDING));
+
+        assertEquals(List.of("y-1"), claim(10));
+
+        jdbcTemplate.update("UPDATE outbox_events SET next_attempt_at = now() - interval '1 second' "
+                + "WHERE event_id = 'x-1'");
+        assertEquals(List.of("x-1", "x-2", "y-1"), claim(10));
+    }
+
+    private List<String> claim(int limit) {
+        return transactionTemplate.execute(status -> ids(repository.claimPending(limit)));
+    }
+
+    private void save(OutboxEventEntity event) {
+        transactionTemplate.executeWithoutResult(status -> repository.save(event));
+    }
+
+    private static OutboxEventEntity event(String eventId, String aggregateId, int offsetSeconds, OutboxStatus status) {
+        return new OutboxEventEntity(eventId, aggregateId, "account.created",
+                "{}".getBytes(StandardCharsets.UTF_8), (short) 1, NOW.plusSeconds(offsetSeconds), status);
+    }
+
+    private static List<String> ids(List<OutboxEventEntity> events) {
+        return events.stream().map(OutboxEventEntity::getEventId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timed out");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
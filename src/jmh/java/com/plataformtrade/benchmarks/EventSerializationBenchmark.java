@@ -0,0 +1,57 @@
+package com.plataformtrade.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.plataformtrade.domain.events.AccountCreatedEvent;
+import com.plataformtrade.infra.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of {@link AccountCreatedEvent} with the application's
+ * {@link ObjectMapper}, as the outbox stores it, against a writer bound to
+ * the event type up front.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSerializationBenchmark {
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private ObjectWriter eventWriter;
+    private AccountCreatedEvent event;
+
+    @Setup
+    public void setUp() {
+        eventWriter = objectMapper.writerFor(AccountCreatedEvent.class);
+        event = new AccountCreatedEvent("01890a5d-ac96-774b-bcce-b302099a8057", "Maria Souza",
+                "maria.souza@email.com", "11144477735");
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws Exception {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] typedWriter() throws Exception {
+        return eventWriter.writeValueAsBytes(event);
+    }
+}
@@ -0,0 +1,65 @@
+package com.plataformtrade.benchmarks;
+
+import com.plataformtrade.domain.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order.fill (128-bit running notional) against the previous int average
+ * price formula it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FillMathBenchmark {
+    private Order order;
+    private long price;
+
+    private int legacyFillQuantity;
+    private int legacyFillPrice;
+    private int legacyPrice;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        order = Order.create("account-1", "BTC-BRL", "buy", Long.MAX_VALUE >> 1, 50_000_000L);
+        price = 50_000_000L;
+        legacyFillQuantity = 0;
+        legacyFillPrice = 0;
+        legacyPrice = 50_000;
+    }
+
+    @Benchmark
+    public long fixedPointFill() {
+        order.fill(1, price++ & 0xFFFF | 1);
+        return order.getFillQuantity();
+    }
+
+    @Benchmark
+    public int legacyIntFill() {
+        int quantity = 1;
+        int fillPrice = legacyPrice++ & 0xFFFF | 1;
+        legacyFillPrice = ((legacyFillQuantity * legacyFillPrice) + (quantity * fillPrice)) / (legacyFillQuantity + quantity);
+        legacyFillQuantity += quantity;
+        return legacyFillQuantity;
+    }
+
+    @Benchmark
+    public long fixedPointAveragePrice() {
+        order.fill(1, price++ & 0xFFFF | 1);
+        return order.getFillPrice();
+    }
+}
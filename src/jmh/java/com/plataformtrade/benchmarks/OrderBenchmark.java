@@ -0,0 +1,42 @@
+package com.plataformtrade.benchmarks;
+
+import com.plataformtrade.domain.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order construction, which includes generating its UUIDv7 id, and a
+ * complete fill of a fresh order in three partial fills.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBenchmark {
+    private long price = 50_000_000L;
+
+    @Benchmark
+    public Order create() {
+        return Order.create("account-1", "BTC-BRL", "buy", 300, price++);
+    }
+
+    @Benchmark
+    public String createAndFill() {
+        Order order = Order.create("account-1", "BTC-BRL", "buy", 300, price++);
+        order.fill(100, order.getPrice());
+        order.fill(100, order.getPrice() - 1);
+        order.fill(100, order.getPrice() - 2);
+        return order.getStatus();
+    }
+}
@@ -0,0 +1,94 @@
+package com.plataformtrade.benchmarks;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.book.DepthListener;
+import com.plataformtrade.domain.book.OrderBook;
+import com.plataformtrade.domain.book.OrderStorage;
+import com.plataformtrade.domain.book.TradeListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book operations against a book holding {@code depth} price levels of four
+ * orders per side. Every benchmark leaves the book as it found it, so the
+ * measured state does not drift: inserts are cancelled again and matches
+ * take out an order that was just rested. Orders are created in the
+ * benchmark method because an order can only rest in one book once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBookBenchmark {
+    private static final String MARKET = "BTC-BRL";
+    private static final long MID = 50_000_000L;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    private OrderStorage storage;
+
+    @Param({"100"})
+    private int depth;
+
+    private OrderBook book;
+    private long level;
+
+    @Setup
+    public void setUp() {
+        book = new OrderBook(MARKET, storage, depth * 8, TradeListener.NO_OP, DepthListener.NO_OP);
+        for (int i = 1; i <= depth; i++) {
+            for (int j = 0; j < 4; j++) {
+                book.place(Order.create("maker", MARKET, "buy", 10, MID - i));
+                book.place(Order.create("maker", MARKET, "sell", 10, MID + i));
+            }
+        }
+    }
+
+    /**
+     * Rests a bid inside the existing levels, then cancels it by id.
+     */
+    @Benchmark
+    public Order insertAndCancel() {
+        Order bid = Order.create("account-1", MARKET, "buy", 5, MID - 1 - (level++ % depth));
+        book.place(bid);
+        return book.cancel(bid.getOrderId());
+    }
+
+    /**
+     * Rests an ask at the best ask price, then sweeps the whole level with a
+     * bid, so the new ask is the last order filled, and restores the four
+     * resting orders.
+     */
+    @Benchmark
+    public long match() {
+        book.place(Order.create("account-1", MARKET, "sell", 5, MID + 1));
+        book.place(Order.create("account-2", MARKET, "buy", 45, MID + 1));
+        for (int j = 0; j < 4; j++) {
+            book.place(Order.create("maker", MARKET, "sell", 10, MID + 1));
+        }
+        return book.getBestAsk();
+    }
+
+    /**
+     * Cancels the order at the head of the best bid level and rests it again
+     * at the back of the queue.
+     */
+    @Benchmark
+    public Order cancel() {
+        Order cancelled = book.cancel(book.getBidLevel(0).getFirstOrder().getOrderId());
+        book.place(Order.create("maker", MARKET, "buy", 10, cancelled.getPrice()));
+        return cancelled;
+    }
+}
@@ -0,0 +1,182 @@
+package com.plataformtrade.benchmarks;
+
+import com.plataformtrade.application.engine.BookSnapshot;
+import com.plataformtrade.application.engine.CommandJournal;
+import com.plataformtrade.application.engine.ReplayHarness;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.book.OrderStorage;
+import com.plataformtrade.infra.journal.MappedFileJournalStore;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * Offline backtest: replays a market's command journal through the matching
+ * engine at full speed with no Spring context, database or broker, prints
+ * sustained throughput and per-command latency percentiles for every run, and
+ * fails when two runs disagree on the trades or the final book.
+ * <p>
+ * Point {@code --journal} at a copy of {@code engine.journal.directory}; the
+ * latest snapshot there, if any, is the starting book. {@code --generate N}
+ * first records N synthetic commands into that directory, for capacity
+ * planning without production flow.
+ * <pre>
+ * ./mvnw -Pbenchmarks -DskipTests test-compile exec:exec@replay \
+ *     -Dreplay.args="--journal /tmp/journal --market BTC-BRL --runs 5"
+ * </pre>
+ * The latency distribution of all measured runs is written in HdrHistogram
+ * percentile format to {@code --histogram} (default
+ * {@code target/replay-latency.hgrm}).
+ */
+public final class ReplayBacktest {
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final long HIGHEST_LATENCY_NANOS = 60_000_000_000L;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private ReplayBacktest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parse(args);
+        Path journal = Path.of(required(options, "journal"));
+        String marketId = options.getOrDefault("market", "BTC-BRL");
+        int warmups = Integer.parseInt(options.getOrDefault("warmup", "1"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        OrderStorage storage = OrderStorage.valueOf(options.getOrDefault("storage", "HEAP"));
+        int expectedOrders = Integer.parseInt(options.getOrDefault("expected-orders", "1024"));
+        Path histogramFile = Path.of(options.getOrDefault("histogram", "target/replay-latency.hgrm"));
+
+        MappedFileJournalStore store = new MappedFileJournalStore(journal, SEGMENT_SIZE);
+        if (options.containsKey("generate")) {
+            generate(store, marketId, Integer.parseInt(options.get("generate")),
+                    Long.parseLong(options.getOrDefault("seed", "42")));
+        }
+        ReplayHarness.Recording recording = new ReplayHarness.Recording() {
+            @Override
+            public Optional<BookSnapshot> loadSnapshot() {
+                return store.loadLatestSnapshot(marketId);
+            }
+
+            @Override
+            public void replay(long fromSequence, CommandJournal.ReplayHandler handler) {
+                store.readJournal(marketId, fromSequence, handler);
+            }
+        };
+
+        ReplayHarness harness = new ReplayHarness(marketId, storage, expectedOrders);
+        Histogram total = new Histogram(HIGHEST_LATENCY_NANOS, 3);
+        ReplayHarness.Result reference = null;
+        boolean deterministic = true;
+        PrintStream out = System.out;
+        out.printf("market=%s storage=%s warmup=%d runs=%d%n", marketId, storage, warmups, runs);
+        for (int run = -warmups; run < runs; run++) {
+            Histogram latencies = new Histogram(HIGHEST_LATENCY_NANOS, 3);
+            ReplayHarness.Result result = harness.run(recording, latencies::recordValue);
+            if (reference == null) {
+                reference = result;
+            } else if (!result.sameOutcome(reference)) {
+                deterministic = false;
+            }
+            String label = run < 0 ? "warmup" : "run " + (run + 1);
+            out.printf("%-7s commands=%d rejected=%d trades=%d elapsed=%.1fms throughput=%.0f cmd/s "
+                            + "p50=%.2fus p99=%.2fus p99.9=%.2fus p99.99=%.2fus max=%.2fus%n",
+                    label, result.commands(), result.rejected(), result.trades(), result.elapsedNanos() / 1e6,
+                    result.commandsPerSecond(),
+                    micros(latencies.getValueAtPercentile(50)), micros(latencies.getValueAtPercentile(99)),
+                    micros(latencies.getValueAtPercentile(99.9)), micros(latencies.getValueAtPercentile(99.99)),
+                    micros(latencies.getMaxValue()));
+            if (run >= 0) {
+                total.add(latencies);
+            }
+        }
+        out.printf("trades=%s%nbook=%s%n", reference.tradeDigest(), reference.bookDigest());
+
+        if (histogramFile.getParent() != null) {
+            Files.createDirectories(histogramFile.getParent());
+        }
+        try (PrintStream hgrm = new PrintStream(Files.newOutputStream(histogramFile))) {
+            total.outputPercentileDistribution(hgrm, NANOS_PER_MICRO);
+        }
+        out.printf("latency distribution (us) written to %s%n", histogramFile);
+
+        if (!deterministic) {
+            out.println("NON-DETERMINISTIC: runs produced different trades or book state");
+            System.exit(1);
+        }
+        out.println("deterministic: every run produced identical trades and book state");
+    }
+
+    /**
+     * Records a random walk of limit orders around a drifting mid price, with
+     * cancels and replaces of earlier orders mixed in, so that a good share
+     * of placements trade.
+     */
+    private static void generate(MappedFileJournalStore store, String marketId, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CommandJournal journal = store.openJournal(marketId);
+        long next = journal.recover(0, (sequence, order) -> { });
+        List<Order> placed = new ArrayList<>();
+        long mid = 5_000_000L;
+        try {
+            for (int i = 0; i < count; i++) {
+                long sequence = next + i;
+                int action = random.nextInt(100);
+                if (action < 15 && !placed.isEmpty()) {
+                    Order order = placed.get(random.nextInt(placed.size()));
+                    journal.appendCancel(sequence, order.getOrderId(), order.getAccountId());
+                } else if (action < 20 && !placed.isEmpty()) {
+                    Order order = placed.get(random.nextInt(placed.size()));
+                    journal.appendReplace(sequence, order.getOrderId(), order.getAccountId(),
+                            order.getQuantity() + random.nextInt(1, 50), mid + random.nextInt(-25, 26));
+                } else {
+                    mid += random.nextInt(-2, 3);
+                    boolean buy = random.nextBoolean();
+                    long price = mid + (buy ? -1 : 1) * random.nextInt(-5, 30);
+                    Order order = Order.create("account-" + random.nextInt(1_000), marketId, buy ? "buy" : "sell",
+                            random.nextInt(1, 100), Math.max(1, price));
+                    journal.append(sequence, order);
+                    placed.add(order);
+                    if (placed.size() > 10_000) {
+                        placed.remove(random.nextInt(placed.size()));
+                    }
+                }
+            }
+            journal.flush();
+        } finally {
+            journal.close();
+        }
+        System.out.printf("generated %d commands for %s from sequence %d%n", count, marketId, next);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / NANOS_PER_MICRO;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing required option --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package com.plataformtrade.benchmarks;
+
+import com.plataformtrade.domain.VOs.Document;
+import com.plataformtrade.domain.VOs.Email;
+import com.plataformtrade.domain.VOs.Name;
+import com.plataformtrade.domain.VOs.Password;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost of the account value objects, paid on every signup. Inputs
+ * are fields rather than constants so the JIT cannot fold the validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueObjectBenchmark {
+    private String email = "maria.souza@email.com";
+    private String name = "Maria Souza";
+    private String document = "111.444.777-35";
+    private String password = "Str0ngPassw0rd";
+
+    @Benchmark
+    public Email email() {
+        return new Email(email);
+    }
+
+    @Benchmark
+    public Name name() {
+        return new Name(name);
+    }
+
+    @Benchmark
+    public Document document() {
+        return new Document(document);
+    }
+
+    @Benchmark
+    public Password password() {
+        return new Password(password);
+    }
+}
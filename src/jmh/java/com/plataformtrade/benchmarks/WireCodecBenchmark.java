@@ -0,0 +1,141 @@
+package com.plataformtrade.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformtrade.application.dtos.MarketDataResponse;
+import com.plataformtrade.application.dtos.OrderResponse;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.marketdata.DepthLevel;
+import com.plataformtrade.application.marketdata.MarketDataMessage;
+import com.plataformtrade.application.marketdata.TradeTick;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.infra.codec.BinaryFrameCodec;
+import com.plataformtrade.infra.config.JacksonConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary frames encoded into a reused buffer against the Jackson path the
+ * WebSocket feed and order acknowledgements use by default (decimal
+ * conversion plus {@code writeValueAsBytes}). Frame sizes are printed once
+ * at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireCodecBenchmark {
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final Market market = new Market("BTC-BRL", new BigDecimal("0.01"), new BigDecimal("0.00000001"));
+    private MarketDataMessage update;
+    private MarketDataMessage snapshot;
+    private ExecutionReport report;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<DepthLevel> bids = new ArrayList<>();
+        List<DepthLevel> asks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            bids.add(new DepthLevel(35_000_000 - i * 100L, 12_345_678L + i));
+            asks.add(new DepthLevel(35_000_100 + i * 100L, 98_765_432L + i));
+        }
+        List<TradeTick> trades = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            trades.add(new TradeTick(1_000 + i, 35_000_100, 1_000_000L + i, "buy", 1_700_000_000_000L + i));
+        }
+        update = MarketDataMessage.update("BTC-BRL", 1_005, bids.subList(0, 5), asks.subList(0, 5), trades);
+        snapshot = MarketDataMessage.snapshot("BTC-BRL", 1_005, bids, asks);
+        report = new ExecutionReport(1_005, "0b6f4d1e-6c8e-4f9a-a2c3-5d7e8f901234", "7c1d2e3f-4a5b-4c6d-8e9f-0a1b2c3d4e5f",
+                "BTC-BRL", "buy", 50_000_000, 35_000_100, 20_000_000, BigInteger.valueOf(700_002_000_000_000L), "open");
+        buffer = ByteBuffer.allocate(64 * 1024);
+
+        System.out.printf("%nframe bytes (json/binary): update %d/%d, snapshot %d/%d, report %d/%d%n",
+                jsonUpdate().length, BinaryFrameCodec.sizeOf(update),
+                objectMapper.writeValueAsBytes(toResponse(snapshot)).length, BinaryFrameCodec.sizeOf(snapshot),
+                jsonReport().length, BinaryFrameCodec.sizeOf(report));
+    }
+
+    @Benchmark
+    public byte[] jsonUpdate() throws Exception {
+        return objectMapper.writeValueAsBytes(toResponse(update));
+    }
+
+    @Benchmark
+    public int binaryUpdate() {
+        buffer.clear();
+        BinaryFrameCodec.encode(update, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public byte[] jsonSnapshot() throws Exception {
+        return objectMapper.writeValueAsBytes(toResponse(snapshot));
+    }
+
+    @Benchmark
+    public int binarySnapshot() {
+        buffer.clear();
+        BinaryFrameCodec.encode(snapshot, buffer);
+        return buffer.position();
+    }
+
+    @Benchmark
+    public byte[] jsonReport() throws Exception {
+        return objectMapper.writeValueAsBytes(new OrderResponse(
+                report.orderId(),
+                report.accountId(),
+                report.marketId(),
+                report.side(),
+                market.quantityOf(report.quantity()),
+                market.priceOf(report.price()),
+                market.quantityOf(report.fillQuantity()),
+                market.averagePrice(report.fillNotional(), report.fillQuantity()),
+                report.status(),
+                report.sequence()
+        ));
+    }
+
+    @Benchmark
+    public int binaryReport() {
+        buffer.clear();
+        BinaryFrameCodec.encode(report, buffer);
+        return buffer.position();
+    }
+
+    private MarketDataResponse toResponse(MarketDataMessage message) {
+        return new MarketDataResponse(
+                message.type(),
+                message.marketId(),
+                message.sequence(),
+                levels(message.bids()),
+                levels(message.asks()),
+                message.trades().stream()
+                        .map(trade -> new MarketDataResponse.Trade(trade.sequence(), market.priceOf(trade.price()),
+                                market.quantityOf(trade.quantity()), trade.takerSide(), trade.timestamp()))
+                        .toList()
+        );
+    }
+
+    private List<MarketDataResponse.Level> levels(List<DepthLevel> levels) {
+        return levels.stream()
+                .map(level -> new MarketDataResponse.Level(market.priceOf(level.price()), market.quantityOf(level.quantity())))
+                .toList();
+    }
+}
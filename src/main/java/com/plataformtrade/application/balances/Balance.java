@@ -0,0 +1,83 @@
+package com.plataformtrade.application.balances;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One account's balance of one asset, in ledger units: the total the account
+ * holds and the part of it reserved by working orders. Reservations
+ * compare-and-set the reserved amount against the total, so concurrent
+ * orders from the same account never block each other and can never reserve
+ * more than is there. Only deposits and settlements change the total.
+ */
+final class Balance {
+    final String accountId;
+    final String asset;
+    private final AtomicLong total;
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    Balance(String accountId, String asset, long total) {
+        this.accountId = accountId;
+        this.asset = asset;
+        this.total = new AtomicLong(total);
+    }
+
+    long total() {
+        return total.get();
+    }
+
+    long reserved() {
+        return reserved.get();
+    }
+
+    boolean tryReserve(long amount) {
+        long current;
+        do {
+            current = reserved.get();
+            if (total.get() - current < amount) {
+                return false;
+            }
+        } while (!reserved.compareAndSet(current, current + amount));
+        return true;
+    }
+
+    void release(long amount) {
+        reserved.addAndGet(-amount);
+    }
+
+    /**
+     * Removes {@code reservedAmount} from the reservation, of which
+     * {@code spent} leaves the account and the rest becomes available again.
+     * The total drops first, so a concurrent reservation never sees more
+     * available than there is.
+     */
+    void settle(long reservedAmount, long spent) {
+        total.addAndGet(-spent);
+        reserved.addAndGet(-reservedAmount);
+    }
+
+    void credit(long amount) {
+        total.addAndGet(amount);
+    }
+
+    /**
+     * Replaces the reservation, when reservations are rebuilt from the
+     * orders the engine recovered.
+     */
+    void resetReserved(long amount) {
+        reserved.set(amount);
+    }
+
+    /**
+     * True when this call made the balance dirty, i.e. it is not queued for
+     * the next flush yet.
+     */
+    boolean markDirty() {
+        return dirty.compareAndSet(false, true);
+    }
+
+    void markClean() {
+        dirty.set(false);
+    }
+}
@@ -0,0 +1,437 @@
+package com.plataformtrade.application.balances;
+
+import com.plataformtrade.application.engine.TradeSink;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ledger of account balances used for pre-trade checks.
+ * <p>
+ * Placing an order reserves its funds with a compare-and-set on the account's
+ * balance instead of locking a database row, so orders from a hot account
+ * only contend on a counter. Fills are settled on the engine thread as a
+ * {@link TradeSink}. Every balance that changes is queued once and
+ * {@link #flush()} writes the queued balances to the {@link BalanceStore} in
+ * one batch, so the store sees the net effect of any number of orders.
+ * <p>
+ * The store is only as current as the last flush, so the ledger is built to
+ * be recovered from it and the engine's journal:
+ * <ul>
+ *   <li>each flush also stores the last trade of every market it settled,
+ *       taken in the same cut, and a trade replayed from the journal after
+ *       that mark is settled again;</li>
+ *   <li>a market's trades only count as durable once a flush has stored
+ *       them, so the engine keeps them in its journal until then;</li>
+ *   <li>reservations are not part of what is recovered: a loaded balance
+ *       starts with none, and {@link #restore} rebuilds them from the orders
+ *       the engine recovered;</li>
+ *   <li>a deposit is in no journal, so it is added to the stored balance
+ *       on its own before the ledger credits it; a flush never runs
+ *       between the two, so it cannot write the balance without it.</li>
+ * </ul>
+ * <p>
+ * Amounts are held as longs in per-asset units fine enough for every market
+ * that trades the asset. Balances are loaded from the store the first time
+ * they are used and stay in memory. Reserving for an order loads both assets
+ * of its market for the account, so settling its fills on the engine thread
+ * never waits for the store.
+ */
+public final class BalanceLedger implements OrderFunding, TradeSink {
+    private static final String SIDE_BUY = "buy";
+    private static final int MAX_ASSET_SCALE = 18;
+
+    private final BalanceStore store;
+    private final Map<String, Integer> assetScales;
+    private final Map<String, MarketFunding> markets;
+    private final Map<String, Settlement> settlements;
+    private final ConcurrentHashMap<String, Balance> balances = new ConcurrentHashMap<>();
+    private final Queue<Balance> dirty = new ConcurrentLinkedQueue<>();
+    // Held for reading by deposits and for writing by a flush.
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    public BalanceLedger(List<Market> markets, BalanceStore store) {
+        this.store = Objects.requireNonNull(store, "store must not be null");
+        Map<String, Integer> scales = new TreeMap<>();
+        for (Market market : markets) {
+            scales.merge(market.getBaseAsset(), MarketFunding.baseScale(market), Math::max);
+            scales.merge(market.getQuoteAsset(), MarketFunding.quoteScale(market), Math::max);
+        }
+        scales.forEach((asset, scale) -> {
+            if (scale > MAX_ASSET_SCALE) {
+                throw new IllegalArgumentException("asset " + asset + " needs more than " + MAX_ASSET_SCALE + " decimal places");
+            }
+        });
+        Map<String, MarketFunding> byMarket = new HashMap<>();
+        for (Market market : markets) {
+            byMarket.put(market.getMarketId(), new MarketFunding(
+                    market,
+                    scales.get(market.getBaseAsset()),
+                    scales.get(market.getQuoteAsset())
+            ));
+        }
+        this.assetScales = scales;
+        this.markets = byMarket;
+        Map<String, Settlement> byMarketSettlement = new TreeMap<>();
+        for (Market market : markets) {
+            byMarketSettlement.put(market.getMarketId(), new Settlement());
+        }
+        for (SettlementMark mark : store.loadSettlements()) {
+            Settlement settlement = byMarketSettlement.get(mark.marketId());
+            if (settlement != null) {
+                settlement.settled = mark;
+                settlement.flushed = mark;
+            }
+        }
+        this.settlements = byMarketSettlement;
+    }
+
+    /**
+     * Stores the deposit and only then credits the account, so a deposit
+     * that returns is durable and one the store refused was never available
+     * to an order. Deposits run side by side; they only wait for a flush
+     * that is writing the store.
+     */
+    public void deposit(String accountId, String asset, BigDecimal amount) {
+        Objects.requireNonNull(accountId, "accountId must not be null");
+        Objects.requireNonNull(asset, "asset must not be null");
+        Objects.requireNonNull(amount, "amount must not be null");
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        long units = toUnits(asset, amount);
+        // Loaded before the store is credited, so the stored amount is never counted twice.
+        Balance balance = balance(accountId, asset);
+        flushLock.readLock().lock();
+        try {
+            store.credit(accountId, asset, BigDecimal.valueOf(units, scaleOf(asset)));
+            balance.credit(units);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public BalanceSnapshot getBalance(String accountId, String asset) {
+        int scale = scaleOf(asset);
+        Balance balance = balances.get(key(accountId, asset));
+        if (balance != null) {
+            return snapshot(balance);
+        }
+        return new BalanceSnapshot(accountId, asset,
+                BigDecimal.valueOf(storedTotal(accountId, asset), scale), BigDecimal.ZERO.setScale(scale));
+    }
+
+    /**
+     * Balances of every asset the configured markets trade, by asset name.
+     */
+    public List<BalanceSnapshot> getBalances(String accountId) {
+        List<BalanceSnapshot> result = new ArrayList<>(assetScales.size());
+        for (String asset : assetScales.keySet()) {
+            result.add(getBalance(accountId, asset));
+        }
+        return result;
+    }
+
+    @Override
+    public void reserve(Order order) {
+        MarketFunding funding = funding(order.getMarketId());
+        boolean buy = SIDE_BUY.equals(order.getSide());
+        String asset = buy ? funding.quoteAsset : funding.baseAsset;
+        long amount;
+        try {
+            amount = buy
+                    ? funding.quoteAmount(order.getQuantity(), order.getPrice())
+                    : funding.baseAmount(order.getQuantity());
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("order notional is too large");
+        }
+        Balance balance = balance(order.getAccountId(), asset);
+        // Loads the asset the order's fills credit, so settling them never waits for the store.
+        balance(order.getAccountId(), buy ? funding.baseAsset : funding.quoteAsset);
+        if (!balance.tryReserve(amount)) {
+            throw new IllegalArgumentException("Insufficient " + asset + " balance for order");
+        }
+        markDirty(balance);
+    }
+
+    @Override
+    public void release(OrderView order) {
+        long remaining = order.getAvailableQuantity();
+        if (remaining == 0) {
+            return;
+        }
+        MarketFunding funding = funding(order.getMarketId());
+        Balance balance = balance(order.getAccountId(), reservedAsset(funding, order));
+        balance.release(reservation(funding, order, remaining));
+        markDirty(balance);
+    }
+
+    @Override
+    public void replace(OrderView order, long quantity, long price) {
+        MarketFunding funding = funding(order.getMarketId());
+        boolean buy = SIDE_BUY.equals(order.getSide());
+        long filled = order.getFillQuantity();
+        long held;
+        long needed;
+        try {
+            held = buy
+                    ? funding.quoteAmount(order.getQuantity() - filled, order.getPrice())
+                    : funding.baseAmount(order.getQuantity() - filled);
+            needed = buy
+                    ? funding.quoteAmount(quantity - filled, price)
+                    : funding.baseAmount(quantity - filled);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("order notional is too large");
+        }
+        if (needed == held) {
+            return;
+        }
+        String asset = buy ? funding.quoteAsset : funding.baseAsset;
+        Balance balance = balance(order.getAccountId(), asset);
+        if (needed > held) {
+            if (!balance.tryReserve(needed - held)) {
+                throw new IllegalArgumentException("Insufficient " + asset + " balance for order");
+            }
+        } else {
+            balance.release(held - needed);
+        }
+        markDirty(balance);
+    }
+
+    /**
+     * Rebuilds every reservation from the orders the engine recovered, and
+     * loads both assets of each order's market for its account.
+     */
+    @Override
+    public void restore(Collection<? extends OrderView> workingOrders) {
+        Map<Balance, Long> reserved = new HashMap<>();
+        for (OrderView order : workingOrders) {
+            MarketFunding funding = funding(order.getMarketId());
+            Balance balance = balance(order.getAccountId(), reservedAsset(funding, order));
+            balance(order.getAccountId(), SIDE_BUY.equals(order.getSide()) ? funding.baseAsset : funding.quoteAsset);
+            reserved.merge(balance, reservation(funding, order, order.getAvailableQuantity()), Long::sum);
+        }
+        for (Balance balance : balances.values()) {
+            long amount = reserved.getOrDefault(balance, 0L);
+            if (balance.reserved() != amount) {
+                balance.resetReserved(amount);
+                markDirty(balance);
+            }
+        }
+    }
+
+    /**
+     * Settles one match: the buyer pays the quote notional at the trade price
+     * and gets back what it reserved above it, the seller delivers the base
+     * quantity, and each side is credited what it bought. A match the stored
+     * balances already include, replayed from the journal, is skipped.
+     */
+    @Override
+    public void onTrade(String marketId, long sequence, int matchIndex, Order taker, OrderView maker,
+                        long quantity, long price) {
+        MarketFunding funding = funding(marketId);
+        Settlement settlement = settlements.get(marketId);
+        settlement.lock.lock();
+        try {
+            if (settlement.settled != null && settlement.settled.covers(sequence, matchIndex)) {
+                return;
+            }
+            settle(funding, taker, maker, quantity, price);
+            settlement.settled = new SettlementMark(marketId, sequence, matchIndex);
+        } finally {
+            settlement.lock.unlock();
+        }
+    }
+
+    /**
+     * True once a flush has stored the balances with this match settled.
+     */
+    @Override
+    public boolean isDurable(String marketId, long sequence, int matchIndex) {
+        SettlementMark flushed = settlements.get(marketId).flushed;
+        return flushed != null && flushed.covers(sequence, matchIndex);
+    }
+
+    private void settle(MarketFunding funding, Order taker, OrderView maker, long quantity, long price) {
+        boolean takerBuys = SIDE_BUY.equals(taker.getSide());
+        String buyerId = takerBuys ? taker.getAccountId() : maker.getAccountId();
+        String sellerId = takerBuys ? maker.getAccountId() : taker.getAccountId();
+        long buyerLimit = takerBuys ? taker.getPrice() : maker.getPrice();
+        long baseAmount = funding.baseAmount(quantity);
+        long quoteAmount = funding.quoteAmount(quantity, price);
+
+        Balance buyerQuote = balance(buyerId, funding.quoteAsset);
+        buyerQuote.settle(funding.quoteAmount(quantity, buyerLimit), quoteAmount);
+        markDirty(buyerQuote);
+        Balance buyerBase = balance(buyerId, funding.baseAsset);
+        buyerBase.credit(baseAmount);
+        markDirty(buyerBase);
+
+        Balance sellerBase = balance(sellerId, funding.baseAsset);
+        sellerBase.settle(baseAmount, baseAmount);
+        markDirty(sellerBase);
+        Balance sellerQuote = balance(sellerId, funding.quoteAsset);
+        sellerQuote.credit(quoteAmount);
+        markDirty(sellerQuote);
+    }
+
+    /**
+     * Writes every balance changed since the last flush to the store, with
+     * the last trade each market has settled, and returns how many balances
+     * were written. The balances and marks are read while every market's
+     * settlement is held, so they describe the same point of each market's
+     * trades. Balances that change while the store is written are picked up
+     * by the next flush, except deposits, which wait for it: a deposit stored
+     * after the balances were read would otherwise be overwritten.
+     */
+    public synchronized int flush() {
+        flushLock.writeLock().lock();
+        try {
+            return flushLocked();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    private int flushLocked() {
+        List<Balance> drained = new ArrayList<>();
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+        List<SettlementMark> marks = new ArrayList<>(settlements.size());
+        settlements.values().forEach(settlement -> settlement.lock.lock());
+        try {
+            Balance balance;
+            while ((balance = dirty.poll()) != null) {
+                balance.markClean();
+                drained.add(balance);
+                snapshots.add(snapshot(balance));
+            }
+            for (Settlement settlement : settlements.values()) {
+                if (settlement.settled != null && settlement.settled != settlement.flushed) {
+                    marks.add(settlement.settled);
+                }
+            }
+        } finally {
+            settlements.values().forEach(settlement -> settlement.lock.unlock());
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        try {
+            store.saveAll(snapshots, marks);
+        } catch (RuntimeException ex) {
+            drained.forEach(this::markDirty);
+            throw ex;
+        }
+        for (SettlementMark mark : marks) {
+            settlements.get(mark.marketId()).flushed = mark;
+        }
+        return snapshots.size();
+    }
+
+    public int pendingFlush() {
+        return dirty.size();
+    }
+
+    private Balance balance(String accountId, String asset) {
+        String key = key(accountId, asset);
+        Balance balance = balances.get(key);
+        if (balance != null) {
+            return balance;
+        }
+        Balance loaded = new Balance(accountId, asset, storedTotal(accountId, asset));
+        Balance existing = balances.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * The stored balance in units, counting what was reserved as held: the
+     * reservations of the orders still working are rebuilt by
+     * {@link #restore}.
+     */
+    private long storedTotal(String accountId, String asset) {
+        return store.load(accountId, asset)
+                .map(stored -> toUnits(asset, stored.available().add(stored.reserved())))
+                .orElse(0L);
+    }
+
+    private static String reservedAsset(MarketFunding funding, OrderView order) {
+        return SIDE_BUY.equals(order.getSide()) ? funding.quoteAsset : funding.baseAsset;
+    }
+
+    private static long reservation(MarketFunding funding, OrderView order, long quantity) {
+        return SIDE_BUY.equals(order.getSide())
+                ? funding.quoteAmount(quantity, order.getPrice())
+                : funding.baseAmount(quantity);
+    }
+
+    private void markDirty(Balance balance) {
+        if (balance.markDirty()) {
+            dirty.add(balance);
+        }
+    }
+
+    private BalanceSnapshot snapshot(Balance balance) {
+        int scale = scaleOf(balance.asset);
+        long reserved = balance.reserved();
+        return new BalanceSnapshot(
+                balance.accountId,
+                balance.asset,
+                BigDecimal.valueOf(balance.total() - reserved, scale),
+                BigDecimal.valueOf(reserved, scale)
+        );
+    }
+
+    private long toUnits(String asset, BigDecimal amount) {
+        try {
+            return amount.movePointRight(scaleOf(asset)).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("amount must be a multiple of " + BigDecimal.ONE.movePointLeft(scaleOf(asset))
+                    + " " + asset);
+        }
+    }
+
+    private int scaleOf(String asset) {
+        Integer scale = assetScales.get(asset);
+        if (scale == null) {
+            throw new IllegalArgumentException("Unknown asset: " + asset);
+        }
+        return scale;
+    }
+
+    private MarketFunding funding(String marketId) {
+        MarketFunding funding = markets.get(marketId);
+        if (funding == null) {
+            throw new IllegalArgumentException("Unknown market: " + marketId);
+        }
+        return funding;
+    }
+
+    private static String key(String accountId, String asset) {
+        return accountId + '/' + asset;
+    }
+
+    /**
+     * Trades of one market settled so far and stored so far. The engine
+     * thread holds the lock while it settles a trade, and a flush holds the
+     * locks of every market while it reads the balances.
+     */
+    private static final class Settlement {
+        private final ReentrantLock lock = new ReentrantLock();
+        private SettlementMark settled;
+        private volatile SettlementMark flushed;
+    }
+}
@@ -0,0 +1,15 @@
+package com.plataformtrade.application.balances;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of one asset held by an account, as persisted by a
+ * {@link BalanceStore}.
+ */
+public record BalanceSnapshot(
+        String accountId,
+        String asset,
+        BigDecimal available,
+        BigDecimal reserved
+) {
+}
@@ -0,0 +1,50 @@
+package com.plataformtrade.application.balances;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Durable storage behind the {@link BalanceLedger}. Balances are loaded the
+ * first time the ledger touches them and written back in batches by
+ * {@link BalanceLedger#flush()}, together with the last trade of each market
+ * the written balances have settled. Deposits are stored one at a time, as
+ * they happen.
+ */
+public interface BalanceStore {
+    BalanceStore NO_OP = new BalanceStore() {
+        @Override
+        public Optional<BalanceSnapshot> load(String accountId, String asset) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<SettlementMark> loadSettlements() {
+            return List.of();
+        }
+
+        @Override
+        public void credit(String accountId, String asset, BigDecimal amount) {
+        }
+
+        @Override
+        public void saveAll(List<BalanceSnapshot> balances, List<SettlementMark> settlements) {
+        }
+    };
+
+    Optional<BalanceSnapshot> load(String accountId, String asset);
+
+    List<SettlementMark> loadSettlements();
+
+    /**
+     * Adds {@code amount} to the stored available balance, creating the row
+     * when there is none, in a transaction of its own.
+     */
+    void credit(String accountId, String asset, BigDecimal amount);
+
+    /**
+     * Inserts or overwrites every given balance and settlement mark in one
+     * transaction, so the marks always describe the stored balances.
+     */
+    void saveAll(List<BalanceSnapshot> balances, List<SettlementMark> settlements);
+}
@@ -0,0 +1,51 @@
+package com.plataformtrade.application.balances;
+
+import com.plataformtrade.domain.Market;
+
+import java.math.BigDecimal;
+
+/**
+ * Converts a market's lots and ticks into ledger units of its base and quote
+ * assets. Asset scales are at least as fine as any market trading the asset,
+ * so the conversions are exact integer multiplications.
+ */
+final class MarketFunding {
+    final String baseAsset;
+    final String quoteAsset;
+    private final long baseUnitsPerLot;
+    private final long quoteUnitsPerLotTick;
+
+    MarketFunding(Market market, int baseScale, int quoteScale) {
+        this.baseAsset = market.getBaseAsset();
+        this.quoteAsset = market.getQuoteAsset();
+        this.baseUnitsPerLot = market.getLotSize().movePointRight(baseScale).longValueExact();
+        this.quoteUnitsPerLotTick = market.getLotSize().multiply(market.getTickSize())
+                .movePointRight(quoteScale).longValueExact();
+    }
+
+    /**
+     * Smallest scale that represents one lot of the base asset exactly.
+     */
+    static int baseScale(Market market) {
+        return scaleOf(market.getLotSize());
+    }
+
+    /**
+     * Smallest scale that represents one lot times one tick of the quote asset exactly.
+     */
+    static int quoteScale(Market market) {
+        return scaleOf(market.getLotSize().multiply(market.getTickSize()));
+    }
+
+    long baseAmount(long lots) {
+        return Math.multiplyExact(lots, baseUnitsPerLot);
+    }
+
+    long quoteAmount(long lots, long ticks) {
+        return Math.multiplyExact(Math.multiplyExact(lots, ticks), quoteUnitsPerLotTick);
+    }
+
+    private static int scaleOf(BigDecimal value) {
+        return Math.max(0, value.stripTrailingZeros().scale());
+    }
+}
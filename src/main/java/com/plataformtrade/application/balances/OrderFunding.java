@@ -0,0 +1,61 @@
+package com.plataformtrade.application.balances;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+import java.util.Collection;
+
+/**
+ * Holds the funds an order may spend while it is working. Order entry
+ * reserves before the order is sequenced and releases whatever is left when
+ * the engine rejects or cancels it; amendments adjust it and fills settle it.
+ */
+public interface OrderFunding {
+    OrderFunding NONE = new OrderFunding() {
+        @Override
+        public void reserve(Order order) {
+        }
+
+        @Override
+        public void release(OrderView order) {
+        }
+
+        @Override
+        public void replace(OrderView order, long quantity, long price) {
+        }
+
+        @Override
+        public void restore(Collection<? extends OrderView> workingOrders) {
+        }
+    };
+
+    /**
+     * Reserves what the order may spend: the notional at its limit price for
+     * a buy, the quantity for a sell.
+     *
+     * @throws IllegalArgumentException when the account cannot cover it
+     */
+    void reserve(Order order);
+
+    /**
+     * Returns the reservation still held for the order's unfilled quantity.
+     */
+    void release(OrderView order);
+
+    /**
+     * Adjusts the reservation of a resting order about to be amended to
+     * {@code quantity} lots at {@code price}, reserving or releasing only the
+     * difference. Called on the engine thread before the book changes.
+     *
+     * @throws IllegalArgumentException when the account cannot cover an increase
+     */
+    void replace(OrderView order, long quantity, long price);
+
+    /**
+     * Replaces every reservation with those of {@code workingOrders}, the
+     * orders the engine holds once it has recovered. Reservations are not
+     * stored, so this is how they survive a restart; it is called before the
+     * engine accepts any order.
+     */
+    void restore(Collection<? extends OrderView> workingOrders);
+}
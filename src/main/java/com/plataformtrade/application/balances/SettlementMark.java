@@ -0,0 +1,19 @@
+package com.plataformtrade.application.balances;
+
+/**
+ * Position of the last trade of a market whose settlement the stored
+ * balances include: the command's sequence and the match's index within it.
+ */
+public record SettlementMark(
+        String marketId,
+        long sequence,
+        int matchIndex
+) {
+    /**
+     * True when the trade at this position is already included, i.e. it is
+     * not after this mark in the market's command stream.
+     */
+    public boolean covers(long sequence, int matchIndex) {
+        return sequence < this.sequence || (sequence == this.sequence && matchIndex <= this.matchIndex);
+    }
+}
@@ -0,0 +1,32 @@
+package com.plataformtrade.application.cluster;
+
+import com.plataformtrade.application.engine.BookSnapshot;
+import com.plataformtrade.application.engine.ExecutionReport;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Messaging between the engine nodes of a cluster. Implementations deliver
+ * inbound commands to {@link ShardRouter#execute}, hand-offs to
+ * {@link ShardCoordinator#onHandOff} and announcements to
+ * {@link ShardCoordinator#onAnnouncement} on the receiving node.
+ */
+public interface ClusterTransport {
+    /**
+     * Sends a command to the node owning its market. Returns one future per
+     * {@link ShardCommand#resultCount() result}, failed with the owner's
+     * error or when no answer arrives in time.
+     */
+    List<CompletableFuture<ExecutionReport>> send(String nodeId, ShardCommand command);
+
+    /**
+     * Sends a market's book to the node taking the market over.
+     */
+    void handOff(String nodeId, String marketId, BookSnapshot snapshot);
+
+    /**
+     * Tells every node that {@code nodeId} is alive, or that it is leaving.
+     */
+    void announce(String nodeId, boolean leaving);
+}
@@ -0,0 +1,122 @@
+package com.plataformtrade.application.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring assigning keys (market ids) to nodes.
+ * <p>
+ * Every node is placed on the ring at {@code virtualNodes} points and a key
+ * belongs to the first point at or after its own hash, wrapping around. Many
+ * points per node even out the share each node gets, and a node joining or
+ * leaving only moves the keys of the arcs it takes or gives up: every other
+ * key keeps its owner.
+ * <p>
+ * Hashes depend only on the node and key strings, so every node computes the
+ * same assignment from the same membership.
+ */
+public final class ConsistentHashRing {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Set<String> nodes;
+    private final int virtualNodes;
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        Objects.requireNonNull(nodes, "nodes must not be null");
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.nodes = Set.copyOf(new TreeSet<>(nodes));
+        this.virtualNodes = virtualNodes;
+
+        int size = this.nodes.size() * virtualNodes;
+        Point[] sorted = new Point[size];
+        int index = 0;
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                sorted[index++] = new Point(hash(node + '#' + i), node);
+            }
+        }
+        // Ties are broken by node id so that every node orders them the same way.
+        Arrays.sort(sorted, (a, b) -> a.hash != b.hash ? Long.compare(a.hash, b.hash) : a.node.compareTo(b.node));
+        this.points = new long[size];
+        this.owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = sorted[i].hash;
+            owners[i] = sorted[i].node;
+        }
+    }
+
+    /**
+     * Node owning the key, or null when the ring has no nodes.
+     */
+    public String ownerOf(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public Set<String> nodes() {
+        return nodes;
+    }
+
+    public boolean contains(String node) {
+        return nodes.contains(node);
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    public ConsistentHashRing withNode(String node) {
+        if (nodes.contains(node)) {
+            return this;
+        }
+        Set<String> members = new TreeSet<>(nodes);
+        members.add(node);
+        return new ConsistentHashRing(members, virtualNodes);
+    }
+
+    public ConsistentHashRing withoutNode(String node) {
+        if (!nodes.contains(node)) {
+            return this;
+        }
+        Set<String> members = new TreeSet<>(nodes);
+        members.remove(node);
+        return new ConsistentHashRing(members, virtualNodes);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mix
+     * so that keys differing in their last characters spread over the whole
+     * ring.
+     */
+    static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private record Point(long hash, String node) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.plataformtrade.application.cluster;
+
+import com.plataformtrade.domain.Order;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An order-entry command forwarded to the node that owns its market. Place,
+ * stop and batch commands carry the orders as created by the entry node, so
+ * the owner applies them under the same ids and timestamps.
+ */
+public record ShardCommand(
+        Type type,
+        String marketId,
+        List<Order> orders,
+        String orderId,
+        String accountId,
+        long quantity,
+        long price,
+        long stopPrice
+) {
+    public enum Type {
+        PLACE,
+        STOP,
+        CANCEL,
+        REPLACE,
+        BATCH
+    }
+
+    public ShardCommand {
+        Objects.requireNonNull(type, "type must not be null");
+        Objects.requireNonNull(marketId, "marketId must not be null");
+        orders = orders == null ? List.of() : List.copyOf(orders);
+    }
+
+    public static ShardCommand place(Order order) {
+        return new ShardCommand(Type.PLACE, order.getMarketId(), List.of(order), null, null, 0, 0, 0);
+    }
+
+    public static ShardCommand stop(Order order, long stopPrice) {
+        return new ShardCommand(Type.STOP, order.getMarketId(), List.of(order), null, null, 0, 0, stopPrice);
+    }
+
+    public static ShardCommand cancel(String marketId, String orderId, String accountId) {
+        return new ShardCommand(Type.CANCEL, marketId, List.of(), orderId, accountId, 0, 0, 0);
+    }
+
+    public static ShardCommand replace(String marketId, String orderId, String accountId, long quantity, long price) {
+        return new ShardCommand(Type.REPLACE, marketId, List.of(), orderId, accountId, quantity, price, 0);
+    }
+
+    public static ShardCommand batch(String marketId, List<Order> orders) {
+        return new ShardCommand(Type.BATCH, marketId, orders, null, null, 0, 0, 0);
+    }
+
+    /**
+     * Number of execution reports the command answers with: one per order of
+     * a batch, one otherwise.
+     */
+    public int resultCount() {
+        return type == Type.BATCH ? orders.size() : 1;
+    }
+}
@@ -0,0 +1,278 @@
+package com.plataformtrade.application.cluster;
+
+import com.plataformtrade.application.engine.BookSnapshot;
+import com.plataformtrade.application.engine.OrderSequencer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps this node's view of the cluster and moves markets when it changes.
+ * <p>
+ * Nodes announce themselves on every {@link #tick}; a node that stays silent
+ * for {@code heartbeatTimeoutMillis}, or announces that it is leaving, drops
+ * out of the ring. On every change the {@link ShardRouter} gets the new ring
+ * first, so new commands go to the new owners, and then each market this node
+ * gave up is detached, which applies what it had already accepted, and its
+ * book is handed off to the new owner. A market this node gained is attached
+ * from that hand-off. If the previous owner left the cluster without handing
+ * the market off, the market is recovered from the journal store once
+ * {@code handOffTimeoutMillis} pass, but only when the journal store is
+ * shared by the nodes. With a journal of its own this node would recover an
+ * empty or stale book, and a node that was only cut off would keep trading
+ * its copy, so the market instead waits for its previous owner to come back
+ * and hand it off.
+ * <p>
+ * The seed nodes are the cluster's starting membership: a seed owns its
+ * markets from its own journal at start, while a node that is not a seed
+ * joins an existing cluster and waits for its markets to be handed over.
+ * <p>
+ * Every method is synchronized; they are called from the scheduler and from
+ * the transport's listener threads.
+ */
+public class ShardCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+    private final String localNodeId;
+    private final List<String> marketIds;
+    private final Set<String> seedNodes;
+    private final int virtualNodes;
+    private final long heartbeatTimeoutMillis;
+    private final long handOffTimeoutMillis;
+    private final boolean sharedJournal;
+    private final OrderSequencer sequencer;
+    private final ShardRouter router;
+    private final ClusterTransport transport;
+    private final Map<String, Long> lastSeen = new HashMap<>();
+    private final Map<String, PendingHandOff> awaitingHandOff = new LinkedHashMap<>();
+    private boolean running;
+
+    public ShardCoordinator(
+            ShardRouter router,
+            Collection<String> marketIds,
+            Collection<String> seedNodes,
+            int virtualNodes,
+            long heartbeatTimeoutMillis,
+            long handOffTimeoutMillis,
+            boolean sharedJournal,
+            OrderSequencer sequencer,
+            ClusterTransport transport
+    ) {
+        this.router = Objects.requireNonNull(router, "router must not be null");
+        this.localNodeId = router.localNodeId();
+        this.marketIds = List.copyOf(marketIds);
+        this.seedNodes = Set.copyOf(seedNodes);
+        this.virtualNodes = virtualNodes;
+        this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+        this.handOffTimeoutMillis = handOffTimeoutMillis;
+        this.sharedJournal = sharedJournal;
+        this.sequencer = Objects.requireNonNull(sequencer, "sequencer must not be null");
+        this.transport = Objects.requireNonNull(transport, "transport must not be null");
+    }
+
+    public void start() {
+        start(System.currentTimeMillis());
+    }
+
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    /**
+     * Joins with the seed nodes as the membership, attaches the markets this
+     * node owns and announces it.
+     */
+    public synchronized void start(long now) {
+        Set<String> members = new TreeSet<>(seedNodes);
+        members.add(localNodeId);
+        for (String member : members) {
+            if (!member.equals(localNodeId)) {
+                lastSeen.put(member, now);
+            }
+        }
+        ConsistentHashRing ring = new ConsistentHashRing(members, virtualNodes);
+        ConsistentHashRing previous = ring.withoutNode(localNodeId);
+        router.setRing(ring);
+        boolean joining = !seedNodes.contains(localNodeId) && !previous.isEmpty();
+        for (String marketId : marketIds) {
+            if (!localNodeId.equals(ring.ownerOf(marketId))) {
+                continue;
+            }
+            if (joining) {
+                awaitingHandOff.put(marketId, new PendingHandOff(previous.ownerOf(marketId), now));
+            } else {
+                sequencer.attach(marketId, null);
+            }
+        }
+        running = true;
+        transport.announce(localNodeId, false);
+        logger.info("Joined cluster: nodeId={}, members={}, owned={}, awaitingHandOff={}",
+                localNodeId, ring.nodes(), ownedMarkets(), awaitingHandOff.keySet());
+    }
+
+    /**
+     * Announces this node, drops nodes that went silent and takes over the
+     * markets their departure left without an owner.
+     */
+    public synchronized void tick(long now) {
+        if (!running) {
+            return;
+        }
+        transport.announce(localNodeId, false);
+        boolean expired = lastSeen.entrySet().removeIf(entry -> {
+            if (now - entry.getValue() <= heartbeatTimeoutMillis) {
+                return false;
+            }
+            logger.warn("Cluster node timed out: nodeId={}, silentMillis={}", entry.getKey(), now - entry.getValue());
+            return true;
+        });
+        if (expired) {
+            rebalance(now);
+        }
+        takeOverOrphans(now);
+    }
+
+    public synchronized void onAnnouncement(String nodeId, boolean leaving, long now) {
+        if (!running || localNodeId.equals(nodeId)) {
+            return;
+        }
+        if (leaving) {
+            if (lastSeen.remove(nodeId) != null) {
+                logger.info("Cluster node leaving: nodeId={}", nodeId);
+                rebalance(now);
+            }
+            return;
+        }
+        if (lastSeen.put(nodeId, now) == null) {
+            logger.info("Cluster node joined: nodeId={}", nodeId);
+            rebalance(now);
+        }
+    }
+
+    /**
+     * Attaches a market handed over by its previous owner, or passes the
+     * hand-off on when the market has moved on from this node meanwhile.
+     */
+    public synchronized void onHandOff(String marketId, BookSnapshot snapshot) {
+        String owner = router.ownerOf(marketId);
+        if (!localNodeId.equals(owner)) {
+            if (owner != null && !sequencer.isAttached(marketId)) {
+                logger.info("Passing on hand-off: marketId={}, sequence={}, to={}", marketId, snapshot.sequence(), owner);
+                transport.handOff(owner, marketId, snapshot);
+            }
+            return;
+        }
+        if (sequencer.isAttached(marketId)) {
+            logger.warn("Ignoring hand-off of a market already served here: marketId={}, sequence={}",
+                    marketId, snapshot.sequence());
+            return;
+        }
+        awaitingHandOff.remove(marketId);
+        sequencer.attach(marketId, snapshot);
+        logger.info("Market handed over: marketId={}, sequence={}, orders={}",
+                marketId, snapshot.sequence(), snapshot.orders().size());
+    }
+
+    /**
+     * Announces that this node is leaving and hands every market it serves
+     * over to the remaining nodes.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        transport.announce(localNodeId, true);
+        ConsistentHashRing remaining = router.ring().withoutNode(localNodeId);
+        router.setRing(remaining);
+        for (String marketId : marketIds) {
+            if (sequencer.isAttached(marketId) && !remaining.isEmpty()) {
+                handOff(marketId, remaining.ownerOf(marketId));
+            }
+        }
+        awaitingHandOff.clear();
+    }
+
+    public synchronized Set<String> members() {
+        return router.ring().nodes();
+    }
+
+    public synchronized Set<String> ownedMarkets() {
+        Set<String> owned = new TreeSet<>();
+        for (String marketId : marketIds) {
+            if (sequencer.isAttached(marketId)) {
+                owned.add(marketId);
+            }
+        }
+        return owned;
+    }
+
+    private void rebalance(long now) {
+        Set<String> members = new TreeSet<>(lastSeen.keySet());
+        members.add(localNodeId);
+        ConsistentHashRing previous = router.ring();
+        ConsistentHashRing ring = new ConsistentHashRing(members, virtualNodes);
+        router.setRing(ring);
+        for (String marketId : marketIds) {
+            String owner = ring.ownerOf(marketId);
+            if (!localNodeId.equals(owner)) {
+                awaitingHandOff.remove(marketId);
+                if (sequencer.isAttached(marketId)) {
+                    handOff(marketId, owner);
+                }
+            } else if (!sequencer.isAttached(marketId) && !awaitingHandOff.containsKey(marketId)) {
+                awaitingHandOff.put(marketId, new PendingHandOff(previous.ownerOf(marketId), now));
+            }
+        }
+        logger.info("Cluster rebalanced: nodeId={}, members={}, owned={}, awaitingHandOff={}",
+                localNodeId, members, ownedMarkets(), awaitingHandOff.keySet());
+    }
+
+    private void handOff(String marketId, String owner) {
+        BookSnapshot snapshot = sequencer.detach(marketId);
+        logger.info("Handing off market: marketId={}, sequence={}, to={}", marketId, snapshot.sequence(), owner);
+        transport.handOff(owner, marketId, snapshot);
+    }
+
+    /**
+     * Recovers, from the shared journal store, markets whose hand-off did not
+     * come in time because their previous owner left. A market whose previous
+     * owner is still a member, or whose journal is not shared, keeps waiting,
+     * since recovering it here would fork its book.
+     */
+    private void takeOverOrphans(long now) {
+        var iterator = awaitingHandOff.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PendingHandOff> entry = iterator.next();
+            String marketId = entry.getKey();
+            PendingHandOff pending = entry.getValue();
+            if (now - pending.since() < handOffTimeoutMillis) {
+                continue;
+            }
+            if (pending.from() != null && lastSeen.containsKey(pending.from())) {
+                logger.warn("Still waiting for hand-off: marketId={}, from={}", marketId, pending.from());
+                continue;
+            }
+            if (!sharedJournal) {
+                logger.warn("Still waiting for hand-off, journal is not shared: marketId={}, from={}",
+                        marketId, pending.from());
+                continue;
+            }
+            iterator.remove();
+            sequencer.attach(marketId, null);
+            logger.warn("Took over market without hand-off, recovered from journal: marketId={}, previousOwner={}",
+                    marketId, pending.from());
+        }
+    }
+
+    private record PendingHandOff(String from, long since) {
+    }
+}
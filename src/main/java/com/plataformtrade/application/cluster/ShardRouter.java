@@ -0,0 +1,169 @@
+package com.plataformtrade.application.cluster;
+
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.engine.OrderGateway;
+import com.plataformtrade.application.engine.OrderSequencer;
+import com.plataformtrade.domain.Order;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Order entry of a sharded cluster: commands for markets this node owns go
+ * straight to the local {@link OrderSequencer}, commands for any other market
+ * are forwarded to its owner through the {@link ClusterTransport}. Ownership
+ * comes from the current {@link ConsistentHashRing}, which the
+ * {@link ShardCoordinator} replaces as nodes join and leave.
+ * <p>
+ * While a market moves, its new owner rejects commands until the previous
+ * owner's hand-off arrives; callers see the rejection like any other engine
+ * error and may retry. Forwarded commands are never forwarded again, so two
+ * nodes briefly disagreeing on the ring reject a command instead of bouncing
+ * it between them.
+ */
+public class ShardRouter implements OrderGateway {
+    private final String localNodeId;
+    private final Set<String> marketIds;
+    private final OrderSequencer sequencer;
+    private final ClusterTransport transport;
+    private volatile ConsistentHashRing ring;
+
+    public ShardRouter(
+            String localNodeId,
+            Collection<String> marketIds,
+            OrderSequencer sequencer,
+            ClusterTransport transport,
+            ConsistentHashRing ring
+    ) {
+        this.localNodeId = Objects.requireNonNull(localNodeId, "localNodeId must not be null");
+        this.marketIds = Set.copyOf(marketIds);
+        this.sequencer = Objects.requireNonNull(sequencer, "sequencer must not be null");
+        this.transport = Objects.requireNonNull(transport, "transport must not be null");
+        this.ring = Objects.requireNonNull(ring, "ring must not be null");
+    }
+
+    @Override
+    public CompletableFuture<ExecutionReport> submit(Order order) {
+        String owner = remoteOwner(order.getMarketId());
+        if (owner != null) {
+            return transport.send(owner, ShardCommand.place(order)).get(0);
+        }
+        return local(order.getMarketId()).submit(order);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionReport> submitStop(Order order, long stopPrice) {
+        String owner = remoteOwner(order.getMarketId());
+        if (owner != null) {
+            return transport.send(owner, ShardCommand.stop(order, stopPrice)).get(0);
+        }
+        return local(order.getMarketId()).submitStop(order, stopPrice);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionReport> cancel(String marketId, String orderId, String accountId) {
+        String owner = remoteOwner(marketId);
+        if (owner != null) {
+            return transport.send(owner, ShardCommand.cancel(marketId, orderId, accountId)).get(0);
+        }
+        return local(marketId).cancel(marketId, orderId, accountId);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionReport> replace(
+            String marketId, String orderId, String accountId, long quantity, long price) {
+        String owner = remoteOwner(marketId);
+        if (owner != null) {
+            return transport.send(owner, ShardCommand.replace(marketId, orderId, accountId, quantity, price)).get(0);
+        }
+        return local(marketId).replace(marketId, orderId, accountId, quantity, price);
+    }
+
+    @Override
+    public List<CompletableFuture<ExecutionReport>> submitBatch(String marketId, List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        String owner = remoteOwner(marketId);
+        if (owner != null) {
+            return transport.send(owner, ShardCommand.batch(marketId, orders));
+        }
+        return local(marketId).submitBatch(marketId, orders);
+    }
+
+    /**
+     * Applies a command another node forwarded here. Failures, including
+     * this node not owning the market, are reported through the returned
+     * futures so the sender gets them back.
+     */
+    public List<CompletableFuture<ExecutionReport>> execute(ShardCommand command) {
+        String owner = ring.ownerOf(command.marketId());
+        if (!localNodeId.equals(owner)) {
+            return failed(command, new IllegalStateException(
+                    "Market " + command.marketId() + " is served by node " + owner + ", not " + localNodeId));
+        }
+        try {
+            OrderSequencer target = local(command.marketId());
+            return switch (command.type()) {
+                case PLACE -> List.of(target.submit(command.orders().get(0)));
+                case STOP -> List.of(target.submitStop(command.orders().get(0), command.stopPrice()));
+                case CANCEL -> List.of(target.cancel(command.marketId(), command.orderId(), command.accountId()));
+                case REPLACE -> List.of(target.replace(command.marketId(), command.orderId(), command.accountId(),
+                        command.quantity(), command.price()));
+                case BATCH -> target.submitBatch(command.marketId(), command.orders());
+            };
+        } catch (RuntimeException ex) {
+            return failed(command, ex);
+        }
+    }
+
+    public String localNodeId() {
+        return localNodeId;
+    }
+
+    /**
+     * Node currently owning the market.
+     */
+    public String ownerOf(String marketId) {
+        return ring.ownerOf(marketId);
+    }
+
+    ConsistentHashRing ring() {
+        return ring;
+    }
+
+    void setRing(ConsistentHashRing ring) {
+        this.ring = Objects.requireNonNull(ring, "ring must not be null");
+    }
+
+    /**
+     * Owner of a configured market when it is another node, else null;
+     * unknown markets are left to the local sequencer to reject.
+     */
+    private String remoteOwner(String marketId) {
+        if (!marketIds.contains(marketId)) {
+            return null;
+        }
+        String owner = ring.ownerOf(marketId);
+        return owner == null || owner.equals(localNodeId) ? null : owner;
+    }
+
+    private OrderSequencer local(String marketId) {
+        if (marketIds.contains(marketId) && !sequencer.isAttached(marketId)) {
+            throw new IllegalStateException("Market " + marketId + " is moving to node " + localNodeId + ", retry shortly");
+        }
+        return sequencer;
+    }
+
+    private static List<CompletableFuture<ExecutionReport>> failed(ShardCommand command, RuntimeException error) {
+        List<CompletableFuture<ExecutionReport>> results = new ArrayList<>(command.resultCount());
+        for (int i = 0; i < command.resultCount(); i++) {
+            results.add(CompletableFuture.failedFuture(error));
+        }
+        return results;
+    }
+}
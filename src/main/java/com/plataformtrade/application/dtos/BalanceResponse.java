@@ -0,0 +1,6 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+
+public record BalanceResponse(String asset, BigDecimal available, BigDecimal reserved) {
+}
@@ -0,0 +1,22 @@
+package com.plataformtrade.application.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchOrderResult(
+        int index,
+        String status,
+        OrderResponse order,
+        String error
+) {
+    public static final String ACCEPTED = "accepted";
+    public static final String REJECTED = "rejected";
+
+    public static BatchOrderResult accepted(int index, OrderResponse order) {
+        return new BatchOrderResult(index, ACCEPTED, order, null);
+    }
+
+    public static BatchOrderResult rejected(int index, String error) {
+        return new BatchOrderResult(index, REJECTED, null, error);
+    }
+}
@@ -0,0 +1,18 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+
+public record CandleResponse(
+        String marketId,
+        String resolution,
+        long openTime,
+        long closeTime,
+        BigDecimal open,
+        BigDecimal high,
+        BigDecimal low,
+        BigDecimal close,
+        BigDecimal volume,
+        BigDecimal vwap,
+        int trades
+) {
+}
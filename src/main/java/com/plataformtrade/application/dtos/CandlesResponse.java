@@ -0,0 +1,15 @@
+package com.plataformtrade.application.dtos;
+
+import java.util.List;
+
+/**
+ * Recent candles of a market, oldest first, and the open one; {@code current}
+ * is null until the market trades.
+ */
+public record CandlesResponse(
+        String marketId,
+        String resolution,
+        CandleResponse current,
+        List<CandleResponse> closed
+) {
+}
@@ -0,0 +1,6 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+
+public record DepositRequest(String asset, BigDecimal amount) {
+}
@@ -0,0 +1,19 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record MarketDataResponse(
+        String type,
+        String marketId,
+        long sequence,
+        List<Level> bids,
+        List<Level> asks,
+        List<Trade> trades
+) {
+    public record Level(BigDecimal price, BigDecimal quantity) {
+    }
+
+    public record Trade(long sequence, BigDecimal price, BigDecimal quantity, String side, long timestamp) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+
+public record OrderResponse(
+        String orderId,
+        String accountId,
+        String marketId,
+        String side,
+        BigDecimal quantity,
+        BigDecimal price,
+        BigDecimal fillQuantity,
+        BigDecimal fillPrice,
+        String status,
+        long sequence
+) {
+}
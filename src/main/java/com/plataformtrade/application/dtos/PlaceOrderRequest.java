@@ -0,0 +1,6 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+
+public record PlaceOrderRequest(String accountId, String marketId, String side, BigDecimal quantity, BigDecimal price) {
+}
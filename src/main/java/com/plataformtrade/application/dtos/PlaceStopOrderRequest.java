@@ -0,0 +1,18 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * A limit order at {@code price} that is only placed once the last trade
+ * price reaches {@code stopPrice}. A stop-loss is a stop order whose limit
+ * price is set to trade immediately once triggered.
+ */
+public record PlaceStopOrderRequest(
+        String accountId,
+        String marketId,
+        String side,
+        BigDecimal quantity,
+        BigDecimal price,
+        BigDecimal stopPrice
+) {
+}
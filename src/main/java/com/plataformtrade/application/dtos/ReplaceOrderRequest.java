@@ -0,0 +1,6 @@
+package com.plataformtrade.application.dtos;
+
+import java.math.BigDecimal;
+
+public record ReplaceOrderRequest(String accountId, String marketId, BigDecimal quantity, BigDecimal price) {
+}
@@ -0,0 +1,24 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.book.StopOrder;
+
+import java.util.List;
+
+/**
+ * State of a market's engine as of {@code sequence}: resting orders in
+ * priority order, pending stop orders in trigger order, stop orders already
+ * triggered but not yet placed, and the last trade price stops are
+ * evaluated against (zero before the first trade).
+ */
+public record BookSnapshot(
+        long sequence,
+        List<Order> orders,
+        List<StopOrder> stops,
+        List<Order> triggered,
+        long lastTradePrice
+) {
+    public BookSnapshot(long sequence, List<Order> orders) {
+        this(sequence, orders, List.of(), List.of(), 0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+
+/**
+ * Append-only, per-market log of sequenced commands. The engine thread appends
+ * every command of a drained batch and calls {@link #flush()} once, so one
+ * fsync covers the whole batch before any of it is applied. A failure to
+ * append or flush halts the market.
+ */
+public interface CommandJournal {
+    CommandJournal NO_OP = new CommandJournal() {
+        @Override
+        public long recover(long fromSequence, ReplayHandler handler) {
+            return fromSequence;
+        }
+
+        @Override
+        public void append(long sequence, Order order) {
+        }
+
+        @Override
+        public void appendStop(long sequence, Order order, long stopPrice) {
+        }
+
+        @Override
+        public void appendTrigger(long sequence, Order order) {
+        }
+
+        @Override
+        public void appendCancel(long sequence, String orderId, String accountId) {
+        }
+
+        @Override
+        public void appendReplace(long sequence, String orderId, String accountId, long quantity, long price) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void truncateBefore(long sequence) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Replays every journaled command from {@code fromSequence} onwards and
+     * positions the journal for appending. Returns the next sequence to assign.
+     */
+    long recover(long fromSequence, ReplayHandler handler);
+
+    void append(long sequence, Order order);
+
+    void appendStop(long sequence, Order order, long stopPrice);
+
+    /**
+     * Appends the placement of a stop order the engine triggered.
+     */
+    void appendTrigger(long sequence, Order order);
+
+    void appendCancel(long sequence, String orderId, String accountId);
+
+    void appendReplace(long sequence, String orderId, String accountId, long quantity, long price);
+
+    /**
+     * Appends whichever kind of command the slot holds.
+     */
+    default void append(OrderCommand command) {
+        switch (command.getType()) {
+            case PLACE -> append(command.getSequence(), command.getOrder());
+            case STOP -> appendStop(command.getSequence(), command.getOrder(), command.getStopPrice());
+            case TRIGGER -> appendTrigger(command.getSequence(), command.getOrder());
+            case CANCEL -> appendCancel(command.getSequence(), command.getOrderId(), command.getAccountId());
+            case REPLACE -> appendReplace(command.getSequence(), command.getOrderId(), command.getAccountId(),
+                    command.getQuantity(), command.getPrice());
+        }
+    }
+
+    /**
+     * Makes every appended command durable.
+     */
+    void flush();
+
+    /**
+     * Drops journal data that only holds commands older than {@code sequence},
+     * typically once a snapshot covers them.
+     */
+    void truncateBefore(long sequence);
+
+    void close();
+
+    /**
+     * Receives replayed commands in sequence order. Handlers that only care
+     * about placements can ignore the other commands; triggered stop orders
+     * are placements too.
+     */
+    @FunctionalInterface
+    interface ReplayHandler {
+        void onCommand(long sequence, Order order);
+
+        default void onStop(long sequence, Order order, long stopPrice) {
+        }
+
+        default void onTrigger(long sequence, Order order) {
+            onCommand(sequence, order);
+        }
+
+        default void onCancel(long sequence, String orderId, String accountId) {
+        }
+
+        default void onReplace(long sequence, String orderId, String accountId, long quantity, long price) {
+        }
+    }
+}
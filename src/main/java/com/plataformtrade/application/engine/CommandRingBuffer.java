@@ -0,0 +1,132 @@
+package com.plataformtrade.application.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-producer, single-consumer ring of pre-allocated {@link OrderCommand}s.
+ * <p>
+ * Producers claim sequences with a single atomic add, so every command gets a
+ * gap-free sequence number, fill the slot and then publish it. The consumer
+ * only reads slots whose published marker carries the expected sequence, which
+ * lets it drain contiguous batches without taking any lock.
+ */
+final class CommandRingBuffer {
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final OrderCommand[] slots;
+    private final long[] published;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile long consumedSequence = -1;
+
+    CommandRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a positive power of two");
+        }
+        this.slots = new OrderCommand[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new OrderCommand();
+        }
+        this.published = new long[capacity];
+        Arrays.fill(published, -1);
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Continues numbering at {@code sequence}, e.g. after recovery. Only valid
+     * before any producer or the consumer has touched the buffer.
+     */
+    void startAt(long sequence) {
+        nextSequence.set(sequence);
+        consumedSequence = sequence - 1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Claims {@code count} consecutive sequences and returns the first one,
+     * waiting while the consumer is a full lap behind.
+     */
+    long claim(int count) {
+        if (count <= 0 || count > slots.length) {
+            throw new IllegalArgumentException("count must be between 1 and " + slots.length);
+        }
+        long first = nextSequence.getAndAdd(count);
+        long wrapPoint = first + count - 1 - slots.length;
+        int idle = 0;
+        while (wrapPoint > consumedSequence) {
+            idle = waitStrategy.idle(idle);
+        }
+        return first;
+    }
+
+    /**
+     * Claims one sequence if a slot is free right now, otherwise returns -1.
+     * For the consumer thread, which must never wait on itself.
+     */
+    long tryClaim() {
+        long sequence;
+        do {
+            sequence = nextSequence.get();
+            if (sequence - slots.length > consumedSequence) {
+                return -1;
+            }
+        } while (!nextSequence.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    OrderCommand get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        PUBLISHED.setRelease(published, (int) sequence & mask, sequence);
+    }
+
+    boolean isPublished(long sequence) {
+        return (long) PUBLISHED.getAcquire(published, (int) sequence & mask) == sequence;
+    }
+
+    /**
+     * Highest sequence, starting at {@code from}, that is published without
+     * gaps, looking at most {@code maxBatch} slots ahead. Returns
+     * {@code from - 1} when nothing is ready.
+     */
+    long highestPublished(long from, int maxBatch) {
+        long limit = from + maxBatch;
+        long sequence = from;
+        while (sequence < limit && isPublished(sequence)) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    void release(long sequence) {
+        consumedSequence = sequence;
+    }
+
+    /**
+     * Commands claimed but not yet consumed.
+     */
+    long depth() {
+        return Math.max(0, nextSequence.get() - 1 - consumedSequence);
+    }
+
+    long consumedSequence() {
+        return consumedSequence;
+    }
+
+    /**
+     * Highest sequence claimed by any producer, published or not.
+     */
+    long claimedSequence() {
+        return nextSequence.get() - 1;
+    }
+}
@@ -0,0 +1,21 @@
+package com.plataformtrade.application.engine;
+
+import java.math.BigInteger;
+
+/**
+ * Immutable snapshot of an order taken by the engine thread right after a
+ * command was applied. Prices are in ticks and quantities in lots.
+ */
+public record ExecutionReport(
+        long sequence,
+        String orderId,
+        String accountId,
+        String marketId,
+        String side,
+        long quantity,
+        long price,
+        long fillQuantity,
+        BigInteger fillNotional,
+        String status
+) {
+}
@@ -0,0 +1,32 @@
+package com.plataformtrade.application.engine;
+
+import java.util.Optional;
+
+/**
+ * Durable storage for the matching engine: one {@link CommandJournal} per
+ * market plus periodic {@link BookSnapshot}s, so a restart only replays the
+ * journal tail written after the latest snapshot.
+ */
+public interface JournalStore {
+    JournalStore NO_OP = new JournalStore() {
+        @Override
+        public CommandJournal openJournal(String marketId) {
+            return CommandJournal.NO_OP;
+        }
+
+        @Override
+        public void saveSnapshot(String marketId, BookSnapshot snapshot) {
+        }
+
+        @Override
+        public Optional<BookSnapshot> loadLatestSnapshot(String marketId) {
+            return Optional.empty();
+        }
+    };
+
+    CommandJournal openJournal(String marketId);
+
+    void saveSnapshot(String marketId, BookSnapshot snapshot);
+
+    Optional<BookSnapshot> loadLatestSnapshot(String marketId);
+}
@@ -0,0 +1,25 @@
+package com.plataformtrade.application.engine;
+
+/**
+ * Receives book changes and trades from a {@link MatchingEngine}, tagged with
+ * the sequence of the command that produced them. Called on the market's
+ * engine thread, so implementations must hand the work off and return.
+ */
+public interface MarketDataListener {
+    MarketDataListener NO_OP = new MarketDataListener() {
+        @Override
+        public void onDepth(String marketId, long sequence, boolean bid, long price, long quantity) {
+        }
+
+        @Override
+        public void onTrade(String marketId, long sequence, long price, long quantity, String takerSide, long timestamp) {
+        }
+    };
+
+    /**
+     * New total quantity resting at a price level; zero means the level is gone.
+     */
+    void onDepth(String marketId, long sequence, boolean bid, long price, long quantity);
+
+    void onTrade(String marketId, long sequence, long price, long quantity, String takerSide, long timestamp);
+}
@@ -0,0 +1,391 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single writer for one market: HTTP threads enqueue into the ring buffer and
+ * one dedicated thread drains it in batches, applying each command to the
+ * market's {@link MatchingEngine} in sequence order.
+ * <p>
+ * A batch is journaled and flushed once (group commit) before any of its
+ * commands is applied, so a command is only ever applied once it is
+ * durable. A journal that fails to write or flush halts the market: the
+ * batch is failed without being applied, and the sequencer closes as if
+ * stopped, so nothing is applied that recovery could not reproduce. Every
+ * {@code snapshotInterval} commands the book is snapshotted and the journal
+ * truncated, which bounds recovery to one interval of replay. A due snapshot
+ * waits until the engine's trades are durable, so the journal always covers
+ * the trades that still have to be written.
+ * <p>
+ * Stop orders the engine triggers are fed back into the ring buffer by this
+ * thread after each batch, so they get sequences of their own and are
+ * journaled like orders from any other producer.
+ * <p>
+ * A producer may pass the running check just before the sequencer stops and
+ * publish after the engine thread's last drain. Once the thread is gone the
+ * sequencer is closed: {@link #stop()} fails whatever was published but not
+ * applied, and a producer that publishes after that fails its own command,
+ * so no caller waits on a command that will never be applied.
+ */
+final class MarketSequencer implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(MarketSequencer.class);
+
+    private final String marketId;
+    private final CommandRingBuffer ringBuffer;
+    private final MatchingEngine engine;
+    private final JournalStore journalStore;
+    private final long snapshotInterval;
+    private final WaitStrategy waitStrategy;
+    private final int batchSize;
+    private final Thread thread;
+    private CommandJournal journal;
+    private long nextSequence;
+    private long lastSnapshotSequence = -1;
+    private boolean snapshotDeferred;
+    private volatile boolean running;
+    private volatile boolean closed;
+    private boolean halted;
+
+    MarketSequencer(
+            String marketId,
+            MatchingEngine engine,
+            JournalStore journalStore,
+            long snapshotInterval,
+            int bufferSize,
+            int batchSize,
+            WaitStrategy waitStrategy
+    ) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.marketId = marketId;
+        this.engine = engine;
+        this.journalStore = journalStore;
+        this.snapshotInterval = snapshotInterval;
+        this.ringBuffer = new CommandRingBuffer(bufferSize, waitStrategy);
+        this.waitStrategy = waitStrategy;
+        this.batchSize = Math.min(batchSize, bufferSize);
+        this.thread = new Thread(this, "engine-" + marketId);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Recovers the market's book from the journal store. A {@code handOff}
+     * snapshot from the market's previous owner replaces the one in the
+     * journal store and everything journaled before it.
+     */
+    void recover(BookSnapshot handOff) {
+        nextSequence = replay(handOff);
+    }
+
+    /**
+     * Starts the engine thread on the recovered book.
+     */
+    void start() {
+        ringBuffer.startAt(nextSequence);
+        running = true;
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        close();
+    }
+
+    CompletableFuture<ExecutionReport> submit(Order order) {
+        if (!running) {
+            throw notRunning();
+        }
+        CompletableFuture<ExecutionReport> result = new CompletableFuture<>();
+        long sequence = ringBuffer.claim(1);
+        ringBuffer.get(sequence).set(sequence, order, result);
+        return publish(sequence, result);
+    }
+
+    CompletableFuture<ExecutionReport> submitStop(Order order, long stopPrice) {
+        if (!running) {
+            throw notRunning();
+        }
+        CompletableFuture<ExecutionReport> result = new CompletableFuture<>();
+        long sequence = ringBuffer.claim(1);
+        ringBuffer.get(sequence).setStop(sequence, order, stopPrice, result);
+        return publish(sequence, result);
+    }
+
+    CompletableFuture<ExecutionReport> cancel(String orderId, String accountId) {
+        if (!running) {
+            throw notRunning();
+        }
+        CompletableFuture<ExecutionReport> result = new CompletableFuture<>();
+        long sequence = ringBuffer.claim(1);
+        ringBuffer.get(sequence).setCancel(sequence, orderId, accountId, result);
+        return publish(sequence, result);
+    }
+
+    CompletableFuture<ExecutionReport> replace(String orderId, String accountId, long quantity, long price) {
+        if (!running) {
+            throw notRunning();
+        }
+        CompletableFuture<ExecutionReport> result = new CompletableFuture<>();
+        long sequence = ringBuffer.claim(1);
+        ringBuffer.get(sequence).setReplace(sequence, orderId, accountId, quantity, price, result);
+        return publish(sequence, result);
+    }
+
+    /**
+     * Claims one contiguous range of sequences for all orders, so the batch
+     * is applied back to back with nothing from other producers in between.
+     */
+    List<CompletableFuture<ExecutionReport>> submitBatch(List<Order> orders) {
+        if (!running) {
+            throw notRunning();
+        }
+        int count = orders.size();
+        List<CompletableFuture<ExecutionReport>> results = new ArrayList<>(count);
+        long first = ringBuffer.claim(count);
+        for (int i = 0; i < count; i++) {
+            CompletableFuture<ExecutionReport> result = new CompletableFuture<>();
+            ringBuffer.get(first + i).set(first + i, orders.get(i), result);
+            results.add(result);
+        }
+        for (int i = 0; i < count; i++) {
+            ringBuffer.publish(first + i);
+        }
+        VarHandle.fullFence();
+        if (closed) {
+            results.forEach(result -> result.completeExceptionally(notRunning()));
+        }
+        return results;
+    }
+
+    /**
+     * Publishes a producer's command and fails it straight away if the
+     * sequencer closed in the meantime. The fence orders the publish before
+     * the read of {@code closed}, mirroring {@link #close()}, so either this
+     * producer sees the sequencer closed or the close sees the command.
+     */
+    private CompletableFuture<ExecutionReport> publish(long sequence, CompletableFuture<ExecutionReport> result) {
+        ringBuffer.publish(sequence);
+        VarHandle.fullFence();
+        if (closed) {
+            result.completeExceptionally(notRunning());
+        }
+        return result;
+    }
+
+    /**
+     * Fails the commands published after the engine thread stopped draining,
+     * then frees the ring so producers still claiming do not wait for a
+     * consumer that is gone. Failing an already completed command is a no-op.
+     */
+    private void close() {
+        closed = true;
+        VarHandle.fullFence();
+        long claimed = ringBuffer.claimedSequence();
+        for (long sequence = ringBuffer.consumedSequence() + 1; sequence <= claimed; sequence++) {
+            if (ringBuffer.isPublished(sequence)) {
+                ringBuffer.get(sequence).getResult().completeExceptionally(notRunning());
+            }
+        }
+        ringBuffer.release(claimed);
+    }
+
+    private IllegalStateException notRunning() {
+        return new IllegalStateException("sequencer for market " + marketId + " is not running");
+    }
+
+    long queueDepth() {
+        return ringBuffer.depth();
+    }
+
+    long lastSequence() {
+        return ringBuffer.consumedSequence();
+    }
+
+    MatchingEngine engine() {
+        return engine;
+    }
+
+    @Override
+    public void run() {
+        long next = nextSequence;
+        int idle = 0;
+        injectTriggered();
+        while (running) {
+            long available = ringBuffer.highestPublished(next, batchSize);
+            if (available < next) {
+                idle = waitStrategy.idle(idle);
+                continue;
+            }
+            idle = 0;
+            next = drain(next, available);
+        }
+        // Commands published before stop() still get an answer, unless the
+        // journal failed: then nothing more may be applied.
+        long available;
+        while (!halted && (available = ringBuffer.highestPublished(next, batchSize)) >= next) {
+            next = drain(next, available);
+        }
+        if (halted) {
+            close();
+        }
+        closeJournal();
+    }
+
+    private void closeJournal() {
+        try {
+            journal.close();
+        } catch (RuntimeException ex) {
+            logger.error("Journal close failed: marketId={}", marketId, ex);
+        }
+    }
+
+    private long replay(BookSnapshot handOff) {
+        long next = 0;
+        if (handOff != null) {
+            journalStore.saveSnapshot(marketId, handOff);
+        }
+        Optional<BookSnapshot> snapshot = handOff != null
+                ? Optional.of(handOff)
+                : journalStore.loadLatestSnapshot(marketId);
+        if (snapshot.isPresent()) {
+            lastSnapshotSequence = snapshot.get().sequence();
+            engine.restore(snapshot.get());
+            next = lastSnapshotSequence + 1;
+        }
+        long fromSequence = next;
+        journal = journalStore.openJournal(marketId);
+        next = journal.recover(fromSequence, new CommandJournal.ReplayHandler() {
+            @Override
+            public void onCommand(long sequence, Order order) {
+                engine.replay(sequence, order);
+            }
+
+            @Override
+            public void onStop(long sequence, Order order, long stopPrice) {
+                engine.replayStop(sequence, order, stopPrice);
+            }
+
+            @Override
+            public void onTrigger(long sequence, Order order) {
+                engine.replayTrigger(sequence, order);
+            }
+
+            @Override
+            public void onCancel(long sequence, String orderId, String accountId) {
+                engine.replayCancel(sequence, orderId, accountId);
+            }
+
+            @Override
+            public void onReplace(long sequence, String orderId, String accountId, long quantity, long price) {
+                engine.replayReplace(sequence, orderId, accountId, quantity, price);
+            }
+        });
+        if (handOff != null) {
+            journal.truncateBefore(next);
+        }
+        if (next > 0) {
+            logger.info("Recovered market {}: snapshotSequence={}, replayedCommands={}, nextSequence={}",
+                    marketId, lastSnapshotSequence, next - fromSequence, next);
+        }
+        return next;
+    }
+
+    private long drain(long from, long to) {
+        try {
+            for (long sequence = from; sequence <= to; sequence++) {
+                journal.append(ringBuffer.get(sequence));
+            }
+            journal.flush();
+        } catch (RuntimeException ex) {
+            halt(from, to, ex);
+            return to + 1;
+        }
+
+        for (long sequence = from; sequence <= to; sequence++) {
+            OrderCommand command = ringBuffer.get(sequence);
+            try {
+                engine.onCommand(command);
+            } catch (RuntimeException ex) {
+                logger.error("Engine failed on command: marketId={}, sequence={}", marketId, sequence, ex);
+                command.fail(ex);
+            }
+            command.complete();
+            command.clear();
+        }
+        ringBuffer.release(to);
+        injectTriggered();
+
+        if (snapshotInterval > 0 && to - lastSnapshotSequence >= snapshotInterval) {
+            if (engine.tradesDurable()) {
+                snapshot(to);
+            } else if (!snapshotDeferred) {
+                snapshotDeferred = true;
+                logger.debug("Snapshot deferred until trades are durable: marketId={}, sequence={}", marketId, to);
+            }
+        }
+        return to + 1;
+    }
+
+    /**
+     * Fails a batch the journal could not make durable, none of which has
+     * been applied, and stops the market. The market stops accepting
+     * commands before the batch is answered; commands already published are
+     * failed by {@link #close()} once the loop exits.
+     */
+    private void halt(long from, long to, RuntimeException error) {
+        logger.error("Journal write failed, halting market: marketId={}, sequences={}..{}", marketId, from, to, error);
+        halted = true;
+        running = false;
+        for (long sequence = from; sequence <= to; sequence++) {
+            OrderCommand command = ringBuffer.get(sequence);
+            command.fail(error);
+            command.complete();
+            command.clear();
+        }
+        ringBuffer.release(to);
+    }
+
+    /**
+     * Feeds stop orders the engine triggered back into the ring buffer as
+     * trigger commands. Runs on the engine thread, so it never waits for
+     * space: whatever does not fit is enqueued after the next batch.
+     */
+    private void injectTriggered() {
+        while (engine.hasTriggered()) {
+            long sequence = ringBuffer.tryClaim();
+            if (sequence < 0) {
+                return;
+            }
+            ringBuffer.get(sequence).setTrigger(sequence, engine.nextTriggered(), new CompletableFuture<>());
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    private void snapshot(long sequence) {
+        try {
+            journalStore.saveSnapshot(marketId, engine.snapshot(sequence));
+            journal.truncateBefore(sequence + 1);
+            lastSnapshotSequence = sequence;
+            snapshotDeferred = false;
+        } catch (RuntimeException ex) {
+            logger.error("Snapshot failed: marketId={}, sequence={}", marketId, sequence, ex);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.application.balances.OrderFunding;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+import com.plataformtrade.domain.book.OrderBook;
+import com.plataformtrade.domain.book.OrderStorage;
+import com.plataformtrade.domain.book.StopBook;
+import com.plataformtrade.domain.book.StopOrder;
+import com.plataformtrade.domain.book.TradeListener;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Applies sequenced commands to one market's {@link OrderBook}. Only the
+ * market's sequencer thread calls into the engine, so the book needs no locks.
+ * Each match is numbered by its command's sequence and its index within the
+ * command, which identifies it across restarts.
+ * <p>
+ * Cancels and replaces only act on orders of the account that sent them, and
+ * adjust the order's funding on this thread, in sequence with its fills.
+ * <p>
+ * Stop orders wait in a {@link StopBook} and are evaluated against the last
+ * trade price after every command. Triggered orders are not placed inline:
+ * the sequencer feeds them back as trigger commands with sequences of their
+ * own, so they are journaled, and replayed, like any other placement.
+ */
+public final class MatchingEngine {
+    private static final int DEFAULT_EXPECTED_ORDERS = 1024;
+
+    private final String marketId;
+    private final OrderBook book;
+    private final StopBook stops;
+    // Stop orders triggered but not yet handed to the sequencer, then those
+    // handed over but not yet placed; both in trigger order.
+    private final ArrayDeque<Order> triggered = new ArrayDeque<>();
+    private final ArrayDeque<Order> injected = new ArrayDeque<>();
+    private final TradeSink tradeSink;
+    private final OrderFunding orderFunding;
+    private long sequence;
+    private boolean replaying;
+    private int matchIndex;
+    private long lastTradeSequence = -1;
+    private int lastTradeMatchIndex;
+    private long lastTradePrice;
+    private long evaluatedPrice;
+
+    private MatchingEngine(String marketId, Builder builder) {
+        TradeListener tradeListener = builder.tradeListener;
+        MarketDataListener marketDataListener = builder.marketDataListener;
+        TradeSink tradeSink = builder.tradeSink;
+        this.marketId = marketId;
+        this.tradeSink = tradeSink;
+        this.orderFunding = builder.orderFunding;
+        this.stops = new StopBook(marketId);
+        this.book = new OrderBook(
+                marketId,
+                builder.orderStorage,
+                builder.expectedOrders,
+                (taker, maker, quantity, price) -> {
+                    lastTradeSequence = sequence;
+                    lastTradeMatchIndex = matchIndex;
+                    lastTradePrice = price;
+                    tradeSink.onTrade(marketId, sequence, matchIndex++, taker, maker, quantity, price);
+                    if (!replaying) {
+                        tradeListener.onTrade(taker, maker, quantity, price);
+                    }
+                    marketDataListener.onTrade(marketId, sequence, price, quantity, taker.getSide(),
+                            taker.getTimestamp().getTime());
+                },
+                (bid, price, quantity, orderCount) ->
+                        marketDataListener.onDepth(marketId, sequence, bid, price, quantity)
+        );
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    void onCommand(OrderCommand command) {
+        sequence = command.getSequence();
+        matchIndex = 0;
+        try {
+            Order order = switch (command.getType()) {
+                case PLACE -> place(command.getOrder());
+                case STOP -> stop(command.getOrder(), command.getStopPrice());
+                case TRIGGER -> trigger(command.getOrder());
+                case CANCEL -> cancel(command.getOrderId(), command.getAccountId());
+                case REPLACE -> replace(command.getOrderId(), command.getAccountId(),
+                        command.getQuantity(), command.getPrice());
+            };
+            command.succeed(toReport(order, command.getSequence(), command.getType() == OrderCommand.Type.STOP));
+        } catch (RuntimeException ex) {
+            command.fail(ex);
+        }
+        evaluateStops();
+    }
+
+    /**
+     * Re-applies a journaled command during recovery. Commands the engine
+     * failed the first time, for whatever reason, fail again and are skipped,
+     * just as {@link #onCommand} skipped them live. The trade
+     * listener is not told about replayed matches and funding is not touched:
+     * both saw the command when it was first sequenced. Stops are evaluated
+     * as they were live, so the same orders trigger in the same order.
+     */
+    void replay(long sequence, Order order) {
+        replay(sequence, () -> place(order));
+    }
+
+    void replayStop(long sequence, Order order, long stopPrice) {
+        replay(sequence, () -> stop(order, stopPrice));
+    }
+
+    void replayTrigger(long sequence, Order order) {
+        replay(sequence, () -> trigger(order));
+    }
+
+    void replayCancel(long sequence, String orderId, String accountId) {
+        replay(sequence, () -> cancel(orderId, accountId));
+    }
+
+    void replayReplace(long sequence, String orderId, String accountId, long quantity, long price) {
+        replay(sequence, () -> replace(orderId, accountId, quantity, price));
+    }
+
+    private void replay(long sequence, Runnable command) {
+        this.sequence = sequence;
+        matchIndex = 0;
+        replaying = true;
+        try {
+            command.run();
+        } catch (RuntimeException ignored) {
+            // Failed when first sequenced too; nothing was acknowledged.
+        } finally {
+            replaying = false;
+        }
+        evaluateStops();
+    }
+
+    void restore(BookSnapshot snapshot) {
+        this.sequence = snapshot.sequence();
+        for (Order order : snapshot.orders()) {
+            book.restore(order);
+        }
+        for (StopOrder stop : snapshot.stops()) {
+            stops.add(stop.order(), stop.stopPrice());
+        }
+        triggered.addAll(snapshot.triggered());
+        lastTradePrice = snapshot.lastTradePrice();
+        evaluatedPrice = lastTradePrice;
+    }
+
+    BookSnapshot snapshot(long sequence) {
+        List<Order> orders = new ArrayList<>(book.getOrderCount());
+        book.forEachOrder(orders::add);
+        List<StopOrder> pending = new ArrayList<>(stops.size());
+        stops.forEach(pending::add);
+        List<Order> triggeredOrders = new ArrayList<>(injected.size() + triggered.size());
+        triggeredOrders.addAll(injected);
+        triggeredOrders.addAll(triggered);
+        return new BookSnapshot(sequence, orders, pending, triggeredOrders, lastTradePrice);
+    }
+
+    /**
+     * Every order still holding funds: resting orders, pending stop orders
+     * and stop orders triggered but not yet placed.
+     */
+    List<Order> workingOrders() {
+        List<Order> orders = new ArrayList<>(book.getOrderCount() + stops.size() + injected.size() + triggered.size());
+        book.forEachOrder(orders::add);
+        stops.forEach(stop -> orders.add(stop.order()));
+        orders.addAll(injected);
+        orders.addAll(triggered);
+        return orders;
+    }
+
+    /**
+     * Next triggered stop order for the sequencer to enqueue, or null. The
+     * order stays part of the engine's state until its trigger command is
+     * applied.
+     */
+    Order nextTriggered() {
+        Order order = triggered.poll();
+        if (order != null) {
+            injected.add(order);
+        }
+        return order;
+    }
+
+    boolean hasTriggered() {
+        return !triggered.isEmpty();
+    }
+
+    /**
+     * True when every trade this engine has produced is durable in the
+     * {@link TradeSink}, so the book can be snapshotted without losing the
+     * ability to regenerate trades from the journal.
+     */
+    boolean tradesDurable() {
+        return lastTradeSequence < 0 || tradeSink.isDurable(marketId, lastTradeSequence, lastTradeMatchIndex);
+    }
+
+    public OrderBook getBook() {
+        return book;
+    }
+
+    private Order place(Order order) {
+        book.place(order);
+        return order;
+    }
+
+    /**
+     * Holds the order until the last trade price reaches its stop price; a
+     * stop the last price already reached triggers straight away.
+     */
+    private Order stop(Order order, long stopPrice) {
+        if (book.viewOrder(order.getOrderId()) != null) {
+            throw new IllegalArgumentException("order already in book: " + order.getOrderId());
+        }
+        stops.add(order, stopPrice);
+        if (lastTradePrice > 0) {
+            stops.trigger(lastTradePrice, triggered::add);
+        }
+        return order;
+    }
+
+    /**
+     * Places a stop order this engine triggered earlier. Triggers are applied
+     * in the order they were handed out, live and on replay alike.
+     */
+    private Order trigger(Order order) {
+        String orderId = order.getOrderId();
+        if (!pollIfHead(injected, orderId) && !pollIfHead(triggered, orderId)) {
+            triggered.removeIf(pending -> pending.getOrderId().equals(orderId));
+        }
+        try {
+            book.place(order);
+        } catch (IllegalArgumentException ex) {
+            if (!replaying) {
+                orderFunding.release(order);
+            }
+            throw ex;
+        }
+        return order;
+    }
+
+    private static boolean pollIfHead(ArrayDeque<Order> queue, String orderId) {
+        Order head = queue.peek();
+        if (head != null && head.getOrderId().equals(orderId)) {
+            queue.poll();
+            return true;
+        }
+        return false;
+    }
+
+    private void evaluateStops() {
+        if (lastTradePrice != evaluatedPrice) {
+            evaluatedPrice = lastTradePrice;
+            stops.trigger(lastTradePrice, triggered::add);
+        }
+    }
+
+    private Order cancel(String orderId, String accountId) {
+        StopOrder stop = stops.find(orderId);
+        if (stop != null && stop.order().getAccountId().equals(accountId)) {
+            Order cancelled = stops.remove(orderId);
+            if (!replaying) {
+                orderFunding.release(cancelled);
+            }
+            cancelled.cancel();
+            return cancelled;
+        }
+        owned(orderId, accountId);
+        Order cancelled = book.cancel(orderId);
+        if (!replaying) {
+            orderFunding.release(cancelled);
+        }
+        return cancelled;
+    }
+
+    private Order replace(String orderId, String accountId, long quantity, long price) {
+        OrderView current = owned(orderId, accountId);
+        if (quantity <= current.getFillQuantity()) {
+            throw new IllegalArgumentException("quantity must be above the filled quantity");
+        }
+        if (price <= 0) {
+            throw new IllegalArgumentException("price must be positive");
+        }
+        if (replaying) {
+            return book.replace(orderId, quantity, price);
+        }
+        long currentQuantity = current.getQuantity();
+        long currentPrice = current.getPrice();
+        orderFunding.replace(current, quantity, price);
+        try {
+            return book.replace(orderId, quantity, price);
+        } catch (RuntimeException ex) {
+            Order restored = book.findOrder(orderId);
+            if (restored != null && restored.getQuantity() == currentQuantity && restored.getPrice() == currentPrice) {
+                // The book put the original back; so does the funding.
+                orderFunding.replace(restored.replace(quantity, price), currentQuantity, currentPrice);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * The resting order, as long as it belongs to the account. Orders of other
+     * accounts are reported as missing rather than forbidden.
+     */
+    private OrderView owned(String orderId, String accountId) {
+        OrderView order = book.viewOrder(orderId);
+        if (order == null || !order.getAccountId().equals(accountId)) {
+            throw new NotFoundException("Order not found with id: " + orderId);
+        }
+        return order;
+    }
+
+    /**
+     * A stop order is reported "pending" while it waits for its stop price
+     * and "triggered" once it has been queued for placement.
+     */
+    private String status(Order order, boolean stopCommand) {
+        if (!stopCommand) {
+            return order.getStatus();
+        }
+        return stops.find(order.getOrderId()) != null ? "pending" : "triggered";
+    }
+
+    private ExecutionReport toReport(Order order, long sequence, boolean stopCommand) {
+        return new ExecutionReport(
+                sequence,
+                order.getOrderId(),
+                order.getAccountId(),
+                order.getMarketId(),
+                order.getSide(),
+                order.getQuantity(),
+                order.getPrice(),
+                order.getFillQuantity(),
+                order.getFillNotional(),
+                status(order, stopCommand)
+        );
+    }
+
+    /**
+     * Settings shared by the engines of every market; unset ones default to
+     * a heap book and listeners that do nothing.
+     */
+    public static final class Builder {
+        private OrderStorage orderStorage = OrderStorage.HEAP;
+        private int expectedOrders = DEFAULT_EXPECTED_ORDERS;
+        private TradeListener tradeListener = TradeListener.NO_OP;
+        private MarketDataListener marketDataListener = MarketDataListener.NO_OP;
+        private TradeSink tradeSink = TradeSink.NO_OP;
+        private OrderFunding orderFunding = OrderFunding.NONE;
+
+        private Builder() {
+        }
+
+        public Builder orderStorage(OrderStorage orderStorage) {
+            this.orderStorage = Objects.requireNonNull(orderStorage, "orderStorage must not be null");
+            return this;
+        }
+
+        public Builder expectedOrders(int expectedOrders) {
+            this.expectedOrders = expectedOrders;
+            return this;
+        }
+
+        public Builder tradeListener(TradeListener tradeListener) {
+            this.tradeListener = Objects.requireNonNull(tradeListener, "tradeListener must not be null");
+            return this;
+        }
+
+        public Builder marketDataListener(MarketDataListener marketDataListener) {
+            this.marketDataListener = Objects.requireNonNull(marketDataListener, "marketDataListener must not be null");
+            return this;
+        }
+
+        /**
+         * Receives every match, including those reproduced while replaying
+         * the journal, numbered so it can be deduplicated across restarts.
+         */
+        public Builder tradeSink(TradeSink tradeSink) {
+            this.tradeSink = Objects.requireNonNull(tradeSink, "tradeSink must not be null");
+            return this;
+        }
+
+        public Builder orderFunding(OrderFunding orderFunding) {
+            this.orderFunding = Objects.requireNonNull(orderFunding, "orderFunding must not be null");
+            return this;
+        }
+
+        public MatchingEngine build(String marketId) {
+            return new MatchingEngine(Objects.requireNonNull(marketId, "marketId must not be null"), this);
+        }
+    }
+}
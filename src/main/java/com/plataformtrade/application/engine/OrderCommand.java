@@ -0,0 +1,144 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Pre-allocated ring buffer slot. Producers copy a command into the slot they
+ * claimed and the market's engine thread reads it back in sequence order. The
+ * outcome is kept in the slot until the batch is durable and can be acked.
+ * <p>
+ * A place command carries the new order and a stop command the order plus
+ * its stop price; cancel and replace commands carry the id and owner of a
+ * resting order and, for a replace, its new terms. Trigger commands are
+ * enqueued by the engine thread itself to place stop orders it triggered.
+ */
+public final class OrderCommand {
+    public enum Type {
+        PLACE,
+        CANCEL,
+        REPLACE,
+        STOP,
+        TRIGGER
+    }
+
+    private long sequence;
+    private Type type;
+    private Order order;
+    private String orderId;
+    private String accountId;
+    private long quantity;
+    private long price;
+    private long stopPrice;
+    private CompletableFuture<ExecutionReport> result;
+    private ExecutionReport report;
+    private RuntimeException error;
+
+    void set(long sequence, Order order, CompletableFuture<ExecutionReport> result) {
+        this.sequence = sequence;
+        this.type = Type.PLACE;
+        this.order = order;
+        this.result = result;
+    }
+
+    void setStop(long sequence, Order order, long stopPrice, CompletableFuture<ExecutionReport> result) {
+        this.sequence = sequence;
+        this.type = Type.STOP;
+        this.order = order;
+        this.stopPrice = stopPrice;
+        this.result = result;
+    }
+
+    void setTrigger(long sequence, Order order, CompletableFuture<ExecutionReport> result) {
+        this.sequence = sequence;
+        this.type = Type.TRIGGER;
+        this.order = order;
+        this.result = result;
+    }
+
+    void setCancel(long sequence, String orderId, String accountId, CompletableFuture<ExecutionReport> result) {
+        this.sequence = sequence;
+        this.type = Type.CANCEL;
+        this.orderId = orderId;
+        this.accountId = accountId;
+        this.result = result;
+    }
+
+    void setReplace(long sequence, String orderId, String accountId, long quantity, long price,
+                    CompletableFuture<ExecutionReport> result) {
+        this.sequence = sequence;
+        this.type = Type.REPLACE;
+        this.orderId = orderId;
+        this.accountId = accountId;
+        this.quantity = quantity;
+        this.price = price;
+        this.result = result;
+    }
+
+    void succeed(ExecutionReport report) {
+        this.report = report;
+    }
+
+    void fail(RuntimeException error) {
+        this.error = error;
+    }
+
+    boolean isFailed() {
+        return error != null;
+    }
+
+    void complete() {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(report);
+        }
+    }
+
+    void clear() {
+        this.type = null;
+        this.order = null;
+        this.orderId = null;
+        this.accountId = null;
+        this.result = null;
+        this.report = null;
+        this.error = null;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getStopPrice() {
+        return stopPrice;
+    }
+
+    public CompletableFuture<ExecutionReport> getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where order entry hands commands to the matching stage. The futures
+ * complete once the owning engine has applied the command.
+ */
+public interface OrderGateway {
+    CompletableFuture<ExecutionReport> submit(Order order);
+
+    CompletableFuture<ExecutionReport> submitStop(Order order, long stopPrice);
+
+    CompletableFuture<ExecutionReport> cancel(String marketId, String orderId, String accountId);
+
+    CompletableFuture<ExecutionReport> replace(String marketId, String orderId, String accountId, long quantity, long price);
+
+    List<CompletableFuture<ExecutionReport>> submitBatch(String marketId, List<Order> orders);
+}
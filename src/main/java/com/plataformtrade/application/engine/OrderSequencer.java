@@ -0,0 +1,318 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.application.balances.OrderFunding;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.book.OrderStorage;
+import com.plataformtrade.domain.book.TradeListener;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point of the matching stage: routes each command to its market's
+ * {@link MarketSequencer}. Markets never share a thread or a book, so order
+ * entry scales across markets without locking inside any of them.
+ * <p>
+ * Markets can be attached and detached while the others keep running, so a
+ * node of a sharded cluster serves only the markets it owns and hands a
+ * market's book over to another node with {@link #detach}.
+ */
+public class OrderSequencer implements OrderGateway {
+    private final Map<String, MarketSequencer> sequencers = new ConcurrentHashMap<>();
+    private final int bufferSize;
+    private final int batchSize;
+    private final WaitStrategy waitStrategy;
+    private final OrderStorage orderStorage;
+    private final int expectedOrders;
+    private final TradeListener tradeListener;
+    private final MarketDataListener marketDataListener;
+    private final TradeSink tradeSink;
+    private final OrderFunding orderFunding;
+    private final JournalStore journalStore;
+    private final long snapshotInterval;
+    private volatile boolean started;
+
+    private OrderSequencer(Builder builder) {
+        this.bufferSize = builder.bufferSize;
+        this.batchSize = builder.batchSize;
+        this.waitStrategy = builder.waitStrategy;
+        this.orderStorage = builder.orderStorage;
+        this.expectedOrders = builder.expectedOrders;
+        this.tradeListener = builder.tradeListener;
+        this.marketDataListener = builder.marketDataListener;
+        this.tradeSink = builder.tradeSink;
+        this.orderFunding = builder.orderFunding;
+        this.journalStore = builder.journalStore;
+        this.snapshotInterval = builder.snapshotInterval;
+        for (String marketId : builder.marketIds) {
+            sequencers.put(marketId, newSequencer(marketId));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Recovers every market from its latest snapshot and journal tail,
+     * rebuilds the funding of the orders the markets recovered, then starts
+     * the engine threads.
+     */
+    public synchronized void start() {
+        List<Order> workingOrders = new ArrayList<>();
+        for (MarketSequencer sequencer : sequencers.values()) {
+            sequencer.recover(null);
+            workingOrders.addAll(sequencer.engine().workingOrders());
+        }
+        orderFunding.restore(workingOrders);
+        sequencers.values().forEach(MarketSequencer::start);
+        started = true;
+    }
+
+    public synchronized void stop() {
+        started = false;
+        sequencers.values().forEach(MarketSequencer::stop);
+    }
+
+    /**
+     * Starts serving a market this sequencer does not hold yet. With a
+     * {@code handOff} snapshot the market continues from that book, which is
+     * also saved to the journal store so a restart recovers it; without one
+     * it recovers from the journal store like at {@link #start()}. The
+     * funding of the market's orders is not rebuilt, as it would be at
+     * start, so markets are only attached to a sequencer without order
+     * funding, as in a cluster.
+     */
+    public synchronized void attach(String marketId, BookSnapshot handOff) {
+        Objects.requireNonNull(marketId, "marketId must not be null");
+        if (sequencers.containsKey(marketId)) {
+            throw new IllegalArgumentException("market already attached: " + marketId);
+        }
+        MarketSequencer sequencer = newSequencer(marketId);
+        if (started) {
+            sequencer.recover(handOff);
+            sequencer.start();
+        } else if (handOff != null) {
+            throw new IllegalStateException("cannot hand off market " + marketId + " before the sequencer starts");
+        }
+        sequencers.put(marketId, sequencer);
+    }
+
+    /**
+     * Stops serving a market and returns its book as of the last command
+     * applied. Commands accepted before the call are applied and answered
+     * first; later ones fail with {@link NotFoundException}.
+     */
+    public synchronized BookSnapshot detach(String marketId) {
+        MarketSequencer sequencer = sequencers.remove(marketId);
+        if (sequencer == null) {
+            throw new NotFoundException("Market not found with id: " + marketId);
+        }
+        sequencer.stop();
+        return sequencer.engine().snapshot(sequencer.lastSequence());
+    }
+
+    public boolean isAttached(String marketId) {
+        return sequencers.containsKey(marketId);
+    }
+
+    @Override
+    public CompletableFuture<ExecutionReport> submit(Order order) {
+        return sequencer(order.getMarketId()).submit(order);
+    }
+
+    /**
+     * Holds the order until the market's last trade price reaches
+     * {@code stopPrice} ticks: at or above it for a buy, at or below it for a
+     * sell. The order is then placed as a limit order at its own price.
+     */
+    @Override
+    public CompletableFuture<ExecutionReport> submitStop(Order order, long stopPrice) {
+        return sequencer(order.getMarketId()).submitStop(order, stopPrice);
+    }
+
+    /**
+     * Cancels a resting or pending stop order of the account. The future
+     * fails with {@link NotFoundException} when there is no such order or it
+     * belongs to another account.
+     */
+    @Override
+    public CompletableFuture<ExecutionReport> cancel(String marketId, String orderId, String accountId) {
+        return sequencer(marketId).cancel(orderId, accountId);
+    }
+
+    /**
+     * Amends a resting order of the account to {@code quantity} lots at
+     * {@code price} ticks; see {@link com.plataformtrade.domain.book.OrderBook#replace}.
+     */
+    @Override
+    public CompletableFuture<ExecutionReport> replace(
+            String marketId, String orderId, String accountId, long quantity, long price) {
+        return sequencer(marketId).replace(orderId, accountId, quantity, price);
+    }
+
+    /**
+     * Submits orders of one market as a single sequenced batch; results are
+     * in the same order as {@code orders}.
+     */
+    @Override
+    public List<CompletableFuture<ExecutionReport>> submitBatch(String marketId, List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        return sequencer(marketId).submitBatch(orders);
+    }
+
+    public Set<String> getMarketIds() {
+        return sequencers.keySet();
+    }
+
+    /**
+     * Commands accepted for the market but not yet applied by its engine.
+     */
+    public long queueDepth(String marketId) {
+        return sequencer(marketId).queueDepth();
+    }
+
+    /**
+     * Sequence number of the last command applied by the market's engine.
+     */
+    public long lastSequence(String marketId) {
+        return sequencer(marketId).lastSequence();
+    }
+
+    private MarketSequencer newSequencer(String marketId) {
+        MatchingEngine engine = MatchingEngine.builder()
+                .orderStorage(orderStorage)
+                .expectedOrders(expectedOrders)
+                .tradeListener(tradeListener)
+                .marketDataListener(marketDataListener)
+                .tradeSink(tradeSink)
+                .orderFunding(orderFunding)
+                .build(marketId);
+        return new MarketSequencer(
+                marketId,
+                engine,
+                journalStore,
+                snapshotInterval,
+                bufferSize,
+                batchSize,
+                waitStrategy
+        );
+    }
+
+    private MarketSequencer sequencer(String marketId) {
+        MarketSequencer sequencer = sequencers.get(marketId);
+        if (sequencer == null) {
+            throw new NotFoundException("Market not found with id: " + marketId);
+        }
+        return sequencer;
+    }
+
+    /**
+     * Settings of a sequencer and of the engines of its markets. Unset ones
+     * default to no markets, an unjournaled heap book without snapshots, and
+     * listeners that do nothing.
+     */
+    public static final class Builder {
+        private Collection<String> marketIds = List.of();
+        private int bufferSize = 1024;
+        private int batchSize = 64;
+        private WaitStrategy waitStrategy = WaitStrategy.PARK;
+        private OrderStorage orderStorage = OrderStorage.HEAP;
+        private int expectedOrders = 1024;
+        private TradeListener tradeListener = TradeListener.NO_OP;
+        private MarketDataListener marketDataListener = MarketDataListener.NO_OP;
+        private TradeSink tradeSink = TradeSink.NO_OP;
+        private OrderFunding orderFunding = OrderFunding.NONE;
+        private JournalStore journalStore = JournalStore.NO_OP;
+        private long snapshotInterval;
+
+        private Builder() {
+        }
+
+        /**
+         * Markets served from {@link OrderSequencer#start()}; others can be
+         * attached later.
+         */
+        public Builder markets(Collection<String> marketIds) {
+            this.marketIds = List.copyOf(marketIds);
+            return this;
+        }
+
+        /**
+         * Capacity of each market's ring buffer, a power of two.
+         */
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Most commands a market drains, journals and flushes at once.
+         */
+        public Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy must not be null");
+            return this;
+        }
+
+        public Builder orderStorage(OrderStorage orderStorage) {
+            this.orderStorage = Objects.requireNonNull(orderStorage, "orderStorage must not be null");
+            return this;
+        }
+
+        public Builder expectedOrders(int expectedOrders) {
+            this.expectedOrders = expectedOrders;
+            return this;
+        }
+
+        public Builder tradeListener(TradeListener tradeListener) {
+            this.tradeListener = Objects.requireNonNull(tradeListener, "tradeListener must not be null");
+            return this;
+        }
+
+        public Builder marketDataListener(MarketDataListener marketDataListener) {
+            this.marketDataListener = Objects.requireNonNull(marketDataListener, "marketDataListener must not be null");
+            return this;
+        }
+
+        public Builder tradeSink(TradeSink tradeSink) {
+            this.tradeSink = Objects.requireNonNull(tradeSink, "tradeSink must not be null");
+            return this;
+        }
+
+        public Builder orderFunding(OrderFunding orderFunding) {
+            this.orderFunding = Objects.requireNonNull(orderFunding, "orderFunding must not be null");
+            return this;
+        }
+
+        public Builder journalStore(JournalStore journalStore) {
+            this.journalStore = Objects.requireNonNull(journalStore, "journalStore must not be null");
+            return this;
+        }
+
+        /**
+         * Commands between snapshots of a market's book; 0 disables them.
+         */
+        public Builder snapshotInterval(long snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+            return this;
+        }
+
+        public OrderSequencer build() {
+            return new OrderSequencer(this);
+        }
+    }
+}
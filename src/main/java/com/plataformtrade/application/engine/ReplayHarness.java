@@ -0,0 +1,286 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+import com.plataformtrade.domain.book.OrderStorage;
+import com.plataformtrade.domain.book.StopOrder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+
+/**
+ * Drives a {@link MatchingEngine} from a recorded command stream on the
+ * calling thread, with no sequencer, journal, funding or market-data
+ * listeners, to measure what the engine alone sustains and to check that it
+ * is deterministic.
+ * <p>
+ * Each run loads a fresh copy of the recording and decodes it into commands
+ * before the clock starts, then applies them in sequence through the same
+ * path the sequencer uses, timing every command. Trades are logged by
+ * reference while the clock runs and digested, together with the final book,
+ * after it stops. Two runs of the same recording must produce the same
+ * digests.
+ */
+public final class ReplayHarness {
+    private final String marketId;
+    private final OrderStorage orderStorage;
+    private final int expectedOrders;
+
+    public ReplayHarness(String marketId, OrderStorage orderStorage, int expectedOrders) {
+        this.marketId = Objects.requireNonNull(marketId, "marketId must not be null");
+        this.orderStorage = Objects.requireNonNull(orderStorage, "orderStorage must not be null");
+        if (expectedOrders <= 0) {
+            throw new IllegalArgumentException("expectedOrders must be positive");
+        }
+        this.expectedOrders = expectedOrders;
+    }
+
+    /**
+     * Commands recorded for one market, read afresh on every call so that
+     * runs never share mutable orders.
+     */
+    public interface Recording {
+        /**
+         * The engine state the commands apply to, if they do not start from
+         * an empty book.
+         */
+        Optional<BookSnapshot> loadSnapshot();
+
+        /**
+         * Hands every recorded command from {@code fromSequence} on to the
+         * handler, in sequence order.
+         */
+        void replay(long fromSequence, CommandJournal.ReplayHandler handler);
+    }
+
+    /**
+     * Outcome of one run. Digests are hex-encoded SHA-256 over every trade in
+     * order and over the final resting orders, pending and triggered stops
+     * and last trade price.
+     */
+    public record Result(
+            int commands,
+            int rejected,
+            long trades,
+            long elapsedNanos,
+            String tradeDigest,
+            String bookDigest
+    ) {
+        public double commandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commands * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public boolean sameOutcome(Result other) {
+            return commands == other.commands
+                    && trades == other.trades
+                    && tradeDigest.equals(other.tradeDigest)
+                    && bookDigest.equals(other.bookDigest);
+        }
+    }
+
+    /**
+     * Replays the recording once, reporting each command's latency in
+     * nanoseconds to {@code latencies} between commands.
+     */
+    public Result run(Recording recording, LongConsumer latencies) {
+        Objects.requireNonNull(recording, "recording must not be null");
+        Objects.requireNonNull(latencies, "latencies must not be null");
+        TradeLog trades = new TradeLog();
+        MatchingEngine engine = MatchingEngine.builder()
+                .orderStorage(orderStorage)
+                .expectedOrders(expectedOrders)
+                .tradeSink(trades)
+                .build(marketId);
+        Optional<BookSnapshot> snapshot = recording.loadSnapshot();
+        snapshot.ifPresent(engine::restore);
+        long fromSequence = snapshot.map(s -> s.sequence() + 1).orElse(0L);
+        List<OrderCommand> commands = decode(recording, fromSequence);
+
+        int rejected = 0;
+        long start = System.nanoTime();
+        long previous = start;
+        for (OrderCommand command : commands) {
+            engine.onCommand(command);
+            long now = System.nanoTime();
+            latencies.accept(now - previous);
+            previous = now;
+        }
+        long elapsed = previous - start;
+
+        for (OrderCommand command : commands) {
+            if (command.isFailed()) {
+                rejected++;
+            }
+        }
+        long lastSequence = commands.isEmpty() ? fromSequence - 1 : commands.get(commands.size() - 1).getSequence();
+        return new Result(
+                commands.size(),
+                rejected,
+                trades.size,
+                elapsed,
+                trades.digest(),
+                digest(engine.snapshot(lastSequence))
+        );
+    }
+
+    private List<OrderCommand> decode(Recording recording, long fromSequence) {
+        List<OrderCommand> commands = new ArrayList<>();
+        recording.replay(fromSequence, new CommandJournal.ReplayHandler() {
+            @Override
+            public void onCommand(long sequence, Order order) {
+                OrderCommand command = new OrderCommand();
+                command.set(sequence, order, null);
+                commands.add(command);
+            }
+
+            @Override
+            public void onStop(long sequence, Order order, long stopPrice) {
+                OrderCommand command = new OrderCommand();
+                command.setStop(sequence, order, stopPrice, null);
+                commands.add(command);
+            }
+
+            @Override
+            public void onTrigger(long sequence, Order order) {
+                OrderCommand command = new OrderCommand();
+                command.setTrigger(sequence, order, null);
+                commands.add(command);
+            }
+
+            @Override
+            public void onCancel(long sequence, String orderId, String accountId) {
+                OrderCommand command = new OrderCommand();
+                command.setCancel(sequence, orderId, accountId, null);
+                commands.add(command);
+            }
+
+            @Override
+            public void onReplace(long sequence, String orderId, String accountId, long quantity, long price) {
+                OrderCommand command = new OrderCommand();
+                command.setReplace(sequence, orderId, accountId, quantity, price, null);
+                commands.add(command);
+            }
+        });
+        return commands;
+    }
+
+    private static String digest(BookSnapshot snapshot) {
+        Digest digest = new Digest();
+        digest.putLong(snapshot.lastTradePrice());
+        digest.putInt(snapshot.orders().size());
+        for (Order order : snapshot.orders()) {
+            digest.putOrder(order);
+        }
+        digest.putInt(snapshot.stops().size());
+        for (StopOrder stop : snapshot.stops()) {
+            digest.putOrder(stop.order());
+            digest.putLong(stop.stopPrice());
+        }
+        digest.putInt(snapshot.triggered().size());
+        for (Order order : snapshot.triggered()) {
+            digest.putOrder(order);
+        }
+        return digest.finish();
+    }
+
+    /**
+     * Columnar log of the matches of one run. Appending only stores
+     * references and longs, so logging barely shows in the latencies; the
+     * maker id is read while the flyweight still points at the maker.
+     */
+    private static final class TradeLog implements TradeSink {
+        private String[] takers = new String[1024];
+        private String[] makers = new String[1024];
+        private long[] values = new long[1024 * 4];
+        private int size;
+
+        @Override
+        public void onTrade(String marketId, long sequence, int matchIndex, Order taker, OrderView maker,
+                            long quantity, long price) {
+            if (size == takers.length) {
+                takers = Arrays.copyOf(takers, size * 2);
+                makers = Arrays.copyOf(makers, size * 2);
+                values = Arrays.copyOf(values, size * 2 * 4);
+            }
+            takers[size] = taker.getOrderId();
+            makers[size] = maker.getOrderId();
+            int offset = size * 4;
+            values[offset] = sequence;
+            values[offset + 1] = matchIndex;
+            values[offset + 2] = quantity;
+            values[offset + 3] = price;
+            size++;
+        }
+
+        @Override
+        public boolean isDurable(String marketId, long sequence, int matchIndex) {
+            return true;
+        }
+
+        private String digest() {
+            Digest digest = new Digest();
+            for (int i = 0; i < size; i++) {
+                int offset = i * 4;
+                digest.putLong(values[offset]);
+                digest.putLong(values[offset + 1]);
+                digest.putString(takers[i]);
+                digest.putString(makers[i]);
+                digest.putLong(values[offset + 2]);
+                digest.putLong(values[offset + 3]);
+            }
+            return digest.finish();
+        }
+    }
+
+    private static final class Digest {
+        private final MessageDigest sha256;
+        private final ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+
+        private Digest() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256 is not available", ex);
+            }
+        }
+
+        private void putOrder(Order order) {
+            putString(order.getOrderId());
+            putString(order.getAccountId());
+            putString(order.getSide());
+            putLong(order.getQuantity());
+            putLong(order.getPrice());
+            putLong(order.getFillQuantity());
+            sha256.update(order.getFillNotional().toByteArray());
+            putString(order.getStatus());
+            putLong(order.getTimestamp().getTime());
+        }
+
+        private void putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            sha256.update(bytes);
+        }
+
+        private void putLong(long value) {
+            sha256.update(scratch.clear().putLong(value).array());
+        }
+
+        private void putInt(int value) {
+            putLong(value);
+        }
+
+        private String finish() {
+            return HexFormat.of().formatHex(sha256.digest());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+import java.util.List;
+
+/**
+ * Receives every match for persistence, on the engine thread, together with
+ * its position in the market's command stream: the command's sequence and
+ * the match's index within that command.
+ * <p>
+ * Unlike {@link com.plataformtrade.domain.book.TradeListener}, a sink is
+ * also given the matches regenerated by journal replay, so it can re-emit
+ * trades that were sequenced but never made durable before a restart. It
+ * reports back which positions are durable, and the engine does not snapshot
+ * (and so drop the journal for) commands whose trades are not.
+ */
+public interface TradeSink {
+    TradeSink NO_OP = new TradeSink() {
+        @Override
+        public void onTrade(String marketId, long sequence, int matchIndex, Order taker, OrderView maker,
+                            long quantity, long price) {
+        }
+
+        @Override
+        public boolean isDurable(String marketId, long sequence, int matchIndex) {
+            return true;
+        }
+    };
+
+    /**
+     * Passes every match to each sink in turn. A position is durable once
+     * every sink has stored it.
+     */
+    static TradeSink of(TradeSink... sinks) {
+        List<TradeSink> all = List.of(sinks);
+        if (all.size() == 1) {
+            return all.get(0);
+        }
+        return new TradeSink() {
+            @Override
+            public void onTrade(String marketId, long sequence, int matchIndex, Order taker, OrderView maker,
+                                long quantity, long price) {
+                for (TradeSink sink : all) {
+                    sink.onTrade(marketId, sequence, matchIndex, taker, maker, quantity, price);
+                }
+            }
+
+            @Override
+            public boolean isDurable(String marketId, long sequence, int matchIndex) {
+                for (TradeSink sink : all) {
+                    if (!sink.isDurable(marketId, sequence, matchIndex)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Must not retain {@code maker}, which may be a flyweight.
+     */
+    void onTrade(String marketId, long sequence, int matchIndex, Order taker, OrderView maker,
+                 long quantity, long price);
+
+    /**
+     * True once the match at this position, and every match before it in
+     * the market, has been stored.
+     */
+    boolean isDurable(String marketId, long sequence, int matchIndex);
+}
@@ -0,0 +1,52 @@
+package com.plataformtrade.application.engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a sequencer thread waits when there is nothing to consume, and how a
+ * producer waits when the ring buffer is full.
+ * <p>
+ * {@code BUSY_SPIN} gives the lowest latency and burns a core per market,
+ * {@code YIELD} spins briefly and then yields the CPU, {@code PARK} spins
+ * briefly and then sleeps for a few microseconds.
+ */
+public enum WaitStrategy {
+    BUSY_SPIN {
+        @Override
+        public int idle(int idleCount) {
+            Thread.onSpinWait();
+            return idleCount + 1;
+        }
+    },
+    YIELD {
+        @Override
+        public int idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return idleCount + 1;
+        }
+    },
+    PARK {
+        @Override
+        public int idle(int idleCount) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            return idleCount + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * Waits once and returns the updated idle counter; callers reset the
+     * counter to zero as soon as work shows up.
+     */
+    public abstract int idle(int idleCount);
+}
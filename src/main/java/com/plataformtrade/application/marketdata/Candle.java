@@ -0,0 +1,25 @@
+package com.plataformtrade.application.marketdata;
+
+import java.math.BigInteger;
+
+/**
+ * One OHLCV bar in ticks and lots. {@code notional} is the exact sum of
+ * quantity times price over the bar's trades, so the volume-weighted average
+ * price is {@code notional / volume}.
+ */
+public record Candle(
+        String marketId,
+        CandleResolution resolution,
+        long openTime,
+        long open,
+        long high,
+        long low,
+        long close,
+        long volume,
+        BigInteger notional,
+        int tradeCount
+) {
+    public long closeTime() {
+        return openTime + resolution.millis();
+    }
+}
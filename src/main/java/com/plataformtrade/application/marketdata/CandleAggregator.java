@@ -0,0 +1,137 @@
+package com.plataformtrade.application.marketdata;
+
+import com.plataformtrade.domain.exceptions.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Streaming OHLCV aggregation of the trade feed at every
+ * {@link CandleResolution}.
+ * <p>
+ * Trades are folded into each resolution's open candle as they arrive, so a
+ * candle costs a few comparisons per trade instead of a query over trade
+ * history. {@link #onTrade} must be called from one thread, the market-data
+ * dispatch thread; reads from any other thread do not lock. A candle closes
+ * when the first trade of a later bucket arrives: it moves into a bounded
+ * ring of recent candles and is queued for {@link #flush()}, which writes the
+ * queued candles to the {@link CandleStore} in one batch.
+ * <p>
+ * Candles live in memory only. After a restart the open candles are rebuilt
+ * from the trades replayed from the journal, so the first candle of each
+ * resolution may be missing trades from before the last snapshot.
+ */
+public class CandleAggregator {
+    private static final CandleResolution[] RESOLUTIONS = CandleResolution.values();
+
+    private final Map<String, CandleSeries[]> markets;
+    private final CandleStore store;
+    private final Queue<Candle> pending = new ConcurrentLinkedQueue<>();
+
+    public CandleAggregator(Collection<String> marketIds, int history, CandleStore store) {
+        if (history <= 0) {
+            throw new IllegalArgumentException("history must be positive");
+        }
+        this.store = Objects.requireNonNull(store, "store must not be null");
+        Map<String, CandleSeries[]> byMarket = new LinkedHashMap<>();
+        for (String marketId : marketIds) {
+            CandleSeries[] series = new CandleSeries[RESOLUTIONS.length];
+            for (CandleResolution resolution : RESOLUTIONS) {
+                series[resolution.ordinal()] = new CandleSeries(marketId, resolution, history);
+            }
+            byMarket.put(marketId, series);
+        }
+        this.markets = Map.copyOf(byMarket);
+    }
+
+    public void onTrade(String marketId, TradeTick trade) {
+        CandleSeries[] series = markets.get(marketId);
+        if (series == null) {
+            return;
+        }
+        for (CandleSeries candles : series) {
+            Candle closed = candles.onTrade(trade.timestamp(), trade.price(), trade.quantity());
+            if (closed != null) {
+                pending.add(closed);
+            }
+        }
+    }
+
+    /**
+     * The open candle, or null before the market's first trade.
+     */
+    public Candle current(String marketId, CandleResolution resolution) {
+        return series(marketId, resolution).current();
+    }
+
+    /**
+     * Up to {@code limit} most recent closed candles, oldest first.
+     */
+    public List<Candle> closed(String marketId, CandleResolution resolution, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return series(marketId, resolution).closed(limit);
+    }
+
+    /**
+     * Writes every candle closed since the last flush to the store and returns
+     * how many were written. A failed write keeps them queued.
+     */
+    public int flush() {
+        List<Candle> drained = new ArrayList<>();
+        Candle candle;
+        while ((candle = pending.poll()) != null) {
+            drained.add(candle);
+        }
+        if (drained.isEmpty()) {
+            return 0;
+        }
+        try {
+            store.saveAll(drained);
+        } catch (RuntimeException ex) {
+            pending.addAll(drained);
+            throw ex;
+        }
+        return drained.size();
+    }
+
+    /**
+     * Flushes the closed candles and also stores the open ones as they stand,
+     * for shutdown. Call once the trade feed has stopped.
+     */
+    public void close() {
+        flush();
+        List<Candle> open = new ArrayList<>();
+        for (CandleSeries[] series : markets.values()) {
+            for (CandleSeries candles : series) {
+                Candle candle = candles.current();
+                if (candle != null) {
+                    open.add(candle);
+                }
+            }
+        }
+        if (!open.isEmpty()) {
+            store.saveAll(open);
+        }
+    }
+
+    public int pendingFlush() {
+        return pending.size();
+    }
+
+    private CandleSeries series(String marketId, CandleResolution resolution) {
+        Objects.requireNonNull(resolution, "resolution must not be null");
+        CandleSeries[] series = markets.get(marketId);
+        if (series == null) {
+            throw new NotFoundException("Market not found with id: " + marketId);
+        }
+        return series[resolution.ordinal()];
+    }
+}
@@ -0,0 +1,45 @@
+package com.plataformtrade.application.marketdata;
+
+/**
+ * Candle widths. Buckets are aligned to the epoch, so daily candles open at
+ * midnight UTC.
+ */
+public enum CandleResolution {
+    S1("1s", 1_000L),
+    M1("1m", 60_000L),
+    M5("5m", 300_000L),
+    H1("1h", 3_600_000L),
+    D1("1d", 86_400_000L);
+
+    private final String code;
+    private final long millis;
+
+    CandleResolution(String code, long millis) {
+        this.code = code;
+        this.millis = millis;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public long millis() {
+        return millis;
+    }
+
+    /**
+     * Open time of the bucket the timestamp falls in.
+     */
+    public long openTime(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, millis);
+    }
+
+    public static CandleResolution fromCode(String code) {
+        for (CandleResolution resolution : values()) {
+            if (resolution.code.equals(code)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown candle resolution: " + code);
+    }
+}
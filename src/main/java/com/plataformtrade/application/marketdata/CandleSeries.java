@@ -0,0 +1,134 @@
+package com.plataformtrade.application.marketdata;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Candles of one market at one resolution: the open candle, updated in place
+ * by a single writer thread, and a ring of the most recent closed ones.
+ * <p>
+ * Readers never block the writer. The open candle is read under an
+ * optimistic {@link StampedLock} stamp and re-read only if a trade landed
+ * meanwhile; closed candles are published into the ring before the closed
+ * count is advanced, and a reader drops any entry the writer may have
+ * overwritten while it was copying.
+ */
+final class CandleSeries {
+    private final String marketId;
+    private final CandleResolution resolution;
+    private final AtomicReferenceArray<Candle> ring;
+    private final StampedLock lock = new StampedLock();
+    private volatile long closedCount;
+
+    private boolean started;
+    private long openTime;
+    private long open;
+    private long high;
+    private long low;
+    private long close;
+    private long volume;
+    // Notional (sum of quantity * price) as an unsigned 128-bit value.
+    private long notionalHigh;
+    private long notionalLow;
+    private int tradeCount;
+
+    CandleSeries(String marketId, CandleResolution resolution, int history) {
+        this.marketId = marketId;
+        this.resolution = resolution;
+        this.ring = new AtomicReferenceArray<>(history);
+    }
+
+    /**
+     * Folds a trade into the open candle and returns the candle it closed, or
+     * null. A trade stamped before the open candle, which only clock skew
+     * between engine threads can produce, is folded into the open candle.
+     * Writer thread only.
+     */
+    Candle onTrade(long timestamp, long price, long quantity) {
+        long bucket = resolution.openTime(timestamp);
+        Candle closed = null;
+        if (started && bucket > openTime) {
+            closed = toCandle();
+            ring.set((int) (closedCount % ring.length()), closed);
+            closedCount = closedCount + 1;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (!started || closed != null) {
+                started = true;
+                openTime = bucket;
+                open = price;
+                high = price;
+                low = price;
+                volume = 0;
+                notionalHigh = 0;
+                notionalLow = 0;
+                tradeCount = 0;
+            }
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            volume += quantity;
+            long product = quantity * price;
+            long sum = notionalLow + product;
+            notionalHigh += Math.multiplyHigh(quantity, price) + (Long.compareUnsigned(sum, notionalLow) < 0 ? 1 : 0);
+            notionalLow = sum;
+            tradeCount++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return closed;
+    }
+
+    /**
+     * The open candle, or null before the first trade. It stays open until a
+     * trade in a later bucket arrives, so an idle market's open candle may be
+     * older than the current bucket.
+     */
+    Candle current() {
+        long stamp = lock.tryOptimisticRead();
+        Candle candle = started ? toCandle() : null;
+        if (lock.validate(stamp)) {
+            return candle;
+        }
+        stamp = lock.readLock();
+        try {
+            return started ? toCandle() : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Up to {@code limit} most recent closed candles, oldest first.
+     */
+    List<Candle> closed(int limit) {
+        long end = closedCount;
+        long start = Math.max(0, end - Math.min(limit, ring.length()));
+        List<Candle> candles = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            candles.add(ring.get((int) (i % ring.length())));
+        }
+        long overwritten = closedCount - ring.length();
+        if (overwritten > start) {
+            candles.subList(0, (int) Math.min(candles.size(), overwritten - start)).clear();
+        }
+        return candles;
+    }
+
+    private Candle toCandle() {
+        return new Candle(marketId, resolution, openTime, open, high, low, close, volume, notional(), tradeCount);
+    }
+
+    private BigInteger notional() {
+        if (notionalHigh == 0 && notionalLow >= 0) {
+            return BigInteger.valueOf(notionalLow);
+        }
+        BigInteger low = BigInteger.valueOf(notionalLow >>> 1).shiftLeft(1)
+                .add(BigInteger.valueOf(notionalLow & 1));
+        return BigInteger.valueOf(notionalHigh).shiftLeft(64).add(low);
+    }
+}
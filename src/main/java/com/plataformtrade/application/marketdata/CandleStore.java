@@ -0,0 +1,13 @@
+package com.plataformtrade.application.marketdata;
+
+import java.util.List;
+
+/**
+ * Durable storage for closed candles. Saving a candle that is already stored
+ * replaces it.
+ */
+public interface CandleStore {
+    CandleStore NO_OP = candles -> { };
+
+    void saveAll(List<Candle> candles);
+}
@@ -0,0 +1,8 @@
+package com.plataformtrade.application.marketdata;
+
+/**
+ * Aggregate quantity, in lots, resting at a price in ticks. A quantity of zero
+ * in an update means the level was removed.
+ */
+public record DepthLevel(long price, long quantity) {
+}
@@ -0,0 +1,211 @@
+package com.plataformtrade.application.marketdata;
+
+import com.plataformtrade.application.engine.MarketDataListener;
+import com.plataformtrade.application.engine.WaitStrategy;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dispatch stage between the matching engines and market-data subscribers.
+ * <p>
+ * Engine threads only enqueue events and return. A single dispatch thread
+ * drains them, keeps a price-level mirror of every book to serve snapshots,
+ * and merges each drained batch into the subscribers' conflating outboxes;
+ * the actual sends run on virtual threads. Subscribe requests travel through
+ * the same per-market queue as book events, so a new subscriber's snapshot is
+ * always consistent with the updates that follow it. Trades are also folded
+ * into the {@link CandleAggregator} on the dispatch thread.
+ */
+public class MarketDataFeed implements MarketDataListener {
+    private static final int DRAIN_LIMIT = 1024;
+
+    private final Map<String, MarketState> markets;
+    private final int maxPendingTrades;
+    private final CandleAggregator candles;
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread thread;
+    private volatile boolean running;
+
+    public MarketDataFeed(Collection<String> marketIds, int maxPendingTrades) {
+        this(marketIds, maxPendingTrades, new CandleAggregator(marketIds, 1, CandleStore.NO_OP));
+    }
+
+    public MarketDataFeed(Collection<String> marketIds, int maxPendingTrades, CandleAggregator candles) {
+        if (maxPendingTrades <= 0) {
+            throw new IllegalArgumentException("maxPendingTrades must be positive");
+        }
+        Map<String, MarketState> byMarket = new LinkedHashMap<>();
+        for (String marketId : marketIds) {
+            byMarket.put(marketId, new MarketState(marketId));
+        }
+        this.markets = Map.copyOf(byMarket);
+        this.maxPendingTrades = maxPendingTrades;
+        this.candles = Objects.requireNonNull(candles, "candles must not be null");
+        this.thread = new Thread(this::run, "market-data-dispatch");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        sender.shutdownNow();
+    }
+
+    @Override
+    public void onDepth(String marketId, long sequence, boolean bid, long price, long quantity) {
+        MarketState market = markets.get(marketId);
+        if (market != null) {
+            market.events.offer(new DepthChanged(sequence, bid, price, quantity));
+        }
+    }
+
+    @Override
+    public void onTrade(String marketId, long sequence, long price, long quantity, String takerSide, long timestamp) {
+        MarketState market = markets.get(marketId);
+        if (market != null) {
+            market.events.offer(new TradeTick(sequence, price, quantity, takerSide, timestamp));
+        }
+    }
+
+    /**
+     * Registers a subscriber; it first receives a depth snapshot and then
+     * incremental updates until it is closed.
+     */
+    public MarketDataSubscription subscribe(String marketId, MarketDataSink sink) {
+        MarketState market = markets.get(marketId);
+        if (market == null) {
+            throw new NotFoundException("Market not found with id: " + marketId);
+        }
+        MarketDataSubscription subscription = new MarketDataSubscription(marketId, sink, sender, maxPendingTrades);
+        market.events.offer(subscription);
+        return subscription;
+    }
+
+    public int subscriberCount(String marketId) {
+        MarketState market = markets.get(marketId);
+        return market == null ? 0 : market.subscriberCount;
+    }
+
+    private void run() {
+        int idle = 0;
+        while (running) {
+            boolean worked = false;
+            for (MarketState market : markets.values()) {
+                worked |= market.drain();
+            }
+            idle = worked ? 0 : WaitStrategy.PARK.idle(idle);
+        }
+    }
+
+    private record DepthChanged(long sequence, boolean bid, long price, long quantity) {
+    }
+
+    /**
+     * Owned by the dispatch thread, except for the event queue.
+     */
+    private final class MarketState {
+        private final String marketId;
+        private final Queue<Object> events = new ConcurrentLinkedQueue<>();
+        private final TreeMap<Long, Long> bids = new TreeMap<>(Collections.reverseOrder());
+        private final TreeMap<Long, Long> asks = new TreeMap<>();
+        private final List<MarketDataSubscription> subscriptions = new ArrayList<>();
+        private final Map<Long, Long> changedBids = new LinkedHashMap<>();
+        private final Map<Long, Long> changedAsks = new LinkedHashMap<>();
+        private final List<TradeTick> trades = new ArrayList<>();
+        private long sequence = -1;
+        private volatile int subscriberCount;
+
+        private MarketState(String marketId) {
+            this.marketId = marketId;
+        }
+
+        private boolean drain() {
+            int drained = 0;
+            Object event;
+            while (drained < DRAIN_LIMIT && (event = events.poll()) != null) {
+                drained++;
+                if (event instanceof DepthChanged depth) {
+                    apply(depth);
+                } else if (event instanceof TradeTick trade) {
+                    trades.add(trade);
+                    candles.onTrade(marketId, trade);
+                    sequence = Math.max(sequence, trade.sequence());
+                } else if (event instanceof MarketDataSubscription subscription) {
+                    publish();
+                    subscriptions.add(subscription);
+                    subscription.offerSnapshot(snapshot());
+                }
+            }
+            publish();
+            return drained > 0;
+        }
+
+        private void apply(DepthChanged depth) {
+            TreeMap<Long, Long> side = depth.bid() ? bids : asks;
+            if (depth.quantity() == 0) {
+                side.remove(depth.price());
+            } else {
+                side.put(depth.price(), depth.quantity());
+            }
+            (depth.bid() ? changedBids : changedAsks).put(depth.price(), depth.quantity());
+            sequence = Math.max(sequence, depth.sequence());
+        }
+
+        private void publish() {
+            if (changedBids.isEmpty() && changedAsks.isEmpty() && trades.isEmpty()) {
+                subscriptions.removeIf(MarketDataSubscription::isClosed);
+                subscriberCount = subscriptions.size();
+                return;
+            }
+            MarketDataMessage snapshot = null;
+            for (int i = subscriptions.size() - 1; i >= 0; i--) {
+                MarketDataSubscription subscription = subscriptions.get(i);
+                if (subscription.isClosed()) {
+                    subscriptions.remove(i);
+                } else if (!subscription.offerUpdate(sequence, changedBids, changedAsks, trades)) {
+                    if (snapshot == null) {
+                        snapshot = snapshot();
+                    }
+                    subscription.offerSnapshot(snapshot);
+                }
+            }
+            subscriberCount = subscriptions.size();
+            changedBids.clear();
+            changedAsks.clear();
+            trades.clear();
+        }
+
+        private MarketDataMessage snapshot() {
+            return MarketDataMessage.snapshot(marketId, sequence, levels(bids), levels(asks));
+        }
+
+        private List<DepthLevel> levels(TreeMap<Long, Long> side) {
+            List<DepthLevel> levels = new ArrayList<>(side.size());
+            side.forEach((price, quantity) -> levels.add(new DepthLevel(price, quantity)));
+            return levels;
+        }
+    }
+}
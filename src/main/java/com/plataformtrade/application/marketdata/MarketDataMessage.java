@@ -0,0 +1,29 @@
+package com.plataformtrade.application.marketdata;
+
+import java.util.List;
+
+/**
+ * One frame of the market-data feed. A {@code snapshot} carries the full
+ * depth of both sides; an {@code update} carries only the levels that changed
+ * since the previous frame plus the trades in between.
+ */
+public record MarketDataMessage(
+        String type,
+        String marketId,
+        long sequence,
+        List<DepthLevel> bids,
+        List<DepthLevel> asks,
+        List<TradeTick> trades
+) {
+    public static final String SNAPSHOT = "snapshot";
+    public static final String UPDATE = "update";
+
+    public static MarketDataMessage snapshot(String marketId, long sequence, List<DepthLevel> bids, List<DepthLevel> asks) {
+        return new MarketDataMessage(SNAPSHOT, marketId, sequence, bids, asks, List.of());
+    }
+
+    public static MarketDataMessage update(String marketId, long sequence, List<DepthLevel> bids,
+                                           List<DepthLevel> asks, List<TradeTick> trades) {
+        return new MarketDataMessage(UPDATE, marketId, sequence, bids, asks, trades);
+    }
+}
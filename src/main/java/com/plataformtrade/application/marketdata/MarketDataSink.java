@@ -0,0 +1,12 @@
+package com.plataformtrade.application.marketdata;
+
+import java.io.IOException;
+
+/**
+ * Transport of one subscriber. A subscription never calls {@link #send}
+ * concurrently, so implementations do not need to synchronize.
+ */
+@FunctionalInterface
+public interface MarketDataSink {
+    void send(MarketDataMessage message) throws IOException;
+}
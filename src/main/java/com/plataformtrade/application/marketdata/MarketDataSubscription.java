@@ -0,0 +1,128 @@
+package com.plataformtrade.application.marketdata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Conflating outbox of one subscriber.
+ * <p>
+ * The dispatch stage merges changes into the pending state, keeping only the
+ * latest quantity per price level, and at most one send task per subscriber
+ * runs at a time. A slow subscriber therefore receives fewer, larger updates
+ * instead of an ever-growing backlog. When more trades pile up than the
+ * subscriber may buffer, the pending state is dropped and replaced by a fresh
+ * snapshot.
+ */
+public final class MarketDataSubscription {
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataSubscription.class);
+
+    private final String marketId;
+    private final MarketDataSink sink;
+    private final Executor sender;
+    private final int maxPendingTrades;
+    private final Map<Long, Long> pendingBids = new LinkedHashMap<>();
+    private final Map<Long, Long> pendingAsks = new LinkedHashMap<>();
+    private final List<TradeTick> pendingTrades = new ArrayList<>();
+    private MarketDataMessage pendingSnapshot;
+    private long pendingSequence = -1;
+    private boolean scheduled;
+    private volatile boolean closed;
+
+    MarketDataSubscription(String marketId, MarketDataSink sink, Executor sender, int maxPendingTrades) {
+        this.marketId = marketId;
+        this.sink = sink;
+        this.sender = sender;
+        this.maxPendingTrades = maxPendingTrades;
+    }
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void close() {
+        closed = true;
+    }
+
+    synchronized void offerSnapshot(MarketDataMessage snapshot) {
+        pendingSnapshot = snapshot;
+        pendingSequence = snapshot.sequence();
+        pendingBids.clear();
+        pendingAsks.clear();
+        pendingTrades.clear();
+        schedule();
+    }
+
+    /**
+     * Merges a batch of changes into the pending update. Returns false when
+     * the subscriber fell too far behind and needs a new snapshot instead.
+     */
+    synchronized boolean offerUpdate(long sequence, Map<Long, Long> bids, Map<Long, Long> asks, List<TradeTick> trades) {
+        if (pendingTrades.size() + trades.size() > maxPendingTrades) {
+            return false;
+        }
+        pendingBids.putAll(bids);
+        pendingAsks.putAll(asks);
+        pendingTrades.addAll(trades);
+        pendingSequence = sequence;
+        schedule();
+        return true;
+    }
+
+    private void schedule() {
+        if (!scheduled && !closed) {
+            scheduled = true;
+            sender.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            MarketDataMessage snapshot;
+            MarketDataMessage update = null;
+            synchronized (this) {
+                boolean hasUpdate = !pendingBids.isEmpty() || !pendingAsks.isEmpty() || !pendingTrades.isEmpty();
+                if (closed || (pendingSnapshot == null && !hasUpdate)) {
+                    scheduled = false;
+                    return;
+                }
+                snapshot = pendingSnapshot;
+                pendingSnapshot = null;
+                if (hasUpdate) {
+                    update = MarketDataMessage.update(marketId, pendingSequence,
+                            levels(pendingBids), levels(pendingAsks), List.copyOf(pendingTrades));
+                    pendingBids.clear();
+                    pendingAsks.clear();
+                    pendingTrades.clear();
+                }
+            }
+            try {
+                if (snapshot != null) {
+                    sink.send(snapshot);
+                }
+                if (update != null) {
+                    sink.send(update);
+                }
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Dropping market-data subscriber: marketId={}, reason={}", marketId, ex.getMessage());
+                close();
+            }
+        }
+    }
+
+    private static List<DepthLevel> levels(Map<Long, Long> changes) {
+        List<DepthLevel> levels = new ArrayList<>(changes.size());
+        changes.forEach((price, quantity) -> levels.add(new DepthLevel(price, quantity)));
+        return levels;
+    }
+}
@@ -0,0 +1,7 @@
+package com.plataformtrade.application.marketdata;
+
+/**
+ * A single match, in ticks and lots, as published on the market-data feed.
+ */
+public record TradeTick(long sequence, long price, long quantity, String takerSide, long timestamp) {
+}
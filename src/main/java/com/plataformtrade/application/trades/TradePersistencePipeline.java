@@ -0,0 +1,210 @@
+package com.plataformtrade.application.trades;
+
+import com.plataformtrade.application.engine.TradeSink;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for trades. Engine threads hand each match to a
+ * bounded queue and go on matching; one writer thread drains the queue into
+ * batches, closed when they reach {@code batchSize} or {@code maxDelayMs}
+ * after their first trade, and stores each batch in one
+ * {@link TradeStore#write} call.
+ * <p>
+ * Trades of a market are written in the order they were matched, so the
+ * stored trades are always a prefix of the market's stream and the last
+ * written position is its durable watermark. The engine reads the watermark
+ * through {@link #isDurable}. After a restart, journal replay regenerates the
+ * matches after the last snapshot, and only those past the stored watermark
+ * are written again.
+ * <p>
+ * A failed write is retried until it succeeds. If the store stays down long
+ * enough for the queue to fill, engine threads block on it, which bounds how
+ * far trades can lag behind matching.
+ */
+public final class TradePersistencePipeline implements TradeSink {
+    private static final Logger logger = LoggerFactory.getLogger(TradePersistencePipeline.class);
+    private static final long RETRY_BACKOFF_MS = 500;
+    private static final long IDLE_POLL_MS = 100;
+
+    private final TradeStore store;
+    private final Collection<String> marketIds;
+    private final BlockingQueue<TradeRecord> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Map<String, TradePosition> recovered = new HashMap<>();
+    private final Map<String, TradePosition> durable = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean running;
+
+    public TradePersistencePipeline(
+            TradeStore store,
+            Collection<String> marketIds,
+            int capacity,
+            int batchSize,
+            long maxDelayMs
+    ) {
+        if (batchSize <= 0 || capacity < batchSize) {
+            throw new IllegalArgumentException("batchSize must be positive and not above capacity");
+        }
+        this.store = Objects.requireNonNull(store, "store must not be null");
+        this.marketIds = List.copyOf(marketIds);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.thread = new Thread(this::run, "trade-writer");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Loads each market's stored watermark; must run before the engine
+     * recovers so that replayed trades already stored are not written twice.
+     */
+    public void start() {
+        for (String marketId : marketIds) {
+            TradePosition last = store.lastPosition(marketId);
+            recovered.put(marketId, last);
+            durable.put(marketId, last);
+        }
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Writes whatever is still queued, then stops the writer thread.
+     */
+    public void stop() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void onTrade(String marketId, long sequence, int matchIndex, Order taker, OrderView maker,
+                        long quantity, long price) {
+        TradePosition stored = recovered.get(marketId);
+        if (stored != null && stored.covers(sequence, matchIndex)) {
+            return;
+        }
+        TradeRecord trade = new TradeRecord(
+                marketId,
+                sequence,
+                matchIndex,
+                taker.getOrderId(),
+                maker.getOrderId(),
+                taker.getAccountId(),
+                maker.getAccountId(),
+                taker.getSide(),
+                quantity,
+                price,
+                taker.getTimestamp().getTime()
+        );
+        try {
+            queue.put(trade);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing trade", ex);
+        }
+    }
+
+    @Override
+    public boolean isDurable(String marketId, long sequence, int matchIndex) {
+        TradePosition position = durable.get(marketId);
+        return position != null && position.covers(sequence, matchIndex);
+    }
+
+    public TradePosition durablePosition(String marketId) {
+        return durable.getOrDefault(marketId, TradePosition.NONE);
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<TradeRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (collect(batch)) {
+                    writeWithRetry(batch);
+                }
+            } catch (InterruptedException ex) {
+                // stop() interrupts a wait; the queue is drained below.
+            }
+        }
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * Waits for a first trade, then keeps adding until the batch is full or
+     * {@code maxDelayNanos} has passed since that first trade.
+     */
+    private boolean collect(List<TradeRecord> batch) throws InterruptedException {
+        TradeRecord first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            TradeRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    private void writeWithRetry(List<TradeRecord> batch) throws InterruptedException {
+        while (!write(batch)) {
+            if (!running) {
+                return;
+            }
+            Thread.sleep(RETRY_BACKOFF_MS);
+        }
+    }
+
+    private boolean write(List<TradeRecord> batch) {
+        try {
+            store.write(batch);
+        } catch (RuntimeException ex) {
+            logger.error("Failed to write trades: count={}, pending={}", batch.size(), queue.size(), ex);
+            return false;
+        }
+        Map<String, TradePosition> last = new HashMap<>();
+        for (TradeRecord trade : batch) {
+            last.put(trade.marketId(), trade.position());
+        }
+        durable.putAll(last);
+        batch.clear();
+        return true;
+    }
+}
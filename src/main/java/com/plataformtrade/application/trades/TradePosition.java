@@ -0,0 +1,16 @@
+package com.plataformtrade.application.trades;
+
+/**
+ * Position of a match in its market's stream: the sequence of the command
+ * that produced it and its index among that command's matches.
+ */
+public record TradePosition(long sequence, int matchIndex) {
+    public static final TradePosition NONE = new TradePosition(-1, 0);
+
+    /**
+     * True when the given position is at or before this one.
+     */
+    public boolean covers(long otherSequence, int otherMatchIndex) {
+        return otherSequence < sequence || (otherSequence == sequence && otherMatchIndex <= matchIndex);
+    }
+}
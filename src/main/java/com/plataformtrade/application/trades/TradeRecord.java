@@ -0,0 +1,23 @@
+package com.plataformtrade.application.trades;
+
+/**
+ * One match as persisted: quantity in lots and price in ticks of its market.
+ * {@code sequence} and {@code matchIndex} identify it within the market.
+ */
+public record TradeRecord(
+        String marketId,
+        long sequence,
+        int matchIndex,
+        String takerOrderId,
+        String makerOrderId,
+        String takerAccountId,
+        String makerAccountId,
+        String takerSide,
+        long quantity,
+        long price,
+        long executedAt
+) {
+    public TradePosition position() {
+        return new TradePosition(sequence, matchIndex);
+    }
+}
@@ -0,0 +1,20 @@
+package com.plataformtrade.application.trades;
+
+import java.util.List;
+
+/**
+ * Durable storage for trades written by the {@link TradePersistencePipeline}.
+ */
+public interface TradeStore {
+    /**
+     * Position of the last stored trade of the market, or
+     * {@link TradePosition#NONE}.
+     */
+    TradePosition lastPosition(String marketId);
+
+    /**
+     * Stores the batch atomically: either every trade is durable when this
+     * returns or none is.
+     */
+    void write(List<TradeRecord> trades);
+}
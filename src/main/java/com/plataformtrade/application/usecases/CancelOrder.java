@@ -0,0 +1,54 @@
+package com.plataformtrade.application.usecases;
+
+import com.plataformtrade.application.dtos.OrderResponse;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.engine.OrderGateway;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cancels a resting order. The engine releases the order's remaining funds
+ * when it applies the cancel.
+ */
+@Service
+public class CancelOrder {
+    private static final long ACK_TIMEOUT_MS = 5_000;
+
+    private final OrderGateway orderGateway;
+    private final MarketRepository marketRepository;
+
+    public CancelOrder(OrderGateway orderGateway, MarketRepository marketRepository) {
+        this.orderGateway = Objects.requireNonNull(orderGateway, "orderGateway must not be null");
+        this.marketRepository = Objects.requireNonNull(marketRepository, "marketRepository must not be null");
+    }
+
+    public OrderResponse execute(String orderId, String marketId, String accountId) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+        Objects.requireNonNull(accountId, "accountId cannot be null");
+        Market market = marketRepository.findById(marketId)
+                .orElseThrow(() -> new NotFoundException("Market not found with id: " + marketId));
+
+        try {
+            ExecutionReport report = orderGateway.cancel(marketId, orderId, accountId)
+                    .get(ACK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return PlaceOrder.toResponse(report, market);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order cancel failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out waiting for cancel acknowledgement: " + orderId, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while cancelling order", ex);
+        }
+    }
+}
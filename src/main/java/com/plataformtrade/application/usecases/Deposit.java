@@ -0,0 +1,31 @@
+package com.plataformtrade.application.usecases;
+
+import com.plataformtrade.application.balances.BalanceLedger;
+import com.plataformtrade.application.balances.BalanceSnapshot;
+import com.plataformtrade.application.dtos.BalanceResponse;
+import com.plataformtrade.application.dtos.DepositRequest;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.AccountRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+@Service
+public class Deposit {
+    private final AccountRepository accountRepository;
+    private final BalanceLedger balanceLedger;
+
+    public Deposit(AccountRepository accountRepository, BalanceLedger balanceLedger) {
+        this.accountRepository = Objects.requireNonNull(accountRepository, "accountRepository must not be null");
+        this.balanceLedger = Objects.requireNonNull(balanceLedger, "balanceLedger must not be null");
+    }
+
+    public BalanceResponse execute(String accountId, DepositRequest request) {
+        if (accountRepository.findById(accountId).isEmpty()) {
+            throw new NotFoundException("Account not found with id: " + accountId);
+        }
+        balanceLedger.deposit(accountId, request.asset(), request.amount());
+        BalanceSnapshot balance = balanceLedger.getBalance(accountId, request.asset());
+        return new BalanceResponse(balance.asset(), balance.available(), balance.reserved());
+    }
+}
@@ -0,0 +1,35 @@
+package com.plataformtrade.application.usecases;
+
+import com.plataformtrade.application.balances.BalanceLedger;
+import com.plataformtrade.application.balances.BalanceSnapshot;
+import com.plataformtrade.application.dtos.BalanceResponse;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.AccountRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class GetBalances {
+    private final AccountRepository accountRepository;
+    private final BalanceLedger balanceLedger;
+
+    public GetBalances(AccountRepository accountRepository, BalanceLedger balanceLedger) {
+        this.accountRepository = Objects.requireNonNull(accountRepository, "accountRepository must not be null");
+        this.balanceLedger = Objects.requireNonNull(balanceLedger, "balanceLedger must not be null");
+    }
+
+    public List<BalanceResponse> execute(String accountId) {
+        if (accountRepository.findById(accountId).isEmpty()) {
+            throw new NotFoundException("Account not found with id: " + accountId);
+        }
+        List<BalanceSnapshot> balances = balanceLedger.getBalances(accountId);
+        List<BalanceResponse> responses = new ArrayList<>(balances.size());
+        for (BalanceSnapshot balance : balances) {
+            responses.add(new BalanceResponse(balance.asset(), balance.available(), balance.reserved()));
+        }
+        return responses;
+    }
+}
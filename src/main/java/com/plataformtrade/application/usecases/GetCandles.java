@@ -0,0 +1,61 @@
+package com.plataformtrade.application.usecases;
+
+import com.plataformtrade.application.dtos.CandleResponse;
+import com.plataformtrade.application.dtos.CandlesResponse;
+import com.plataformtrade.application.marketdata.Candle;
+import com.plataformtrade.application.marketdata.CandleAggregator;
+import com.plataformtrade.application.marketdata.CandleResolution;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class GetCandles {
+    private final MarketRepository marketRepository;
+    private final CandleAggregator candleAggregator;
+
+    public GetCandles(MarketRepository marketRepository, CandleAggregator candleAggregator) {
+        this.marketRepository = Objects.requireNonNull(marketRepository, "marketRepository must not be null");
+        this.candleAggregator = Objects.requireNonNull(candleAggregator, "candleAggregator must not be null");
+    }
+
+    public CandlesResponse execute(String marketId, String resolution, int limit) {
+        Market market = marketRepository.findById(marketId)
+                .orElseThrow(() -> new NotFoundException("Market not found with id: " + marketId));
+        CandleResolution candleResolution = CandleResolution.fromCode(resolution);
+
+        List<Candle> closed = candleAggregator.closed(marketId, candleResolution, limit);
+        List<CandleResponse> responses = new ArrayList<>(closed.size());
+        for (Candle candle : closed) {
+            responses.add(toResponse(candle, market));
+        }
+        Candle current = candleAggregator.current(marketId, candleResolution);
+        return new CandlesResponse(
+                marketId,
+                candleResolution.code(),
+                current == null ? null : toResponse(current, market),
+                responses
+        );
+    }
+
+    public static CandleResponse toResponse(Candle candle, Market market) {
+        return new CandleResponse(
+                candle.marketId(),
+                candle.resolution().code(),
+                candle.openTime(),
+                candle.closeTime(),
+                market.priceOf(candle.open()),
+                market.priceOf(candle.high()),
+                market.priceOf(candle.low()),
+                market.priceOf(candle.close()),
+                market.quantityOf(candle.volume()),
+                market.averagePrice(candle.notional(), candle.volume()),
+                candle.tradeCount()
+        );
+    }
+}
@@ -0,0 +1,88 @@
+package com.plataformtrade.application.usecases;
+
+import com.plataformtrade.application.balances.OrderFunding;
+import com.plataformtrade.application.dtos.OrderResponse;
+import com.plataformtrade.application.dtos.PlaceOrderRequest;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.engine.OrderGateway;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class PlaceOrder {
+    private static final long ACK_TIMEOUT_MS = 5_000;
+
+    private final OrderGateway orderGateway;
+    private final MarketRepository marketRepository;
+    private final OrderFunding orderFunding;
+
+    public PlaceOrder(OrderGateway orderGateway, MarketRepository marketRepository, OrderFunding orderFunding) {
+        this.orderGateway = Objects.requireNonNull(orderGateway, "orderGateway must not be null");
+        this.marketRepository = Objects.requireNonNull(marketRepository, "marketRepository must not be null");
+        this.orderFunding = Objects.requireNonNull(orderFunding, "orderFunding must not be null");
+    }
+
+    public OrderResponse execute(PlaceOrderRequest request) {
+        Market market = marketRepository.findById(request.marketId())
+                .orElseThrow(() -> new NotFoundException("Market not found with id: " + request.marketId()));
+
+        Order order = Order.create(
+                request.accountId(),
+                request.marketId(),
+                request.side(),
+                market.toLots(request.quantity()),
+                market.toTicks(request.price())
+        );
+
+        orderFunding.reserve(order);
+        CompletableFuture<ExecutionReport> ack;
+        try {
+            ack = orderGateway.submit(order);
+        } catch (RuntimeException ex) {
+            orderFunding.release(order);
+            throw ex;
+        }
+
+        try {
+            ExecutionReport report = ack.get(ACK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return toResponse(report, market);
+        } catch (ExecutionException ex) {
+            // The engine rejected the order or its market halted before
+            // applying it; either way it never rested or traded.
+            orderFunding.release(order);
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order processing failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out waiting for order acknowledgement: " + order.getOrderId(), ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while placing order", ex);
+        }
+    }
+
+    static OrderResponse toResponse(ExecutionReport report, Market market) {
+        return new OrderResponse(
+                report.orderId(),
+                report.accountId(),
+                report.marketId(),
+                report.side(),
+                market.quantityOf(report.quantity()),
+                market.priceOf(report.price()),
+                market.quantityOf(report.fillQuantity()),
+                market.averagePrice(report.fillNotional(), report.fillQuantity()),
+                report.status(),
+                report.sequence()
+        );
+    }
+}
@@ -0,0 +1,168 @@
+package com.plataformtrade.application.usecases;
+
+import com.plataformtrade.application.balances.OrderFunding;
+import com.plataformtrade.application.dtos.BatchOrderResult;
+import com.plataformtrade.application.dtos.PlaceOrderRequest;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.engine.OrderGateway;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Places many orders in one call. Each request is validated as it is read,
+ * with the same rules as a single order, and the valid orders of each market
+ * are submitted to the engine as one sequenced batch. Invalid orders are
+ * reported individually without failing the rest of the batch.
+ * <p>
+ * Funds are only reserved once the whole batch has been read, so a batch
+ * rejected as a whole, for being too large or unreadable, reserves nothing.
+ */
+@Service
+public class PlaceOrderBatch {
+    private static final long ACK_TIMEOUT_MS = 5_000;
+
+    private final OrderGateway orderGateway;
+    private final MarketRepository marketRepository;
+    private final OrderFunding orderFunding;
+    private final int maxOrders;
+
+    public PlaceOrderBatch(
+            OrderGateway orderGateway,
+            MarketRepository marketRepository,
+            OrderFunding orderFunding,
+            @Value("${engine.batch.max-orders:1000}") int maxOrders
+    ) {
+        this.orderGateway = Objects.requireNonNull(orderGateway, "orderGateway must not be null");
+        this.marketRepository = Objects.requireNonNull(marketRepository, "marketRepository must not be null");
+        this.orderFunding = Objects.requireNonNull(orderFunding, "orderFunding must not be null");
+        this.maxOrders = maxOrders;
+    }
+
+    public List<BatchOrderResult> execute(Iterator<PlaceOrderRequest> requests) {
+        List<BatchOrderResult> results = new ArrayList<>();
+        List<PendingOrder> pending = new ArrayList<>();
+
+        while (requests.hasNext()) {
+            int index = results.size();
+            if (index == maxOrders) {
+                throw new IllegalArgumentException("batch must not contain more than " + maxOrders + " orders");
+            }
+            PlaceOrderRequest request = requests.next();
+            results.add(null);
+            Optional<Market> market = request.marketId() == null
+                    ? Optional.empty()
+                    : marketRepository.findById(request.marketId());
+            if (market.isEmpty()) {
+                results.set(index, BatchOrderResult.rejected(index, "Market not found with id: " + request.marketId()));
+                continue;
+            }
+            try {
+                Order order = Order.create(
+                        request.accountId(),
+                        request.marketId(),
+                        request.side(),
+                        market.get().toLots(Objects.requireNonNull(request.quantity(), "quantity cannot be null")),
+                        market.get().toTicks(Objects.requireNonNull(request.price(), "price cannot be null"))
+                );
+                pending.add(new PendingOrder(index, order, market.get()));
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                results.set(index, BatchOrderResult.rejected(index, ex.getMessage()));
+            }
+        }
+        if (results.isEmpty()) {
+            throw new IllegalArgumentException("batch must contain at least one order");
+        }
+
+        Map<String, MarketBatch> batches = new LinkedHashMap<>();
+        try {
+            for (PendingOrder order : pending) {
+                try {
+                    orderFunding.reserve(order.order());
+                } catch (IllegalArgumentException ex) {
+                    results.set(order.index(), BatchOrderResult.rejected(order.index(), ex.getMessage()));
+                    continue;
+                }
+                batches.computeIfAbsent(order.order().getMarketId(), id -> new MarketBatch(order.market()))
+                        .add(order.index(), order.order());
+            }
+        } catch (RuntimeException ex) {
+            releaseUnsubmitted(batches);
+            throw ex;
+        }
+
+        for (Map.Entry<String, MarketBatch> entry : batches.entrySet()) {
+            MarketBatch batch = entry.getValue();
+            try {
+                batch.acks = orderGateway.submitBatch(entry.getKey(), batch.orders);
+            } catch (RuntimeException ex) {
+                releaseUnsubmitted(batches);
+                throw ex;
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACK_TIMEOUT_MS);
+        for (MarketBatch batch : batches.values()) {
+            for (int i = 0; i < batch.orders.size(); i++) {
+                int index = batch.indexes.get(i);
+                results.set(index, await(index, batch.orders.get(i), batch.acks.get(i), batch.market, deadline));
+            }
+        }
+        return results;
+    }
+
+    private BatchOrderResult await(int index, Order order, CompletableFuture<ExecutionReport> ack, Market market, long deadline) {
+        try {
+            ExecutionReport report = ack.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return BatchOrderResult.accepted(index, PlaceOrder.toResponse(report, market));
+        } catch (ExecutionException ex) {
+            orderFunding.release(order);
+            return BatchOrderResult.rejected(index, ex.getCause().getMessage());
+        } catch (TimeoutException ex) {
+            return BatchOrderResult.rejected(index, "Timed out waiting for order acknowledgement");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while placing order batch", ex);
+        }
+    }
+
+    private void releaseUnsubmitted(Map<String, MarketBatch> batches) {
+        for (MarketBatch batch : batches.values()) {
+            if (batch.acks == null) {
+                batch.orders.forEach(orderFunding::release);
+            }
+        }
+    }
+
+    private record PendingOrder(int index, Order order, Market market) {
+    }
+
+    private static final class MarketBatch {
+        private final Market market;
+        private final List<Integer> indexes = new ArrayList<>();
+        private final List<Order> orders = new ArrayList<>();
+        private List<CompletableFuture<ExecutionReport>> acks;
+
+        private MarketBatch(Market market) {
+            this.market = market;
+        }
+
+        private void add(int index, Order order) {
+            indexes.add(index);
+            orders.add(order);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.plataformtrade.application.usecases;
+
+import com.plataformtrade.application.dtos.OrderResponse;
+import com.plataformtrade.application.dtos.ReplaceOrderRequest;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.engine.OrderGateway;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Amends the quantity and price of a resting order. Lowering the quantity at
+ * the same price keeps the order's time priority; any other change re-queues
+ * it and may trade. The engine adjusts the order's reserved funds by the
+ * difference.
+ */
+@Service
+public class ReplaceOrder {
+    private static final long ACK_TIMEOUT_MS = 5_000;
+
+    private final OrderGateway orderGateway;
+    private final MarketRepository marketRepository;
+
+    public ReplaceOrder(OrderGateway orderGateway, MarketRepository marketRepository) {
+        this.orderGateway = Objects.requireNonNull(orderGateway, "orderGateway must not be null");
+        this.marketRepository = Objects.requireNonNull(marketRepository, "marketRepository must not be null");
+    }
+
+    public OrderResponse execute(String orderId, ReplaceOrderRequest request) {
+        Objects.requireNonNull(orderId, "orderId cannot be null");
+        Objects.requireNonNull(request.accountId(), "accountId cannot be null");
+        Market market = marketRepository.findById(request.marketId())
+                .orElseThrow(() -> new NotFoundException("Market not found with id: " + request.marketId()));
+        long quantity = market.toLots(Objects.requireNonNull(request.quantity(), "quantity cannot be null"));
+        long price = market.toTicks(Objects.requireNonNull(request.price(), "price cannot be null"));
+
+        try {
+            ExecutionReport report = orderGateway.replace(request.marketId(), orderId, request.accountId(), quantity, price)
+                    .get(ACK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return PlaceOrder.toResponse(report, market);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order replace failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out waiting for replace acknowledgement: " + orderId, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replacing order", ex);
+        }
+    }
+}
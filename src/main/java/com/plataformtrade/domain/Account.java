@@ -6,9 +6,9 @@ import com.plataformtrade.domain.VOs.Name;
 import com.plataformtrade.domain.VOs.Password;
 import com.plataformtrade.domain.events.AccountCreatedEvent;
 import com.plataformtrade.domain.events.DomainEvent;
+import com.plataformtrade.domain.ids.Ids;
 import com.plataformtrade.domain.repositories.PasswordHasher;
 
-import java.util.UUID;
 import java.util.Objects;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,7 +46,7 @@ public class Account {
             PasswordHasher passwordHasher
     ){
         Objects.requireNonNull(passwordHasher, "passwordHasher must not be null");
-        String accountId = UUID.randomUUID().toString();
+        String accountId = Ids.next();
         Password rawPassword = new Password(password);
         String passwordHashed = passwordHasher.hash(rawPassword.getValue());
         Account account = new Account(
@@ -0,0 +1,97 @@
+package com.plataformtrade.domain;
+
+import com.plataformtrade.domain.VOs.Price;
+import com.plataformtrade.domain.VOs.Quantity;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Trading rules of a market: the tick size prices are quoted in and the lot
+ * size quantities are traded in. Orders carry prices as ticks and quantities
+ * as lots; this class converts them from and to decimals at the edges.
+ * <p>
+ * Market ids name the traded pair as {@code BASE-QUOTE}: buying spends the
+ * quote asset and selling spends the base asset.
+ */
+public final class Market {
+    private static final int AVERAGE_PRICE_EXTRA_SCALE = 4;
+
+    private final String marketId;
+    private final String baseAsset;
+    private final String quoteAsset;
+    private final BigDecimal tickSize;
+    private final BigDecimal lotSize;
+
+    public Market(String marketId, BigDecimal tickSize, BigDecimal lotSize) {
+        Objects.requireNonNull(marketId, "marketId cannot be null");
+        int separator = marketId.indexOf('-');
+        if (separator <= 0 || separator == marketId.length() - 1 || marketId.indexOf('-', separator + 1) >= 0) {
+            throw new IllegalArgumentException("marketId must be in the form BASE-QUOTE");
+        }
+        Objects.requireNonNull(tickSize, "tickSize cannot be null");
+        Objects.requireNonNull(lotSize, "lotSize cannot be null");
+        if (tickSize.signum() <= 0) {
+            throw new IllegalArgumentException("tickSize must be positive");
+        }
+        if (lotSize.signum() <= 0) {
+            throw new IllegalArgumentException("lotSize must be positive");
+        }
+        this.marketId = marketId;
+        this.baseAsset = marketId.substring(0, separator);
+        this.quoteAsset = marketId.substring(separator + 1);
+        this.tickSize = tickSize;
+        this.lotSize = lotSize;
+    }
+
+    public long toTicks(BigDecimal price) {
+        return Price.fromDecimal(price, tickSize).getTicks();
+    }
+
+    public long toLots(BigDecimal quantity) {
+        return Quantity.fromDecimal(quantity, lotSize).getLots();
+    }
+
+    public BigDecimal priceOf(long ticks) {
+        return Price.toDecimal(ticks, tickSize);
+    }
+
+    public BigDecimal quantityOf(long lots) {
+        return Quantity.toDecimal(lots, lotSize);
+    }
+
+    /**
+     * Exact volume-weighted average price for a fill notional (lots times
+     * ticks) spread over {@code fillLots}; zero when nothing was filled.
+     */
+    public BigDecimal averagePrice(BigInteger fillNotional, long fillLots) {
+        if (fillLots == 0) {
+            return BigDecimal.ZERO;
+        }
+        return new BigDecimal(fillNotional)
+                .multiply(tickSize)
+                .divide(BigDecimal.valueOf(fillLots), tickSize.scale() + AVERAGE_PRICE_EXTRA_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public String getBaseAsset() {
+        return baseAsset;
+    }
+
+    public String getQuoteAsset() {
+        return quoteAsset;
+    }
+
+    public BigDecimal getTickSize() {
+        return tickSize;
+    }
+
+    public BigDecimal getLotSize() {
+        return lotSize;
+    }
+}
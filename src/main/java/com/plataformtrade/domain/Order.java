@@ -1,56 +1,112 @@
 package com.plataformtrade.domain;
 
+import com.plataformtrade.domain.ids.Ids;
+
+import java.math.BigInteger;
 import java.util.Date;
 import java.util.Objects;
-import java.util.UUID;
 
-public class Order {
+public class Order implements OrderView {
     private final String orderId;
     private final String accountId;
     private final String marketId;
     private final String side;
-    private final int quantity;
-    private final int price;
-    private int fillQuantity;
-    private int fillPrice;
+    // Quantities are in market lots and prices in market ticks (see Market).
+    private long quantity;
+    private final long price;
+    private long fillQuantity;
+    // Running fill notional (sum of quantity * price) as an unsigned 128-bit value.
+    private long fillNotionalHigh;
+    private long fillNotionalLow;
     private String status;
     private final Date timestamp;
 
-    private Order(String orderId, String accountId, String marketId, String side, int quantity, int price, int fillPrice, int fillQuantity, String status, Date timestamp) {
+    private Order(String orderId, String accountId, String marketId, String side, long quantity, long price, long fillQuantity, String status, Date timestamp) {
         this.orderId = orderId;
         this.accountId = accountId;
         this.marketId = marketId;
         this.side = side;
         this.quantity = quantity;
         this.price = price;
-        this.fillPrice = fillPrice;
         this.fillQuantity = fillQuantity;
         this.status = status;
         this.timestamp = new Date(timestamp.getTime());
     }
 
-    public static Order create(String accountId, String marketId, String side, int quantity, int price){
+    public static Order create(String accountId, String marketId, String side, long quantity, long price){
         validateCreateParameters(accountId, marketId, side, quantity, price);
-        var orderId = UUID.randomUUID().toString();
+        var orderId = Ids.next();
         var status = "open";
         var timestamp = new Date();
-        var fillQuantity = 0;
-        var fillPrice = 0;
-        return new Order(orderId, accountId, marketId, side, quantity, price, fillPrice, fillQuantity, status, timestamp);
+        var fillQuantity = 0L;
+        return new Order(orderId, accountId, marketId, side, quantity, price, fillQuantity, status, timestamp);
+    }
+
+    public static Order restore(String orderId, String accountId, String marketId, String side,
+                                long quantity, long price, long fillQuantity, BigInteger fillNotional,
+                                String status, Date timestamp) {
+        Order order = new Order(orderId, accountId, marketId, side, quantity, price, fillQuantity, status, timestamp);
+        order.fillNotionalLow = fillNotional.longValue();
+        order.fillNotionalHigh = fillNotional.shiftRight(64).longValue();
+        return order;
     }
 
-    public int getAvailableQuantity(){
+    public long getAvailableQuantity(){
         return this.quantity - this.fillQuantity;
     }
 
-    public void fill(int quantity, int price){
-        this.fillPrice = ((this.fillQuantity * this.fillPrice) + (quantity * price)) / (this.fillQuantity + quantity);
+    /**
+     * Records a fill of {@code quantity} lots at {@code price} ticks. The fill
+     * notional is accumulated exactly in 128 bits, so the average price never
+     * overflows and is not re-truncated on every partial fill.
+     */
+    public void fill(long quantity, long price){
+        if (quantity <= 0 || quantity > this.getAvailableQuantity()) {
+            throw new IllegalArgumentException("fill quantity must be between 1 and the available quantity");
+        }
+        if (price <= 0) {
+            throw new IllegalArgumentException("fill price must be positive");
+        }
+        long low = quantity * price;
+        long high = Math.multiplyHigh(quantity, price);
+        long sum = this.fillNotionalLow + low;
+        this.fillNotionalHigh += high + (Long.compareUnsigned(sum, this.fillNotionalLow) < 0 ? 1 : 0);
+        this.fillNotionalLow = sum;
         this.fillQuantity += quantity;
         if (this.getAvailableQuantity() == 0){
             this.status = "closed";
         }
     }
 
+    /**
+     * Lowers the order's quantity in place, keeping its time priority. The
+     * new quantity must still leave something to fill.
+     */
+    public void reduceQuantity(long quantity) {
+        if (quantity <= this.fillQuantity || quantity > this.quantity) {
+            throw new IllegalArgumentException("quantity must be above the filled quantity and not above the current quantity");
+        }
+        this.quantity = quantity;
+    }
+
+    /**
+     * The same order, fills included, with a new quantity and price. Used when
+     * an amendment loses the order's place in the queue.
+     */
+    public Order replace(long quantity, long price) {
+        if (quantity <= this.fillQuantity) {
+            throw new IllegalArgumentException("quantity must be above the filled quantity");
+        }
+        if (price <= 0) {
+            throw new IllegalArgumentException("price must be positive");
+        }
+        return restore(orderId, accountId, marketId, side, quantity, price, fillQuantity, getFillNotional(), status, timestamp);
+    }
+
+    public void cancel() {
+        this.status = "cancelled";
+    }
+
     public void calculateStatus(){
         if(this.getAvailableQuantity() == 0){
             this.status = "closed";
@@ -58,7 +114,7 @@ public class Order {
     }
 
     private static void validateCreateParameters(String accountId, String marketId,
-                                                 String side, int quantity, int price) {
+                                                 String side, long quantity, long price) {
         Objects.requireNonNull(accountId, "accountId cannot be null");
         Objects.requireNonNull(marketId, "marketId cannot be null");
         Objects.requireNonNull(side, "side cannot be null");
@@ -82,19 +138,41 @@ public class Order {
         return status;
     }
 
-    public int getFillPrice() {
-        return fillPrice;
+    /**
+     * Volume-weighted average fill price in ticks, rounded down; zero before
+     * the first fill. Use {@link #getFillNotional()} for the exact value.
+     */
+    public long getFillPrice() {
+        if (fillQuantity == 0) {
+            return 0;
+        }
+        if (fillNotionalHigh == 0 && fillNotionalLow >= 0) {
+            return fillNotionalLow / fillQuantity;
+        }
+        return getFillNotional().divide(BigInteger.valueOf(fillQuantity)).longValueExact();
+    }
+
+    /**
+     * Exact sum of {@code quantity * price} over all fills, in lots times ticks.
+     */
+    public BigInteger getFillNotional() {
+        if (fillNotionalHigh == 0 && fillNotionalLow >= 0) {
+            return BigInteger.valueOf(fillNotionalLow);
+        }
+        BigInteger low = BigInteger.valueOf(fillNotionalLow >>> 1).shiftLeft(1)
+                .add(BigInteger.valueOf(fillNotionalLow & 1));
+        return BigInteger.valueOf(fillNotionalHigh).shiftLeft(64).add(low);
     }
 
-    public int getFillQuantity() {
+    public long getFillQuantity() {
         return fillQuantity;
     }
 
-    public int getPrice() {
+    public long getPrice() {
         return price;
     }
 
-    public int getQuantity() {
+    public long getQuantity() {
         return quantity;
     }
 
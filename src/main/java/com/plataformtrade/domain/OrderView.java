@@ -0,0 +1,35 @@
+package com.plataformtrade.domain;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Read-only view of an order. Implemented by {@link Order} itself and by
+ * flyweights over orders stored outside the heap, so code that only reads
+ * resting orders works with either storage.
+ */
+public interface OrderView {
+    String getOrderId();
+
+    String getAccountId();
+
+    String getMarketId();
+
+    String getSide();
+
+    long getQuantity();
+
+    long getPrice();
+
+    long getFillQuantity();
+
+    long getAvailableQuantity();
+
+    long getFillPrice();
+
+    BigInteger getFillNotional();
+
+    String getStatus();
+
+    Date getTimestamp();
+}
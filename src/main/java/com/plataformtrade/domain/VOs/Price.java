@@ -0,0 +1,67 @@
+package com.plataformtrade.domain.VOs;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Fixed-point price expressed as a whole number of market ticks.
+ * <p>
+ * Instances are only created at the edges (parsing and formatting); the
+ * matching path works on the raw {@code long} tick count.
+ */
+@SuppressWarnings("ClassCanBeRecord")
+public final class Price {
+    private final long ticks;
+
+    public Price(long ticks) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("price must be positive");
+        }
+        this.ticks = ticks;
+    }
+
+    public static Price fromDecimal(BigDecimal value, BigDecimal tickSize) {
+        if (value == null) {
+            throw new IllegalArgumentException("price must not be null");
+        }
+        BigDecimal[] division = value.divideAndRemainder(tickSize);
+        if (division[1].signum() != 0) {
+            throw new IllegalArgumentException("price must be a multiple of the tick size " + tickSize.toPlainString());
+        }
+        try {
+            return new Price(division[0].longValueExact());
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("price is out of range");
+        }
+    }
+
+    public static BigDecimal toDecimal(long ticks, BigDecimal tickSize) {
+        return tickSize.multiply(BigDecimal.valueOf(ticks));
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public BigDecimal toDecimal(BigDecimal tickSize) {
+        return toDecimal(ticks, tickSize);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Price price = (Price) o;
+        return ticks == price.ticks;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ticks);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(ticks);
+    }
+}
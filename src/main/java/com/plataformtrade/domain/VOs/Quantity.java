@@ -0,0 +1,67 @@
+package com.plataformtrade.domain.VOs;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Fixed-point quantity expressed as a whole number of market lots.
+ * <p>
+ * Instances are only created at the edges (parsing and formatting); the
+ * matching path works on the raw {@code long} lot count.
+ */
+@SuppressWarnings("ClassCanBeRecord")
+public final class Quantity {
+    private final long lots;
+
+    public Quantity(long lots) {
+        if (lots <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+        this.lots = lots;
+    }
+
+    public static Quantity fromDecimal(BigDecimal value, BigDecimal lotSize) {
+        if (value == null) {
+            throw new IllegalArgumentException("quantity must not be null");
+        }
+        BigDecimal[] division = value.divideAndRemainder(lotSize);
+        if (division[1].signum() != 0) {
+            throw new IllegalArgumentException("quantity must be a multiple of the lot size " + lotSize.toPlainString());
+        }
+        try {
+            return new Quantity(division[0].longValueExact());
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("quantity is out of range");
+        }
+    }
+
+    public static BigDecimal toDecimal(long lots, BigDecimal lotSize) {
+        return lotSize.multiply(BigDecimal.valueOf(lots));
+    }
+
+    public long getLots() {
+        return lots;
+    }
+
+    public BigDecimal toDecimal(BigDecimal lotSize) {
+        return toDecimal(lots, lotSize);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Quantity quantity = (Quantity) o;
+        return lots == quantity.lots;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lots);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(lots);
+    }
+}
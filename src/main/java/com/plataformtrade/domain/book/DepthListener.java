@@ -0,0 +1,13 @@
+package com.plataformtrade.domain.book;
+
+/**
+ * Receives the new aggregate state of every price level an {@link OrderBook}
+ * touches, on the thread that drives the book. A quantity of zero means the
+ * level was removed.
+ */
+@FunctionalInterface
+public interface DepthListener {
+    DepthListener NO_OP = (bid, price, quantity, orderCount) -> { };
+
+    void onLevelChanged(boolean bid, long price, long quantity, int orderCount);
+}
@@ -0,0 +1,128 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+import java.util.Arrays;
+
+/**
+ * Keeps resting {@link Order} objects in a slot array with parallel link
+ * arrays. Freed slots are chained through {@code next} and reused, so resting
+ * an order does not allocate once the arrays are warm.
+ */
+final class HeapOrderStore implements OrderStore {
+    private final OrderIndex index;
+    private Order[] orders;
+    private int[] prev;
+    private int[] next;
+    private int highWater;
+    private int freeHead = NONE;
+
+    HeapOrderStore(int expectedOrders) {
+        this.index = new OrderIndex(expectedOrders);
+        this.orders = new Order[expectedOrders];
+        this.prev = new int[expectedOrders];
+        this.next = new int[expectedOrders];
+    }
+
+    @Override
+    public void validate(Order order) {
+    }
+
+    @Override
+    public int add(Order order) {
+        if (index.get(order.getOrderId()) != NONE) {
+            return NONE;
+        }
+        int slot = allocate();
+        orders[slot] = order;
+        prev[slot] = NONE;
+        next[slot] = NONE;
+        index.put(order.getOrderId(), slot);
+        return slot;
+    }
+
+    @Override
+    public int find(String orderId) {
+        return index.get(orderId);
+    }
+
+    @Override
+    public void remove(int slot) {
+        index.remove(orders[slot].getOrderId());
+        orders[slot] = null;
+        prev[slot] = NONE;
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public long price(int slot) {
+        return orders[slot].getPrice();
+    }
+
+    @Override
+    public long availableQuantity(int slot) {
+        return orders[slot].getAvailableQuantity();
+    }
+
+    @Override
+    public void fill(int slot, long quantity, long price) {
+        orders[slot].fill(quantity, price);
+    }
+
+    @Override
+    public void reduceQuantity(int slot, long quantity) {
+        orders[slot].reduceQuantity(quantity);
+    }
+
+    @Override
+    public OrderView view(int slot) {
+        return orders[slot];
+    }
+
+    @Override
+    public Order toOrder(int slot) {
+        return orders[slot];
+    }
+
+    @Override
+    public int prev(int slot) {
+        return prev[slot];
+    }
+
+    @Override
+    public int next(int slot) {
+        return next[slot];
+    }
+
+    @Override
+    public void setPrev(int slot, int prev) {
+        this.prev[slot] = prev;
+    }
+
+    @Override
+    public void setNext(int slot, int next) {
+        this.next[slot] = next;
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        if (highWater == orders.length) {
+            int capacity = orders.length << 1;
+            orders = Arrays.copyOf(orders, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return highWater++;
+    }
+}
@@ -0,0 +1,357 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps resting orders in fixed-size slots of direct memory.
+ * <p>
+ * Slots live in pages of {@value #PAGE_SLOTS} allocated on demand, so the
+ * store grows without copying and without the 2 GB limit of a single buffer.
+ * The UUID order id is packed into two longs, the account id is interned to
+ * an int code and side and status are single bytes. The id index is an
+ * open-addressing table of slot numbers, also off-heap, that compares keys by
+ * reading them back from the slots. The heap only holds the page references,
+ * the account dictionary and one reusable {@link OrderFlyweight}.
+ * <p>
+ * Off-heap memory is bounded by {@code -XX:MaxDirectMemorySize}.
+ */
+final class OffHeapOrderStore implements OrderStore {
+    static final int SLOT_SIZE = 80;
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SLOTS - 1;
+
+    private static final int ID_HIGH = 0;
+    private static final int ID_LOW = 8;
+    private static final int QUANTITY = 16;
+    private static final int PRICE = 24;
+    private static final int FILL_QUANTITY = 32;
+    private static final int FILL_NOTIONAL_HIGH = 40;
+    private static final int FILL_NOTIONAL_LOW = 48;
+    private static final int TIMESTAMP = 56;
+    private static final int ACCOUNT = 64;
+    private static final int PREV = 68;
+    private static final int NEXT = 72;
+    private static final int SIDE = 76;
+    private static final int STATUS = 77;
+
+    private static final byte SIDE_BUY = 0;
+    private static final byte SIDE_SELL = 1;
+    private static final byte STATUS_OPEN = 0;
+    private static final byte STATUS_CLOSED = 1;
+
+    private final String marketId;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private final Map<String, Integer> accountCodes = new HashMap<>();
+    private final List<String> accounts = new ArrayList<>();
+    private final OrderFlyweight flyweight = new OrderFlyweight(this);
+    private ByteBuffer index;
+    private int indexMask;
+    private int size;
+    private int highWater;
+    private int freeHead = NONE;
+
+    OffHeapOrderStore(String marketId, int expectedOrders) {
+        this.marketId = marketId;
+        allocateIndex(Integer.highestOneBit(Math.max(16, expectedOrders * 2 - 1)) << 1);
+    }
+
+    @Override
+    public void validate(Order order) {
+        if (!UuidCodec.isUuid(order.getOrderId())) {
+            throw new IllegalArgumentException("off-heap order storage requires UUID order ids: " + order.getOrderId());
+        }
+    }
+
+    @Override
+    public int add(Order order) {
+        long idHigh = UuidCodec.high(order.getOrderId());
+        long idLow = UuidCodec.low(order.getOrderId());
+        if (find(idHigh, idLow) != NONE) {
+            return NONE;
+        }
+        int slot = allocate();
+        ByteBuffer page = page(slot);
+        int base = offset(slot);
+        BigInteger notional = order.getFillNotional();
+        page.putLong(base + ID_HIGH, idHigh);
+        page.putLong(base + ID_LOW, idLow);
+        page.putLong(base + QUANTITY, order.getQuantity());
+        page.putLong(base + PRICE, order.getPrice());
+        page.putLong(base + FILL_QUANTITY, order.getFillQuantity());
+        page.putLong(base + FILL_NOTIONAL_HIGH, notional.shiftRight(64).longValue());
+        page.putLong(base + FILL_NOTIONAL_LOW, notional.longValue());
+        page.putLong(base + TIMESTAMP, order.getTimestamp().getTime());
+        page.putInt(base + ACCOUNT, accountCode(order.getAccountId()));
+        page.putInt(base + PREV, NONE);
+        page.putInt(base + NEXT, NONE);
+        page.put(base + SIDE, "buy".equals(order.getSide()) ? SIDE_BUY : SIDE_SELL);
+        page.put(base + STATUS, "closed".equals(order.getStatus()) ? STATUS_CLOSED : STATUS_OPEN);
+        insertIndex(slot, idHigh, idLow);
+        return slot;
+    }
+
+    @Override
+    public int find(String orderId) {
+        if (!UuidCodec.isUuid(orderId)) {
+            return NONE;
+        }
+        return find(UuidCodec.high(orderId), UuidCodec.low(orderId));
+    }
+
+    @Override
+    public void remove(int slot) {
+        removeIndex(slot);
+        setNext(slot, freeHead);
+        freeHead = slot;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long price(int slot) {
+        return page(slot).getLong(offset(slot) + PRICE);
+    }
+
+    @Override
+    public long availableQuantity(int slot) {
+        ByteBuffer page = page(slot);
+        int base = offset(slot);
+        return page.getLong(base + QUANTITY) - page.getLong(base + FILL_QUANTITY);
+    }
+
+    /**
+     * Same rules and 128-bit notional arithmetic as {@link Order#fill}.
+     */
+    @Override
+    public void fill(int slot, long quantity, long price) {
+        ByteBuffer page = page(slot);
+        int base = offset(slot);
+        long filled = page.getLong(base + FILL_QUANTITY);
+        long available = page.getLong(base + QUANTITY) - filled;
+        if (quantity <= 0 || quantity > available) {
+            throw new IllegalArgumentException("fill quantity must be between 1 and the available quantity");
+        }
+        if (price <= 0) {
+            throw new IllegalArgumentException("fill price must be positive");
+        }
+        long notionalLow = page.getLong(base + FILL_NOTIONAL_LOW);
+        long low = quantity * price;
+        long high = Math.multiplyHigh(quantity, price);
+        long sum = notionalLow + low;
+        long carry = Long.compareUnsigned(sum, notionalLow) < 0 ? 1 : 0;
+        page.putLong(base + FILL_NOTIONAL_HIGH, page.getLong(base + FILL_NOTIONAL_HIGH) + high + carry);
+        page.putLong(base + FILL_NOTIONAL_LOW, sum);
+        page.putLong(base + FILL_QUANTITY, filled + quantity);
+        if (available == quantity) {
+            page.put(base + STATUS, STATUS_CLOSED);
+        }
+    }
+
+    @Override
+    public void reduceQuantity(int slot, long quantity) {
+        ByteBuffer page = page(slot);
+        int base = offset(slot);
+        if (quantity <= page.getLong(base + FILL_QUANTITY) || quantity > page.getLong(base + QUANTITY)) {
+            throw new IllegalArgumentException("quantity must be above the filled quantity and not above the current quantity");
+        }
+        page.putLong(base + QUANTITY, quantity);
+    }
+
+    @Override
+    public OrderView view(int slot) {
+        return flyweight.moveTo(slot);
+    }
+
+    @Override
+    public Order toOrder(int slot) {
+        OrderFlyweight view = new OrderFlyweight(this).moveTo(slot);
+        return Order.restore(view.getOrderId(), view.getAccountId(), view.getMarketId(), view.getSide(),
+                view.getQuantity(), view.getPrice(), view.getFillQuantity(), view.getFillNotional(),
+                view.getStatus(), view.getTimestamp());
+    }
+
+    @Override
+    public int prev(int slot) {
+        return page(slot).getInt(offset(slot) + PREV);
+    }
+
+    @Override
+    public int next(int slot) {
+        return page(slot).getInt(offset(slot) + NEXT);
+    }
+
+    @Override
+    public void setPrev(int slot, int prev) {
+        page(slot).putInt(offset(slot) + PREV, prev);
+    }
+
+    @Override
+    public void setNext(int slot, int next) {
+        page(slot).putInt(offset(slot) + NEXT, next);
+    }
+
+    String marketId() {
+        return marketId;
+    }
+
+    long idHigh(int slot) {
+        return page(slot).getLong(offset(slot) + ID_HIGH);
+    }
+
+    long idLow(int slot) {
+        return page(slot).getLong(offset(slot) + ID_LOW);
+    }
+
+    String accountId(int slot) {
+        return accounts.get(page(slot).getInt(offset(slot) + ACCOUNT));
+    }
+
+    String side(int slot) {
+        return page(slot).get(offset(slot) + SIDE) == SIDE_BUY ? "buy" : "sell";
+    }
+
+    String status(int slot) {
+        return page(slot).get(offset(slot) + STATUS) == STATUS_CLOSED ? "closed" : "open";
+    }
+
+    long quantity(int slot) {
+        return page(slot).getLong(offset(slot) + QUANTITY);
+    }
+
+    long fillQuantity(int slot) {
+        return page(slot).getLong(offset(slot) + FILL_QUANTITY);
+    }
+
+    long fillNotionalHigh(int slot) {
+        return page(slot).getLong(offset(slot) + FILL_NOTIONAL_HIGH);
+    }
+
+    long fillNotionalLow(int slot) {
+        return page(slot).getLong(offset(slot) + FILL_NOTIONAL_LOW);
+    }
+
+    long timestamp(int slot) {
+        return page(slot).getLong(offset(slot) + TIMESTAMP);
+    }
+
+    private ByteBuffer page(int slot) {
+        return pages.get(slot >>> PAGE_SHIFT);
+    }
+
+    private static int offset(int slot) {
+        return (slot & PAGE_MASK) * SLOT_SIZE;
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = next(slot);
+            return slot;
+        }
+        if ((highWater >>> PAGE_SHIFT) == pages.size()) {
+            pages.add(ByteBuffer.allocateDirect(PAGE_SLOTS * SLOT_SIZE));
+        }
+        return highWater++;
+    }
+
+    private int accountCode(String accountId) {
+        Integer code = accountCodes.get(accountId);
+        if (code == null) {
+            code = accounts.size();
+            accounts.add(accountId);
+            accountCodes.put(accountId, code);
+        }
+        return code;
+    }
+
+    // Index entries are slot + 1, so an all-zero table is empty.
+
+    private int find(long idHigh, long idLow) {
+        int position = home(idHigh, idLow);
+        int entry;
+        while ((entry = index.getInt(position << 2)) != 0) {
+            int slot = entry - 1;
+            if (idHigh(slot) == idHigh && idLow(slot) == idLow) {
+                return slot;
+            }
+            position = (position + 1) & indexMask;
+        }
+        return NONE;
+    }
+
+    private void insertIndex(int slot, long idHigh, long idLow) {
+        int position = home(idHigh, idLow);
+        while (index.getInt(position << 2) != 0) {
+            position = (position + 1) & indexMask;
+        }
+        index.putInt(position << 2, slot + 1);
+        if (++size > (indexMask + 1) >> 1) {
+            rehash((indexMask + 1) << 1);
+        }
+    }
+
+    private void removeIndex(int slot) {
+        int gap = home(idHigh(slot), idLow(slot));
+        while (index.getInt(gap << 2) != slot + 1) {
+            gap = (gap + 1) & indexMask;
+        }
+        int position = gap;
+        while (true) {
+            position = (position + 1) & indexMask;
+            int entry = index.getInt(position << 2);
+            if (entry == 0) {
+                break;
+            }
+            int home = home(idHigh(entry - 1), idLow(entry - 1));
+            // Same backward-shift rule as OrderIndex.
+            boolean movable = gap <= position
+                    ? (home <= gap || home > position)
+                    : (home <= gap && home > position);
+            if (movable) {
+                index.putInt(gap << 2, entry);
+                gap = position;
+            }
+        }
+        index.putInt(gap << 2, 0);
+        size--;
+    }
+
+    private int home(long idHigh, long idLow) {
+        long hash = (idHigh ^ idLow) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & indexMask;
+    }
+
+    private void allocateIndex(int capacity) {
+        index = ByteBuffer.allocateDirect(capacity << 2);
+        indexMask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        ByteBuffer old = index;
+        int oldCapacity = indexMask + 1;
+        allocateIndex(capacity);
+        for (int position = 0; position < oldCapacity; position++) {
+            int entry = old.getInt(position << 2);
+            if (entry != 0) {
+                int slot = entry - 1;
+                int target = home(idHigh(slot), idLow(slot));
+                while (index.getInt(target << 2) != 0) {
+                    target = (target + 1) & indexMask;
+                }
+                index.putInt(target << 2, entry);
+            }
+        }
+    }
+}
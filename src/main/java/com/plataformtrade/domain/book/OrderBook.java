@@ -0,0 +1,324 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Price-time priority limit order book for a single market.
+ * <p>
+ * Bids and asks are {@link PriceLadder}s keyed by primitive tick price, each
+ * level holding a FIFO queue of resting orders. Resting orders live in an
+ * {@link OrderStore}, on the heap or off-heap depending on the
+ * {@link OrderStorage}, which also indexes them by id, so cancels and
+ * amendments reach an order's slot without scanning its level. Store slots and price
+ * levels are recycled through free lists, so matching and resting orders do
+ * not allocate once the book is warm.
+ * <p>
+ * The book is not thread-safe: it is meant to be driven by a single thread.
+ */
+public final class OrderBook {
+    private static final String SIDE_BUY = "buy";
+    private static final int DEFAULT_EXPECTED_ORDERS = 1024;
+
+    private final String marketId;
+    private final PriceLadder bids = PriceLadder.bids();
+    private final PriceLadder asks = PriceLadder.asks();
+    private final OrderStore store;
+    private final TradeListener tradeListener;
+    private final DepthListener depthListener;
+    private PriceLevel freeLevels;
+
+    public OrderBook(String marketId) {
+        this(marketId, DEFAULT_EXPECTED_ORDERS, TradeListener.NO_OP);
+    }
+
+    public OrderBook(String marketId, TradeListener tradeListener) {
+        this(marketId, DEFAULT_EXPECTED_ORDERS, tradeListener);
+    }
+
+    public OrderBook(String marketId, TradeListener tradeListener, DepthListener depthListener) {
+        this(marketId, DEFAULT_EXPECTED_ORDERS, tradeListener, depthListener);
+    }
+
+    public OrderBook(String marketId, int expectedOrders, TradeListener tradeListener) {
+        this(marketId, expectedOrders, tradeListener, DepthListener.NO_OP);
+    }
+
+    public OrderBook(String marketId, int expectedOrders, TradeListener tradeListener, DepthListener depthListener) {
+        this(marketId, OrderStorage.HEAP, expectedOrders, tradeListener, depthListener);
+    }
+
+    public OrderBook(
+            String marketId,
+            OrderStorage storage,
+            int expectedOrders,
+            TradeListener tradeListener,
+            DepthListener depthListener
+    ) {
+        this.marketId = Objects.requireNonNull(marketId, "marketId must not be null");
+        this.tradeListener = Objects.requireNonNull(tradeListener, "tradeListener must not be null");
+        this.depthListener = Objects.requireNonNull(depthListener, "depthListener must not be null");
+        Objects.requireNonNull(storage, "storage must not be null");
+        if (expectedOrders <= 0) {
+            throw new IllegalArgumentException("expectedOrders must be positive");
+        }
+        this.store = OrderStore.create(storage, marketId, expectedOrders);
+    }
+
+    /**
+     * Matches the incoming order against resting liquidity on the opposite side
+     * and rests whatever quantity is left. Each match fills both orders at the
+     * resting order's price.
+     */
+    public void place(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        if (!marketId.equals(order.getMarketId())) {
+            throw new IllegalArgumentException("order belongs to market " + order.getMarketId() + ", not " + marketId);
+        }
+        store.validate(order);
+        if (store.find(order.getOrderId()) != OrderStore.NONE) {
+            throw new IllegalArgumentException("order already in book: " + order.getOrderId());
+        }
+
+        boolean buy = SIDE_BUY.equals(order.getSide());
+        match(order, buy ? asks : bids);
+
+        if (order.getAvailableQuantity() > 0) {
+            rest(order, buy ? bids : asks);
+        }
+    }
+
+    /**
+     * Rests an order without matching it, used to rebuild a book from a
+     * snapshot. Orders must be restored in priority order.
+     */
+    public void restore(Order order) {
+        Objects.requireNonNull(order, "order must not be null");
+        store.validate(order);
+        if (store.find(order.getOrderId()) != OrderStore.NONE) {
+            throw new IllegalArgumentException("order already in book: " + order.getOrderId());
+        }
+        rest(order, SIDE_BUY.equals(order.getSide()) ? bids : asks);
+    }
+
+    /**
+     * Removes a resting order and returns it marked cancelled, or null when no
+     * order with this id is resting. The id index gives the order's slot and
+     * the slot carries its queue links, so the order is unlinked without
+     * scanning its price level.
+     */
+    public Order cancel(String orderId) {
+        int slot = store.find(orderId);
+        if (slot == OrderStore.NONE) {
+            return null;
+        }
+        Order cancelled = store.toOrder(slot);
+        unlink(slot);
+        cancelled.cancel();
+        return cancelled;
+    }
+
+    /**
+     * Amends a resting order and returns it, or null when no order with this
+     * id is resting. Lowering the quantity at the same price keeps the order's
+     * place in its queue; any other change takes it out of the book and
+     * places it again with the new terms, so it may trade and loses its time
+     * priority. Fills so far are kept either way. If placing the new terms
+     * fails before they trade, the original order is put back, behind the
+     * orders resting at its price, and the exception rethrown; trades made
+     * before a failure stand, as they do for {@link #place}.
+     */
+    public Order replace(String orderId, long quantity, long price) {
+        int slot = store.find(orderId);
+        if (slot == OrderStore.NONE) {
+            return null;
+        }
+        OrderView current = store.view(slot);
+        if (quantity <= current.getFillQuantity()) {
+            throw new IllegalArgumentException("quantity must be above the filled quantity");
+        }
+        if (price <= 0) {
+            throw new IllegalArgumentException("price must be positive");
+        }
+        long currentQuantity = current.getQuantity();
+        if (price == current.getPrice() && quantity <= currentQuantity) {
+            PriceLadder ladder = SIDE_BUY.equals(current.getSide()) ? bids : asks;
+            PriceLevel level = ladder.find(price);
+            store.reduceQuantity(slot, quantity);
+            level.reduce(currentQuantity - quantity);
+            depthListener.onLevelChanged(ladder.isBid(), price, level.totalQuantity, level.orderCount);
+            return store.toOrder(slot);
+        }
+        Order original = store.toOrder(slot);
+        Order replacement = original.replace(quantity, price);
+        store.validate(replacement);
+        try {
+            unlink(slot);
+            place(replacement);
+        } catch (RuntimeException ex) {
+            if (replacement.getFillQuantity() == original.getFillQuantity() && store.find(orderId) == OrderStore.NONE) {
+                rest(original, SIDE_BUY.equals(original.getSide()) ? bids : asks);
+            }
+            throw ex;
+        }
+        return replacement;
+    }
+
+    /**
+     * Visits every resting order, bids then asks, best price first and in time
+     * priority within each level. Off-heap books visit copies.
+     */
+    public void forEachOrder(Consumer<Order> visitor) {
+        forEachOrder(bids, visitor);
+        forEachOrder(asks, visitor);
+    }
+
+    /**
+     * View of the resting order with this id, or null; valid until the next
+     * call on the book. Does not copy off-heap orders.
+     */
+    public OrderView viewOrder(String orderId) {
+        int slot = store.find(orderId);
+        return slot == OrderStore.NONE ? null : store.view(slot);
+    }
+
+    /**
+     * The resting order with this id, or null; a copy when the book stores
+     * orders off-heap.
+     */
+    public Order findOrder(String orderId) {
+        int slot = store.find(orderId);
+        return slot == OrderStore.NONE ? null : store.toOrder(slot);
+    }
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public int getOrderCount() {
+        return store.size();
+    }
+
+    public boolean hasBids() {
+        return !bids.isEmpty();
+    }
+
+    public boolean hasAsks() {
+        return !asks.isEmpty();
+    }
+
+    /**
+     * Best bid price; only meaningful when {@link #hasBids()} is true.
+     */
+    public long getBestBid() {
+        PriceLevel best = bids.best();
+        return best == null ? 0 : best.price;
+    }
+
+    /**
+     * Best ask price; only meaningful when {@link #hasAsks()} is true.
+     */
+    public long getBestAsk() {
+        PriceLevel best = asks.best();
+        return best == null ? 0 : best.price;
+    }
+
+    public int getBidDepth() {
+        return bids.size();
+    }
+
+    public int getAskDepth() {
+        return asks.size();
+    }
+
+    /**
+     * Bid level at the given depth, 0 being the best bid.
+     */
+    public PriceLevel getBidLevel(int depth) {
+        return bids.levelAt(depth);
+    }
+
+    /**
+     * Ask level at the given depth, 0 being the best ask.
+     */
+    public PriceLevel getAskLevel(int depth) {
+        return asks.levelAt(depth);
+    }
+
+    private void match(Order taker, PriceLadder opposite) {
+        long limitPrice = taker.getPrice();
+        while (taker.getAvailableQuantity() > 0 && opposite.crosses(limitPrice)) {
+            PriceLevel level = opposite.best();
+            int maker = level.head;
+
+            long quantity = Math.min(taker.getAvailableQuantity(), store.availableQuantity(maker));
+            long price = level.price;
+            store.fill(maker, quantity, price);
+            taker.fill(quantity, price);
+            level.reduce(quantity);
+            tradeListener.onTrade(taker, store.view(maker), quantity, price);
+
+            if (store.availableQuantity(maker) == 0) {
+                level.remove(maker);
+                store.remove(maker);
+            }
+            depthListener.onLevelChanged(opposite.isBid(), price, level.totalQuantity, level.orderCount);
+            if (level.isEmpty()) {
+                opposite.removeBest();
+                releaseLevel(level);
+            }
+        }
+    }
+
+    private void unlink(int slot) {
+        PriceLadder ladder = SIDE_BUY.equals(store.view(slot).getSide()) ? bids : asks;
+        long price = store.price(slot);
+        PriceLevel level = ladder.find(price);
+        level.remove(slot);
+        store.remove(slot);
+        depthListener.onLevelChanged(ladder.isBid(), price, level.totalQuantity, level.orderCount);
+        if (level.isEmpty()) {
+            ladder.remove(level);
+            releaseLevel(level);
+        }
+    }
+
+    private void forEachOrder(PriceLadder ladder, Consumer<Order> visitor) {
+        for (int depth = 0; depth < ladder.size(); depth++) {
+            for (int slot = ladder.levelAt(depth).head; slot != OrderStore.NONE; slot = store.next(slot)) {
+                visitor.accept(store.toOrder(slot));
+            }
+        }
+    }
+
+    private void rest(Order order, PriceLadder ladder) {
+        long price = order.getPrice();
+        PriceLevel level = ladder.find(price);
+        if (level == null) {
+            level = acquireLevel(price);
+            ladder.insert(level);
+        }
+        level.append(store.add(order));
+        depthListener.onLevelChanged(ladder.isBid(), price, level.totalQuantity, level.orderCount);
+    }
+
+    private PriceLevel acquireLevel(long price) {
+        PriceLevel level = freeLevels;
+        if (level == null) {
+            level = new PriceLevel(store);
+        } else {
+            freeLevels = level.nextFree;
+        }
+        level.init(price);
+        return level;
+    }
+
+    private void releaseLevel(PriceLevel level) {
+        level.init(0);
+        level.nextFree = freeLevels;
+        freeLevels = level;
+    }
+}
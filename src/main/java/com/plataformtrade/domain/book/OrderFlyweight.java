@@ -0,0 +1,100 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.OrderView;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * {@link OrderView} over one slot of an {@link OffHeapOrderStore}. The store
+ * repositions a single instance for every callback, so a flyweight must not be
+ * kept beyond the call it was handed to.
+ */
+final class OrderFlyweight implements OrderView {
+    private final OffHeapOrderStore store;
+    private int slot;
+
+    OrderFlyweight(OffHeapOrderStore store) {
+        this.store = store;
+    }
+
+    OrderFlyweight moveTo(int slot) {
+        this.slot = slot;
+        return this;
+    }
+
+    @Override
+    public String getOrderId() {
+        return UuidCodec.format(store.idHigh(slot), store.idLow(slot));
+    }
+
+    @Override
+    public String getAccountId() {
+        return store.accountId(slot);
+    }
+
+    @Override
+    public String getMarketId() {
+        return store.marketId();
+    }
+
+    @Override
+    public String getSide() {
+        return store.side(slot);
+    }
+
+    @Override
+    public long getQuantity() {
+        return store.quantity(slot);
+    }
+
+    @Override
+    public long getPrice() {
+        return store.price(slot);
+    }
+
+    @Override
+    public long getFillQuantity() {
+        return store.fillQuantity(slot);
+    }
+
+    @Override
+    public long getAvailableQuantity() {
+        return store.availableQuantity(slot);
+    }
+
+    @Override
+    public long getFillPrice() {
+        long fillQuantity = store.fillQuantity(slot);
+        if (fillQuantity == 0) {
+            return 0;
+        }
+        long high = store.fillNotionalHigh(slot);
+        long low = store.fillNotionalLow(slot);
+        if (high == 0 && low >= 0) {
+            return low / fillQuantity;
+        }
+        return getFillNotional().divide(BigInteger.valueOf(fillQuantity)).longValueExact();
+    }
+
+    @Override
+    public BigInteger getFillNotional() {
+        long high = store.fillNotionalHigh(slot);
+        long low = store.fillNotionalLow(slot);
+        if (high == 0 && low >= 0) {
+            return BigInteger.valueOf(low);
+        }
+        BigInteger unsignedLow = BigInteger.valueOf(low >>> 1).shiftLeft(1).add(BigInteger.valueOf(low & 1));
+        return BigInteger.valueOf(high).shiftLeft(64).add(unsignedLow);
+    }
+
+    @Override
+    public String getStatus() {
+        return store.status(slot);
+    }
+
+    @Override
+    public Date getTimestamp() {
+        return new Date(store.timestamp(slot));
+    }
+}
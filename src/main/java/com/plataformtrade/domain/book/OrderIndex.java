@@ -0,0 +1,124 @@
+package com.plataformtrade.domain.book;
+
+/**
+ * Open-addressing hash index from orderId to its slot in a {@link HeapOrderStore}.
+ * <p>
+ * Uses linear probing with backward-shift deletion, so there are no tombstones
+ * and no per-entry allocation (unlike {@code HashMap.Node}) or boxing. Capacity is always
+ * a power of two and kept at most half full.
+ */
+final class OrderIndex {
+    private String[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    OrderIndex(int expectedOrders) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedOrders * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Slot of the order, or {@link OrderStore#NONE}.
+     */
+    int get(String orderId) {
+        int index = slot(orderId);
+        String key;
+        while ((key = keys[index]) != null) {
+            if (key.equals(orderId)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return OrderStore.NONE;
+    }
+
+    boolean put(String orderId, int slot) {
+        int index = slot(orderId);
+        String key;
+        while ((key = keys[index]) != null) {
+            if (key.equals(orderId)) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = orderId;
+        values[index] = slot;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    int remove(String orderId) {
+        int index = slot(orderId);
+        String key;
+        while ((key = keys[index]) != null) {
+            if (key.equals(orderId)) {
+                int removed = values[index];
+                shiftBack(index);
+                size--;
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+        return OrderStore.NONE;
+    }
+
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            String key = keys[index];
+            if (key == null) {
+                break;
+            }
+            int home = slot(key);
+            // Move the entry into the gap unless its home slot lies cyclically in (gap, index].
+            boolean movable = gap <= index
+                    ? (home <= gap || home > index)
+                    : (home <= gap && home > index);
+            if (movable) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = null;
+        values[gap] = 0;
+    }
+
+    private int slot(String orderId) {
+        int hash = orderId.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = capacity >> 1;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            String key = oldKeys[i];
+            if (key != null) {
+                int index = slot(key);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+}
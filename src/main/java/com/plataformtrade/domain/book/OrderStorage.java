@@ -0,0 +1,15 @@
+package com.plataformtrade.domain.book;
+
+/**
+ * Where an {@link OrderBook} keeps its resting orders.
+ * <p>
+ * {@code HEAP} keeps the {@link com.plataformtrade.domain.Order} objects
+ * themselves. {@code OFF_HEAP} copies each resting order into a fixed-size
+ * slot of direct memory, with the account id interned and the UUID order id
+ * packed into two longs, so millions of resting orders add almost nothing
+ * for the garbage collector to trace. Off-heap books require UUID order ids.
+ */
+public enum OrderStorage {
+    HEAP,
+    OFF_HEAP
+}
@@ -0,0 +1,69 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+/**
+ * Resting orders of one book, addressed by int slots. Each slot also carries
+ * the links of the price-level queue it sits in, so the book itself holds no
+ * per-order objects.
+ */
+interface OrderStore {
+    int NONE = -1;
+
+    static OrderStore create(OrderStorage storage, String marketId, int expectedOrders) {
+        return switch (storage) {
+            case HEAP -> new HeapOrderStore(expectedOrders);
+            case OFF_HEAP -> new OffHeapOrderStore(marketId, expectedOrders);
+        };
+    }
+
+    /**
+     * Throws {@link IllegalArgumentException} if the order cannot be stored,
+     * before the book starts matching it.
+     */
+    void validate(Order order);
+
+    /**
+     * Stores a resting order and returns its slot, or {@link #NONE} if an
+     * order with the same id is already stored.
+     */
+    int add(Order order);
+
+    int find(String orderId);
+
+    void remove(int slot);
+
+    int size();
+
+    long price(int slot);
+
+    long availableQuantity(int slot);
+
+    void fill(int slot, long quantity, long price);
+
+    /**
+     * Lowers the order's quantity without moving it; same rules as
+     * {@link Order#reduceQuantity}.
+     */
+    void reduceQuantity(int slot, long quantity);
+
+    /**
+     * View of the order in the slot, valid until the next call on the store.
+     */
+    OrderView view(int slot);
+
+    /**
+     * The order in the slot as an {@link Order}: the stored instance on the
+     * heap, a copy when the order lives off-heap.
+     */
+    Order toOrder(int slot);
+
+    int prev(int slot);
+
+    int next(int slot);
+
+    void setPrev(int slot, int prev);
+
+    void setNext(int slot, int next);
+}
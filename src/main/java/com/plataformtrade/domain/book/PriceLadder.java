@@ -0,0 +1,121 @@
+package com.plataformtrade.domain.book;
+
+import java.util.Arrays;
+
+/**
+ * One side of the book: price levels sorted by primitive tick price.
+ * <p>
+ * Keys are stored ascending with the best price at the end of the array, so
+ * touching the top of book (the common case) shifts little or nothing. Asks
+ * store the negated price so both sides share the same ordering logic.
+ */
+final class PriceLadder {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final boolean bid;
+    private long[] keys;
+    private PriceLevel[] levels;
+    private int size;
+
+    private PriceLadder(boolean bid, int capacity) {
+        this.bid = bid;
+        this.keys = new long[capacity];
+        this.levels = new PriceLevel[capacity];
+    }
+
+    static PriceLadder bids() {
+        return new PriceLadder(true, DEFAULT_CAPACITY);
+    }
+
+    static PriceLadder asks() {
+        return new PriceLadder(false, DEFAULT_CAPACITY);
+    }
+
+    boolean isBid() {
+        return bid;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    PriceLevel best() {
+        return size == 0 ? null : levels[size - 1];
+    }
+
+    /**
+     * Level at the given depth, 0 being the best price.
+     */
+    PriceLevel levelAt(int depth) {
+        return levels[size - 1 - depth];
+    }
+
+    /**
+     * True when an incoming order on the opposite side with the given limit
+     * price can trade against this ladder's best level.
+     */
+    boolean crosses(long limitPrice) {
+        if (size == 0) {
+            return false;
+        }
+        long bestPrice = levels[size - 1].price;
+        return bid ? bestPrice >= limitPrice : bestPrice <= limitPrice;
+    }
+
+    PriceLevel find(long price) {
+        int index = Arrays.binarySearch(keys, 0, size, key(price));
+        return index >= 0 ? levels[index] : null;
+    }
+
+    void insert(PriceLevel level) {
+        long key = key(level.price);
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            throw new IllegalStateException("price level already exists: " + level.price);
+        }
+        int insertAt = -index - 1;
+        ensureCapacity();
+        int moved = size - insertAt;
+        if (moved > 0) {
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, moved);
+            System.arraycopy(levels, insertAt, levels, insertAt + 1, moved);
+        }
+        keys[insertAt] = key;
+        levels[insertAt] = level;
+        size++;
+    }
+
+    void removeBest() {
+        levels[--size] = null;
+    }
+
+    void remove(PriceLevel level) {
+        int index = Arrays.binarySearch(keys, 0, size, key(level.price));
+        if (index < 0) {
+            return;
+        }
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(levels, index + 1, levels, index, moved);
+        }
+        levels[--size] = null;
+    }
+
+    private long key(long price) {
+        return bid ? price : -price;
+    }
+
+    private void ensureCapacity() {
+        if (size < keys.length) {
+            return;
+        }
+        int capacity = keys.length << 1;
+        keys = Arrays.copyOf(keys, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+    }
+}
@@ -0,0 +1,88 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+
+/**
+ * FIFO queue of resting orders at a single price. Orders are kept in a doubly
+ * linked list of {@link OrderStore} slots so the head is always the oldest
+ * order.
+ */
+public final class PriceLevel {
+    long price;
+    int head = OrderStore.NONE;
+    int tail = OrderStore.NONE;
+    long totalQuantity;
+    int orderCount;
+    PriceLevel nextFree;
+    private final OrderStore store;
+
+    PriceLevel(OrderStore store) {
+        this.store = store;
+    }
+
+    void init(long price) {
+        this.price = price;
+        this.head = OrderStore.NONE;
+        this.tail = OrderStore.NONE;
+        this.totalQuantity = 0;
+        this.orderCount = 0;
+        this.nextFree = null;
+    }
+
+    void append(int slot) {
+        store.setPrev(slot, tail);
+        store.setNext(slot, OrderStore.NONE);
+        if (tail == OrderStore.NONE) {
+            head = slot;
+        } else {
+            store.setNext(tail, slot);
+        }
+        tail = slot;
+        totalQuantity += store.availableQuantity(slot);
+        orderCount++;
+    }
+
+    void remove(int slot) {
+        int prev = store.prev(slot);
+        int next = store.next(slot);
+        if (prev == OrderStore.NONE) {
+            head = next;
+        } else {
+            store.setNext(prev, next);
+        }
+        if (next == OrderStore.NONE) {
+            tail = prev;
+        } else {
+            store.setPrev(next, prev);
+        }
+        totalQuantity -= store.availableQuantity(slot);
+        orderCount--;
+    }
+
+    void reduce(long quantity) {
+        totalQuantity -= quantity;
+    }
+
+    boolean isEmpty() {
+        return head == OrderStore.NONE;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    /**
+     * Oldest order at this price; a copy when the book stores orders off-heap.
+     */
+    public Order getFirstOrder() {
+        return head == OrderStore.NONE ? null : store.toOrder(head);
+    }
+}
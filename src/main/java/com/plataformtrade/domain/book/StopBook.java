@@ -0,0 +1,110 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Pending stop orders of a single market, waiting for the last trade price
+ * to reach their stop price.
+ * <p>
+ * Buys and sells each live in a {@link TriggerLadder} sorted by stop price,
+ * so evaluating a trade price costs a binary search plus the orders it
+ * actually triggers, however many stops are pending. An id index gives
+ * cancels the stop price to search for.
+ * <p>
+ * Like {@link OrderBook}, the stop book is meant to be driven by a single
+ * thread.
+ */
+public final class StopBook {
+    private static final String SIDE_BUY = "buy";
+
+    private final String marketId;
+    private final TriggerLadder buys = new TriggerLadder(true);
+    private final TriggerLadder sells = new TriggerLadder(false);
+    private final Map<String, Long> stopPrices = new HashMap<>();
+
+    public StopBook(String marketId) {
+        this.marketId = Objects.requireNonNull(marketId, "marketId must not be null");
+    }
+
+    public void add(Order order, long stopPrice) {
+        Objects.requireNonNull(order, "order must not be null");
+        if (!marketId.equals(order.getMarketId())) {
+            throw new IllegalArgumentException("order belongs to market " + order.getMarketId() + ", not " + marketId);
+        }
+        if (stopPrice <= 0) {
+            throw new IllegalArgumentException("stopPrice must be positive");
+        }
+        if (stopPrices.putIfAbsent(order.getOrderId(), stopPrice) != null) {
+            throw new IllegalArgumentException("stop order already pending: " + order.getOrderId());
+        }
+        (SIDE_BUY.equals(order.getSide()) ? buys : sells).add(order, stopPrice);
+    }
+
+    /**
+     * The pending stop order with this id, or null.
+     */
+    public StopOrder find(String orderId) {
+        Long stopPrice = stopPrices.get(orderId);
+        if (stopPrice == null) {
+            return null;
+        }
+        Order order = buys.find(orderId, stopPrice);
+        if (order == null) {
+            order = sells.find(orderId, stopPrice);
+        }
+        return order == null ? null : new StopOrder(order, stopPrice);
+    }
+
+    /**
+     * Removes the pending stop order with this id and returns it, or null.
+     */
+    public Order remove(String orderId) {
+        Long stopPrice = stopPrices.remove(orderId);
+        if (stopPrice == null) {
+            return null;
+        }
+        Order removed = buys.remove(orderId, stopPrice);
+        return removed != null ? removed : sells.remove(orderId, stopPrice);
+    }
+
+    /**
+     * Removes every stop order the last trade price reaches and hands it
+     * over, buys before sells. Returns how many were triggered.
+     */
+    public int trigger(long lastPrice, Consumer<Order> triggered) {
+        return trigger(buys, lastPrice, triggered) + trigger(sells, lastPrice, triggered);
+    }
+
+    /**
+     * Visits every pending stop order, buys then sells, in trigger order.
+     */
+    public void forEach(Consumer<StopOrder> visitor) {
+        buys.forEach(visitor);
+        sells.forEach(visitor);
+    }
+
+    public int size() {
+        return buys.size() + sells.size();
+    }
+
+    /**
+     * Hands over the triggered suffix of the ladder nearest stop first,
+     * oldest first within a stop price.
+     */
+    private int trigger(TriggerLadder ladder, long lastPrice, Consumer<Order> triggered) {
+        int from = ladder.triggeredFrom(lastPrice);
+        int to = ladder.size();
+        for (int index = to - 1; index >= from; index--) {
+            Order order = ladder.orderAt(index);
+            stopPrices.remove(order.getOrderId());
+            triggered.accept(order);
+        }
+        ladder.truncate(from);
+        return to - from;
+    }
+}
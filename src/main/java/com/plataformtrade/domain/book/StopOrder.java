@@ -0,0 +1,10 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+
+/**
+ * A limit order held back until the last trade price reaches
+ * {@code stopPrice}, in market ticks.
+ */
+public record StopOrder(Order order, long stopPrice) {
+}
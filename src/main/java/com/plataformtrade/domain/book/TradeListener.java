@@ -0,0 +1,16 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+
+/**
+ * Receives every match produced by an {@link OrderBook}, on the thread that
+ * drives the book. The maker may be a flyweight that is repositioned after
+ * the call, so implementations must not retain the arguments.
+ */
+@FunctionalInterface
+public interface TradeListener {
+    TradeListener NO_OP = (taker, maker, quantity, price) -> { };
+
+    void onTrade(Order taker, OrderView maker, long quantity, long price);
+}
@@ -0,0 +1,133 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Pending stop orders of one side, sorted by primitive trigger key.
+ * <p>
+ * Keys are kept ascending so that the orders a trade triggers always form a
+ * suffix of the array: buy stops store the negated stop price and trigger
+ * when the last price rises to them, sell stops store the stop price and
+ * trigger when it falls to them. Finding the triggered range is one binary
+ * search and removing it just shortens the array. Orders with the same stop
+ * price keep submission order, the oldest nearest the end.
+ */
+final class TriggerLadder {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final boolean buy;
+    private long[] keys = new long[DEFAULT_CAPACITY];
+    private Order[] orders = new Order[DEFAULT_CAPACITY];
+    private int size;
+
+    TriggerLadder(boolean buy) {
+        this.buy = buy;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(Order order, long stopPrice) {
+        long key = key(stopPrice);
+        int index = lowerBound(key);
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            orders = Arrays.copyOf(orders, size << 1);
+        }
+        int moved = size - index;
+        if (moved > 0) {
+            System.arraycopy(keys, index, keys, index + 1, moved);
+            System.arraycopy(orders, index, orders, index + 1, moved);
+        }
+        keys[index] = key;
+        orders[index] = order;
+        size++;
+    }
+
+    Order find(String orderId, long stopPrice) {
+        int index = indexOf(orderId, stopPrice);
+        return index < 0 ? null : orders[index];
+    }
+
+    /**
+     * Removes the order with this id and stop price, or returns null.
+     */
+    Order remove(String orderId, long stopPrice) {
+        int index = indexOf(orderId, stopPrice);
+        if (index < 0) {
+            return null;
+        }
+        Order order = orders[index];
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(orders, index + 1, orders, index, moved);
+        }
+        orders[--size] = null;
+        return order;
+    }
+
+    /**
+     * Index of the first order the last trade price triggers; every order
+     * from there to the end is triggered.
+     */
+    int triggeredFrom(long lastPrice) {
+        return lowerBound(buy ? -lastPrice : lastPrice);
+    }
+
+    Order orderAt(int index) {
+        return orders[index];
+    }
+
+    /**
+     * Drops the orders from {@code from} to the end.
+     */
+    void truncate(int from) {
+        Arrays.fill(orders, from, size, null);
+        size = from;
+    }
+
+    /**
+     * Visits every pending order in trigger order.
+     */
+    void forEach(Consumer<StopOrder> visitor) {
+        for (int index = size - 1; index >= 0; index--) {
+            visitor.accept(new StopOrder(orders[index], buy ? -keys[index] : keys[index]));
+        }
+    }
+
+    private int indexOf(String orderId, long stopPrice) {
+        long key = key(stopPrice);
+        for (int index = lowerBound(key); index < size && keys[index] == key; index++) {
+            if (orders[index].getOrderId().equals(orderId)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private long key(long stopPrice) {
+        return buy ? -stopPrice : stopPrice;
+    }
+
+    /**
+     * First index whose key is at least {@code key}.
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
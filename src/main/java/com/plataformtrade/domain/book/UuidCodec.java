@@ -0,0 +1,69 @@
+package com.plataformtrade.domain.book;
+
+/**
+ * Packs canonical UUID strings ({@code 8-4-4-4-12} lowercase hex digits, as
+ * produced by {@link java.util.UUID#toString()}) into two longs and back
+ * without going through {@link java.util.UUID}. Only the canonical form is
+ * accepted so that unpacking gives back the exact same string.
+ */
+final class UuidCodec {
+    private static final int LENGTH = 36;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private UuidCodec() {
+    }
+
+    static boolean isUuid(String value) {
+        if (value == null || value.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static long high(String uuid) {
+        return parse(uuid, 0, 8) << 32 | parse(uuid, 9, 13) << 16 | parse(uuid, 14, 18);
+    }
+
+    static long low(String uuid) {
+        return parse(uuid, 19, 23) << 48 | parse(uuid, 24, 36);
+    }
+
+    static String format(long high, long low) {
+        char[] chars = new char[LENGTH];
+        write(chars, 0, high >>> 32, 8);
+        chars[8] = '-';
+        write(chars, 9, high >>> 16, 4);
+        chars[13] = '-';
+        write(chars, 14, high, 4);
+        chars[18] = '-';
+        write(chars, 19, low >>> 48, 4);
+        chars[23] = '-';
+        write(chars, 24, low, 12);
+        return new String(chars);
+    }
+
+    private static long parse(String value, int from, int to) {
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            result = result << 4 | Character.digit(value.charAt(i), 16);
+        }
+        return result;
+    }
+
+    private static void write(char[] chars, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
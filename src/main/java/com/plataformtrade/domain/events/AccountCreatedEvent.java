@@ -1,7 +1,8 @@
 package com.plataformtrade.domain.events;
 
+import com.plataformtrade.domain.ids.Ids;
+
 import java.time.Instant;
-import java.util.UUID;
 
 public class AccountCreatedEvent implements DomainEvent {
     private final String eventId;
@@ -12,7 +13,7 @@ public class AccountCreatedEvent implements DomainEvent {
     private final Instant occurredOn;
 
     public AccountCreatedEvent(String aggregateId, String name, String email, String document) {
-        this.eventId = UUID.randomUUID().toString();
+        this.eventId = Ids.next();
         this.aggregateId = aggregateId;
         this.name = name;
         this.email = email;
@@ -0,0 +1,9 @@
+package com.plataformtrade.domain.ids;
+
+/**
+ * Source of identifiers for new aggregates and events.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    String nextId();
+}
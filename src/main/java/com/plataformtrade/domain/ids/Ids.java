@@ -0,0 +1,23 @@
+package com.plataformtrade.domain.ids;
+
+import java.util.Objects;
+
+/**
+ * Generator used by the domain factories ({@code Order.create},
+ * {@code Account.create}, domain events). Defaults to {@link UuidV7Generator};
+ * tests and alternative deployments can plug in another one.
+ */
+public final class Ids {
+    private static volatile IdGenerator generator = new UuidV7Generator();
+
+    private Ids() {
+    }
+
+    public static String next() {
+        return generator.nextId();
+    }
+
+    public static void use(IdGenerator idGenerator) {
+        generator = Objects.requireNonNull(idGenerator, "idGenerator must not be null");
+    }
+}
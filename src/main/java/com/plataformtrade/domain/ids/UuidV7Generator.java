@@ -0,0 +1,54 @@
+package com.plataformtrade.domain.ids;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered UUIDv7 ids (RFC 9562): a 48-bit Unix millisecond timestamp,
+ * a 12-bit counter and 62 random bits.
+ * <p>
+ * Each thread keeps its own clock and counter and draws its random bits from
+ * {@link ThreadLocalRandom}, so generation takes no lock and shares no
+ * mutable state. Ids from one thread are strictly increasing: the counter
+ * starts at a random value below 2048 every millisecond, and if it runs out
+ * the thread borrows the next millisecond. Ids from different threads are
+ * ordered by millisecond, which keeps B-tree inserts on the right-most pages.
+ */
+public final class UuidV7Generator implements IdGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long VARIANT_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    public UUID nextUuid() {
+        State current = state.get();
+        long now = System.currentTimeMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (now > current.millis) {
+            current.millis = now;
+            current.counter = random.nextInt(COUNTER_SEED_BOUND);
+        } else if (current.counter < COUNTER_MAX) {
+            current.counter++;
+        } else {
+            current.millis++;
+            current.counter = random.nextInt(COUNTER_SEED_BOUND);
+        }
+        long mostSignificant = current.millis << 16 | VERSION | current.counter;
+        long leastSignificant = random.nextLong() & VARIANT_MASK | VARIANT;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static final class State {
+        private long millis = -1;
+        private int counter;
+    }
+}
@@ -0,0 +1,11 @@
+package com.plataformtrade.domain.repositories;
+
+import com.plataformtrade.domain.Market;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MarketRepository {
+    List<Market> findAll();
+    Optional<Market> findById(String marketId);
+}
@@ -0,0 +1,34 @@
+package com.plataformtrade.infra.balances;
+
+import com.plataformtrade.application.balances.BalanceLedger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically writes the balances changed in the {@link BalanceLedger} to
+ * the database. A failed flush keeps the balances queued for the next run.
+ */
+@Component
+public class BalanceFlushScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceFlushScheduler.class);
+
+    private final BalanceLedger balanceLedger;
+
+    public BalanceFlushScheduler(BalanceLedger balanceLedger) {
+        this.balanceLedger = balanceLedger;
+    }
+
+    @Scheduled(fixedDelayString = "${engine.balances.flush-interval-ms:1000}")
+    public void flush() {
+        try {
+            int flushed = balanceLedger.flush();
+            if (flushed > 0) {
+                logger.debug("Flushed balances: count={}", flushed);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Failed to flush balances: pending={}", balanceLedger.pendingFlush(), ex);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.plataformtrade.infra.cluster;
+
+import com.plataformtrade.application.cluster.ShardCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces this node to the cluster and expires silent nodes on a fixed
+ * delay; see {@link ShardCoordinator#tick()}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "engine.cluster", name = "enabled", havingValue = "true")
+public class ClusterHeartbeatScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterHeartbeatScheduler.class);
+
+    private final ShardCoordinator shardCoordinator;
+
+    public ClusterHeartbeatScheduler(ShardCoordinator shardCoordinator) {
+        this.shardCoordinator = shardCoordinator;
+    }
+
+    @Scheduled(fixedDelayString = "${engine.cluster.heartbeat-interval-ms:1000}")
+    public void tick() {
+        try {
+            shardCoordinator.tick();
+        } catch (RuntimeException ex) {
+            logger.error("Cluster heartbeat failed: members={}", shardCoordinator.members(), ex);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.plataformtrade.infra.cluster;
+
+import com.plataformtrade.application.cluster.ClusterTransport;
+import com.plataformtrade.application.cluster.ShardCommand;
+import com.plataformtrade.application.engine.BookSnapshot;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.infra.journal.MappedFileJournalStore;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link ClusterTransport} over RabbitMQ. Each node consumes two queues bound
+ * to the shard exchange: {@code shard.<nodeId>} for commands, answered
+ * through direct reply-to, and {@code shard.<nodeId>.hand-off} for market
+ * hand-offs. Announcements go to a fanout exchange every node listens to.
+ */
+public class RabbitClusterTransport implements ClusterTransport {
+    static final String HEADER_NODE_ID = "x-node-id";
+    static final String HEADER_LEAVING = "x-leaving";
+    static final String HEADER_MARKET_ID = "x-market-id";
+
+    private final AsyncRabbitTemplate asyncRabbitTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final String shardExchange;
+    private final String clusterExchange;
+
+    public RabbitClusterTransport(
+            AsyncRabbitTemplate asyncRabbitTemplate,
+            RabbitTemplate rabbitTemplate,
+            String shardExchange,
+            String clusterExchange
+    ) {
+        this.asyncRabbitTemplate = Objects.requireNonNull(asyncRabbitTemplate, "asyncRabbitTemplate must not be null");
+        this.rabbitTemplate = Objects.requireNonNull(rabbitTemplate, "rabbitTemplate must not be null");
+        this.shardExchange = Objects.requireNonNull(shardExchange, "shardExchange must not be null");
+        this.clusterExchange = Objects.requireNonNull(clusterExchange, "clusterExchange must not be null");
+    }
+
+    public static String commandRoutingKey(String nodeId) {
+        return "shard." + nodeId;
+    }
+
+    public static String handOffRoutingKey(String nodeId) {
+        return "shard." + nodeId + ".hand-off";
+    }
+
+    @Override
+    public List<CompletableFuture<ExecutionReport>> send(String nodeId, ShardCommand command) {
+        List<CompletableFuture<ExecutionReport>> results = new ArrayList<>(command.resultCount());
+        for (int i = 0; i < command.resultCount(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        Message request = MessageBuilder.withBody(ShardMessageCodec.encodeCommand(command))
+                .setContentType(MessageProperties.CONTENT_TYPE_BYTES)
+                .build();
+        asyncRabbitTemplate.sendAndReceive(shardExchange, commandRoutingKey(nodeId), request)
+                .whenComplete((reply, error) -> {
+                    if (error != null) {
+                        IllegalStateException failure = new IllegalStateException(
+                                "No answer from node " + nodeId + " for market " + command.marketId(), error);
+                        results.forEach(result -> result.completeExceptionally(failure));
+                    } else {
+                        ShardMessageCodec.completeFromReply(reply.getBody(), results);
+                    }
+                });
+        return results;
+    }
+
+    @Override
+    public void handOff(String nodeId, String marketId, BookSnapshot snapshot) {
+        Message message = MessageBuilder.withBody(MappedFileJournalStore.encodeSnapshot(snapshot))
+                .setContentType(MessageProperties.CONTENT_TYPE_BYTES)
+                .setHeader(HEADER_MARKET_ID, marketId)
+                .build();
+        rabbitTemplate.send(shardExchange, handOffRoutingKey(nodeId), message);
+    }
+
+    @Override
+    public void announce(String nodeId, boolean leaving) {
+        Message message = MessageBuilder.withBody(new byte[0])
+                .setHeader(HEADER_NODE_ID, nodeId)
+                .setHeader(HEADER_LEAVING, leaving)
+                .build();
+        rabbitTemplate.send(clusterExchange, "", message);
+    }
+}
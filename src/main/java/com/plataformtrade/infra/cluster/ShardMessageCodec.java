@@ -0,0 +1,224 @@
+package com.plataformtrade.infra.cluster;
+
+import com.plataformtrade.application.cluster.ShardCommand;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.infra.codec.BinaryFrameCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Binary bodies of the commands and replies exchanged between engine nodes.
+ * <pre>
+ * command: byte version, byte type, marketId, then by type
+ *          place/stop: order [, long stopPrice]
+ *          cancel:     orderId, accountId
+ *          replace:    orderId, accountId, long quantity, long price
+ *          batch:      int count, orders
+ *   order: orderId, accountId, side, long quantity, long price, long timestamp
+ * reply:   byte version, int count, per result byte status, then an
+ *          execution report frame (see {@link BinaryFrameCodec}) or the error message
+ * </pre>
+ * Prices and quantities are the engine's ticks and lots. Errors keep their
+ * kind, so a market or order the owner cannot find is still a not-found on
+ * the node that received the request, and a rejected order still a bad
+ * request.
+ */
+final class ShardMessageCodec {
+    private static final byte VERSION = 1;
+    private static final byte STATUS_OK = 0;
+    private static final byte STATUS_NOT_FOUND = 1;
+    private static final byte STATUS_INVALID = 2;
+    private static final byte STATUS_FAILED = 3;
+
+    private ShardMessageCodec() {
+    }
+
+    static byte[] encodeCommand(ShardCommand command) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeByte(command.type().ordinal());
+            output.writeUTF(command.marketId());
+            switch (command.type()) {
+                case PLACE -> writeOrder(output, command.orders().get(0));
+                case STOP -> {
+                    writeOrder(output, command.orders().get(0));
+                    output.writeLong(command.stopPrice());
+                }
+                case CANCEL -> {
+                    output.writeUTF(command.orderId());
+                    output.writeUTF(command.accountId());
+                }
+                case REPLACE -> {
+                    output.writeUTF(command.orderId());
+                    output.writeUTF(command.accountId());
+                    output.writeLong(command.quantity());
+                    output.writeLong(command.price());
+                }
+                case BATCH -> {
+                    output.writeInt(command.orders().size());
+                    for (Order order : command.orders()) {
+                        writeOrder(output, order);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to encode shard command", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    static ShardCommand decodeCommand(byte[] body) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(body))) {
+            readVersion(input);
+            ShardCommand.Type type = ShardCommand.Type.values()[input.readUnsignedByte()];
+            String marketId = input.readUTF();
+            return switch (type) {
+                case PLACE -> ShardCommand.place(readOrder(input, marketId));
+                case STOP -> {
+                    Order order = readOrder(input, marketId);
+                    yield ShardCommand.stop(order, input.readLong());
+                }
+                case CANCEL -> {
+                    String orderId = input.readUTF();
+                    yield ShardCommand.cancel(marketId, orderId, input.readUTF());
+                }
+                case REPLACE -> {
+                    String orderId = input.readUTF();
+                    String accountId = input.readUTF();
+                    long quantity = input.readLong();
+                    yield ShardCommand.replace(marketId, orderId, accountId, quantity, input.readLong());
+                }
+                case BATCH -> {
+                    int count = input.readInt();
+                    List<Order> orders = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        orders.add(readOrder(input, marketId));
+                    }
+                    yield ShardCommand.batch(marketId, orders);
+                }
+            };
+        } catch (IOException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Malformed shard command: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Encodes the outcomes of a command; every future must be done.
+     */
+    static byte[] encodeReply(List<CompletableFuture<ExecutionReport>> results) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * results.size() + 8);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeInt(results.size());
+            ByteBuffer frame = null;
+            for (CompletableFuture<ExecutionReport> result : results) {
+                ExecutionReport report;
+                try {
+                    report = result.get();
+                } catch (ExecutionException | CompletionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    output.writeByte(status(cause));
+                    output.writeUTF(String.valueOf(cause.getMessage()));
+                    continue;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while encoding shard reply", ex);
+                }
+                frame = BinaryFrameCodec.ensureCapacity(frame, BinaryFrameCodec.sizeOf(report));
+                BinaryFrameCodec.encode(report, frame);
+                output.writeByte(STATUS_OK);
+                output.writeInt(frame.position());
+                output.write(frame.array(), 0, frame.position());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to encode shard reply", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Completes the futures, in order, with the results of a reply.
+     */
+    static void completeFromReply(byte[] body, List<CompletableFuture<ExecutionReport>> results) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(body))) {
+            readVersion(input);
+            int count = input.readInt();
+            if (count != results.size()) {
+                throw new IOException("expected " + results.size() + " results, got " + count);
+            }
+            for (CompletableFuture<ExecutionReport> result : results) {
+                byte status = input.readByte();
+                if (status == STATUS_OK) {
+                    byte[] frame = new byte[input.readInt()];
+                    input.readFully(frame);
+                    result.complete(BinaryFrameCodec.decodeExecutionReport(ByteBuffer.wrap(frame)));
+                } else {
+                    result.completeExceptionally(error(status, input.readUTF()));
+                }
+            }
+        } catch (IOException ex) {
+            IllegalStateException error = new IllegalStateException("Malformed shard reply: " + ex.getMessage(), ex);
+            results.forEach(result -> result.completeExceptionally(error));
+        }
+    }
+
+    private static void writeOrder(DataOutputStream output, Order order) throws IOException {
+        output.writeUTF(order.getOrderId());
+        output.writeUTF(order.getAccountId());
+        output.writeUTF(order.getSide());
+        output.writeLong(order.getQuantity());
+        output.writeLong(order.getPrice());
+        output.writeLong(order.getTimestamp().getTime());
+    }
+
+    private static Order readOrder(DataInputStream input, String marketId) throws IOException {
+        String orderId = input.readUTF();
+        String accountId = input.readUTF();
+        String side = input.readUTF();
+        long quantity = input.readLong();
+        long price = input.readLong();
+        long timestamp = input.readLong();
+        return Order.restore(orderId, accountId, marketId, side, quantity, price, 0, BigInteger.ZERO, "open", new Date(timestamp));
+    }
+
+    private static void readVersion(DataInputStream input) throws IOException {
+        byte version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported version " + version);
+        }
+    }
+
+    private static byte status(Throwable error) {
+        if (error instanceof NotFoundException) {
+            return STATUS_NOT_FOUND;
+        }
+        if (error instanceof IllegalArgumentException) {
+            return STATUS_INVALID;
+        }
+        return STATUS_FAILED;
+    }
+
+    private static RuntimeException error(byte status, String message) {
+        return switch (status) {
+            case STATUS_NOT_FOUND -> new NotFoundException(message);
+            case STATUS_INVALID -> new IllegalArgumentException(message);
+            default -> new IllegalStateException(message);
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.plataformtrade.infra.cluster;
+
+import com.plataformtrade.application.cluster.ShardCommand;
+import com.plataformtrade.application.cluster.ShardCoordinator;
+import com.plataformtrade.application.cluster.ShardRouter;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.infra.journal.MappedFileJournalStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Receives what other engine nodes send this one. Commands are answered
+ * asynchronously once the engine has applied them, so a listener thread is
+ * never held while a command waits in the ring buffer.
+ */
+@Component
+@ConditionalOnProperty(prefix = "engine.cluster", name = "enabled", havingValue = "true")
+public class ShardRabbitListener {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRabbitListener.class);
+
+    private final ShardRouter shardRouter;
+    private final ShardCoordinator shardCoordinator;
+
+    public ShardRabbitListener(ShardRouter shardRouter, ShardCoordinator shardCoordinator) {
+        this.shardRouter = shardRouter;
+        this.shardCoordinator = shardCoordinator;
+    }
+
+    @RabbitListener(queues = "#{shardCommandQueue.name}")
+    public CompletableFuture<Message> onCommand(Message message) {
+        List<CompletableFuture<ExecutionReport>> results;
+        try {
+            ShardCommand command = ShardMessageCodec.decodeCommand(message.getBody());
+            results = shardRouter.execute(command);
+        } catch (RuntimeException ex) {
+            logger.warn("Rejected shard command: reason={}", ex.getMessage());
+            results = List.of(CompletableFuture.failedFuture(ex));
+        }
+        List<CompletableFuture<ExecutionReport>> outcomes = results;
+        return CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> MessageBuilder.withBody(ShardMessageCodec.encodeReply(outcomes))
+                        .setContentType(MessageProperties.CONTENT_TYPE_BYTES)
+                        .build());
+    }
+
+    @RabbitListener(queues = "#{shardHandOffQueue.name}")
+    public void onHandOff(Message message) {
+        String marketId = (String) message.getMessageProperties().getHeaders().get(RabbitClusterTransport.HEADER_MARKET_ID);
+        try {
+            shardCoordinator.onHandOff(marketId, MappedFileJournalStore.decodeSnapshot(message.getBody(), marketId));
+        } catch (RuntimeException ex) {
+            logger.error("Failed to take over handed-off market: marketId={}", marketId, ex);
+            throw new AmqpRejectAndDontRequeueException("Hand-off of market " + marketId + " failed", ex);
+        }
+    }
+
+    @RabbitListener(queues = "#{clusterAnnouncementQueue.name}")
+    public void onAnnouncement(Message message) {
+        var headers = message.getMessageProperties().getHeaders();
+        String nodeId = (String) headers.get(RabbitClusterTransport.HEADER_NODE_ID);
+        boolean leaving = Boolean.TRUE.equals(headers.get(RabbitClusterTransport.HEADER_LEAVING));
+        shardCoordinator.onAnnouncement(nodeId, leaving, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,248 @@
+package com.plataformtrade.infra.codec;
+
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.marketdata.DepthLevel;
+import com.plataformtrade.application.marketdata.MarketDataMessage;
+import com.plataformtrade.application.marketdata.TradeTick;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-layout binary encoding of market-data frames and execution reports.
+ * <p>
+ * Every frame starts with {@code [byte version][byte type][short length +
+ * marketId]}. Prices are ticks and quantities are lots of the market, exactly
+ * as the engine holds them, so encoding is a sequence of primitive puts into
+ * the caller's buffer with no decimal conversion and no intermediate tree.
+ * Callers size the buffer with {@code sizeOf} and reuse it between frames.
+ * <pre>
+ * snapshot/update:  long sequence, int bids, int asks, int trades,
+ *                   levels [long price, long quantity],
+ *                   trades [long sequence, long price, long quantity, byte side, long timestamp]
+ * execution report: long sequence, orderId, accountId, byte side, long quantity, long price,
+ *                   long fillQuantity, long fillNotionalHigh, long fillNotionalLow, byte status
+ * </pre>
+ * All numbers are big-endian and strings are a short length plus UTF-8 bytes.
+ */
+public final class BinaryFrameCodec {
+    public static final byte VERSION = 1;
+    public static final byte TYPE_SNAPSHOT = 1;
+    public static final byte TYPE_UPDATE = 2;
+    public static final byte TYPE_EXECUTION_REPORT = 3;
+
+    private static final int HEADER_SIZE = 2 + 2;
+    private static final int LEVEL_SIZE = 16;
+    private static final int TRADE_SIZE = 33;
+    private static final byte SIDE_BUY = 0;
+    private static final byte SIDE_SELL = 1;
+    private static final byte STATUS_OPEN = 0;
+    private static final byte STATUS_CLOSED = 1;
+    private static final byte STATUS_CANCELLED = 2;
+
+    private BinaryFrameCodec() {
+    }
+
+    public static int sizeOf(MarketDataMessage message) {
+        return HEADER_SIZE + stringSize(message.marketId()) + 8 + 12
+                + (message.bids().size() + message.asks().size()) * LEVEL_SIZE
+                + message.trades().size() * TRADE_SIZE;
+    }
+
+    public static int sizeOf(ExecutionReport report) {
+        return HEADER_SIZE + stringSize(report.marketId()) + 8
+                + 2 + stringSize(report.orderId())
+                + 2 + stringSize(report.accountId())
+                + 1 + 8 * 5 + 1;
+    }
+
+    public static void encode(MarketDataMessage message, ByteBuffer target) {
+        writeHeader(target, MarketDataMessage.SNAPSHOT.equals(message.type()) ? TYPE_SNAPSHOT : TYPE_UPDATE, message.marketId());
+        target.putLong(message.sequence());
+        target.putInt(message.bids().size());
+        target.putInt(message.asks().size());
+        target.putInt(message.trades().size());
+        writeLevels(target, message.bids());
+        writeLevels(target, message.asks());
+        List<TradeTick> trades = message.trades();
+        for (int i = 0; i < trades.size(); i++) {
+            TradeTick trade = trades.get(i);
+            target.putLong(trade.sequence());
+            target.putLong(trade.price());
+            target.putLong(trade.quantity());
+            target.put(side(trade.takerSide()));
+            target.putLong(trade.timestamp());
+        }
+    }
+
+    public static void encode(ExecutionReport report, ByteBuffer target) {
+        writeHeader(target, TYPE_EXECUTION_REPORT, report.marketId());
+        target.putLong(report.sequence());
+        writeString(target, report.orderId());
+        writeString(target, report.accountId());
+        target.put(side(report.side()));
+        target.putLong(report.quantity());
+        target.putLong(report.price());
+        target.putLong(report.fillQuantity());
+        target.putLong(report.fillNotional().shiftRight(64).longValue());
+        target.putLong(report.fillNotional().longValue());
+        target.put(status(report.status()));
+    }
+
+    /**
+     * Type of the frame starting at the buffer's position, without consuming it.
+     */
+    public static byte peekType(ByteBuffer source) {
+        return source.get(source.position() + 1);
+    }
+
+    public static MarketDataMessage decodeMarketData(ByteBuffer source) {
+        byte type = readHeader(source);
+        if (type != TYPE_SNAPSHOT && type != TYPE_UPDATE) {
+            throw new IllegalArgumentException("not a market-data frame: type " + type);
+        }
+        String marketId = readString(source);
+        long sequence = source.getLong();
+        int bidCount = source.getInt();
+        int askCount = source.getInt();
+        int tradeCount = source.getInt();
+        List<DepthLevel> bids = readLevels(source, bidCount);
+        List<DepthLevel> asks = readLevels(source, askCount);
+        List<TradeTick> trades = new ArrayList<>(tradeCount);
+        for (int i = 0; i < tradeCount; i++) {
+            trades.add(new TradeTick(source.getLong(), source.getLong(), source.getLong(),
+                    side(source.get()), source.getLong()));
+        }
+        return type == TYPE_SNAPSHOT
+                ? MarketDataMessage.snapshot(marketId, sequence, bids, asks)
+                : MarketDataMessage.update(marketId, sequence, bids, asks, trades);
+    }
+
+    public static ExecutionReport decodeExecutionReport(ByteBuffer source) {
+        byte type = readHeader(source);
+        if (type != TYPE_EXECUTION_REPORT) {
+            throw new IllegalArgumentException("not an execution report frame: type " + type);
+        }
+        String marketId = readString(source);
+        long sequence = source.getLong();
+        String orderId = readString(source);
+        String accountId = readString(source);
+        String side = side(source.get());
+        long quantity = source.getLong();
+        long price = source.getLong();
+        long fillQuantity = source.getLong();
+        long notionalHigh = source.getLong();
+        long notionalLow = source.getLong();
+        String status = status(source.get());
+        BigInteger fillNotional = BigInteger.valueOf(notionalHigh).shiftLeft(64)
+                .add(new BigInteger(Long.toUnsignedString(notionalLow)));
+        return new ExecutionReport(sequence, orderId, accountId, marketId, side, quantity, price,
+                fillQuantity, fillNotional, status);
+    }
+
+    /**
+     * Returns {@code buffer} cleared when it can hold {@code size} bytes, or a
+     * new buffer with room for it.
+     */
+    public static ByteBuffer ensureCapacity(ByteBuffer buffer, int size) {
+        if (buffer != null && buffer.capacity() >= size) {
+            return buffer.clear();
+        }
+        int capacity = Integer.highestOneBit(Math.max(size, 256) - 1) << 1;
+        return ByteBuffer.allocate(capacity);
+    }
+
+    private static void writeHeader(ByteBuffer target, byte type, String marketId) {
+        target.put(VERSION);
+        target.put(type);
+        writeString(target, marketId);
+    }
+
+    private static byte readHeader(ByteBuffer source) {
+        byte version = source.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported frame version: " + version);
+        }
+        return source.get();
+    }
+
+    private static void writeLevels(ByteBuffer target, List<DepthLevel> levels) {
+        for (int i = 0; i < levels.size(); i++) {
+            DepthLevel level = levels.get(i);
+            target.putLong(level.price());
+            target.putLong(level.quantity());
+        }
+    }
+
+    private static List<DepthLevel> readLevels(ByteBuffer source, int count) {
+        List<DepthLevel> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            levels.add(new DepthLevel(source.getLong(), source.getLong()));
+        }
+        return levels;
+    }
+
+    /**
+     * Identifiers are ASCII in practice; they are copied char by char so the
+     * hot path does not allocate a byte array per string.
+     */
+    private static void writeString(ByteBuffer target, String value) {
+        int length = value.length();
+        if (isAscii(value)) {
+            target.putShort((short) length);
+            for (int i = 0; i < length; i++) {
+                target.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            target.putShort((short) bytes.length);
+            target.put(bytes);
+        }
+    }
+
+    private static int stringSize(String value) {
+        return isAscii(value) ? value.length() : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String readString(ByteBuffer source) {
+        byte[] bytes = new byte[Short.toUnsignedInt(source.getShort())];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte side(String side) {
+        return "buy".equals(side) ? SIDE_BUY : SIDE_SELL;
+    }
+
+    private static String side(byte side) {
+        return side == SIDE_BUY ? "buy" : "sell";
+    }
+
+    private static byte status(String status) {
+        return switch (status) {
+            case "closed" -> STATUS_CLOSED;
+            case "cancelled" -> STATUS_CANCELLED;
+            default -> STATUS_OPEN;
+        };
+    }
+
+    private static String status(byte status) {
+        return switch (status) {
+            case STATUS_CLOSED -> "closed";
+            case STATUS_CANCELLED -> "cancelled";
+            default -> "open";
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.plataformtrade.infra.codec;
+
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.marketdata.MarketDataMessage;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * AMQP converter for {@link WireFormat#BINARY} messages. Registered as a
+ * content-type delegate, so it only sees messages sent or received with the
+ * binary content type; everything else keeps going through Jackson.
+ */
+public class BinaryFrameMessageConverter implements MessageConverter {
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        byte[] body;
+        if (object instanceof MarketDataMessage message) {
+            ByteBuffer buffer = ByteBuffer.allocate(BinaryFrameCodec.sizeOf(message));
+            BinaryFrameCodec.encode(message, buffer);
+            body = buffer.array();
+        } else if (object instanceof ExecutionReport report) {
+            ByteBuffer buffer = ByteBuffer.allocate(BinaryFrameCodec.sizeOf(report));
+            BinaryFrameCodec.encode(report, buffer);
+            body = buffer.array();
+        } else {
+            throw new MessageConversionException("cannot encode " + object.getClass().getName() + " as a binary frame");
+        }
+        messageProperties.setContentType(WireFormat.BINARY.getContentType());
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        ByteBuffer buffer = ByteBuffer.wrap(message.getBody());
+        try {
+            if (BinaryFrameCodec.peekType(buffer) == BinaryFrameCodec.TYPE_EXECUTION_REPORT) {
+                return BinaryFrameCodec.decodeExecutionReport(buffer);
+            }
+            return BinaryFrameCodec.decodeMarketData(buffer);
+        } catch (RuntimeException ex) {
+            throw new MessageConversionException("invalid binary frame", ex);
+        }
+    }
+}
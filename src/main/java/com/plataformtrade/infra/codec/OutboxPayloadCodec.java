@@ -0,0 +1,122 @@
+package com.plataformtrade.infra.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodings of the serialized event stored in an outbox row. The id is
+ * stored next to the payload, and the AMQP content encoding travels with the
+ * published message, so the bytes go from the row to the broker untouched and
+ * a consumer knows how to read them. Ids are never reused.
+ */
+public enum OutboxPayloadCodec {
+    JSON((short) 1, null) {
+        @Override
+        public byte[] encode(byte[] json) {
+            return json;
+        }
+
+        @Override
+        public byte[] decode(byte[] payload) {
+            return payload;
+        }
+    },
+    JSON_DEFLATE((short) 2, "deflate") {
+        @Override
+        public byte[] encode(byte[] json) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(json);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2 + 16);
+                byte[] chunk = new byte[Math.min(json.length + 16, 8192)];
+                while (!deflater.finished()) {
+                    out.write(chunk, 0, deflater.deflate(chunk));
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public byte[] decode(byte[] payload) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(payload);
+                ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length * 4);
+                byte[] chunk = new byte[8192];
+                while (!inflater.finished()) {
+                    int inflated = inflater.inflate(chunk);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IllegalArgumentException("truncated deflate payload");
+                    }
+                    out.write(chunk, 0, inflated);
+                }
+                return out.toByteArray();
+            } catch (DataFormatException ex) {
+                throw new IllegalArgumentException("invalid deflate payload", ex);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private final short id;
+    private final String contentEncoding;
+
+    OutboxPayloadCodec(short id, String contentEncoding) {
+        this.id = id;
+        this.contentEncoding = contentEncoding;
+    }
+
+    public short getId() {
+        return id;
+    }
+
+    /**
+     * AMQP content encoding of the payload, or {@code null} when it is plain
+     * JSON.
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    public abstract byte[] encode(byte[] json);
+
+    public abstract byte[] decode(byte[] payload);
+
+    /**
+     * Codec for an event serialized to {@code json}: compressed from
+     * {@code compressThreshold} bytes on, plain below it or when the
+     * threshold is negative.
+     */
+    public static OutboxPayloadCodec select(byte[] json, int compressThreshold) {
+        return compressThreshold >= 0 && json.length >= compressThreshold ? JSON_DEFLATE : JSON;
+    }
+
+    public static OutboxPayloadCodec fromId(short id) {
+        for (OutboxPayloadCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("unknown outbox payload codec: " + id);
+    }
+
+    public static OutboxPayloadCodec fromContentEncoding(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isEmpty()) {
+            return JSON;
+        }
+        for (OutboxPayloadCodec codec : values()) {
+            if (contentEncoding.equals(codec.contentEncoding)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("unknown outbox payload encoding: " + contentEncoding);
+    }
+}
@@ -0,0 +1,42 @@
+package com.plataformtrade.infra.codec;
+
+import java.util.List;
+
+/**
+ * Encodings a client can negotiate for engine output: JSON, the default, or
+ * the {@link BinaryFrameCodec} layout. WebSocket clients pick one through the
+ * {@code Sec-WebSocket-Protocol} header, AMQP messages through their content
+ * type.
+ */
+public enum WireFormat {
+    JSON("plataformtrade.json.v1", "application/json"),
+    BINARY("plataformtrade.binary.v1", "application/x-plataformtrade-frame");
+
+    private final String subprotocol;
+    private final String contentType;
+
+    WireFormat(String subprotocol, String contentType) {
+        this.subprotocol = subprotocol;
+        this.contentType = contentType;
+    }
+
+    public String getSubprotocol() {
+        return subprotocol;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static List<String> subprotocols() {
+        return List.of(JSON.subprotocol, BINARY.subprotocol);
+    }
+
+    /**
+     * Format for the subprotocol accepted during the handshake; JSON when the
+     * client asked for none.
+     */
+    public static WireFormat fromSubprotocol(String subprotocol) {
+        return BINARY.subprotocol.equals(subprotocol) ? BINARY : JSON;
+    }
+}
@@ -0,0 +1,159 @@
+package com.plataformtrade.infra.config;
+
+import com.plataformtrade.application.cluster.ClusterTransport;
+import com.plataformtrade.application.cluster.ConsistentHashRing;
+import com.plataformtrade.application.cluster.ShardCoordinator;
+import com.plataformtrade.application.cluster.ShardRouter;
+import com.plataformtrade.application.engine.OrderSequencer;
+import com.plataformtrade.infra.cluster.RabbitClusterTransport;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+
+/**
+ * Shards markets across engine nodes when engine.cluster.enabled is set.
+ * Every node runs with the same engine.markets and a distinct
+ * engine.cluster.node-id; engine.cluster.seed-nodes lists the nodes the
+ * cluster starts with, and a node outside that list joins a running cluster.
+ * Several nodes can share one machine and one broker, each on its own server
+ * port; pointing them at the same engine.journal.directory lets a node take
+ * over the markets of one that crashed.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "engine.cluster", name = "enabled", havingValue = "true")
+public class ClusterConfig {
+    @Value("${engine.markets:BTC-BRL}")
+    private List<String> marketIds;
+
+    @Value("${engine.cluster.node-id}")
+    private String nodeId;
+
+    @Value("${engine.cluster.seed-nodes:}")
+    private List<String> seedNodes;
+
+    @Value("${engine.cluster.virtual-nodes:128}")
+    private int virtualNodes;
+
+    @Value("${engine.cluster.heartbeat-timeout-ms:5000}")
+    private long heartbeatTimeoutMs;
+
+    @Value("${engine.cluster.hand-off-timeout-ms:10000}")
+    private long handOffTimeoutMs;
+
+    @Value("${engine.cluster.shared-journal:false}")
+    private boolean sharedJournal;
+
+    @Value("${engine.cluster.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+
+    @Value("${engine.cluster.shard-exchange:engine.shards}")
+    private String shardExchangeName;
+
+    @Value("${engine.cluster.exchange:engine.cluster}")
+    private String clusterExchangeName;
+
+    @Bean
+    public DirectExchange shardExchange() {
+        return new DirectExchange(shardExchangeName, true, false);
+    }
+
+    /**
+     * Commands are request/reply with a timeout on the sender, so they are
+     * not kept for a node that is gone.
+     */
+    @Bean
+    public Queue shardCommandQueue() {
+        return new Queue("engine.shard." + nodeId, false, false, true);
+    }
+
+    @Bean
+    public Binding shardCommandBinding() {
+        return BindingBuilder
+                .bind(shardCommandQueue())
+                .to(shardExchange())
+                .with(RabbitClusterTransport.commandRoutingKey(nodeId));
+    }
+
+    @Bean
+    public Queue shardHandOffQueue() {
+        return new Queue("engine.shard." + nodeId + ".hand-off", true);
+    }
+
+    @Bean
+    public Binding shardHandOffBinding() {
+        return BindingBuilder
+                .bind(shardHandOffQueue())
+                .to(shardExchange())
+                .with(RabbitClusterTransport.handOffRoutingKey(nodeId));
+    }
+
+    @Bean
+    public FanoutExchange clusterExchange() {
+        return new FanoutExchange(clusterExchangeName, true, false);
+    }
+
+    @Bean
+    public Queue clusterAnnouncementQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding clusterAnnouncementBinding() {
+        return BindingBuilder
+                .bind(clusterAnnouncementQueue())
+                .to(clusterExchange());
+    }
+
+    @Bean
+    public AsyncRabbitTemplate asyncRabbitTemplate(RabbitTemplate rabbitTemplate) {
+        AsyncRabbitTemplate asyncRabbitTemplate = new AsyncRabbitTemplate(rabbitTemplate);
+        asyncRabbitTemplate.setReceiveTimeout(requestTimeoutMs);
+        return asyncRabbitTemplate;
+    }
+
+    @Bean
+    public RabbitClusterTransport clusterTransport(AsyncRabbitTemplate asyncRabbitTemplate, RabbitTemplate rabbitTemplate) {
+        return new RabbitClusterTransport(asyncRabbitTemplate, rabbitTemplate, shardExchangeName, clusterExchangeName);
+    }
+
+    /**
+     * Takes the place of the local sequencer as the order gateway of the
+     * use cases.
+     */
+    @Bean
+    @Primary
+    public ShardRouter shardRouter(OrderSequencer orderSequencer, ClusterTransport clusterTransport) {
+        return new ShardRouter(nodeId, marketIds, orderSequencer, clusterTransport,
+                new ConsistentHashRing(List.of(nodeId), virtualNodes));
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ShardCoordinator shardCoordinator(
+            ShardRouter shardRouter,
+            OrderSequencer orderSequencer,
+            ClusterTransport clusterTransport,
+            MeterRegistry meterRegistry
+    ) {
+        ShardCoordinator coordinator = new ShardCoordinator(shardRouter, marketIds, seedNodes, virtualNodes,
+                heartbeatTimeoutMs, handOffTimeoutMs, sharedJournal, orderSequencer, clusterTransport);
+        Gauge.builder("engine.cluster.members", coordinator, c -> c.members().size())
+                .register(meterRegistry);
+        Gauge.builder("engine.cluster.owned-markets", coordinator, c -> c.ownedMarkets().size())
+                .register(meterRegistry);
+        return coordinator;
+    }
+}
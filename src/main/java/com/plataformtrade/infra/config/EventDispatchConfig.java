@@ -0,0 +1,35 @@
+package com.plataformtrade.infra.config;
+
+import com.plataformtrade.application.events.DomainEventHandler;
+import com.plataformtrade.infra.events.SimpleEventDispatcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class EventDispatchConfig {
+    @Value("${events.dispatch.lanes:4}")
+    private int lanes;
+
+    @Value("${events.dispatch.lane-capacity:1024}")
+    private int laneCapacity;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public SimpleEventDispatcher eventDispatcher(List<DomainEventHandler<?>> handlers, MeterRegistry meterRegistry) {
+        SimpleEventDispatcher dispatcher = new SimpleEventDispatcher(handlers, lanes, laneCapacity);
+        Gauge.builder("events.dispatch.queued", dispatcher, SimpleEventDispatcher::queued)
+                .register(meterRegistry);
+        FunctionCounter.builder("events.dispatch.handled", dispatcher, SimpleEventDispatcher::handled)
+                .register(meterRegistry);
+        FunctionCounter.builder("events.dispatch.backpressure-waits", dispatcher, SimpleEventDispatcher::waits)
+                .register(meterRegistry);
+        FunctionCounter.builder("events.dispatch.handler-failures", dispatcher, SimpleEventDispatcher::failures)
+                .register(meterRegistry);
+        return dispatcher;
+    }
+}
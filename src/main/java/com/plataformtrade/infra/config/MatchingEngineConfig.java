@@ -0,0 +1,218 @@
+package com.plataformtrade.infra.config;
+
+import com.plataformtrade.application.balances.BalanceLedger;
+import com.plataformtrade.application.balances.BalanceStore;
+import com.plataformtrade.application.balances.OrderFunding;
+import com.plataformtrade.application.engine.JournalStore;
+import com.plataformtrade.application.engine.OrderSequencer;
+import com.plataformtrade.application.engine.TradeSink;
+import com.plataformtrade.application.engine.WaitStrategy;
+import com.plataformtrade.application.marketdata.CandleAggregator;
+import com.plataformtrade.application.marketdata.CandleStore;
+import com.plataformtrade.application.marketdata.MarketDataFeed;
+import com.plataformtrade.application.trades.TradePersistencePipeline;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.book.OrderStorage;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import com.plataformtrade.infra.journal.MappedFileJournalStore;
+import com.plataformtrade.infra.persistence.repositories.InMemoryMarketRepository;
+import com.plataformtrade.infra.persistence.repositories.JdbcTradeStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class MatchingEngineConfig {
+    @Value("${engine.markets:BTC-BRL}")
+    private List<String> marketIds;
+
+    @Value("${engine.sequencer.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${engine.sequencer.batch-size:256}")
+    private int batchSize;
+
+    @Value("${engine.sequencer.wait-strategy:PARK}")
+    private WaitStrategy waitStrategy;
+
+    @Value("${engine.book.storage:HEAP}")
+    private OrderStorage orderStorage;
+
+    @Value("${engine.book.expected-orders:1024}")
+    private int expectedOrders;
+
+    @Value("${engine.market-data.max-pending-trades:1000}")
+    private int maxPendingTrades;
+
+    @Value("${engine.candles.history:1000}")
+    private int candleHistory;
+
+    @Value("${engine.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${engine.journal.directory:data/journal}")
+    private String journalDirectory;
+
+    @Value("${engine.journal.segment-size:67108864}")
+    private int journalSegmentSize;
+
+    @Value("${engine.journal.snapshot-interval:100000}")
+    private long snapshotInterval;
+
+    @Value("${engine.balances.enabled:false}")
+    private boolean balancesEnabled;
+
+    @Value("${engine.trades.persistence.capacity:65536}")
+    private int tradeQueueCapacity;
+
+    @Value("${engine.trades.persistence.batch-size:1000}")
+    private int tradeBatchSize;
+
+    @Value("${engine.trades.persistence.max-delay-ms:50}")
+    private long tradeMaxDelayMs;
+
+    @Value("${engine.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Bean
+    public MarketRepository marketRepository(Environment environment) {
+        List<Market> markets = new ArrayList<>();
+        for (String marketId : marketIds) {
+            String prefix = "engine.market." + marketId + ".";
+            markets.add(new Market(
+                    marketId,
+                    new BigDecimal(environment.getProperty(prefix + "tick-size", "0.01")),
+                    new BigDecimal(environment.getProperty(prefix + "lot-size", "0.00000001"))
+            ));
+        }
+        return new InMemoryMarketRepository(markets);
+    }
+
+    @Bean(destroyMethod = "flush")
+    public BalanceLedger balanceLedger(MarketRepository marketRepository, BalanceStore balanceStore, MeterRegistry meterRegistry) {
+        BalanceLedger ledger = new BalanceLedger(marketRepository.findAll(), balanceStore);
+        Gauge.builder("engine.balances.pending-flush", ledger, BalanceLedger::pendingFlush)
+                .register(meterRegistry);
+        return ledger;
+    }
+
+    /**
+     * Pre-trade balance checks are enforced only when engine.balances.enabled
+     * is set; otherwise orders are accepted without reserving funds.
+     */
+    @Bean
+    public OrderFunding orderFunding(BalanceLedger balanceLedger) {
+        return balancesEnabled ? balanceLedger : OrderFunding.NONE;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "engine.trades.persistence", name = "enabled", havingValue = "true")
+    public JdbcTradeStore tradeStore(DataSource dataSource, MarketRepository marketRepository) {
+        return new JdbcTradeStore(dataSource, marketRepository);
+    }
+
+    /**
+     * Depends on the entity manager factory so the trades table exists before
+     * the stored watermarks are read.
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    @DependsOn("entityManagerFactory")
+    @ConditionalOnProperty(prefix = "engine.trades.persistence", name = "enabled", havingValue = "true")
+    public TradePersistencePipeline tradePersistencePipeline(JdbcTradeStore tradeStore, MeterRegistry meterRegistry) {
+        TradePersistencePipeline pipeline = new TradePersistencePipeline(
+                tradeStore, marketIds, tradeQueueCapacity, tradeBatchSize, tradeMaxDelayMs);
+        Gauge.builder("engine.trades.pending", pipeline, TradePersistencePipeline::pending)
+                .register(meterRegistry);
+        for (String marketId : marketIds) {
+            Gauge.builder("engine.trades.durable-sequence", pipeline, p -> p.durablePosition(marketId).sequence())
+                    .tag("market", marketId)
+                    .register(meterRegistry);
+        }
+        return pipeline;
+    }
+
+    /**
+     * Destroyed after the market-data feed that feeds it, so the open candles
+     * it stores on close are final.
+     */
+    @Bean(destroyMethod = "close")
+    public CandleAggregator candleAggregator(CandleStore candleStore, MeterRegistry meterRegistry) {
+        CandleAggregator aggregator = new CandleAggregator(marketIds, candleHistory, candleStore);
+        Gauge.builder("engine.candles.pending-flush", aggregator, CandleAggregator::pendingFlush)
+                .register(meterRegistry);
+        return aggregator;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public MarketDataFeed marketDataFeed(CandleAggregator candleAggregator, MeterRegistry meterRegistry) {
+        MarketDataFeed feed = new MarketDataFeed(marketIds, maxPendingTrades, candleAggregator);
+        for (String marketId : marketIds) {
+            Gauge.builder("engine.market-data.subscribers", feed, f -> f.subscriberCount(marketId))
+                    .tag("market", marketId)
+                    .register(meterRegistry);
+        }
+        return feed;
+    }
+
+    /**
+     * In a cluster the sequencer starts empty and the shard coordinator
+     * attaches the markets this node owns. Balances are not sharded with the
+     * markets, so a cluster runs without pre-trade balance checks.
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OrderSequencer orderSequencer(
+            MeterRegistry meterRegistry,
+            MarketDataFeed marketDataFeed,
+            BalanceLedger balanceLedger,
+            OrderFunding orderFunding,
+            ObjectProvider<TradePersistencePipeline> tradePersistencePipeline
+    ) {
+        if (clusterEnabled && balancesEnabled) {
+            throw new IllegalStateException("engine.cluster.enabled requires engine.balances.enabled=false: "
+                    + "the balance ledger is held by a single node");
+        }
+        TradeSink tradePersistence = tradePersistencePipeline.getIfAvailable();
+        TradeSink tradeSink = tradePersistence != null ? tradePersistence : TradeSink.NO_OP;
+        OrderSequencer sequencer = OrderSequencer.builder()
+                .markets(clusterEnabled ? List.of() : marketIds)
+                .bufferSize(bufferSize)
+                .batchSize(batchSize)
+                .waitStrategy(waitStrategy)
+                .orderStorage(orderStorage)
+                .expectedOrders(expectedOrders)
+                .marketDataListener(marketDataFeed)
+                .tradeSink(balancesEnabled ? TradeSink.of(balanceLedger, tradeSink) : tradeSink)
+                .orderFunding(orderFunding)
+                .journalStore(journalStore())
+                .snapshotInterval(snapshotInterval)
+                .build();
+        for (String marketId : marketIds) {
+            Gauge.builder("engine.sequencer.queue.depth", sequencer, s -> s.isAttached(marketId) ? s.queueDepth(marketId) : 0)
+                    .tag("market", marketId)
+                    .register(meterRegistry);
+            Gauge.builder("engine.sequencer.sequence", sequencer, s -> s.isAttached(marketId) ? s.lastSequence(marketId) : -1)
+                    .tag("market", marketId)
+                    .register(meterRegistry);
+        }
+        return sequencer;
+    }
+
+    private JournalStore journalStore() {
+        if (!journalEnabled) {
+            return JournalStore.NO_OP;
+        }
+        return new MappedFileJournalStore(Path.of(journalDirectory), journalSegmentSize);
+    }
+}
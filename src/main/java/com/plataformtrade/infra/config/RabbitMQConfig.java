@@ -1,16 +1,44 @@
 package com.plataformtrade.infra.config;
 
-import org.springframework.amqp.core.Binding;
+import com.plataformtrade.infra.codec.BinaryFrameMessageConverter;
+import com.plataformtrade.infra.codec.WireFormat;
+import com.plataformtrade.infra.events.EventPartitioner;
+import com.plataformtrade.infra.events.OutboxEventProcessor;
+import com.plataformtrade.infra.events.OutboxNotificationListener;
+import com.plataformtrade.infra.events.RabbitEventPublisher;
+import com.plataformtrade.infra.events.consumers.AccountCreatedRabbitListener;
+import com.plataformtrade.infra.events.consumers.PartitionedConsumerGroup;
+import com.plataformtrade.infra.observability.CustomMetrics;
+import com.plataformtrade.infra.persistence.repositories.OutboxEventJpaRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 @ConditionalOnProperty(prefix = "messaging.rabbit", name = "enabled", havingValue = "true")
@@ -23,22 +51,158 @@ public class RabbitMQConfig {
     @Value("${messaging.rabbit.queues.account-created:account.created}")
     private String accountCreatedQueueName;
 
+    @Value("${messaging.rabbit.partitions:4}")
+    private int partitions;
+
+    @Value("${messaging.rabbit.consumer.partitions:}")
+    private String[] consumerPartitions;
+
+    @Value("${messaging.rabbit.consumer.concurrency:1}")
+    private int consumerConcurrency;
+
+    @Value("${messaging.rabbit.consumer.drain-legacy-queue:true}")
+    private boolean drainLegacyQueue;
+
+    @Value("${messaging.rabbit.consumer.prefetch:250}")
+    private int consumerPrefetch;
+
+    @Value("${messaging.rabbit.consumer.batch-size:50}")
+    private int consumerBatchSize;
+
+    @Value("${messaging.rabbit.consumer.receive-timeout-ms:100}")
+    private long consumerReceiveTimeoutMs;
+
+    @Value("${messaging.rabbit.consumer.dedupe-window:10000}")
+    private int consumerDedupeWindow;
+
+    @Value("${messaging.outbox.notify-channel:outbox_events}")
+    private String outboxNotifyChannel;
+
+    @Value("${messaging.outbox.reconnect-backoff-ms:1000}")
+    private long outboxReconnectBackoffMs;
+
+    @Value("${messaging.outbox.lanes:4}")
+    private int outboxLanes;
+
+    @Value("${messaging.outbox.min-batch-size:50}")
+    private int outboxMinBatchSize;
+
+    @Value("${messaging.outbox.max-batch-size:1000}")
+    private int outboxMaxBatchSize;
+
+    @Value("${messaging.outbox.max-attempts:10}")
+    private int outboxMaxAttempts;
+
+    @Value("${messaging.outbox.retry-backoff-ms:1000}")
+    private long outboxRetryBackoffMs;
+
     @Bean
     public DirectExchange accountExchange() {
         return new DirectExchange(exchangeName, true, false);
     }
 
+    /**
+     * One queue per partition of account.created, each bound with the
+     * partition's routing key. Queues allow a single active consumer, so
+     * instances that consume the same partition stand by for each other
+     * instead of sharing, and reordering, its messages.
+     */
+    @Bean
+    public Declarables accountCreatedPartitions() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int partition = 0; partition < partitions; partition++) {
+            Queue queue = QueueBuilder.durable(EventPartitioner.queueName(accountCreatedQueueName, partition))
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder
+                    .bind(queue)
+                    .to(accountExchange())
+                    .with(EventPartitioner.routingKey(ACCOUNT_CREATED_ROUTING_KEY, partition)));
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public AccountCreatedRabbitListener accountCreatedRabbitListener() {
+        return new AccountCreatedRabbitListener(consumerDedupeWindow);
+    }
+
+    /**
+     * Container factory of the partition consumers, see
+     * {@link PartitionedConsumerGroup#configure}.
+     */
     @Bean
-    public Queue accountCreatedQueue() {
-        return new Queue(accountCreatedQueueName, true);
+    public SimpleRabbitListenerContainerFactory partitionedContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        PartitionedConsumerGroup.configure(factory, consumerConcurrency, consumerPrefetch, consumerBatchSize, consumerReceiveTimeoutMs);
+        return factory;
     }
 
+    /**
+     * Consumes the account.created partitions listed in
+     * {@code messaging.rabbit.consumer.partitions}, or all of them when it is
+     * empty, {@code messaging.rabbit.consumer.concurrency} consumers per
+     * partition of which one is active.
+     * <p>
+     * The unpartitioned account.created queue of earlier releases is no
+     * longer declared, but a broker upgraded in place still has it, bound
+     * with the plain routing key that publishers of those releases use
+     * during a rolling upgrade. While {@code
+     * messaging.rabbit.consumer.drain-legacy-queue} is on and the queue
+     * exists, one instance drains it into the same listener. Once its
+     * backlog gauge stays at 0 and no old publisher is left, delete it
+     * explicitly ({@code rabbitmqctl delete_queue account.created}); later
+     * starts then find it gone and register no drain consumer.
+     */
     @Bean
-    public Binding accountCreatedBinding() {
-        return BindingBuilder
-                .bind(accountCreatedQueue())
-                .to(accountExchange())
-                .with(ACCOUNT_CREATED_ROUTING_KEY);
+    public PartitionedConsumerGroup accountCreatedConsumers(
+            @Qualifier("partitionedContainerFactory") SimpleRabbitListenerContainerFactory containerFactory,
+            AccountCreatedRabbitListener accountCreatedRabbitListener,
+            AmqpAdmin amqpAdmin,
+            MeterRegistry meterRegistry
+    ) {
+        List<String> queueNames = new ArrayList<>();
+        for (int partition : consumedPartitions()) {
+            queueNames.add(EventPartitioner.queueName(accountCreatedQueueName, partition));
+        }
+        String legacyQueueName = drainLegacyQueue && queueExists(amqpAdmin, accountCreatedQueueName)
+                ? accountCreatedQueueName
+                : null;
+        PartitionedConsumerGroup consumers = new PartitionedConsumerGroup("account-created", queueNames,
+                legacyQueueName, accountCreatedRabbitListener, containerFactory);
+        FunctionCounter.builder("events.consumer.consumed", accountCreatedRabbitListener,
+                        AccountCreatedRabbitListener::consumed)
+                .register(meterRegistry);
+        FunctionCounter.builder("events.consumer.batches", accountCreatedRabbitListener,
+                        AccountCreatedRabbitListener::batches)
+                .register(meterRegistry);
+        FunctionCounter.builder("events.consumer.rejected", accountCreatedRabbitListener,
+                        AccountCreatedRabbitListener::rejected)
+                .register(meterRegistry);
+        FunctionCounter.builder("events.consumer.duplicates", accountCreatedRabbitListener,
+                        AccountCreatedRabbitListener::duplicates)
+                .register(meterRegistry);
+        Gauge.builder("events.consumer.active", consumers, PartitionedConsumerGroup::activeConsumers)
+                .register(meterRegistry);
+        List<String> consumedQueueNames = new ArrayList<>(queueNames);
+        if (legacyQueueName != null) {
+            consumedQueueNames.add(legacyQueueName);
+        }
+        for (String queueName : consumedQueueNames) {
+            Gauge.builder("events.consumer.lag-ms", accountCreatedRabbitListener,
+                            listener -> listener.lagMs(queueName))
+                    .tag("queue", queueName)
+                    .register(meterRegistry);
+            Gauge.builder("events.consumer.backlog", amqpAdmin, admin -> backlog(admin, queueName))
+                    .tag("queue", queueName)
+                    .register(meterRegistry);
+        }
+        return consumers;
     }
 
     @Bean
@@ -46,13 +210,108 @@ public class RabbitMQConfig {
         return new Jackson2JsonMessageConverter();
     }
 
+    /**
+     * Picks the converter from the message content type: binary frames for
+     * {@link WireFormat#BINARY}, Jackson for everything else.
+     */
     @Bean
+    @Primary
+    public ContentTypeDelegatingMessageConverter messageConverter(Jackson2JsonMessageConverter jacksonMessageConverter) {
+        ContentTypeDelegatingMessageConverter converter = new ContentTypeDelegatingMessageConverter(jacksonMessageConverter);
+        converter.addDelegate(WireFormat.BINARY.getContentType(), new BinaryFrameMessageConverter());
+        return converter;
+    }
+
+    @Bean
+    @Primary
     public RabbitTemplate rabbitTemplate(
             ConnectionFactory connectionFactory,
-            Jackson2JsonMessageConverter messageConverter
+            ContentTypeDelegatingMessageConverter messageConverter
+    ) {
+        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMessageConverter(messageConverter);
+        return rabbitTemplate;
+    }
+
+    /**
+     * Publishes the outbox on the factory's separate publisher connection, so
+     * that broker flow control on a burst of outbox messages does not stall
+     * the consumers.
+     */
+    @Bean
+    public RabbitTemplate outboxRabbitTemplate(
+            ConnectionFactory connectionFactory,
+            ContentTypeDelegatingMessageConverter messageConverter
     ) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(messageConverter);
+        rabbitTemplate.setUsePublisherConnection(true);
         return rabbitTemplate;
     }
+
+    @Bean(destroyMethod = "stop")
+    public OutboxEventProcessor outboxEventProcessor(
+            OutboxEventJpaRepository outboxEventRepository,
+            RabbitEventPublisher rabbitEventPublisher,
+            CustomMetrics customMetrics,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        OutboxEventProcessor processor = new OutboxEventProcessor(outboxEventRepository, rabbitEventPublisher,
+                customMetrics, transactionTemplate, outboxLanes, outboxMinBatchSize, outboxMaxBatchSize,
+                outboxMaxAttempts, outboxRetryBackoffMs);
+        Gauge.builder("outbox.batch-size", processor, OutboxEventProcessor::batchSize)
+                .register(meterRegistry);
+        return processor;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OutboxNotificationListener outboxNotificationListener(
+            DataSource dataSource,
+            OutboxEventProcessor outboxEventProcessor
+    ) {
+        return new OutboxNotificationListener(dataSource, outboxEventProcessor, outboxNotifyChannel,
+                outboxReconnectBackoffMs);
+    }
+
+    private List<Integer> consumedPartitions() {
+        List<Integer> consumed = new ArrayList<>();
+        for (String partition : consumerPartitions) {
+            if (partition.isBlank()) {
+                continue;
+            }
+            int value = Integer.parseInt(partition.trim());
+            if (value < 0 || value >= partitions) {
+                throw new IllegalArgumentException("consumer partition out of range: " + value);
+            }
+            consumed.add(value);
+        }
+        if (consumed.isEmpty()) {
+            for (int partition = 0; partition < partitions; partition++) {
+                consumed.add(partition);
+            }
+        }
+        return consumed;
+    }
+
+    private static boolean queueExists(AmqpAdmin amqpAdmin, String queueName) {
+        try {
+            return amqpAdmin.getQueueInfo(queueName) != null;
+        } catch (AmqpException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Messages ready in {@code queueName}, or NaN when the broker cannot be
+     * asked.
+     */
+    private static double backlog(AmqpAdmin amqpAdmin, String queueName) {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+            return info != null ? info.getMessageCount() : Double.NaN;
+        } catch (AmqpException ex) {
+            return Double.NaN;
+        }
+    }
 }
@@ -0,0 +1,28 @@
+package com.plataformtrade.infra.config;
+
+import com.plataformtrade.infra.websocket.CandleWebSocketHandler;
+import com.plataformtrade.infra.websocket.MarketDataWebSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final MarketDataWebSocketHandler marketDataWebSocketHandler;
+    private final CandleWebSocketHandler candleWebSocketHandler;
+
+    public WebSocketConfig(MarketDataWebSocketHandler marketDataWebSocketHandler, CandleWebSocketHandler candleWebSocketHandler) {
+        this.marketDataWebSocketHandler = marketDataWebSocketHandler;
+        this.candleWebSocketHandler = candleWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(marketDataWebSocketHandler, "/ws/market-data/*")
+                .setAllowedOrigins("*");
+        registry.addHandler(candleWebSocketHandler, "/ws/candles/*")
+                .setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,36 @@
+package com.plataformtrade.infra.events;
+
+/**
+ * Spreads published events over a fixed number of partition queues by
+ * aggregate id. Every event of one aggregate lands in the same partition,
+ * and each partition has a single active consumer, so an aggregate's events
+ * are consumed in the order they were published. Changing the number of
+ * partitions moves aggregates between queues, so it should only be done
+ * once the queues are drained.
+ */
+public final class EventPartitioner {
+    private EventPartitioner() {
+    }
+
+    public static int partition(String aggregateId, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
+        return Math.floorMod(aggregateId.hashCode(), partitions);
+    }
+
+    /**
+     * Routing key of {@code eventType} events in {@code partition}, e.g.
+     * {@code account.created.3}.
+     */
+    public static String routingKey(String eventType, int partition) {
+        return eventType + "." + partition;
+    }
+
+    /**
+     * Name of the queue that holds {@code partition} of {@code queue}.
+     */
+    public static String queueName(String queue, int partition) {
+        return queue + "." + partition;
+    }
+}
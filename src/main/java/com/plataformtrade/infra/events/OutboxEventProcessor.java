@@ -1,60 +1,233 @@
 package com.plataformtrade.infra.events;
 
 import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
+import com.plataformtrade.infra.persistence.entities.OutboxStatus;
 import com.plataformtrade.infra.persistence.repositories.OutboxEventJpaRepository;
 import com.plataformtrade.infra.observability.CustomMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-@Component
-@ConditionalOnProperty(prefix = "messaging.rabbit", name = "enabled", havingValue = "true")
+/**
+ * Publishes pending outbox events to RabbitMQ. Draining is normally started
+ * by the {@link OutboxNotificationListener} as soon as an event is committed;
+ * the scheduled run is only a fallback for notifications that were missed.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED}, so several
+ * instances drain the outbox side by side without publishing a row twice.
+ * A claimed batch is split into lanes by aggregate id and the lanes are
+ * published in parallel; events of one aggregate share a lane and keep
+ * their order. The batch size grows while batches come back full and
+ * shrinks when the outbox runs dry. An event is only marked sent once the
+ * broker has confirmed it. One it did not confirm is retried after a backoff
+ * that doubles with each attempt, holding back the later events of its
+ * aggregate, and is dead-lettered once {@code maxAttempts} are used up.
+ */
 public class OutboxEventProcessor {
     private static final Logger logger = LoggerFactory.getLogger(OutboxEventProcessor.class);
-    private static final String STATUS_PENDING = "PENDING";
-    private static final String STATUS_SENT = "SENT";
-    private static final String STATUS_FAILED = "FAILED";
+    private static final String UNCONFIRMED = "Not confirmed by the broker";
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
 
     private final OutboxEventJpaRepository outboxEventRepository;
     private final RabbitEventPublisher rabbitEventPublisher;
     private final CustomMetrics customMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int lanes;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final ExecutorService laneExecutor;
+    private volatile int batchSize;
 
     public OutboxEventProcessor(
             OutboxEventJpaRepository outboxEventRepository,
             RabbitEventPublisher rabbitEventPublisher,
-            CustomMetrics customMetrics
+            CustomMetrics customMetrics,
+            TransactionTemplate transactionTemplate,
+            int lanes,
+            int minBatchSize,
+            int maxBatchSize,
+            int maxAttempts,
+            long retryBackoffMs
     ) {
+        if (lanes <= 0) {
+            throw new IllegalArgumentException("lanes must be positive");
+        }
+        if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+            throw new IllegalArgumentException("minBatchSize must be positive and not above maxBatchSize");
+        }
+        if (maxAttempts <= 0 || maxAttempts > Short.MAX_VALUE || retryBackoffMs < 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive and retryBackoffMs not negative");
+        }
         this.outboxEventRepository = outboxEventRepository;
         this.rabbitEventPublisher = rabbitEventPublisher;
         this.customMetrics = customMetrics;
+        this.transactionTemplate = transactionTemplate;
+        this.lanes = lanes;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.batchSize = minBatchSize;
+        AtomicInteger laneIds = new AtomicInteger();
+        this.laneExecutor = Executors.newFixedThreadPool(lanes, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-lane-" + laneIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
-    @Scheduled(fixedDelayString = "${messaging.outbox.poll-interval-ms:5000}")
-    @Transactional
+    public void stop() {
+        laneExecutor.shutdown();
+        try {
+            laneExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${messaging.outbox.poll-interval-ms:30000}")
     public void processPendingEvents() {
-        List<OutboxEventEntity> pendingEvents =
-                outboxEventRepository.findTop100ByStatusOrderByOccurredOnAsc(STATUS_PENDING);
-
-        for (OutboxEventEntity event : pendingEvents) {
-            try {
-                rabbitEventPublisher.publish(event);
-                event.setStatus(STATUS_SENT);
-                event.setSentAt(Instant.now());
-                event.setErrorMessage(null);
-                customMetrics.incrementOutboxPublished();
-            } catch (Exception ex) {
-                logger.error("Failed to publish event to RabbitMQ: eventId={}", event.getEventId(), ex);
-                event.setStatus(STATUS_FAILED);
-                event.setErrorMessage(trimError(ex.getMessage()));
+        drain();
+    }
+
+    /**
+     * Claims and publishes batches, one transaction each, until a batch
+     * comes back short or the broker leaves part of one unconfirmed.
+     * Callers on this instance are serialized; other instances skip the
+     * rows claimed here.
+     *
+     * @return the number of events handled
+     */
+    public synchronized int drain() {
+        int total = 0;
+        while (true) {
+            int limit = batchSize;
+            BatchResult batch = transactionTemplate.execute(status -> processBatch(limit));
+            if (batch == null) {
+                return total;
+            }
+            total += batch.claimed();
+            adaptBatchSize(limit, batch.claimed());
+            if (batch.claimed() < limit || batch.deferred() > 0) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Current claim size; only meant for metrics.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    private void adaptBatchSize(int limit, int handled) {
+        if (handled == limit) {
+            batchSize = Math.min(maxBatchSize, limit * 2);
+        } else if (handled < limit / 2) {
+            batchSize = Math.max(minBatchSize, limit / 2);
+        }
+    }
+
+    private BatchResult processBatch(int limit) {
+        List<OutboxEventEntity> claimed = outboxEventRepository.claimPending(limit);
+        List<List<OutboxEventEntity>> partitions = partition(claimed);
+        List<Future<Integer>> running = new ArrayList<>(partitions.size());
+        for (List<OutboxEventEntity> partition : partitions) {
+            running.add(laneExecutor.submit(() -> publishAll(partition)));
+        }
+        int deferred = 0;
+        for (Future<Integer> lane : running) {
+            deferred += await(lane);
+        }
+        return new BatchResult(claimed.size(), deferred);
+    }
+
+    private List<List<OutboxEventEntity>> partition(List<OutboxEventEntity> events) {
+        List<List<OutboxEventEntity>> byLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (OutboxEventEntity event : events) {
+            byLane.get(Math.floorMod(event.getAggregateId().hashCode(), lanes)).add(event);
+        }
+        byLane.removeIf(List::isEmpty);
+        return byLane;
+    }
+
+    /**
+     * Publishes one lane's events and records the outcome on them. Events
+     * the broker did not confirm stay pending for a later attempt, or are
+     * dead-lettered after their last one.
+     *
+     * @return the number of events left pending
+     */
+    private int publishAll(List<OutboxEventEntity> events) {
+        RabbitEventPublisher.PublishResult result = rabbitEventPublisher.publishAll(events);
+        Instant sentAt = Instant.now();
+        for (OutboxEventEntity event : result.confirmed()) {
+            event.setStatus(OutboxStatus.SENT);
+            event.setSentAt(sentAt);
+            event.setErrorMessage(null);
+            customMetrics.incrementOutboxPublished();
+        }
+        if (result.unconfirmed().isEmpty()) {
+            return 0;
+        }
+        String error = UNCONFIRMED;
+        if (result.failure() != null) {
+            Exception ex = result.failure();
+            logger.error("Failed to publish events to RabbitMQ: count={}", result.unconfirmed().size(), ex);
+            error = trimError(ex.getMessage());
+        } else {
+            logger.warn("Events not confirmed by RabbitMQ, keeping them pending: count={}",
+                    result.unconfirmed().size());
+        }
+        int pending = 0;
+        for (OutboxEventEntity event : result.unconfirmed()) {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts((short) attempts);
+            event.setErrorMessage(error);
+            if (attempts >= maxAttempts) {
+                logger.error("Dead-lettering outbox event after its last attempt: eventId={}, attempts={}",
+                        event.getEventId(), attempts);
+                event.setStatus(OutboxStatus.FAILED);
+                event.setNextAttemptAt(null);
                 customMetrics.incrementOutboxFailed();
+            } else {
+                event.setNextAttemptAt(sentAt.plusMillis(backoffMs(attempts)));
+                pending++;
             }
         }
+        return pending;
+    }
+
+    private long backoffMs(int attempts) {
+        return retryBackoffMs << Math.min(attempts - 1, MAX_BACKOFF_DOUBLINGS);
+    }
+
+    private static int await(Future<Integer> lane) {
+        try {
+            return lane.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox events", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Outbox lane failed", ex.getCause());
+        }
     }
 
     private String trimError(String message) {
@@ -63,4 +236,7 @@ public class OutboxEventProcessor {
         }
         return message.length() <= 500 ? message : message.substring(0, 500);
     }
+
+    private record BatchResult(int claimed, int deferred) {
+    }
 }
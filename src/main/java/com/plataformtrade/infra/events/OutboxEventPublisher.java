@@ -5,45 +5,103 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plataformtrade.application.events.DomainEventPublisher;
 import com.plataformtrade.application.events.EventDispatcher;
 import com.plataformtrade.domain.events.DomainEvent;
+import com.plataformtrade.infra.codec.OutboxPayloadCodec;
 import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
+import com.plataformtrade.infra.persistence.entities.OutboxStatus;
 import com.plataformtrade.infra.persistence.repositories.OutboxEventJpaRepository;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
 
 @Component
 public class OutboxEventPublisher implements DomainEventPublisher {
-    private static final String STATUS_PENDING = "PENDING";
     private final OutboxEventJpaRepository outboxEventRepository;
     private final EventDispatcher eventDispatcher;
     private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final String notifyChannel;
+    private final int compressThreshold;
+    private final TransactionSynchronization notifyOnCommit = new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            notifyPending();
+        }
+    };
 
     public OutboxEventPublisher(
             OutboxEventJpaRepository outboxEventRepository,
             EventDispatcher eventDispatcher,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            @Value("${messaging.outbox.notify-channel:outbox_events}") String notifyChannel,
+            @Value("${messaging.outbox.payload.compress-threshold-bytes:1024}") int compressThreshold
     ) {
         this.outboxEventRepository = outboxEventRepository;
         this.eventDispatcher = eventDispatcher;
         this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyChannel = notifyChannel;
+        this.compressThreshold = compressThreshold;
     }
 
     @Override
     @Transactional
     public void publish(DomainEvent event) {
+        byte[] json = toPayload(event);
+        OutboxPayloadCodec codec = OutboxPayloadCodec.select(json, compressThreshold);
         outboxEventRepository.save(new OutboxEventEntity(
                 event.getEventId(),
                 event.getAggregateId(),
                 event.getType(),
-                toPayload(event),
+                codec.encode(json),
+                codec.getId(),
                 event.getOccurredOn(),
-                STATUS_PENDING
+                OutboxStatus.PENDING
         ));
+        scheduleNotify();
         eventDispatcher.dispatch(event);
     }
 
-    private String toPayload(DomainEvent event) {
+    /**
+     * Sends one notification per transaction, however many events it saves:
+     * the first event registers a synchronization that notifies just before
+     * the commit, later ones find it registered. Outside a transaction the
+     * notification is sent straight away.
+     */
+    private void scheduleNotify() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notifyPending();
+        } else if (!TransactionSynchronizationManager.getSynchronizations().contains(notifyOnCommit)) {
+            TransactionSynchronizationManager.registerSynchronization(notifyOnCommit);
+        }
+    }
+
+    /**
+     * Wakes the {@link OutboxNotificationListener}. PostgreSQL delivers the
+     * notification when the surrounding transaction commits.
+     */
+    private void notifyPending() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, '')")) {
+                    statement.setString(1, notifyChannel);
+                    statement.execute();
+                }
+            }
+            return null;
+        });
+    }
+
+    private byte[] toPayload(DomainEvent event) {
         try {
-            return objectMapper.writeValueAsString(event);
+            return objectMapper.writeValueAsBytes(event);
         } catch (JsonProcessingException ex) {
             throw new IllegalStateException("Failed to serialize event payload", ex);
         }
@@ -0,0 +1,132 @@
+package com.plataformtrade.infra.events;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Holds a {@code LISTEN} on the outbox channel over one pooled connection
+ * and drains the outbox as soon as {@link OutboxEventPublisher} commits an
+ * event. Waiting for a notification only blocks on the socket, so an idle
+ * outbox costs the database nothing. A lost connection is re-established
+ * after a back-off and followed by a drain, since notifications sent in
+ * between are not replayed. On databases other than PostgreSQL the listener
+ * stays idle and the processor's scheduled poll does the work.
+ */
+public class OutboxNotificationListener {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxNotificationListener.class);
+    private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int WAIT_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    private final DataSource dataSource;
+    private final OutboxEventProcessor outboxEventProcessor;
+    private final String channel;
+    private final long reconnectBackoffMs;
+    private final Thread thread;
+    private volatile boolean running;
+
+    public OutboxNotificationListener(
+            DataSource dataSource,
+            OutboxEventProcessor outboxEventProcessor,
+            String channel,
+            long reconnectBackoffMs
+    ) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid outbox notification channel: " + channel);
+        }
+        if (reconnectBackoffMs <= 0) {
+            throw new IllegalArgumentException("reconnectBackoffMs must be positive");
+        }
+        this.dataSource = Objects.requireNonNull(dataSource, "dataSource must not be null");
+        this.outboxEventProcessor = Objects.requireNonNull(outboxEventProcessor, "outboxEventProcessor must not be null");
+        this.channel = channel;
+        this.reconnectBackoffMs = reconnectBackoffMs;
+        this.thread = new Thread(this::run, "outbox-listener");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(2L * WAIT_MS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long backoff = reconnectBackoffMs;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isWrapperFor(PGConnection.class)) {
+                    logger.info("Outbox notifications need PostgreSQL, relying on polling");
+                    return;
+                }
+                listen(connection);
+                backoff = reconnectBackoffMs;
+                drain();
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(WAIT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        drain();
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Lost outbox notification connection: channel={}, retryInMs={}, reason={}",
+                        channel, backoff, ex.getMessage());
+                if (!pause(backoff)) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        }
+        logger.info("Listening for outbox notifications: channel={}", channel);
+    }
+
+    private void drain() {
+        try {
+            int handled = outboxEventProcessor.drain();
+            if (handled > 0) {
+                logger.debug("Drained outbox: count={}", handled);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Failed to drain outbox: channel={}", channel, ex);
+        }
+    }
+
+    private boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
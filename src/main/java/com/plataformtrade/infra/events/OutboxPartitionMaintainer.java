@@ -0,0 +1,230 @@
+package com.plataformtrade.infra.events;
+
+import com.plataformtrade.infra.persistence.entities.OutboxStatus;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Keeps the daily partitions of outbox_events: creates the ones for the
+ * coming days and drops the ones past retention, so the table holds a fixed
+ * window of events however long the system runs. A partition is only
+ * dropped once none of its events is pending any more; the dead-lettered
+ * ones are first copied into outbox_dead_letters, and one that still holds
+ * pending events, which are being retried, is kept and reported. Rows that
+ * landed in the default
+ * partition, carried over from before partitioning or written on a day
+ * whose partition was missed, are moved into a partition of their own day,
+ * since PostgreSQL refuses to create a partition for rows the default one
+ * holds. Every instance schedules the maintenance, so a run first takes a
+ * PostgreSQL advisory lock and is skipped while another instance holds it.
+ * Does nothing unless outbox_events is a partitioned PostgreSQL table.
+ */
+@Component
+public class OutboxPartitionMaintainer {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxPartitionMaintainer.class);
+    private static final String TABLE = "outbox_events";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final String DEAD_LETTERS = "outbox_dead_letters";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final short PENDING = (short) OutboxStatus.PENDING.ordinal();
+    private static final short FAILED = (short) OutboxStatus.FAILED.ordinal();
+    // "outbox_p" in ASCII; shared by every instance maintaining the table
+    static final long MAINTENANCE_LOCK = 0x6f7574626f785f70L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int premakeDays;
+    private final boolean dropDetached;
+    private Boolean partitioned;
+
+    public OutboxPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${messaging.outbox.partitions.retention-days:7}") int retentionDays,
+            @Value("${messaging.outbox.partitions.premake-days:3}") int premakeDays,
+            @Value("${messaging.outbox.partitions.drop-detached:true}") boolean dropDetached
+    ) {
+        if (retentionDays <= 0 || premakeDays < 0) {
+            throw new IllegalArgumentException("retentionDays must be positive and premakeDays not negative");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = retentionDays;
+        this.premakeDays = premakeDays;
+        this.dropDetached = dropDetached;
+    }
+
+    @Scheduled(fixedDelayString = "${messaging.outbox.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                return;
+            }
+            // The lock is held by the callback's connection; the work itself
+            // runs on other pooled connections meanwhile.
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection)) {
+                    logger.debug("Outbox partitions are being maintained by another instance");
+                    return null;
+                }
+                try {
+                    maintainPartitions();
+                } finally {
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (DataAccessException ex) {
+            logger.error("Failed to maintain outbox partitions", ex);
+        }
+    }
+
+    private void maintainPartitions() {
+        for (LocalDate day : jdbcTemplate.queryForList(
+                "SELECT DISTINCT (occurred_on AT TIME ZONE 'UTC')::date FROM " + DEFAULT_PARTITION,
+                LocalDate.class)) {
+            createPartition(day);
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int day = 0; day <= premakeDays; day++) {
+            createPartition(today.plusDays(day));
+        }
+        purge(today.minusDays(retentionDays));
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, MAINTENANCE_LOCK);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, MAINTENANCE_LOCK);
+            statement.execute();
+        }
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.isWrapperFor(PGConnection.class)))
+                    && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass(?) AND relkind = 'p')",
+                    Boolean.class, TABLE));
+            if (!partitioned) {
+                logger.info("Outbox table is not partitioned, skipping partition maintenance");
+            }
+        }
+        return partitioned;
+    }
+
+    private void createPartition(LocalDate day) {
+        String name = partitionName(day);
+        String bounds = "FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('" + day.plusDays(1) + " 00:00:00+00')";
+        try {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+                return;
+            }
+            Timestamp from = Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+            Timestamp to = Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+                    + " WHERE occurred_on >= ? AND occurred_on < ?)", Boolean.class, from, to))) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + TABLE + " " + bounds);
+                return;
+            }
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + TABLE
+                        + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS INCLUDING STORAGE)");
+                int count = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                        + " WHERE occurred_on >= ? AND occurred_on < ? RETURNING *) "
+                        + "INSERT INTO " + name + " SELECT * FROM moved", from, to);
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + name + " " + bounds);
+                return count;
+            });
+            logger.info("Moved outbox events out of the default partition: partition={}, count={}", name, moved);
+        } catch (DataAccessException ex) {
+            logger.warn("Failed to create outbox partition: partition={}, reason={}", name, ex.getMessage());
+        }
+    }
+
+    /**
+     * Detaches and drops the partitions whose whole day lies before
+     * {@code cutoff}, keeping their dead-lettered events in
+     * outbox_dead_letters.
+     */
+    private void purge(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass(?) ORDER BY c.relname",
+                String.class, TABLE);
+        for (String partition : partitions) {
+            LocalDate day = partitionDay(partition);
+            if (day == null || !day.isBefore(cutoff)) {
+                continue;
+            }
+            Integer pending = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM " + partition + " WHERE status = ?", Integer.class, PENDING);
+            if (pending != null && pending > 0) {
+                logger.warn("Keeping outbox partition past retention: partition={}, pending={}", partition, pending);
+                continue;
+            }
+            Integer deadLettered = transactionTemplate.execute(status -> {
+                int count = jdbcTemplate.update("INSERT INTO " + DEAD_LETTERS
+                        + " (event_id, aggregate_id, event_type, payload, payload_codec, occurred_on, attempts,"
+                        + " error_message, dead_lettered_at)"
+                        + " SELECT event_id, aggregate_id, event_type, payload, payload_codec, occurred_on, attempts,"
+                        + " error_message, now() FROM " + partition + " WHERE status = ?"
+                        + " ON CONFLICT DO NOTHING", FAILED);
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                return count;
+            });
+            if (dropDetached) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+            }
+            logger.info("Purged outbox partition: partition={}, deadLettered={}, dropped={}",
+                    partition, deadLettered, dropDetached);
+        }
+    }
+
+    static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + SUFFIX.format(day);
+    }
+
+    static LocalDate partitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
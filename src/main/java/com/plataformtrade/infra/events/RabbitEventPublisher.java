@@ -1,50 +1,173 @@
 package com.plataformtrade.infra.events;
 
+import com.plataformtrade.infra.codec.OutboxPayloadCodec;
 import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.retry.Retry;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
+/**
+ * Publishes outbox events with publisher confirms. A batch goes out on one
+ * channel without waiting between messages, and the broker's confirms are
+ * collected afterwards; only the messages the broker acked count as
+ * delivered. Nacked or unconfirmed messages are sent again as the retry
+ * policy allows, and whatever is still unconfirmed after that is left to a
+ * later drain. Payloads are sent exactly as stored, with the content
+ * encoding of their {@link OutboxPayloadCodec}. Each event is routed to the
+ * partition of its aggregate, see {@link EventPartitioner}.
+ */
 @Component
 @ConditionalOnProperty(prefix = "messaging.rabbit", name = "enabled", havingValue = "true")
 public class RabbitEventPublisher {
     private final RabbitTemplate rabbitTemplate;
     private final String exchangeName;
+    private final int partitions;
+    private final long confirmTimeoutMs;
     private final CircuitBreaker circuitBreaker;
     private final Retry retry;
 
     public RabbitEventPublisher(
-            RabbitTemplate rabbitTemplate,
+            @Qualifier("outboxRabbitTemplate") RabbitTemplate rabbitTemplate,
             @Value("${messaging.rabbit.exchange:account.events}") String exchangeName,
+            @Value("${messaging.rabbit.partitions:4}") int partitions,
+            @Value("${messaging.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
             CircuitBreaker rabbitPublisherCircuitBreaker,
             Retry rabbitPublisherRetry
     ) {
+        if (!rabbitTemplate.getConnectionFactory().isPublisherConfirms()) {
+            throw new IllegalStateException(
+                    "Outbox publishing needs spring.rabbitmq.publisher-confirm-type=correlated");
+        }
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("partitions must be positive");
+        }
         this.rabbitTemplate = rabbitTemplate;
         this.exchangeName = exchangeName;
+        this.partitions = partitions;
+        this.confirmTimeoutMs = confirmTimeoutMs;
         this.circuitBreaker = rabbitPublisherCircuitBreaker;
         this.retry = rabbitPublisherRetry;
     }
 
-    public void publish(OutboxEventEntity event) {
-        String routingKey = resolveRoutingKey(event.getEventType());
+    /**
+     * Publishes the events in order and waits for their confirms.
+     *
+     * @return the events the broker confirmed and those it did not, with
+     * the error that stopped publishing, if any
+     */
+    public PublishResult publishAll(List<OutboxEventEntity> events) {
+        List<OutboxEventEntity> unconfirmed = new ArrayList<>(events);
         Supplier<Void> supplier = () -> {
-            rabbitTemplate.convertAndSend(exchangeName, routingKey, event.getPayload());
+            publishAndConfirm(unconfirmed);
+            if (!unconfirmed.isEmpty()) {
+                throw new UnconfirmedPublishException(unconfirmed.size());
+            }
             return null;
         };
         Supplier<Void> decorated = CircuitBreaker.decorateSupplier(circuitBreaker, supplier);
         decorated = Retry.decorateSupplier(retry, decorated);
-        decorated.get();
+        Exception failure = null;
+        try {
+            decorated.get();
+        } catch (UnconfirmedPublishException ex) {
+            // left for the next drain
+        } catch (Exception ex) {
+            failure = ex;
+        }
+        List<OutboxEventEntity> confirmed = new ArrayList<>(events);
+        confirmed.removeAll(unconfirmed);
+        return new PublishResult(confirmed, List.copyOf(unconfirmed), failure);
+    }
+
+    /**
+     * Sends every event on one channel, then removes the acked ones from
+     * the list.
+     */
+    private void publishAndConfirm(List<OutboxEventEntity> events) {
+        List<CorrelationData> correlations = rabbitTemplate.invoke(operations -> {
+            List<CorrelationData> sent = new ArrayList<>(events.size());
+            for (OutboxEventEntity event : events) {
+                CorrelationData correlation = new CorrelationData(event.getEventId());
+                operations.send(exchangeName, resolveRoutingKey(event), toMessage(event), correlation);
+                sent.add(correlation);
+            }
+            return sent;
+        });
+        awaitConfirms(correlations);
+        List<OutboxEventEntity> acked = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            CompletableFuture<CorrelationData.Confirm> confirm = correlations.get(i).getFuture();
+            if (confirm.isDone() && !confirm.isCompletedExceptionally() && confirm.join().isAck()) {
+                acked.add(events.get(i));
+            }
+        }
+        events.removeAll(acked);
+    }
+
+    private void awaitConfirms(List<CorrelationData> correlations) {
+        CompletableFuture<?>[] confirms = correlations.stream()
+                .map(CorrelationData::getFuture)
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(confirms).get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException ex) {
+            // unconfirmed messages are picked out by the caller
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for publisher confirms", ex);
+        }
     }
 
-    private String resolveRoutingKey(String eventType) {
+    private static Message toMessage(OutboxEventEntity event) {
+        OutboxPayloadCodec codec = OutboxPayloadCodec.fromId(event.getPayloadCodec());
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(OutboxPayloadCodec.CONTENT_TYPE);
+        properties.setContentEncoding(codec.getContentEncoding());
+        properties.setContentLength(event.getPayload().length);
+        properties.setMessageId(event.getEventId());
+        properties.setType(event.getEventType());
+        properties.setTimestamp(Date.from(event.getOccurredOn()));
+        return new Message(event.getPayload(), properties);
+    }
+
+    private String resolveRoutingKey(OutboxEventEntity event) {
+        String eventType = event.getEventType();
         if (eventType == null || eventType.isBlank()) {
             return "unknown.event";
         }
-        return eventType;
+        return EventPartitioner.routingKey(eventType, EventPartitioner.partition(event.getAggregateId(), partitions));
+    }
+
+    /**
+     * Outcome of {@link #publishAll}. {@code failure} is set when publishing
+     * failed outright rather than going unconfirmed.
+     */
+    public record PublishResult(
+            List<OutboxEventEntity> confirmed,
+            List<OutboxEventEntity> unconfirmed,
+            Exception failure
+    ) {
+    }
+
+    private static final class UnconfirmedPublishException extends RuntimeException {
+        private UnconfirmedPublishException(int count) {
+            super(count + " messages were not confirmed by the broker");
+        }
     }
 }
@@ -3,25 +3,171 @@ package com.plataformtrade.infra.events;
 import com.plataformtrade.application.events.DomainEventHandler;
 import com.plataformtrade.application.events.EventDispatcher;
 import com.plataformtrade.domain.events.DomainEvent;
-import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
-@Component
+/**
+ * Runs domain event handlers off the caller's thread. The handlers of an
+ * event class are looked up once and cached per class. Inside a transaction
+ * an event is only queued once the transaction commits, so handlers never
+ * see an event that was rolled back; outside one it is queued straight away.
+ * <p>
+ * Events are queued on lanes chosen by aggregate id, each drained by one
+ * virtual thread, so the handlers see the events of one aggregate in order.
+ * Lanes are bounded: a caller that finds its lane full waits for room, and
+ * each such wait is counted. A failing handler is logged and counted and
+ * does not affect the others.
+ */
 public class SimpleEventDispatcher implements EventDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(SimpleEventDispatcher.class);
+
     private final List<DomainEventHandler<?>> handlers;
+    private final ClassValue<List<DomainEventHandler<?>>> handlersByType = new ClassValue<>() {
+        @Override
+        protected List<DomainEventHandler<?>> computeValue(Class<?> eventType) {
+            List<DomainEventHandler<?>> matching = new ArrayList<>();
+            for (DomainEventHandler<?> handler : handlers) {
+                if (handler.eventType().isAssignableFrom(eventType)) {
+                    matching.add(handler);
+                }
+            }
+            return List.copyOf(matching);
+        }
+    };
+    private final List<BlockingQueue<DomainEvent>> lanes;
+    private final List<Thread> threads;
+    private final AtomicLong handled = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile boolean running;
+
+    public SimpleEventDispatcher(List<DomainEventHandler<?>> handlers, int laneCount, int laneCapacity) {
+        if (laneCount <= 0 || laneCapacity <= 0) {
+            throw new IllegalArgumentException("laneCount and laneCapacity must be positive");
+        }
+        this.handlers = List.copyOf(handlers);
+        this.lanes = new ArrayList<>(laneCount);
+        this.threads = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<DomainEvent> lane = new ArrayBlockingQueue<>(laneCapacity);
+            lanes.add(lane);
+            threads.add(Thread.ofVirtual().name("event-lane-" + i).unstarted(() -> drain(lane)));
+        }
+    }
+
+    public void start() {
+        running = true;
+        threads.forEach(Thread::start);
+    }
 
-    public SimpleEventDispatcher(List<DomainEventHandler<?>> handlers) {
-        this.handlers = handlers;
+    /**
+     * Stops the lanes once the events already queued have been handled.
+     */
+    public void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
     }
 
     @Override
     public void dispatch(DomainEvent event) {
-        for (DomainEventHandler<?> handler : handlers) {
-            if (handler.eventType().isAssignableFrom(event.getClass())) {
+        if (handlersByType.get(event.getClass()).isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    public int queued() {
+        int queued = 0;
+        for (BlockingQueue<DomainEvent> lane : lanes) {
+            queued += lane.size();
+        }
+        return queued;
+    }
+
+    public long handled() {
+        return handled.get();
+    }
+
+    /**
+     * Number of times a caller found its lane full and had to wait.
+     */
+    public long waits() {
+        return waits.get();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    private void enqueue(DomainEvent event) {
+        BlockingQueue<DomainEvent> lane = lanes.get(Math.floorMod(laneKey(event).hashCode(), lanes.size()));
+        if (lane.offer(event)) {
+            return;
+        }
+        waits.incrementAndGet();
+        try {
+            lane.put(event);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while queuing event, handling it in place: eventId={}", event.getEventId());
+            handle(event);
+        }
+    }
+
+    private void drain(BlockingQueue<DomainEvent> lane) {
+        while (running) {
+            try {
+                handle(lane.take());
+            } catch (InterruptedException ex) {
+                break;
+            }
+        }
+        DomainEvent event;
+        while ((event = lane.poll()) != null) {
+            handle(event);
+        }
+    }
+
+    private void handle(DomainEvent event) {
+        for (DomainEventHandler<?> handler : handlersByType.get(event.getClass())) {
+            try {
                 dispatchToHandler(handler, event);
+            } catch (RuntimeException ex) {
+                failures.incrementAndGet();
+                logger.error("Event handler failed: handler={}, eventId={}, type={}",
+                        handler.getClass().getName(), event.getEventId(), event.getType(), ex);
             }
         }
+        handled.incrementAndGet();
+    }
+
+    private static String laneKey(DomainEvent event) {
+        return event.getAggregateId() != null ? event.getAggregateId() : event.getEventId();
     }
 
     @SuppressWarnings("unchecked")
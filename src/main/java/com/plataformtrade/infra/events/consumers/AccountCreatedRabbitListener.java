@@ -1,18 +1,137 @@
 package com.plataformtrade.infra.events.consumers;
 
+import com.plataformtrade.infra.codec.OutboxPayloadCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.stereotype.Component;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 
-@Component
-@ConditionalOnProperty(prefix = "messaging.rabbit", name = "enabled", havingValue = "true")
-public class AccountCreatedRabbitListener {
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumes account.created events a batch at a time. The container acks a
+ * whole batch with one multiple-ack once this listener returns, so a
+ * message is only ever handled here and never re-queued for being
+ * unreadable: such messages are logged, counted and skipped. The messages
+ * of a batch come from one partition queue and are handled in order.
+ * <p>
+ * Delivery is at least once: the outbox resends messages the broker did not
+ * confirm, and the outbox table cannot enforce a unique event id across its
+ * partitions. The last {@code dedupeWindow} message ids of each queue are
+ * remembered and a message seen again is counted and skipped; an event's
+ * copies always share its aggregate's queue.
+ */
+public class AccountCreatedRabbitListener implements BatchMessageListener {
     private static final Logger logger = LoggerFactory.getLogger(AccountCreatedRabbitListener.class);
 
-    @RabbitListener(queues = "${messaging.rabbit.queues.account-created:account.created}")
-    public void handle(String payload) {
+    private final int dedupeWindow;
+    private final Map<String, Set<String>> seenByQueue = new ConcurrentHashMap<>();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final Map<String, AtomicLong> lagMsByQueue = new ConcurrentHashMap<>();
+
+    public AccountCreatedRabbitListener(int dedupeWindow) {
+        if (dedupeWindow <= 0) {
+            throw new IllegalArgumentException("dedupeWindow must be positive");
+        }
+        this.dedupeWindow = dedupeWindow;
+    }
+
+    @Override
+    public void onMessageBatch(List<Message> messages) {
+        for (Message message : messages) {
+            handle(message);
+        }
+        batches.incrementAndGet();
+    }
+
+    private void handle(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        recordLag(properties);
+        if (seenBefore(properties)) {
+            duplicates.incrementAndGet();
+            logger.debug("Skipping duplicate account.created message: messageId={}, queue={}",
+                    properties.getMessageId(), properties.getConsumerQueue());
+            return;
+        }
+        String payload;
+        try {
+            OutboxPayloadCodec codec = OutboxPayloadCodec.fromContentEncoding(properties.getContentEncoding());
+            payload = new String(codec.decode(message.getBody()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            rejected.incrementAndGet();
+            logger.error("Skipping unreadable account.created message: messageId={}, queue={}, reason={}",
+                    properties.getMessageId(), properties.getConsumerQueue(), ex.getMessage());
+            return;
+        }
+        consumed.incrementAndGet();
         logger.info("Received account.created event from RabbitMQ: payload={}", payload);
     }
+
+    private boolean seenBefore(MessageProperties properties) {
+        String messageId = properties.getMessageId();
+        if (messageId == null) {
+            return false;
+        }
+        String queue = properties.getConsumerQueue() != null ? properties.getConsumerQueue() : "";
+        Set<String> seen = seenByQueue.computeIfAbsent(queue, ignored -> recentIds(dedupeWindow));
+        synchronized (seen) {
+            return !seen.add(messageId);
+        }
+    }
+
+    private void recordLag(MessageProperties properties) {
+        Date timestamp = properties.getTimestamp();
+        String queue = properties.getConsumerQueue();
+        if (timestamp == null || queue == null) {
+            return;
+        }
+        long lagMs = Math.max(0, System.currentTimeMillis() - timestamp.getTime());
+        lagMsByQueue.computeIfAbsent(queue, ignored -> new AtomicLong()).set(lagMs);
+    }
+
+    public long consumed() {
+        return consumed.get();
+    }
+
+    public long batches() {
+        return batches.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public long duplicates() {
+        return duplicates.get();
+    }
+
+    /**
+     * Time between the occurrence of the last event consumed from
+     * {@code queue} and its consumption, or 0 before the first one.
+     */
+    public long lagMs(String queue) {
+        AtomicLong lagMs = lagMsByQueue.get(queue);
+        return lagMs != null ? lagMs.get() : 0;
+    }
+
+    private static Set<String> recentIds(int capacity) {
+        return Collections.newSetFromMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
 }
@@ -0,0 +1,143 @@
+package com.plataformtrade.infra.events.consumers;
+
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Registers one listener endpoint per partition queue, so partitions are
+ * consumed in parallel and each in order. The containers are built by the
+ * given container factory and owned by the listener endpoint registry,
+ * which starts them with the context and stops and destroys them on
+ * shutdown, like those of {@code @RabbitListener} methods. A factory set up
+ * by {@link #configure} delivers messages in batches of up to
+ * {@code batchSize} and acks each batch with one multiple-ack after the
+ * listener returns; a batch whose listener throws is re-queued as a whole.
+ * <p>
+ * A group can also drain the unpartitioned queue the partitions replaced.
+ * That queue has no single-active-consumer flag, so it is consumed by one
+ * exclusive consumer: one instance drains it, in order, and the others
+ * retry until it is theirs or gone.
+ */
+public class PartitionedConsumerGroup implements RabbitListenerConfigurer {
+    private final String id;
+    private final List<String> queueNames;
+    private final String legacyQueueName;
+    private final BatchMessageListener listener;
+    private final SimpleRabbitListenerContainerFactory containerFactory;
+    private volatile RabbitListenerEndpointRegistry registry;
+
+    public PartitionedConsumerGroup(
+            String id,
+            List<String> queueNames,
+            BatchMessageListener listener,
+            SimpleRabbitListenerContainerFactory containerFactory
+    ) {
+        this(id, queueNames, null, listener, containerFactory);
+    }
+
+    /**
+     * @param legacyQueueName unpartitioned queue to drain next to the
+     *                        partitions, or null
+     */
+    public PartitionedConsumerGroup(
+            String id,
+            List<String> queueNames,
+            String legacyQueueName,
+            BatchMessageListener listener,
+            SimpleRabbitListenerContainerFactory containerFactory
+    ) {
+        this.id = Objects.requireNonNull(id, "id must not be null");
+        this.queueNames = List.copyOf(queueNames);
+        this.legacyQueueName = legacyQueueName;
+        this.listener = Objects.requireNonNull(listener, "listener must not be null");
+        this.containerFactory = Objects.requireNonNull(containerFactory, "containerFactory must not be null");
+    }
+
+    /**
+     * Sets up {@code factory} for partition consumers with
+     * {@code concurrency} consumers per container. Partition queues allow a
+     * single active consumer, so only one of them receives messages, which
+     * is what keeps a partition in order; the others stand by to take over
+     * if its channel fails. Consumption scales with the number of
+     * partitions instead.
+     */
+    public static void configure(
+            SimpleRabbitListenerContainerFactory factory,
+            int concurrency,
+            int prefetch,
+            int batchSize,
+            long receiveTimeoutMs
+    ) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        if (batchSize <= 0 || prefetch < batchSize) {
+            throw new IllegalArgumentException("batchSize must be positive and prefetch not below it");
+        }
+        factory.setConcurrentConsumers(concurrency);
+        factory.setPrefetchCount(prefetch);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (String queueName : queueNames) {
+            registrar.registerEndpoint(endpoint(queueName), containerFactory);
+        }
+        if (legacyQueueName != null) {
+            SimpleRabbitListenerEndpoint endpoint = endpoint(legacyQueueName);
+            endpoint.setExclusive(true);
+            endpoint.setConcurrency("1");
+            registrar.registerEndpoint(endpoint, containerFactory);
+        }
+        registry = registrar.getEndpointRegistry();
+    }
+
+    private SimpleRabbitListenerEndpoint endpoint(String queueName) {
+        SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+        endpoint.setId(endpointId(queueName));
+        endpoint.setQueueNames(queueName);
+        endpoint.setMessageListener(listener);
+        return endpoint;
+    }
+
+    /**
+     * Id of the registry's container for {@code queueName}.
+     */
+    public String endpointId(String queueName) {
+        return id + "." + queueName;
+    }
+
+    public int activeConsumers() {
+        RabbitListenerEndpointRegistry current = registry;
+        if (current == null) {
+            return 0;
+        }
+        int active = 0;
+        for (String queueName : queueNames) {
+            active += activeConsumers(current, queueName);
+        }
+        if (legacyQueueName != null) {
+            active += activeConsumers(current, legacyQueueName);
+        }
+        return active;
+    }
+
+    private int activeConsumers(RabbitListenerEndpointRegistry current, String queueName) {
+        MessageListenerContainer container = current.getListenerContainer(endpointId(queueName));
+        return container instanceof SimpleMessageListenerContainer simple ? simple.getActiveConsumerCount() : 0;
+    }
+}
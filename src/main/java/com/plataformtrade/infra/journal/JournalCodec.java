@@ -0,0 +1,135 @@
+package com.plataformtrade.infra.journal;
+
+import com.plataformtrade.application.engine.CommandJournal;
+import com.plataformtrade.domain.Order;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Binary layout of commands inside journal records. Each body starts with a
+ * command byte.
+ */
+final class JournalCodec {
+    static final byte COMMAND_PLACE = 1;
+    static final byte COMMAND_CANCEL = 2;
+    static final byte COMMAND_REPLACE = 3;
+    static final byte COMMAND_STOP = 4;
+    static final byte COMMAND_TRIGGER = 5;
+
+    private static final byte SIDE_BUY = 0;
+    private static final byte SIDE_SELL = 1;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Writes the fields a place command needs to rebuild the order exactly as
+     * it was submitted.
+     */
+    static void writePlace(ByteBuffer buffer, Order order) {
+        buffer.put(COMMAND_PLACE);
+        writeOrder(buffer, order);
+    }
+
+    static Order readPlace(ByteBuffer buffer, String marketId) {
+        byte command = buffer.get();
+        if (command != COMMAND_PLACE) {
+            throw new IllegalStateException("unknown journal command: " + command);
+        }
+        return readOrder(buffer, marketId);
+    }
+
+    /**
+     * A stop command is the order as for a place, followed by its stop price.
+     */
+    static void writeStop(ByteBuffer buffer, Order order, long stopPrice) {
+        buffer.put(COMMAND_STOP);
+        writeOrder(buffer, order);
+        buffer.putLong(stopPrice);
+    }
+
+    static void writeTrigger(ByteBuffer buffer, Order order) {
+        buffer.put(COMMAND_TRIGGER);
+        writeOrder(buffer, order);
+    }
+
+    static void writeCancel(ByteBuffer buffer, String orderId, String accountId) {
+        buffer.put(COMMAND_CANCEL);
+        writeString(buffer, orderId);
+        writeString(buffer, accountId);
+    }
+
+    static void writeReplace(ByteBuffer buffer, String orderId, String accountId, long quantity, long price) {
+        buffer.put(COMMAND_REPLACE);
+        buffer.putLong(quantity);
+        buffer.putLong(price);
+        writeString(buffer, orderId);
+        writeString(buffer, accountId);
+    }
+
+    /**
+     * Reads the body after its sequence and hands the command to the handler.
+     */
+    static void replay(ByteBuffer buffer, long sequence, String marketId, CommandJournal.ReplayHandler handler) {
+        byte command = buffer.get(buffer.position());
+        switch (command) {
+            case COMMAND_PLACE -> handler.onCommand(sequence, readPlace(buffer, marketId));
+            case COMMAND_STOP -> {
+                buffer.get();
+                Order order = readOrder(buffer, marketId);
+                handler.onStop(sequence, order, buffer.getLong());
+            }
+            case COMMAND_TRIGGER -> {
+                buffer.get();
+                handler.onTrigger(sequence, readOrder(buffer, marketId));
+            }
+            case COMMAND_CANCEL -> {
+                buffer.get();
+                String orderId = readString(buffer);
+                handler.onCancel(sequence, orderId, readString(buffer));
+            }
+            case COMMAND_REPLACE -> {
+                buffer.get();
+                long quantity = buffer.getLong();
+                long price = buffer.getLong();
+                String orderId = readString(buffer);
+                handler.onReplace(sequence, orderId, readString(buffer), quantity, price);
+            }
+            default -> throw new IllegalStateException("unknown journal command: " + command);
+        }
+    }
+
+    private static void writeOrder(ByteBuffer buffer, Order order) {
+        buffer.putLong(order.getTimestamp().getTime());
+        buffer.putLong(order.getQuantity());
+        buffer.putLong(order.getPrice());
+        buffer.put("buy".equals(order.getSide()) ? SIDE_BUY : SIDE_SELL);
+        writeString(buffer, order.getOrderId());
+        writeString(buffer, order.getAccountId());
+    }
+
+    private static Order readOrder(ByteBuffer buffer, String marketId) {
+        long timestamp = buffer.getLong();
+        long quantity = buffer.getLong();
+        long price = buffer.getLong();
+        String side = buffer.get() == SIDE_BUY ? "buy" : "sell";
+        String orderId = readString(buffer);
+        String accountId = readString(buffer);
+        return Order.restore(orderId, accountId, marketId, side, quantity, price, 0, BigInteger.ZERO, "open", new Date(timestamp));
+    }
+
+    static void writeString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,292 @@
+package com.plataformtrade.infra.journal;
+
+import com.plataformtrade.application.engine.CommandJournal;
+import com.plataformtrade.domain.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Command journal made of fixed-size, memory-mapped segment files named after
+ * the first sequence they hold. Records are {@code [length][crc32c][body]};
+ * a zero length marks the end of a segment and a bad checksum marks a torn
+ * write, after which replay moves on to the next segment.
+ * <p>
+ * Appends only copy into the mapping; {@link #flush()} forces the dirty range
+ * once, so the fsync is shared by every command of the batch.
+ */
+public class MappedFileCommandJournal implements CommandJournal {
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileCommandJournal.class);
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 4096;
+
+    private final Path directory;
+    private final String marketId;
+    private final int segmentSize;
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_SIZE);
+    private final CRC32C checksum = new CRC32C();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentFirstSequence;
+    private int flushedPosition;
+
+    public MappedFileCommandJournal(Path directory, String marketId, int segmentSize) {
+        if (segmentSize < MAX_RECORD_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be at least " + (MAX_RECORD_SIZE + RECORD_HEADER_SIZE));
+        }
+        this.directory = directory;
+        this.marketId = marketId;
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public long recover(long fromSequence, ReplayHandler handler) {
+        try {
+            Files.createDirectories(directory);
+            List<Segment> segments = listSegments();
+            long expected = replay(segments, fromSequence, handler);
+            for (Segment stale : segments) {
+                if (stale.firstSequence() >= expected) {
+                    Files.deleteIfExists(stale.path());
+                }
+            }
+            openSegment(expected);
+            return expected;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to recover journal for market " + marketId, ex);
+        }
+    }
+
+    /**
+     * Replays the journal like {@link #recover} but leaves it untouched: no
+     * segment is deleted or opened for writing, so a journal can be read
+     * while it is copied elsewhere or after the engine that wrote it is gone.
+     * Returns the sequence after the last command replayed.
+     */
+    public long read(long fromSequence, ReplayHandler handler) {
+        if (!Files.isDirectory(directory)) {
+            return fromSequence;
+        }
+        try {
+            return replay(listSegments(), fromSequence, handler);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to read journal for market " + marketId, ex);
+        }
+    }
+
+    @Override
+    public void append(long sequence, Order order) {
+        scratch.clear();
+        try {
+            scratch.putLong(sequence);
+            JournalCodec.writePlace(scratch, order);
+        } catch (BufferOverflowException ex) {
+            throw new IllegalArgumentException("command is too large to journal");
+        }
+        writeRecord(sequence);
+    }
+
+    @Override
+    public void appendStop(long sequence, Order order, long stopPrice) {
+        scratch.clear();
+        try {
+            scratch.putLong(sequence);
+            JournalCodec.writeStop(scratch, order, stopPrice);
+        } catch (BufferOverflowException ex) {
+            throw new IllegalArgumentException("command is too large to journal");
+        }
+        writeRecord(sequence);
+    }
+
+    @Override
+    public void appendTrigger(long sequence, Order order) {
+        scratch.clear();
+        try {
+            scratch.putLong(sequence);
+            JournalCodec.writeTrigger(scratch, order);
+        } catch (BufferOverflowException ex) {
+            throw new IllegalArgumentException("command is too large to journal");
+        }
+        writeRecord(sequence);
+    }
+
+    @Override
+    public void appendCancel(long sequence, String orderId, String accountId) {
+        scratch.clear();
+        try {
+            scratch.putLong(sequence);
+            JournalCodec.writeCancel(scratch, orderId, accountId);
+        } catch (BufferOverflowException ex) {
+            throw new IllegalArgumentException("command is too large to journal");
+        }
+        writeRecord(sequence);
+    }
+
+    @Override
+    public void appendReplace(long sequence, String orderId, String accountId, long quantity, long price) {
+        scratch.clear();
+        try {
+            scratch.putLong(sequence);
+            JournalCodec.writeReplace(scratch, orderId, accountId, quantity, price);
+        } catch (BufferOverflowException ex) {
+            throw new IllegalArgumentException("command is too large to journal");
+        }
+        writeRecord(sequence);
+    }
+
+    @Override
+    public void flush() {
+        int position = segment.position();
+        if (position > flushedPosition) {
+            segment.force(flushedPosition, position - flushedPosition);
+            flushedPosition = position;
+        }
+    }
+
+    @Override
+    public void truncateBefore(long sequence) {
+        try {
+            List<Segment> segments = listSegments();
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                Segment candidate = segments.get(i);
+                if (candidate.firstSequence() != segmentFirstSequence
+                        && segments.get(i + 1).firstSequence() <= sequence) {
+                    Files.deleteIfExists(candidate.path());
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to truncate journal for market " + marketId, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        flush();
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to close journal for market " + marketId, ex);
+        }
+    }
+
+    private void writeRecord(long sequence) {
+        int length = scratch.position();
+        checksum.reset();
+        checksum.update(scratch.array(), 0, length);
+
+        if (segment.remaining() < RECORD_HEADER_SIZE + length) {
+            roll(sequence);
+        }
+        segment.putInt(length);
+        segment.putInt((int) checksum.getValue());
+        segment.put(scratch.array(), 0, length);
+    }
+
+    private long replay(List<Segment> segments, long fromSequence, ReplayHandler handler) throws IOException {
+        long expected = fromSequence;
+        for (int i = 0; i < segments.size(); i++) {
+            Segment current = segments.get(i);
+            if (i + 1 < segments.size() && segments.get(i + 1).firstSequence() <= fromSequence) {
+                continue;
+            }
+            if (current.firstSequence() > expected) {
+                logger.warn("Journal gap for market {}: expected sequence {} but segment starts at {}",
+                        marketId, expected, current.firstSequence());
+                break;
+            }
+            expected = replaySegment(current.path(), expected, handler);
+        }
+        return expected;
+    }
+
+    private long replaySegment(Path path, long expected, ReplayHandler handler) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+            CRC32C crc = new CRC32C();
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int length = buffer.getInt();
+                int storedChecksum = buffer.getInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer body = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != storedChecksum) {
+                    logger.warn("Torn journal record for market {} in {} at sequence {}", marketId, path.getFileName(), expected);
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                long sequence = body.getLong();
+                if (sequence < expected) {
+                    continue;
+                }
+                if (sequence != expected) {
+                    break;
+                }
+                JournalCodec.replay(body, sequence, marketId, handler);
+                expected++;
+            }
+        }
+        return expected;
+    }
+
+    private void roll(long firstSequence) {
+        flush();
+        try {
+            channel.close();
+            openSegment(firstSequence);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to roll journal segment for market " + marketId, ex);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(segmentName(firstSequence));
+        Files.deleteIfExists(path);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentFirstSequence = firstSequence;
+        flushedPosition = 0;
+    }
+
+    private List<Segment> listSegments() throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    String sequence = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                    segments.add(new Segment(Long.parseLong(sequence), path));
+                }
+            });
+        }
+        segments.sort((a, b) -> Long.compare(a.firstSequence(), b.firstSequence()));
+        return segments;
+    }
+
+    private static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private record Segment(long firstSequence, Path path) {
+    }
+}
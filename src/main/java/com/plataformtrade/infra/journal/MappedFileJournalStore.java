@@ -0,0 +1,252 @@
+package com.plataformtrade.infra.journal;
+
+import com.plataformtrade.application.engine.BookSnapshot;
+import com.plataformtrade.application.engine.CommandJournal;
+import com.plataformtrade.application.engine.JournalStore;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.book.StopOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * File-based {@link JournalStore}: every market gets its own directory with
+ * memory-mapped journal segments and checksummed snapshot files.
+ * <p>
+ * Snapshots are written to a temporary file, forced and atomically renamed,
+ * so a crash mid-write never hides the previous snapshot. Loading falls back
+ * to an older snapshot when the newest one fails its checksum.
+ */
+public class MappedFileJournalStore implements JournalStore {
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileJournalStore.class);
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int SNAPSHOT_MAGIC = 0x504C5453;
+    private static final int SNAPSHOT_VERSION = 2;
+    // Version 1 held resting orders only; it is still readable.
+    private static final int SNAPSHOT_VERSION_ORDERS_ONLY = 1;
+
+    private final Path directory;
+    private final int segmentSize;
+
+    public MappedFileJournalStore(Path directory, int segmentSize) {
+        this.directory = Objects.requireNonNull(directory, "directory must not be null");
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public CommandJournal openJournal(String marketId) {
+        return new MappedFileCommandJournal(marketDirectory(marketId), marketId, segmentSize);
+    }
+
+    /**
+     * Replays a market's journal from {@code fromSequence} without modifying
+     * it; see {@link MappedFileCommandJournal#read}.
+     */
+    public long readJournal(String marketId, long fromSequence, CommandJournal.ReplayHandler handler) {
+        return new MappedFileCommandJournal(marketDirectory(marketId), marketId, segmentSize).read(fromSequence, handler);
+    }
+
+    @Override
+    public void saveSnapshot(String marketId, BookSnapshot snapshot) {
+        Path marketDirectory = marketDirectory(marketId);
+        Path target = marketDirectory.resolve(snapshotName(snapshot.sequence()));
+        Path temporary = marketDirectory.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(marketDirectory);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeSnapshot(Channels.newOutputStream(channel), snapshot);
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            for (Path older : listSnapshots(marketDirectory)) {
+                if (!older.equals(target)) {
+                    Files.deleteIfExists(older);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to save snapshot for market " + marketId, ex);
+        }
+    }
+
+    @Override
+    public Optional<BookSnapshot> loadLatestSnapshot(String marketId) {
+        Path marketDirectory = marketDirectory(marketId);
+        if (!Files.isDirectory(marketDirectory)) {
+            return Optional.empty();
+        }
+        try {
+            for (Path path : listSnapshots(marketDirectory)) {
+                try (InputStream input = Files.newInputStream(path)) {
+                    return Optional.of(readSnapshot(input, marketId));
+                } catch (IOException | RuntimeException ex) {
+                    logger.warn("Skipping unreadable snapshot for market {}: file={}, reason={}",
+                            marketId, path.getFileName(), ex.getMessage());
+                }
+            }
+            return Optional.empty();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to list snapshots for market " + marketId, ex);
+        }
+    }
+
+    /**
+     * The snapshot in the same checksummed layout as a snapshot file, for
+     * sending a book to another node.
+     */
+    public static byte[] encodeSnapshot(BookSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeSnapshot(bytes, snapshot);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to encode snapshot", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static BookSnapshot decodeSnapshot(byte[] bytes, String marketId) {
+        try {
+            return readSnapshot(new ByteArrayInputStream(bytes), marketId);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid snapshot for market " + marketId + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void writeSnapshot(OutputStream target, BookSnapshot snapshot) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(target), new CRC32C());
+        DataOutputStream output = new DataOutputStream(checked);
+        output.writeInt(SNAPSHOT_MAGIC);
+        output.writeInt(SNAPSHOT_VERSION);
+        output.writeLong(snapshot.sequence());
+        output.writeInt(snapshot.orders().size());
+        for (Order order : snapshot.orders()) {
+            writeOrder(output, order);
+        }
+        output.writeLong(snapshot.lastTradePrice());
+        output.writeInt(snapshot.stops().size());
+        for (StopOrder stop : snapshot.stops()) {
+            writeOrder(output, stop.order());
+            output.writeLong(stop.stopPrice());
+        }
+        output.writeInt(snapshot.triggered().size());
+        for (Order order : snapshot.triggered()) {
+            writeOrder(output, order);
+        }
+        output.flush();
+        long checksum = checked.getChecksum().getValue();
+        output.writeInt((int) checksum);
+        output.flush();
+    }
+
+    private static BookSnapshot readSnapshot(InputStream source, String marketId) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(source), new CRC32C());
+        DataInputStream input = new DataInputStream(checked);
+        int version = input.readInt() == SNAPSHOT_MAGIC ? input.readInt() : -1;
+        if (version != SNAPSHOT_VERSION && version != SNAPSHOT_VERSION_ORDERS_ONLY) {
+            throw new IOException("not a snapshot file");
+        }
+        long sequence = input.readLong();
+        int count = input.readInt();
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(readOrder(input, marketId));
+        }
+        long lastTradePrice = 0;
+        List<StopOrder> stops = new ArrayList<>();
+        List<Order> triggered = new ArrayList<>();
+        if (version == SNAPSHOT_VERSION) {
+            lastTradePrice = input.readLong();
+            int stopCount = input.readInt();
+            for (int i = 0; i < stopCount; i++) {
+                Order order = readOrder(input, marketId);
+                stops.add(new StopOrder(order, input.readLong()));
+            }
+            int triggeredCount = input.readInt();
+            for (int i = 0; i < triggeredCount; i++) {
+                triggered.add(readOrder(input, marketId));
+            }
+        }
+        int expected = (int) checked.getChecksum().getValue();
+        if (input.readInt() != expected) {
+            throw new IOException("snapshot checksum mismatch");
+        }
+        return new BookSnapshot(sequence, orders, stops, triggered, lastTradePrice);
+    }
+
+    private static void writeOrder(DataOutputStream output, Order order) throws IOException {
+        output.writeUTF(order.getOrderId());
+        output.writeUTF(order.getAccountId());
+        output.writeUTF(order.getSide());
+        output.writeUTF(order.getStatus());
+        output.writeLong(order.getQuantity());
+        output.writeLong(order.getPrice());
+        output.writeLong(order.getFillQuantity());
+        byte[] notional = order.getFillNotional().toByteArray();
+        output.writeShort(notional.length);
+        output.write(notional);
+        output.writeLong(order.getTimestamp().getTime());
+    }
+
+    private static Order readOrder(DataInputStream input, String marketId) throws IOException {
+        String orderId = input.readUTF();
+        String accountId = input.readUTF();
+        String side = input.readUTF();
+        String status = input.readUTF();
+        long quantity = input.readLong();
+        long price = input.readLong();
+        long fillQuantity = input.readLong();
+        byte[] notional = new byte[input.readUnsignedShort()];
+        input.readFully(notional);
+        long timestamp = input.readLong();
+        return Order.restore(orderId, accountId, marketId, side, quantity, price,
+                fillQuantity, new BigInteger(notional), status, new Date(timestamp));
+    }
+
+    private List<Path> listSnapshots(Path marketDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(marketDirectory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+    }
+
+    private Path marketDirectory(String marketId) {
+        return directory.resolve(marketId);
+    }
+
+    private static String snapshotName(long sequence) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX);
+    }
+}
@@ -0,0 +1,34 @@
+package com.plataformtrade.infra.marketdata;
+
+import com.plataformtrade.application.marketdata.CandleAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically writes the candles closed by the {@link CandleAggregator} to
+ * the database. A failed flush keeps the candles queued for the next run.
+ */
+@Component
+public class CandleFlushScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(CandleFlushScheduler.class);
+
+    private final CandleAggregator candleAggregator;
+
+    public CandleFlushScheduler(CandleAggregator candleAggregator) {
+        this.candleAggregator = candleAggregator;
+    }
+
+    @Scheduled(fixedDelayString = "${engine.candles.flush-interval-ms:1000}")
+    public void flush() {
+        try {
+            int flushed = candleAggregator.flush();
+            if (flushed > 0) {
+                logger.debug("Flushed candles: count={}", flushed);
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Failed to flush candles: pending={}", candleAggregator.pendingFlush(), ex);
+        }
+    }
+}
@@ -4,11 +4,21 @@ import com.plataformtrade.domain.Account;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
-
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Mapping of the accounts table. The id is assigned by the domain, so the
+ * entity tells Spring Data itself whether it is new: a freshly built one is
+ * persisted straight away instead of being merged, which would first select
+ * the row.
+ */
 @Entity
 @Table(name = "accounts")
-public class AccountEntity {
+public class AccountEntity implements Persistable<String> {
 
     @Id
     @Column(name = "account_id", length = 36, nullable = false)
@@ -26,6 +36,9 @@ public class AccountEntity {
     @Column(name = "email", nullable = false, unique = true, length = 254)
     private String email;
 
+    @Transient
+    private boolean isNew = true;
+
     protected AccountEntity() {}
 
     public AccountEntity(String accountId, String name, String document, String password, String email) {
@@ -58,6 +71,22 @@ public class AccountEntity {
         return new AccountEntity(account);
     }
 
+    @Override
+    public String getId() {
+        return accountId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public String getAccountId() {
         return accountId;
     }
@@ -0,0 +1,93 @@
+package com.plataformtrade.infra.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "balances")
+@IdClass(BalanceEntity.Key.class)
+public class BalanceEntity {
+
+    @Id
+    @Column(name = "account_id", length = 36, nullable = false)
+    private String accountId;
+
+    @Id
+    @Column(name = "asset", length = 16, nullable = false)
+    private String asset;
+
+    @Column(name = "available", precision = 38, scale = 18, nullable = false)
+    private BigDecimal available;
+
+    @Column(name = "reserved", precision = 38, scale = 18, nullable = false)
+    private BigDecimal reserved;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected BalanceEntity() {}
+
+    public BalanceEntity(String accountId, String asset, BigDecimal available, BigDecimal reserved, Instant updatedAt) {
+        this.accountId = accountId;
+        this.asset = asset;
+        this.available = available;
+        this.reserved = reserved;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getAsset() {
+        return asset;
+    }
+
+    public BigDecimal getAvailable() {
+        return available;
+    }
+
+    public BigDecimal getReserved() {
+        return reserved;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public static class Key implements Serializable {
+        private String accountId;
+        private String asset;
+
+        protected Key() {}
+
+        public Key(String accountId, String asset) {
+            this.accountId = accountId;
+            this.asset = asset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(accountId, key.accountId) && Objects.equals(asset, key.asset);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, asset);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.plataformtrade.infra.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "balance_settlements")
+public class BalanceSettlementEntity {
+
+    @Id
+    @Column(name = "market_id", length = 20, nullable = false)
+    private String marketId;
+
+    @Column(name = "sequence", nullable = false)
+    private long sequence;
+
+    @Column(name = "match_index", nullable = false)
+    private int matchIndex;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected BalanceSettlementEntity() {}
+
+    public BalanceSettlementEntity(String marketId, long sequence, int matchIndex, Instant updatedAt) {
+        this.marketId = marketId;
+        this.sequence = sequence;
+        this.matchIndex = matchIndex;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getMatchIndex() {
+        return matchIndex;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,149 @@
+package com.plataformtrade.infra.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "candles")
+@IdClass(CandleEntity.Key.class)
+public class CandleEntity {
+
+    @Id
+    @Column(name = "market_id", length = 20, nullable = false)
+    private String marketId;
+
+    @Id
+    @Column(name = "resolution", length = 4, nullable = false)
+    private String resolution;
+
+    @Id
+    @Column(name = "open_time", nullable = false)
+    private Instant openTime;
+
+    @Column(name = "open_price", precision = 38, scale = 18, nullable = false)
+    private BigDecimal open;
+
+    @Column(name = "high_price", precision = 38, scale = 18, nullable = false)
+    private BigDecimal high;
+
+    @Column(name = "low_price", precision = 38, scale = 18, nullable = false)
+    private BigDecimal low;
+
+    @Column(name = "close_price", precision = 38, scale = 18, nullable = false)
+    private BigDecimal close;
+
+    @Column(name = "volume", precision = 38, scale = 18, nullable = false)
+    private BigDecimal volume;
+
+    @Column(name = "vwap", precision = 38, scale = 18, nullable = false)
+    private BigDecimal vwap;
+
+    @Column(name = "trade_count", nullable = false)
+    private int tradeCount;
+
+    protected CandleEntity() {}
+
+    public CandleEntity(
+            String marketId,
+            String resolution,
+            Instant openTime,
+            BigDecimal open,
+            BigDecimal high,
+            BigDecimal low,
+            BigDecimal close,
+            BigDecimal volume,
+            BigDecimal vwap,
+            int tradeCount
+    ) {
+        this.marketId = marketId;
+        this.resolution = resolution;
+        this.openTime = openTime;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.vwap = vwap;
+        this.tradeCount = tradeCount;
+    }
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public Instant getOpenTime() {
+        return openTime;
+    }
+
+    public BigDecimal getOpen() {
+        return open;
+    }
+
+    public BigDecimal getHigh() {
+        return high;
+    }
+
+    public BigDecimal getLow() {
+        return low;
+    }
+
+    public BigDecimal getClose() {
+        return close;
+    }
+
+    public BigDecimal getVolume() {
+        return volume;
+    }
+
+    public BigDecimal getVwap() {
+        return vwap;
+    }
+
+    public int getTradeCount() {
+        return tradeCount;
+    }
+
+    public static class Key implements Serializable {
+        private String marketId;
+        private String resolution;
+        private Instant openTime;
+
+        protected Key() {}
+
+        public Key(String marketId, String resolution, Instant openTime) {
+            this.marketId = marketId;
+            this.resolution = resolution;
+            this.openTime = openTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(marketId, key.marketId)
+                    && Objects.equals(resolution, key.resolution)
+                    && Objects.equals(openTime, key.openTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(marketId, resolution, openTime);
+        }
+    }
+}
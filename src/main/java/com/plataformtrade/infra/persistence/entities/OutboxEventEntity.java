@@ -2,15 +2,29 @@ package com.plataformtrade.infra.persistence.entities;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 
+/**
+ * Mapping of the outbox_events table. On PostgreSQL the table is created by
+ * a migration, range-partitioned by day of {@code occurred_on} so that sent
+ * events are purged by dropping whole partitions; see
+ * {@code OutboxPartitionMaintainer}. Like {@link AccountEntity}, a new event
+ * reports itself as new so that it is inserted without a select first.
+ */
 @Entity
 @Table(name = "outbox_events")
-public class OutboxEventEntity {
+public class OutboxEventEntity implements Persistable<String> {
 
     @Id
     @Column(name = "event_id", length = 36, nullable = false)
@@ -22,15 +36,19 @@ public class OutboxEventEntity {
     @Column(name = "event_type", length = 120, nullable = false)
     private String eventType;
 
-    @Lob
-    @Column(name = "payload", nullable = false)
-    private String payload;
+    @Column(name = "payload", nullable = false, length = 1_048_576)
+    private byte[] payload;
+
+    @Column(name = "payload_codec", nullable = false)
+    private short payloadCodec;
 
     @Column(name = "occurred_on", nullable = false)
     private Instant occurredOn;
 
-    @Column(name = "status", length = 30, nullable = false)
-    private String status;
+    @Enumerated(EnumType.ORDINAL)
+    @JdbcTypeCode(SqlTypes.SMALLINT)
+    @Column(name = "status", nullable = false)
+    private OutboxStatus status;
 
     @Column(name = "sent_at")
     private Instant sentAt;
@@ -38,26 +56,53 @@ public class OutboxEventEntity {
     @Column(name = "error_message", length = 500)
     private String errorMessage;
 
+    @Column(name = "attempts", nullable = false)
+    private short attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Transient
+    private boolean isNew = true;
+
     protected OutboxEventEntity() {}
 
     public OutboxEventEntity(
             String eventId,
             String aggregateId,
             String eventType,
-            String payload,
+            byte[] payload,
+            short payloadCodec,
             Instant occurredOn,
-            String status
+            OutboxStatus status
     ) {
         this.eventId = eventId;
         this.aggregateId = aggregateId;
         this.eventType = eventType;
         this.payload = payload;
+        this.payloadCodec = payloadCodec;
         this.occurredOn = occurredOn;
         this.status = status;
         this.sentAt = null;
         this.errorMessage = null;
     }
 
+    @Override
+    public String getId() {
+        return eventId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public String getEventId() {
         return eventId;
     }
@@ -82,14 +127,22 @@ public class OutboxEventEntity {
         this.eventType = eventType;
     }
 
-    public String getPayload() {
+    public byte[] getPayload() {
         return payload;
     }
 
-    public void setPayload(String payload) {
+    public void setPayload(byte[] payload) {
         this.payload = payload;
     }
 
+    public short getPayloadCodec() {
+        return payloadCodec;
+    }
+
+    public void setPayloadCodec(short payloadCodec) {
+        this.payloadCodec = payloadCodec;
+    }
+
     public Instant getOccurredOn() {
         return occurredOn;
     }
@@ -98,11 +151,11 @@ public class OutboxEventEntity {
         this.occurredOn = occurredOn;
     }
 
-    public String getStatus() {
+    public OutboxStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(OutboxStatus status) {
         this.status = status;
     }
 
@@ -121,4 +174,20 @@ public class OutboxEventEntity {
     public void setErrorMessage(String errorMessage) {
         this.errorMessage = errorMessage;
     }
+
+    public short getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(short attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
 }
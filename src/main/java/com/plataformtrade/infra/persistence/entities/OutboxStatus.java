@@ -0,0 +1,13 @@
+package com.plataformtrade.infra.persistence.entities;
+
+/**
+ * Publication state of an outbox event, stored as its ordinal in a
+ * {@code smallint} column. Constants may only be appended. An event the
+ * broker refused stays {@code PENDING} while it has attempts left and is
+ * {@code FAILED}, dead-lettered, after the last one.
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
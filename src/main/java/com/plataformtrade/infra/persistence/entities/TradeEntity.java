@@ -0,0 +1,134 @@
+package com.plataformtrade.infra.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Mapping of the trades table. Trades are written in bulk by
+ * {@code JdbcTradeStore}; the entity defines the schema and serves reads.
+ */
+@Entity
+@Table(name = "trades")
+@IdClass(TradeEntity.Key.class)
+public class TradeEntity {
+
+    @Id
+    @Column(name = "market_id", length = 20, nullable = false)
+    private String marketId;
+
+    @Id
+    @Column(name = "sequence", nullable = false)
+    private long sequence;
+
+    @Id
+    @Column(name = "match_index", nullable = false)
+    private int matchIndex;
+
+    @Column(name = "taker_order_id", length = 36, nullable = false)
+    private String takerOrderId;
+
+    @Column(name = "maker_order_id", length = 36, nullable = false)
+    private String makerOrderId;
+
+    @Column(name = "taker_account_id", length = 36, nullable = false)
+    private String takerAccountId;
+
+    @Column(name = "maker_account_id", length = 36, nullable = false)
+    private String makerAccountId;
+
+    @Column(name = "taker_side", length = 4, nullable = false)
+    private String takerSide;
+
+    @Column(name = "quantity", precision = 38, scale = 18, nullable = false)
+    private BigDecimal quantity;
+
+    @Column(name = "price", precision = 38, scale = 18, nullable = false)
+    private BigDecimal price;
+
+    @Column(name = "executed_at", nullable = false)
+    private Instant executedAt;
+
+    protected TradeEntity() {}
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getMatchIndex() {
+        return matchIndex;
+    }
+
+    public String getTakerOrderId() {
+        return takerOrderId;
+    }
+
+    public String getMakerOrderId() {
+        return makerOrderId;
+    }
+
+    public String getTakerAccountId() {
+        return takerAccountId;
+    }
+
+    public String getMakerAccountId() {
+        return makerAccountId;
+    }
+
+    public String getTakerSide() {
+        return takerSide;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public Instant getExecutedAt() {
+        return executedAt;
+    }
+
+    public static class Key implements Serializable {
+        private String marketId;
+        private long sequence;
+        private int matchIndex;
+
+        protected Key() {}
+
+        public Key(String marketId, long sequence, int matchIndex) {
+            this.marketId = marketId;
+            this.sequence = sequence;
+            this.matchIndex = matchIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return sequence == key.sequence && matchIndex == key.matchIndex && Objects.equals(marketId, key.marketId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(marketId, sequence, matchIndex);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.application.balances.BalanceSnapshot;
+import com.plataformtrade.application.balances.BalanceStore;
+import com.plataformtrade.application.balances.SettlementMark;
+import com.plataformtrade.infra.persistence.entities.BalanceEntity;
+import com.plataformtrade.infra.persistence.entities.BalanceSettlementEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+interface BalanceJpaRepository extends JpaRepository<BalanceEntity, BalanceEntity.Key> {
+    @Modifying
+    @Query("UPDATE BalanceEntity b SET b.available = b.available + :amount, b.updatedAt = :updatedAt "
+            + "WHERE b.accountId = :accountId AND b.asset = :asset")
+    int credit(@Param("accountId") String accountId, @Param("asset") String asset,
+               @Param("amount") BigDecimal amount, @Param("updatedAt") Instant updatedAt);
+}
+
+interface BalanceSettlementJpaRepository extends JpaRepository<BalanceSettlementEntity, String> {
+}
+
+@Repository
+public class BalanceStoreImpl implements BalanceStore {
+    private final BalanceJpaRepository jpaRepository;
+    private final BalanceSettlementJpaRepository settlementRepository;
+
+    public BalanceStoreImpl(BalanceJpaRepository jpaRepository, BalanceSettlementJpaRepository settlementRepository) {
+        this.jpaRepository = jpaRepository;
+        this.settlementRepository = settlementRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BalanceSnapshot> load(String accountId, String asset) {
+        return jpaRepository.findById(new BalanceEntity.Key(accountId, asset))
+                .map(entity -> new BalanceSnapshot(
+                        entity.getAccountId(),
+                        entity.getAsset(),
+                        entity.getAvailable(),
+                        entity.getReserved()
+                ));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SettlementMark> loadSettlements() {
+        return settlementRepository.findAll().stream()
+                .map(entity -> new SettlementMark(entity.getMarketId(), entity.getSequence(), entity.getMatchIndex()))
+                .toList();
+    }
+
+    /**
+     * Adds to the stored row in place; an account's first deposit inserts
+     * the row.
+     */
+    @Override
+    @Transactional
+    public void credit(String accountId, String asset, BigDecimal amount) {
+        Instant now = Instant.now();
+        if (jpaRepository.credit(accountId, asset, amount, now) == 0) {
+            jpaRepository.save(new BalanceEntity(accountId, asset, amount, BigDecimal.ZERO, now));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(List<BalanceSnapshot> balances, List<SettlementMark> settlements) {
+        Instant now = Instant.now();
+        List<BalanceEntity> entities = new ArrayList<>(balances.size());
+        for (BalanceSnapshot balance : balances) {
+            entities.add(new BalanceEntity(
+                    balance.accountId(),
+                    balance.asset(),
+                    balance.available(),
+                    balance.reserved(),
+                    now
+            ));
+        }
+        jpaRepository.saveAll(entities);
+        List<BalanceSettlementEntity> marks = new ArrayList<>(settlements.size());
+        for (SettlementMark settlement : settlements) {
+            marks.add(new BalanceSettlementEntity(
+                    settlement.marketId(),
+                    settlement.sequence(),
+                    settlement.matchIndex(),
+                    now
+            ));
+        }
+        settlementRepository.saveAll(marks);
+    }
+}
@@ -0,0 +1,52 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.application.marketdata.Candle;
+import com.plataformtrade.application.marketdata.CandleStore;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import com.plataformtrade.infra.persistence.entities.CandleEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+interface CandleJpaRepository extends JpaRepository<CandleEntity, CandleEntity.Key> {
+}
+
+@Repository
+public class CandleStoreImpl implements CandleStore {
+    private final CandleJpaRepository jpaRepository;
+    private final MarketRepository marketRepository;
+
+    public CandleStoreImpl(CandleJpaRepository jpaRepository, MarketRepository marketRepository) {
+        this.jpaRepository = jpaRepository;
+        this.marketRepository = marketRepository;
+    }
+
+    @Override
+    @Transactional
+    public void saveAll(List<Candle> candles) {
+        List<CandleEntity> entities = new ArrayList<>(candles.size());
+        for (Candle candle : candles) {
+            Market market = marketRepository.findById(candle.marketId())
+                    .orElseThrow(() -> new NotFoundException("Market not found with id: " + candle.marketId()));
+            entities.add(new CandleEntity(
+                    candle.marketId(),
+                    candle.resolution().code(),
+                    Instant.ofEpochMilli(candle.openTime()),
+                    market.priceOf(candle.open()),
+                    market.priceOf(candle.high()),
+                    market.priceOf(candle.low()),
+                    market.priceOf(candle.close()),
+                    market.quantityOf(candle.volume()),
+                    market.averagePrice(candle.notional(), candle.volume()),
+                    candle.tradeCount()
+            ));
+        }
+        jpaRepository.saveAll(entities);
+    }
+}
@@ -0,0 +1,35 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.repositories.MarketRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Markets are static configuration (engine.markets), so they are held in
+ * memory rather than loaded from the database.
+ */
+public class InMemoryMarketRepository implements MarketRepository {
+    private final Map<String, Market> markets;
+
+    public InMemoryMarketRepository(List<Market> markets) {
+        Map<String, Market> byId = new LinkedHashMap<>();
+        for (Market market : markets) {
+            byId.put(market.getMarketId(), market);
+        }
+        this.markets = byId;
+    }
+
+    @Override
+    public List<Market> findAll() {
+        return List.copyOf(markets.values());
+    }
+
+    @Override
+    public Optional<Market> findById(String marketId) {
+        return Optional.ofNullable(markets.get(marketId));
+    }
+}
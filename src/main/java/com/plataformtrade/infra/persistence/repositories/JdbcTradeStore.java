@@ -0,0 +1,190 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.application.trades.TradePosition;
+import com.plataformtrade.application.trades.TradeRecord;
+import com.plataformtrade.application.trades.TradeStore;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores trade batches over one connection of its own, outside the JPA
+ * session. On PostgreSQL a batch is streamed with {@code COPY ... FROM STDIN};
+ * elsewhere it is written with multi-row inserts. Each batch is one
+ * transaction. Each market of a batch is looked up once. Only the trade
+ * writer thread calls {@link #write}.
+ */
+public class JdbcTradeStore implements TradeStore {
+    private static final Logger logger = LoggerFactory.getLogger(JdbcTradeStore.class);
+    private static final String COLUMNS = "market_id, sequence, match_index, taker_order_id, maker_order_id, "
+            + "taker_account_id, maker_account_id, taker_side, quantity, price, executed_at";
+    private static final int COLUMN_COUNT = 11;
+    private static final int ROWS_PER_INSERT = 100;
+
+    private final DataSource dataSource;
+    private final MarketRepository marketRepository;
+    private Connection connection;
+
+    public JdbcTradeStore(DataSource dataSource, MarketRepository marketRepository) {
+        this.dataSource = dataSource;
+        this.marketRepository = marketRepository;
+    }
+
+    @Override
+    public TradePosition lastPosition(String marketId) {
+        String sql = "SELECT sequence, match_index FROM trades WHERE market_id = ? "
+                + "ORDER BY sequence DESC, match_index DESC LIMIT 1";
+        try (Connection c = dataSource.getConnection(); PreparedStatement statement = c.prepareStatement(sql)) {
+            statement.setString(1, marketId);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new TradePosition(rs.getLong(1), rs.getInt(2)) : TradePosition.NONE;
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Failed to read trade watermark for market " + marketId, ex);
+        }
+    }
+
+    @Override
+    public void write(List<TradeRecord> trades) {
+        try {
+            Map<String, Market> markets = markets(trades);
+            Connection c = connection();
+            try {
+                if (c.isWrapperFor(PGConnection.class)) {
+                    copy(c.unwrap(PGConnection.class).getCopyAPI(), trades, markets);
+                } else {
+                    insert(c, trades, markets);
+                }
+                c.commit();
+            } catch (SQLException | IOException | RuntimeException ex) {
+                rollback(c);
+                throw ex;
+            }
+        } catch (SQLException | IOException ex) {
+            closeConnection();
+            throw new IllegalStateException("Failed to write " + trades.size() + " trades", ex);
+        }
+    }
+
+    /**
+     * Releases the writer connection back to the pool.
+     */
+    public void close() {
+        closeConnection();
+    }
+
+    private void copy(CopyManager copyManager, List<TradeRecord> trades, Map<String, Market> markets)
+            throws SQLException, IOException {
+        StringBuilder csv = new StringBuilder(trades.size() * 256);
+        for (TradeRecord trade : trades) {
+            Market market = markets.get(trade.marketId());
+            csv.append(quote(trade.marketId())).append(',')
+                    .append(trade.sequence()).append(',')
+                    .append(trade.matchIndex()).append(',')
+                    .append(quote(trade.takerOrderId())).append(',')
+                    .append(quote(trade.makerOrderId())).append(',')
+                    .append(quote(trade.takerAccountId())).append(',')
+                    .append(quote(trade.makerAccountId())).append(',')
+                    .append(quote(trade.takerSide())).append(',')
+                    .append(market.quantityOf(trade.quantity()).toPlainString()).append(',')
+                    .append(market.priceOf(trade.price()).toPlainString()).append(',')
+                    .append(Instant.ofEpochMilli(trade.executedAt())).append('\n');
+        }
+        copyManager.copyIn("COPY trades (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+    }
+
+    private void insert(Connection c, List<TradeRecord> trades, Map<String, Market> markets) throws SQLException {
+        for (int from = 0; from < trades.size(); from += ROWS_PER_INSERT) {
+            List<TradeRecord> chunk = trades.subList(from, Math.min(trades.size(), from + ROWS_PER_INSERT));
+            try (PreparedStatement statement = c.prepareStatement(insertSql(chunk.size()))) {
+                int index = 1;
+                for (TradeRecord trade : chunk) {
+                    Market market = markets.get(trade.marketId());
+                    statement.setString(index++, trade.marketId());
+                    statement.setLong(index++, trade.sequence());
+                    statement.setInt(index++, trade.matchIndex());
+                    statement.setString(index++, trade.takerOrderId());
+                    statement.setString(index++, trade.makerOrderId());
+                    statement.setString(index++, trade.takerAccountId());
+                    statement.setString(index++, trade.makerAccountId());
+                    statement.setString(index++, trade.takerSide());
+                    statement.setBigDecimal(index++, market.quantityOf(trade.quantity()));
+                    statement.setBigDecimal(index++, market.priceOf(trade.price()));
+                    statement.setTimestamp(index++, Timestamp.from(Instant.ofEpochMilli(trade.executedAt())));
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO trades (").append(COLUMNS).append(") VALUES ");
+        String row = "(" + "?, ".repeat(COLUMN_COUNT - 1) + "?)";
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(row);
+        }
+        return sql.toString();
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private Map<String, Market> markets(List<TradeRecord> trades) {
+        Map<String, Market> markets = new HashMap<>();
+        for (TradeRecord trade : trades) {
+            markets.computeIfAbsent(trade.marketId(), this::market);
+        }
+        return markets;
+    }
+
+    private Market market(String marketId) {
+        return marketRepository.findById(marketId)
+                .orElseThrow(() -> new NotFoundException("Market not found with id: " + marketId));
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+        }
+        return connection;
+    }
+
+    private void rollback(Connection c) {
+        try {
+            c.rollback();
+        } catch (SQLException ex) {
+            logger.warn("Rollback of trade batch failed: reason={}", ex.getMessage());
+        }
+    }
+
+    private void closeConnection() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            logger.warn("Closing trade writer connection failed: reason={}", ex.getMessage());
+        }
+        connection = null;
+    }
+}
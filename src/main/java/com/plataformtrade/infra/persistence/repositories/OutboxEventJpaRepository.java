@@ -2,9 +2,46 @@ package com.plataformtrade.infra.persistence.repositories;
 
 import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface OutboxEventJpaRepository extends JpaRepository<OutboxEventEntity, String> {
-    List<OutboxEventEntity> findTop100ByStatusOrderByOccurredOnAsc(String status);
+    /**
+     * Claims up to {@code limit} of the oldest pending events for the
+     * current transaction (PostgreSQL only). Candidates are row-locked with
+     * {@code SKIP LOCKED}, so rows claimed by another instance are skipped
+     * instead of waited for. A candidate is only returned when every earlier
+     * pending event of its aggregate is a candidate too; the others stay
+     * locked but unclaimed until this transaction ends, so events of one
+     * aggregate are never published out of order, even while an earlier one
+     * is held by another instance. A batch may therefore come back short
+     * with events still pending. An event waiting for its next attempt is
+     * not claimed before then and holds back the later events of its
+     * aggregate meanwhile; a dead-lettered ({@code FAILED}) event no longer
+     * does. The status is a literal
+     * ({@code OutboxStatus.PENDING}) so that the planner can use the
+     * partial indexes on pending rows.
+     */
+    @Query(value = """
+            WITH candidates AS MATERIALIZED (
+                SELECT * FROM outbox_events e
+                WHERE e.status = 0
+                  AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= now())
+                ORDER BY e.occurred_on, e.event_id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            SELECT * FROM candidates c
+            WHERE NOT EXISTS (
+                SELECT 1 FROM outbox_events p
+                WHERE p.status = 0
+                  AND p.aggregate_id = c.aggregate_id
+                  AND (p.occurred_on, p.event_id) < (c.occurred_on, c.event_id)
+                  AND p.event_id NOT IN (SELECT event_id FROM candidates)
+            )
+            ORDER BY c.occurred_on, c.event_id
+            """, nativeQuery = true)
+    List<OutboxEventEntity> claimPending(@Param("limit") int limit);
 }
@@ -1,11 +1,15 @@
 package com.plataformtrade.infra.rest;
 
 import com.plataformtrade.application.dtos.AccountResponse;
+import com.plataformtrade.application.dtos.BalanceResponse;
 import com.plataformtrade.application.dtos.CreateAccountRequest;
+import com.plataformtrade.application.dtos.DepositRequest;
 import com.plataformtrade.application.dtos.common.ApiResponse;
 import com.plataformtrade.application.dtos.common.PageResponse;
+import com.plataformtrade.application.usecases.Deposit;
 import com.plataformtrade.application.usecases.GetAccount;
 import com.plataformtrade.application.usecases.GetAllAccounts;
+import com.plataformtrade.application.usecases.GetBalances;
 import com.plataformtrade.application.usecases.Signup;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,15 +26,21 @@ public class AccountController {
     private final Signup signupUseCase;
     private final GetAccount getAccount;
     private final GetAllAccounts getAllAccountsUseCase;
+    private final Deposit deposit;
+    private final GetBalances getBalances;
 
     public AccountController(
             Signup signupUseCase,
             GetAccount getAccount,
-            GetAllAccounts getAllAccountsUseCase
+            GetAllAccounts getAllAccountsUseCase,
+            Deposit deposit,
+            GetBalances getBalances
     ) {
         this.signupUseCase = signupUseCase;
         this.getAccount = getAccount;
         this.getAllAccountsUseCase = getAllAccountsUseCase;
+        this.deposit = deposit;
+        this.getBalances = getBalances;
     }
 
     @PostMapping
@@ -56,4 +66,23 @@ public class AccountController {
         PageResponse<AccountResponse> pageResponse = PageResponse.of(accounts);
         return ResponseEntity.ok(ApiResponse.success(pageResponse));
     }
-}
\ No newline at end of file
+
+    @PostMapping("/{accountId}/deposits")
+    @Operation(summary = "Deposit an asset into the account")
+    public ResponseEntity<ApiResponse<BalanceResponse>> deposit(
+            @PathVariable String accountId,
+            @RequestBody DepositRequest request
+    ) {
+        BalanceResponse balance = deposit.execute(accountId, request);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.created(balance));
+    }
+
+    @GetMapping("/{accountId}/balances")
+    @Operation(summary = "Get the account balances")
+    public ResponseEntity<ApiResponse<List<BalanceResponse>>> getBalances(@PathVariable String accountId) {
+        List<BalanceResponse> balances = getBalances.execute(accountId);
+        return ResponseEntity.ok(ApiResponse.success(balances));
+    }
+}
@@ -0,0 +1,31 @@
+package com.plataformtrade.infra.rest;
+
+import com.plataformtrade.application.dtos.CandlesResponse;
+import com.plataformtrade.application.dtos.common.ApiResponse;
+import com.plataformtrade.application.usecases.GetCandles;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/markets")
+@Tag(name = "Markets", description = "API de dados de mercado")
+public class MarketController {
+    private final GetCandles getCandles;
+
+    public MarketController(GetCandles getCandles) {
+        this.getCandles = getCandles;
+    }
+
+    @GetMapping("/{marketId}/candles")
+    @Operation(summary = "Get the open candle and the most recent closed candles")
+    public ResponseEntity<ApiResponse<CandlesResponse>> getCandles(
+            @PathVariable String marketId,
+            @RequestParam(defaultValue = "1m") String resolution,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        CandlesResponse candles = getCandles.execute(marketId, resolution, limit);
+        return ResponseEntity.ok(ApiResponse.success(candles));
+    }
+}
@@ -0,0 +1,107 @@
+package com.plataformtrade.infra.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.plataformtrade.application.dtos.PlaceOrderRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a JSON array of orders token by token, handing out one
+ * {@link PlaceOrderRequest} at a time instead of binding the whole body.
+ * Unknown fields are skipped; malformed JSON is reported as an
+ * {@link IllegalArgumentException}.
+ */
+final class OrderBatchReader implements Iterator<PlaceOrderRequest> {
+    private final JsonParser parser;
+    private boolean started;
+    private JsonToken current;
+
+    OrderBatchReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            if (!started) {
+                started = true;
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("order batch must be a JSON array");
+                }
+            }
+            if (current == null) {
+                current = parser.nextToken();
+            }
+            if (current == JsonToken.END_ARRAY) {
+                return false;
+            }
+            if (current != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("order batch entries must be JSON objects");
+            }
+            return true;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("malformed order batch: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public PlaceOrderRequest next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        current = null;
+        String accountId = null;
+        String marketId = null;
+        String side = null;
+        BigDecimal quantity = null;
+        BigDecimal price = null;
+        try {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "accountId" -> accountId = text(value);
+                    case "marketId" -> marketId = text(value);
+                    case "side" -> side = text(value);
+                    case "quantity" -> quantity = decimal(value);
+                    case "price" -> price = decimal(value);
+                    default -> parser.skipChildren();
+                }
+            }
+            return new PlaceOrderRequest(accountId, marketId, side, quantity, price);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("malformed order batch: " + ex.getOriginalMessage());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String text(JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    private BigDecimal decimal(JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            try {
+                return new BigDecimal(parser.getText());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("invalid number: " + parser.getText());
+            }
+        }
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        throw new IllegalArgumentException("expected a number but found " + value);
+    }
+}
@@ -0,0 +1,103 @@
+package com.plataformtrade.infra.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformtrade.application.dtos.BatchOrderResult;
+import com.plataformtrade.application.dtos.OrderResponse;
+import com.plataformtrade.application.dtos.PlaceOrderRequest;
+import com.plataformtrade.application.dtos.PlaceStopOrderRequest;
+import com.plataformtrade.application.dtos.ReplaceOrderRequest;
+import com.plataformtrade.application.dtos.common.ApiResponse;
+import com.plataformtrade.application.usecases.CancelOrder;
+import com.plataformtrade.application.usecases.PlaceOrder;
+import com.plataformtrade.application.usecases.PlaceOrderBatch;
+import com.plataformtrade.application.usecases.PlaceStopOrder;
+import com.plataformtrade.application.usecases.ReplaceOrder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/orders")
+@Tag(name = "Orders", description = "API de envio de ordens")
+public class OrderController {
+    private final PlaceOrder placeOrder;
+    private final PlaceOrderBatch placeOrderBatch;
+    private final PlaceStopOrder placeStopOrder;
+    private final CancelOrder cancelOrder;
+    private final ReplaceOrder replaceOrder;
+    private final ObjectMapper objectMapper;
+
+    public OrderController(
+            PlaceOrder placeOrder,
+            PlaceOrderBatch placeOrderBatch,
+            PlaceStopOrder placeStopOrder,
+            CancelOrder cancelOrder,
+            ReplaceOrder replaceOrder,
+            ObjectMapper objectMapper
+    ) {
+        this.placeOrder = placeOrder;
+        this.placeOrderBatch = placeOrderBatch;
+        this.placeStopOrder = placeStopOrder;
+        this.cancelOrder = cancelOrder;
+        this.replaceOrder = replaceOrder;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    @Operation(summary = "Place a limit order")
+    public ResponseEntity<ApiResponse<OrderResponse>> placeOrder(@RequestBody PlaceOrderRequest request) {
+        OrderResponse order = placeOrder.execute(request);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.created(order));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Place a batch of limit orders")
+    public ResponseEntity<ApiResponse<List<BatchOrderResult>>> placeOrderBatch(HttpServletRequest request) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+            List<BatchOrderResult> results = placeOrderBatch.execute(new OrderBatchReader(parser));
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(ApiResponse.created(results));
+        }
+    }
+
+    @PostMapping("/stops")
+    @Operation(summary = "Place a stop-limit order")
+    public ResponseEntity<ApiResponse<OrderResponse>> placeStopOrder(@RequestBody PlaceStopOrderRequest request) {
+        OrderResponse order = placeStopOrder.execute(request);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.created(order));
+    }
+
+    @PutMapping("/{orderId}")
+    @Operation(summary = "Amend the quantity and price of a resting order")
+    public ResponseEntity<ApiResponse<OrderResponse>> replaceOrder(
+            @PathVariable String orderId,
+            @RequestBody ReplaceOrderRequest request
+    ) {
+        OrderResponse order = replaceOrder.execute(orderId, request);
+        return ResponseEntity.ok(ApiResponse.success(order));
+    }
+
+    @DeleteMapping("/{orderId}")
+    @Operation(summary = "Cancel a resting order")
+    public ResponseEntity<ApiResponse<OrderResponse>> cancelOrder(
+            @PathVariable String orderId,
+            @RequestParam String marketId,
+            @RequestParam String accountId
+    ) {
+        OrderResponse order = cancelOrder.execute(orderId, marketId, accountId);
+        return ResponseEntity.ok(ApiResponse.success(order));
+    }
+}
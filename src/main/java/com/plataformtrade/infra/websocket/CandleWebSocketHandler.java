@@ -0,0 +1,150 @@
+package com.plataformtrade.infra.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformtrade.application.marketdata.Candle;
+import com.plataformtrade.application.marketdata.CandleAggregator;
+import com.plataformtrade.application.marketdata.CandleResolution;
+import com.plataformtrade.application.usecases.GetCandles;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves {@code /ws/candles/{marketId}?resolution=1m}: the open candle as
+ * JSON, pushed whenever it has changed since the last push. Candles are read
+ * from the {@link CandleAggregator} without locking on every push interval,
+ * so a busy market costs one frame per interval per session, however many
+ * trades it printed. Sessions that fall behind are closed rather than
+ * allowed to buffer without bound.
+ */
+@Component
+public class CandleWebSocketHandler extends TextWebSocketHandler {
+    private static final Logger logger = LoggerFactory.getLogger(CandleWebSocketHandler.class);
+    private static final String DEFAULT_RESOLUTION = "1m";
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int SEND_BUFFER_LIMIT = 64 * 1024;
+
+    private final CandleAggregator candleAggregator;
+    private final MarketRepository marketRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CandleSubscriber> subscribers = new ConcurrentHashMap<>();
+
+    public CandleWebSocketHandler(CandleAggregator candleAggregator, MarketRepository marketRepository, ObjectMapper objectMapper) {
+        this.candleAggregator = Objects.requireNonNull(candleAggregator, "candleAggregator must not be null");
+        this.marketRepository = Objects.requireNonNull(marketRepository, "marketRepository must not be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Optional<Market> market = marketRepository.findById(marketId(session.getUri()));
+        if (market.isEmpty()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Market not found"));
+            return;
+        }
+        CandleResolution resolution;
+        try {
+            resolution = CandleResolution.fromCode(resolution(session.getUri()));
+        } catch (IllegalArgumentException ex) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(ex.getMessage()));
+            return;
+        }
+        CandleSubscriber subscriber = new CandleSubscriber(
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT),
+                market.get(),
+                resolution
+        );
+        subscribers.put(session.getId(), subscriber);
+        logger.info("Candle subscriber connected: sessionId={}, marketId={}, resolution={}",
+                session.getId(), market.get().getMarketId(), resolution.code());
+        push(subscriber);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (subscribers.remove(session.getId()) != null) {
+            logger.info("Candle subscriber disconnected: sessionId={}, status={}", session.getId(), status.getCode());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${engine.candles.push-interval-ms:250}")
+    public void pushAll() {
+        for (CandleSubscriber subscriber : subscribers.values()) {
+            push(subscriber);
+        }
+    }
+
+    private void push(CandleSubscriber subscriber) {
+        Candle candle = candleAggregator.current(subscriber.market.getMarketId(), subscriber.resolution);
+        if (candle == null || candle.equals(subscriber.lastSent)) {
+            return;
+        }
+        synchronized (subscriber) {
+            if (candle.equals(subscriber.lastSent)) {
+                return;
+            }
+            try {
+                String json = objectMapper.writeValueAsString(GetCandles.toResponse(candle, subscriber.market));
+                subscriber.session.sendMessage(new TextMessage(json));
+                subscriber.lastSent = candle;
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Candle push failed: sessionId={}, reason={}", subscriber.session.getId(), ex.getMessage());
+                subscribers.remove(subscriber.session.getId());
+                closeQuietly(subscriber.session);
+            }
+        }
+    }
+
+    private static void closeQuietly(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ex) {
+            logger.debug("Closing candle session failed: sessionId={}, reason={}", session.getId(), ex.getMessage());
+        }
+    }
+
+    private static String marketId(URI uri) {
+        if (uri == null) {
+            return "";
+        }
+        String path = uri.getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static String resolution(URI uri) {
+        if (uri == null) {
+            return DEFAULT_RESOLUTION;
+        }
+        String resolution = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst("resolution");
+        return resolution == null ? DEFAULT_RESOLUTION : resolution;
+    }
+
+    private static final class CandleSubscriber {
+        private final WebSocketSession session;
+        private final Market market;
+        private final CandleResolution resolution;
+        private Candle lastSent;
+
+        private CandleSubscriber(WebSocketSession session, Market market, CandleResolution resolution) {
+            this.session = session;
+            this.market = market;
+            this.resolution = resolution;
+        }
+    }
+}
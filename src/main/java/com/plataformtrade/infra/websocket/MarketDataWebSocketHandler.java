@@ -0,0 +1,132 @@
+package com.plataformtrade.infra.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformtrade.application.dtos.MarketDataResponse;
+import com.plataformtrade.application.marketdata.DepthLevel;
+import com.plataformtrade.application.marketdata.MarketDataFeed;
+import com.plataformtrade.application.marketdata.MarketDataMessage;
+import com.plataformtrade.application.marketdata.MarketDataSink;
+import com.plataformtrade.application.marketdata.MarketDataSubscription;
+import com.plataformtrade.application.marketdata.TradeTick;
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.repositories.MarketRepository;
+import com.plataformtrade.infra.codec.BinaryFrameCodec;
+import com.plataformtrade.infra.codec.WireFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Serves {@code /ws/market-data/{marketId}}: one {@link MarketDataSubscription}
+ * per session, sending a depth snapshot first and conflated updates after it.
+ * Frames are JSON text unless the client negotiated the binary subprotocol,
+ * in which case they are {@link BinaryFrameCodec} frames encoded into a
+ * buffer reused for the whole session.
+ */
+@Component
+public class MarketDataWebSocketHandler extends TextWebSocketHandler implements SubProtocolCapable {
+    private static final Logger logger = LoggerFactory.getLogger(MarketDataWebSocketHandler.class);
+    private static final String SUBSCRIPTION_ATTRIBUTE = "marketDataSubscription";
+
+    private final MarketDataFeed marketDataFeed;
+    private final MarketRepository marketRepository;
+    private final ObjectMapper objectMapper;
+
+    public MarketDataWebSocketHandler(MarketDataFeed marketDataFeed, MarketRepository marketRepository, ObjectMapper objectMapper) {
+        this.marketDataFeed = Objects.requireNonNull(marketDataFeed, "marketDataFeed must not be null");
+        this.marketRepository = Objects.requireNonNull(marketRepository, "marketRepository must not be null");
+        this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper must not be null");
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Optional<Market> market = marketRepository.findById(marketId(session.getUri()));
+        if (market.isEmpty()) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Market not found"));
+            return;
+        }
+        WireFormat format = WireFormat.fromSubprotocol(session.getAcceptedProtocol());
+        MarketDataSink sink = format == WireFormat.BINARY
+                ? binarySink(session)
+                : message -> session.sendMessage(new TextMessage(objectMapper.writeValueAsString(toResponse(message, market.get()))));
+        MarketDataSubscription subscription = marketDataFeed.subscribe(market.get().getMarketId(), sink);
+        session.getAttributes().put(SUBSCRIPTION_ATTRIBUTE, subscription);
+        logger.info("Market-data subscriber connected: sessionId={}, marketId={}, format={}",
+                session.getId(), market.get().getMarketId(), format);
+    }
+
+    @Override
+    public List<String> getSubProtocols() {
+        return WireFormat.subprotocols();
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        if (session.getAttributes().get(SUBSCRIPTION_ATTRIBUTE) instanceof MarketDataSubscription subscription) {
+            subscription.close();
+            logger.info("Market-data subscriber disconnected: sessionId={}, status={}", session.getId(), status.getCode());
+        }
+    }
+
+    /**
+     * The subscription never sends concurrently and the standard session sends
+     * synchronously, so one buffer per session is safe to reuse.
+     */
+    private MarketDataSink binarySink(WebSocketSession session) {
+        ByteBuffer[] buffer = new ByteBuffer[1];
+        return message -> {
+            buffer[0] = BinaryFrameCodec.ensureCapacity(buffer[0], BinaryFrameCodec.sizeOf(message));
+            BinaryFrameCodec.encode(message, buffer[0]);
+            session.sendMessage(new BinaryMessage(buffer[0].flip()));
+        };
+    }
+
+    private MarketDataResponse toResponse(MarketDataMessage message, Market market) {
+        return new MarketDataResponse(
+                message.type(),
+                message.marketId(),
+                message.sequence(),
+                levels(message.bids(), market),
+                levels(message.asks(), market),
+                message.trades().stream()
+                        .map(trade -> toTrade(trade, market))
+                        .toList()
+        );
+    }
+
+    private List<MarketDataResponse.Level> levels(List<DepthLevel> levels, Market market) {
+        return levels.stream()
+                .map(level -> new MarketDataResponse.Level(market.priceOf(level.price()), market.quantityOf(level.quantity())))
+                .toList();
+    }
+
+    private MarketDataResponse.Trade toTrade(TradeTick trade, Market market) {
+        return new MarketDataResponse.Trade(
+                trade.sequence(),
+                market.priceOf(trade.price()),
+                market.quantityOf(trade.quantity()),
+                trade.takerSide(),
+                trade.timestamp()
+        );
+    }
+
+    private static String marketId(URI uri) {
+        if (uri == null) {
+            return "";
+        }
+        String path = uri.getPath();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
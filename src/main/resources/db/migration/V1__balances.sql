@@ -0,0 +1,11 @@
+-- Balances flushed by BalanceLedger, one row per account and asset. Amounts
+-- use the widest asset scale the ledger allows (18 decimal places).
+
+CREATE TABLE IF NOT EXISTS balances (
+    account_id varchar(36)                 NOT NULL,
+    asset      varchar(16)                 NOT NULL,
+    available  numeric(38, 18)             NOT NULL,
+    reserved   numeric(38, 18)             NOT NULL,
+    updated_at timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (account_id, asset)
+);
@@ -0,0 +1,19 @@
+-- Trades written by JdbcTradeStore. A trade is identified by its position
+-- in the market's command stream: the command's sequence and the match's
+-- index within it. The primary key rejects a trade written twice, and
+-- serves the lookup of a market's last stored position after a restart.
+
+CREATE TABLE IF NOT EXISTS trades (
+    market_id        varchar(20)                 NOT NULL,
+    sequence         bigint                      NOT NULL,
+    match_index      integer                     NOT NULL,
+    taker_order_id   varchar(36)                 NOT NULL,
+    maker_order_id   varchar(36)                 NOT NULL,
+    taker_account_id varchar(36)                 NOT NULL,
+    maker_account_id varchar(36)                 NOT NULL,
+    taker_side       varchar(4)                  NOT NULL,
+    quantity         numeric(38, 18)             NOT NULL,
+    price            numeric(38, 18)             NOT NULL,
+    executed_at      timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (market_id, sequence, match_index)
+);
@@ -0,0 +1,18 @@
+-- OHLCV candles flushed by CandleAggregator through CandleStoreImpl. A
+-- candle is rewritten in place while its interval is open, so it is keyed
+-- by market, resolution code and interval start, which also orders a
+-- market's candles of one resolution by time.
+
+CREATE TABLE IF NOT EXISTS candles (
+    market_id   varchar(20)                 NOT NULL,
+    resolution  varchar(4)                  NOT NULL,
+    open_time   timestamp(6) with time zone NOT NULL,
+    open_price  numeric(38, 18)             NOT NULL,
+    high_price  numeric(38, 18)             NOT NULL,
+    low_price   numeric(38, 18)             NOT NULL,
+    close_price numeric(38, 18)             NOT NULL,
+    volume      numeric(38, 18)             NOT NULL,
+    vwap        numeric(38, 18)             NOT NULL,
+    trade_count integer                     NOT NULL,
+    PRIMARY KEY (market_id, resolution, open_time)
+);
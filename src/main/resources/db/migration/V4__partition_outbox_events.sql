@@ -0,0 +1,80 @@
+-- Range-partitions outbox_events by day of occurred_on and stores the status
+-- as a smallint (OutboxStatus ordinal: 0 pending, 1 sent, 2 failed).
+-- Daily partitions are created ahead of time and purged by
+-- OutboxPartitionMaintainer; the default partition only catches rows outside
+-- them, such as older ones carried over from an unpartitioned table, and the
+-- maintainer moves those into partitions of their own day.
+--
+-- A primary key on a partitioned table must contain the partition key, so
+-- event_id alone is no longer unique across the table. The publisher stamps
+-- occurred_on once per event, so the same event can never be stored twice;
+-- a redelivered message is a broker matter and consumers skip message ids
+-- they have already seen.
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass('outbox_events') AND relkind = 'r') THEN
+        ALTER TABLE outbox_events RENAME TO outbox_events_legacy;
+        ALTER INDEX IF EXISTS outbox_events_pkey RENAME TO outbox_events_legacy_pkey;
+        -- created by the processor at startup; their names go to the new table
+        DROP INDEX IF EXISTS idx_outbox_events_pending;
+        DROP INDEX IF EXISTS idx_outbox_events_pending_aggregate;
+    END IF;
+END $$;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    event_id      varchar(36)                 NOT NULL,
+    aggregate_id  varchar(36)                 NOT NULL,
+    event_type    varchar(120)                NOT NULL,
+    payload       text                        NOT NULL,
+    occurred_on   timestamp(6) with time zone NOT NULL,
+    status        smallint                    NOT NULL,
+    sent_at       timestamp(6) with time zone,
+    error_message varchar(500),
+    PRIMARY KEY (event_id, occurred_on)
+) PARTITION BY RANGE (occurred_on);
+
+CREATE TABLE IF NOT EXISTS outbox_events_default PARTITION OF outbox_events DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending ON outbox_events (occurred_on) WHERE status = 0;
+CREATE INDEX IF NOT EXISTS idx_outbox_events_pending_aggregate
+    ON outbox_events (aggregate_id, occurred_on, event_id) WHERE status = 0;
+
+-- Today's and the next days' partitions, as OutboxPartitionMaintainer would
+-- create them, so that current rows never land in the default partition
+DO $$
+DECLARE
+    day date;
+BEGIN
+    FOR day IN SELECT generate_series(0, 3) + (now() AT TIME ZONE 'UTC')::date LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF outbox_events FOR VALUES FROM (%L) TO (%L)',
+                       'outbox_events_p' || to_char(day, 'YYYYMMDD'),
+                       day || ' 00:00:00+00', (day + 1) || ' 00:00:00+00');
+    END LOOP;
+END $$;
+
+DO $$
+DECLARE
+    payload_type text;
+BEGIN
+    IF to_regclass('outbox_events_legacy') IS NULL THEN
+        RETURN;
+    END IF;
+    SELECT data_type INTO payload_type
+    FROM information_schema.columns
+    WHERE table_name = 'outbox_events_legacy' AND column_name = 'payload' AND table_schema = current_schema();
+    -- A @Lob string used to be stored as a large object reference
+    IF payload_type = 'oid' THEN
+        INSERT INTO outbox_events
+        SELECT event_id, aggregate_id, event_type, convert_from(lo_get(payload), 'UTF8'), occurred_on,
+               CASE status WHEN 'PENDING' THEN 0 WHEN 'SENT' THEN 1 ELSE 2 END, sent_at, error_message
+        FROM outbox_events_legacy;
+        PERFORM lo_unlink(payload) FROM outbox_events_legacy;
+    ELSE
+        INSERT INTO outbox_events
+        SELECT event_id, aggregate_id, event_type, payload::text, occurred_on,
+               CASE status WHEN 'PENDING' THEN 0 WHEN 'SENT' THEN 1 ELSE 2 END, sent_at, error_message
+        FROM outbox_events_legacy;
+    END IF;
+    DROP TABLE outbox_events_legacy;
+END $$;
@@ -0,0 +1,8 @@
+-- Stores outbox payloads as bytes next to the id of their OutboxPayloadCodec
+-- (1 plain JSON, 2 deflated JSON). Existing rows hold plain JSON text.
+-- Compressed payloads are kept out of PostgreSQL's own TOAST compression.
+
+ALTER TABLE outbox_events ALTER COLUMN payload TYPE bytea USING convert_to(payload, 'UTF8');
+ALTER TABLE outbox_events ALTER COLUMN payload SET STORAGE EXTERNAL;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS payload_codec smallint NOT NULL DEFAULT 1;
+ALTER TABLE outbox_events ALTER COLUMN payload_codec DROP DEFAULT;
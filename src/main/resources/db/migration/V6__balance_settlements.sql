@@ -0,0 +1,12 @@
+-- The last trade of each market the flushed balances have settled. The
+-- ledger writes it in the same transaction as the balances and, after a
+-- restart, settles again the trades the journal replays past a market's
+-- mark.
+
+CREATE TABLE IF NOT EXISTS balance_settlements (
+    market_id   varchar(20)                 NOT NULL,
+    sequence    bigint                      NOT NULL,
+    match_index integer                     NOT NULL,
+    updated_at  timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (market_id)
+);
@@ -0,0 +1,22 @@
+-- Retries of outbox events the broker refused. A failed event stays pending
+-- (status 0) with its attempt count and the time of its next attempt, so
+-- later events of its aggregate keep waiting behind it. Once it runs out of
+-- attempts it is dead-lettered (status 2) and no longer holds them back.
+-- OutboxPartitionMaintainer copies dead-lettered events into
+-- outbox_dead_letters before it detaches their partition.
+
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS attempts smallint NOT NULL DEFAULT 0;
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS next_attempt_at timestamp(6) with time zone;
+
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+    event_id         varchar(36)                 NOT NULL,
+    aggregate_id     varchar(36)                 NOT NULL,
+    event_type       varchar(120)                NOT NULL,
+    payload          bytea                       NOT NULL,
+    payload_codec    smallint                    NOT NULL,
+    occurred_on      timestamp(6) with time zone NOT NULL,
+    attempts         smallint                    NOT NULL,
+    error_message    varchar(500),
+    dead_lettered_at timestamp(6) with time zone NOT NULL,
+    PRIMARY KEY (event_id, occurred_on)
+);
@@ -0,0 +1,378 @@
+package com.plataformtrade.application.balances;
+
+import com.plataformtrade.domain.Market;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.book.OrderBook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BalanceLedger Tests")
+class BalanceLedgerTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final Market btc = new Market(MARKET, new BigDecimal("0.01"), new BigDecimal("0.00000001"));
+    private final Market eth = new Market("ETH-BRL", new BigDecimal("0.01"), new BigDecimal("0.000001"));
+    private final RecordingStore store = new RecordingStore();
+    private final BalanceLedger ledger = new BalanceLedger(List.of(btc, eth), store);
+    private final AtomicLong sequence = new AtomicLong();
+    private final OrderBook book = settlingBook(ledger, sequence);
+
+    @Test
+    @DisplayName("Should reserve the notional of a buy at its limit price")
+    void shouldReserveBuyNotional() {
+        ledger.deposit("buyer", "BRL", new BigDecimal("1000"));
+
+        ledger.reserve(order("buyer", "buy", "0.5", "1500"));
+
+        assertBalance("buyer", "BRL", "250", "750");
+    }
+
+    @Test
+    @DisplayName("Should reject an order the account cannot cover")
+    void shouldRejectInsufficientBalance() {
+        ledger.deposit("seller", "BTC", new BigDecimal("0.1"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ledger.reserve(order("seller", "sell", "0.2", "100")));
+
+        assertEquals("Insufficient BTC balance for order", ex.getMessage());
+        assertBalance("seller", "BTC", "0.1", "0");
+    }
+
+    @Test
+    @DisplayName("Should settle fills and refund the buyer's price improvement")
+    void shouldSettleFills() {
+        ledger.deposit("seller", "BTC", new BigDecimal("1"));
+        ledger.deposit("buyer", "BRL", new BigDecimal("1000"));
+        Order ask = order("seller", "sell", "1", "100");
+        Order bid = order("buyer", "buy", "0.4", "110");
+        ledger.reserve(ask);
+        ledger.reserve(bid);
+
+        book.place(ask);
+        book.place(bid);
+
+        assertBalance("buyer", "BRL", "960", "0");
+        assertBalance("buyer", "BTC", "0.4", "0");
+        assertBalance("seller", "BTC", "0", "0.6");
+        assertBalance("seller", "BRL", "40", "0");
+    }
+
+    @Test
+    @DisplayName("Should release the unfilled reservation")
+    void shouldReleaseUnfilledReservation() {
+        ledger.deposit("seller", "BTC", new BigDecimal("1"));
+        ledger.deposit("buyer", "BRL", new BigDecimal("100"));
+        Order bid = order("buyer", "buy", "1", "100");
+        Order ask = order("seller", "sell", "0.25", "100");
+        ledger.reserve(bid);
+        ledger.reserve(ask);
+        book.place(bid);
+        book.place(ask);
+
+        ledger.release(book.findOrder(bid.getOrderId()));
+
+        assertBalance("buyer", "BRL", "75", "0");
+        assertBalance("buyer", "BTC", "0.25", "0");
+    }
+
+    @Test
+    @DisplayName("Should adjust an amended order's reservation by the difference")
+    void shouldAdjustReservationOnReplace() {
+        ledger.deposit("seller", "BTC", new BigDecimal("1"));
+        ledger.deposit("buyer", "BRL", new BigDecimal("200"));
+        Order bid = order("buyer", "buy", "1", "100");
+        Order ask = order("seller", "sell", "0.25", "100");
+        ledger.reserve(bid);
+        ledger.reserve(ask);
+        book.place(bid);
+        book.place(ask);
+
+        amend(bid, "1.25", "120");
+        assertBalance("buyer", "BRL", "55", "120");
+
+        amend(bid, "0.5", "120");
+        assertBalance("buyer", "BRL", "145", "30");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> amend(bid, "10", "120"));
+        assertEquals("Insufficient BRL balance for order", ex.getMessage());
+        assertBalance("buyer", "BRL", "145", "30");
+    }
+
+    @Test
+    @DisplayName("Should never over-reserve under concurrent orders from one account")
+    void shouldNotOverReserveConcurrently() throws Exception {
+        ledger.deposit("hot", "BRL", new BigDecimal("100"));
+        int threads = 4;
+        int ordersPerThread = 1_000;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ordersPerThread; i++) {
+                    try {
+                        ledger.reserve(order("hot", "buy", "0.001", "100"));
+                        accepted.incrementAndGet();
+                    } catch (IllegalArgumentException ignored) {
+                        // Insufficient balance.
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1_000, accepted.get());
+        assertBalance("hot", "BRL", "0", "100");
+    }
+
+    @Test
+    @DisplayName("Should flush each changed balance once with its latest value")
+    void shouldFlushNetChanges() {
+        ledger.deposit("buyer", "BRL", new BigDecimal("100"));
+        int saves = store.saves;
+        ledger.reserve(order("buyer", "buy", "0.1", "100"));
+        ledger.reserve(order("buyer", "buy", "0.1", "100"));
+
+        assertEquals(1, ledger.flush());
+        assertEquals(0, ledger.flush());
+        assertEquals(saves + 1, store.saves);
+        assertEquals(0, new BigDecimal("80").compareTo(store.rows.get("buyer/BRL").available()));
+        assertEquals(0, new BigDecimal("20").compareTo(store.rows.get("buyer/BRL").reserved()));
+    }
+
+    @Test
+    @DisplayName("Should load balances from the store on first use without their stored reservations")
+    void shouldLoadBalancesFromStore() {
+        store.rows.put("buyer/BRL", new BalanceSnapshot("buyer", "BRL", new BigDecimal("50"), new BigDecimal("5")));
+
+        ledger.reserve(order("buyer", "buy", "0.2", "100"));
+
+        assertBalance("buyer", "BRL", "35", "20");
+    }
+
+    @Test
+    @DisplayName("Should load both assets of the market when reserving for an order")
+    void shouldPreloadBothAssetsOnReserve() {
+        store.rows.put("buyer/BRL", new BalanceSnapshot("buyer", "BRL", new BigDecimal("50"), BigDecimal.ZERO));
+
+        ledger.reserve(order("buyer", "buy", "0.2", "100"));
+
+        assertEquals(List.of("buyer/BRL", "buyer/BTC"), store.loads);
+    }
+
+    @Test
+    @DisplayName("Should rebuild reservations from the working orders")
+    void shouldRebuildReservationsFromWorkingOrders() {
+        store.rows.put("buyer/BRL", new BalanceSnapshot("buyer", "BRL", new BigDecimal("50"), new BigDecimal("50")));
+        store.rows.put("idle/BRL", new BalanceSnapshot("idle", "BRL", new BigDecimal("10"), new BigDecimal("5")));
+        ledger.getBalance("idle", "BRL");
+        ledger.reserve(order("idle", "buy", "0.05", "100"));
+
+        ledger.restore(List.of(order("buyer", "buy", "0.2", "100"), order("buyer", "buy", "0.1", "100")));
+
+        assertBalance("buyer", "BRL", "70", "30");
+        assertBalance("idle", "BRL", "15", "0");
+    }
+
+    @Test
+    @DisplayName("Should count a trade durable only once a flush has stored its settlement")
+    void shouldReportTradesDurableOnceFlushed() {
+        ledger.deposit("seller", "BTC", new BigDecimal("1"));
+        ledger.deposit("buyer", "BRL", new BigDecimal("100"));
+        Order ask = order("seller", "sell", "1", "100");
+        Order bid = order("buyer", "buy", "0.5", "100");
+        ledger.reserve(ask);
+        ledger.reserve(bid);
+        book.place(ask);
+        book.place(bid);
+
+        assertFalse(ledger.isDurable(MARKET, 0, 0));
+        ledger.flush();
+
+        assertTrue(ledger.isDurable(MARKET, 0, 0));
+        assertFalse(ledger.isDurable(MARKET, 1, 0));
+        assertEquals(List.of(new SettlementMark(MARKET, 0, 0)), store.settlements);
+    }
+
+    @Test
+    @DisplayName("Should recover the settlements made after the last flush by replaying the journal")
+    void shouldRecoverUnflushedSettlementsOnReplay() {
+        ledger.deposit("seller", "BTC", new BigDecimal("1"));
+        ledger.deposit("buyer", "BRL", new BigDecimal("1000"));
+        Order ask = order("seller", "sell", "1", "100");
+        Order firstBid = order("buyer", "buy", "0.4", "110");
+        Order secondBid = order("buyer", "buy", "0.1", "100");
+        List<Order> commands = List.of(ask, firstBid, secondBid);
+        for (Order command : commands) {
+            ledger.reserve(command);
+        }
+        place(book, 0, ask);
+        place(book, 1, firstBid);
+        ledger.flush();
+        place(book, 2, secondBid);
+
+        BalanceLedger recovered = new BalanceLedger(List.of(btc, eth), store);
+        OrderBook replayed = settlingBook(recovered, sequence);
+        for (int i = 0; i < commands.size(); i++) {
+            Order command = commands.get(i);
+            place(replayed, i, Order.create(command.getAccountId(), MARKET, command.getSide(),
+                    command.getQuantity(), command.getPrice()));
+        }
+        List<Order> working = new ArrayList<>();
+        replayed.forEachOrder(working::add);
+        recovered.restore(working);
+
+        for (String[] balance : new String[][]{
+                {"buyer", "BRL", "950", "0"},
+                {"buyer", "BTC", "0.5", "0"},
+                {"seller", "BTC", "0", "0.5"},
+                {"seller", "BRL", "50", "0"}}) {
+            assertBalance(ledger, balance[0], balance[1], balance[2], balance[3]);
+            assertBalance(recovered, balance[0], balance[1], balance[2], balance[3]);
+        }
+    }
+
+    @Test
+    @DisplayName("Should store a deposit before crediting it and credit nothing when the store fails")
+    void shouldStoreDepositsBeforeCrediting() {
+        ledger.deposit("buyer", "BRL", new BigDecimal("100"));
+        assertEquals(0, new BigDecimal("100").compareTo(store.rows.get("buyer/BRL").available()));
+
+        store.failing = true;
+        assertThrows(IllegalStateException.class, () -> ledger.deposit("buyer", "BRL", new BigDecimal("50")));
+
+        assertBalance("buyer", "BRL", "100", "0");
+        assertThrows(IllegalArgumentException.class, () -> ledger.reserve(order("buyer", "buy", "1.5", "100")));
+    }
+
+    @Test
+    @DisplayName("Should store only the deposit and leave the other changes to the next flush")
+    void shouldNotFlushTheLedgerOnDeposit() {
+        ledger.deposit("seller", "BTC", new BigDecimal("1"));
+        ledger.reserve(order("seller", "sell", "0.4", "100"));
+        int saves = store.saves;
+
+        ledger.deposit("buyer", "BRL", new BigDecimal("100"));
+        ledger.deposit("buyer", "BRL", new BigDecimal("20"));
+
+        assertEquals(saves, store.saves);
+        assertEquals(0, new BigDecimal("120").compareTo(store.rows.get("buyer/BRL").available()));
+        assertEquals(0, new BigDecimal("1").compareTo(store.rows.get("seller/BTC").available()));
+        assertEquals(1, ledger.flush());
+        assertEquals(0, new BigDecimal("0.6").compareTo(store.rows.get("seller/BTC").available()));
+        assertEquals(0, new BigDecimal("120").compareTo(store.rows.get("buyer/BRL").available()));
+    }
+
+    @Test
+    @DisplayName("Should reject deposits finer than the asset precision")
+    void shouldRejectDepositsFinerThanAssetPrecision() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.deposit("buyer", "BTC", new BigDecimal("0.000000001")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.deposit("buyer", "DOGE", BigDecimal.ONE));
+    }
+
+    private Order order(String accountId, String side, String quantity, String price) {
+        return Order.create(accountId, MARKET, side, btc.toLots(new BigDecimal(quantity)), btc.toTicks(new BigDecimal(price)));
+    }
+
+    private void amend(Order order, String quantity, String price) {
+        long lots = btc.toLots(new BigDecimal(quantity));
+        long ticks = btc.toTicks(new BigDecimal(price));
+        ledger.replace(book.findOrder(order.getOrderId()), lots, ticks);
+        book.replace(order.getOrderId(), lots, ticks);
+    }
+
+    private OrderBook settlingBook(BalanceLedger target, AtomicLong commandSequence) {
+        AtomicInteger matchIndex = new AtomicInteger();
+        AtomicLong matchSequence = new AtomicLong(-1);
+        return new OrderBook(MARKET, (taker, maker, quantity, price) -> {
+            long current = commandSequence.get();
+            if (matchSequence.getAndSet(current) != current) {
+                matchIndex.set(0);
+            }
+            target.onTrade(MARKET, current, matchIndex.getAndIncrement(), taker, maker, quantity, price);
+        });
+    }
+
+    private void place(OrderBook target, long commandSequence, Order order) {
+        sequence.set(commandSequence);
+        target.place(order);
+    }
+
+    private void assertBalance(String accountId, String asset, String available, String reserved) {
+        assertBalance(ledger, accountId, asset, available, reserved);
+    }
+
+    private void assertBalance(BalanceLedger target, String accountId, String asset, String available, String reserved) {
+        BalanceSnapshot balance = target.getBalance(accountId, asset);
+        assertEquals(0, new BigDecimal(available).compareTo(balance.available()),
+                asset + " available was " + balance.available());
+        assertEquals(0, new BigDecimal(reserved).compareTo(balance.reserved()),
+                asset + " reserved was " + balance.reserved());
+    }
+
+    private static final class RecordingStore implements BalanceStore {
+        private final Map<String, BalanceSnapshot> rows = new HashMap<>();
+        private final List<SettlementMark> settlements = new ArrayList<>();
+        private final List<String> loads = new ArrayList<>();
+        private boolean failing;
+        private int saves;
+
+        @Override
+        public Optional<BalanceSnapshot> load(String accountId, String asset) {
+            loads.add(accountId + "/" + asset);
+            return Optional.ofNullable(rows.get(accountId + "/" + asset));
+        }
+
+        @Override
+        public List<SettlementMark> loadSettlements() {
+            return List.copyOf(settlements);
+        }
+
+        @Override
+        public void credit(String accountId, String asset, BigDecimal amount) {
+            if (failing) {
+                throw new IllegalStateException("store unavailable");
+            }
+            rows.merge(accountId + "/" + asset, new BalanceSnapshot(accountId, asset, amount, BigDecimal.ZERO),
+                    (stored, deposit) -> new BalanceSnapshot(accountId, asset,
+                            stored.available().add(deposit.available()), stored.reserved()));
+        }
+
+        @Override
+        public void saveAll(List<BalanceSnapshot> balances, List<SettlementMark> marks) {
+            if (failing) {
+                throw new IllegalStateException("store unavailable");
+            }
+            saves++;
+            for (BalanceSnapshot balance : new ArrayList<>(balances)) {
+                rows.put(balance.accountId() + "/" + balance.asset(), balance);
+            }
+            for (SettlementMark mark : marks) {
+                settlements.removeIf(existing -> existing.marketId().equals(mark.marketId()));
+                settlements.add(mark);
+            }
+        }
+    }
+}
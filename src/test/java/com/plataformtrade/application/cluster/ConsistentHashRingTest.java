@@ -0,0 +1,92 @@
+package com.plataformtrade.application.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConsistentHashRing Tests")
+class ConsistentHashRingTest {
+    private static final int KEYS = 10_000;
+
+    @Test
+    @DisplayName("Should assign keys the same way whatever the order nodes are listed in")
+    void shouldAssignDeterministically() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 64);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("node-3", "node-1", "node-2"), 64);
+
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(ring.ownerOf(key(i)), reordered.ownerOf(key(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should spread keys evenly across nodes")
+    void shouldSpreadKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.ownerOf(key(i)), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > KEYS * 0.18 && count < KEYS * 0.32,
+                "unbalanced share: " + counts));
+    }
+
+    @Test
+    @DisplayName("Should only move keys to a node that joins")
+    void shouldOnlyMoveKeysToJoiningNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3", "node-4"), 128);
+        ConsistentHashRing grown = ring.withNode("node-5");
+        int moved = 0;
+
+        for (int i = 0; i < KEYS; i++) {
+            String before = ring.ownerOf(key(i));
+            String after = grown.ownerOf(key(i));
+            if (!before.equals(after)) {
+                assertEquals("node-5", after);
+                moved++;
+            }
+        }
+
+        assertTrue(moved > KEYS * 0.12 && moved < KEYS * 0.28, "moved " + moved + " keys");
+    }
+
+    @Test
+    @DisplayName("Should only move the keys of a node that leaves")
+    void shouldOnlyMoveKeysOfLeavingNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        ConsistentHashRing shrunk = ring.withoutNode("node-2");
+
+        for (int i = 0; i < KEYS; i++) {
+            String before = ring.ownerOf(key(i));
+            String after = shrunk.ownerOf(key(i));
+            if (!before.equals("node-2")) {
+                assertEquals(before, after);
+            } else {
+                assertNotEquals("node-2", after);
+            }
+        }
+        assertFalse(shrunk.contains("node-2"));
+    }
+
+    @Test
+    @DisplayName("Should have no owner when the ring is empty")
+    void shouldHaveNoOwnerWhenEmpty() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1"), 8).withoutNode("node-1");
+
+        assertTrue(ring.isEmpty());
+        assertNull(ring.ownerOf("BTC-BRL"));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("node-1"), 0));
+    }
+
+    private static String key(int i) {
+        return "MKT" + i + "-BRL";
+    }
+}
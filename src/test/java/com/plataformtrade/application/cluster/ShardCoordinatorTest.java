@@ -0,0 +1,233 @@
+package com.plataformtrade.application.cluster;
+
+import com.plataformtrade.application.engine.BookSnapshot;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.engine.OrderSequencer;
+import com.plataformtrade.application.engine.WaitStrategy;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several engine nodes in one JVM, wired through an in-memory
+ * transport that delivers synchronously.
+ */
+@DisplayName("ShardCoordinator Tests")
+class ShardCoordinatorTest {
+    private static final List<String> MARKETS = List.of(
+            "BTC-BRL", "ETH-BRL", "SOL-BRL", "ADA-BRL", "XRP-BRL", "DOT-BRL", "LTC-BRL", "BNB-BRL");
+    private static final int VIRTUAL_NODES = 64;
+    private static final long HEARTBEAT_TIMEOUT = 5_000;
+    private static final long HAND_OFF_TIMEOUT = 10_000;
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+    private final InMemoryTransport transport = new InMemoryTransport();
+    private long now = 1_000;
+
+    @AfterEach
+    void tearDown() {
+        nodes.values().forEach(node -> node.sequencer.stop());
+    }
+
+    @Test
+    @DisplayName("Should serve every market on exactly one seed node")
+    void shouldSplitMarketsAcrossSeeds() {
+        Node first = start("node-1", List.of("node-1", "node-2"));
+        Node second = start("node-2", List.of("node-1", "node-2"));
+
+        assertEachMarketServedOnce();
+        assertFalse(first.coordinator.ownedMarkets().isEmpty());
+        assertFalse(second.coordinator.ownedMarkets().isEmpty());
+        assertEquals(first.router.ownerOf("BTC-BRL"), second.router.ownerOf("BTC-BRL"));
+    }
+
+    @Test
+    @DisplayName("Should forward commands for remote markets to their owner")
+    void shouldForwardToOwner() throws Exception {
+        Node first = start("node-1", List.of("node-1", "node-2"));
+        Node second = start("node-2", List.of("node-1", "node-2"));
+        String remote = marketOwnedBy(first.router, "node-2");
+
+        Order ask = Order.create("account-1", remote, "sell", 5, 100);
+        first.router.submit(ask).get(5, TimeUnit.SECONDS);
+        ExecutionReport fill = second.router.submit(Order.create("account-2", remote, "buy", 3, 100))
+                .get(5, TimeUnit.SECONDS);
+        ExecutionReport cancelled = first.router.cancel(remote, ask.getOrderId(), "account-1").get(5, TimeUnit.SECONDS);
+        CompletableFuture<ExecutionReport> missing = first.router.cancel(remote, ask.getOrderId(), "account-1");
+
+        assertFalse(first.sequencer.isAttached(remote));
+        assertEquals(3, fill.fillQuantity());
+        assertEquals("cancelled", cancelled.status());
+        ExecutionException error = assertThrows(ExecutionException.class, () -> missing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(NotFoundException.class, error.getCause());
+    }
+
+    @Test
+    @DisplayName("Should hand markets and their books over to a node that joins and back when it leaves")
+    void shouldHandOffOnJoinAndLeave() throws Exception {
+        Node first = start("node-1", List.of("node-1", "node-2"));
+        start("node-2", List.of("node-1", "node-2"));
+        String moving = marketOwnedBy(first.router.ring().withNode("node-3"), "node-3");
+        first.router.submit(Order.create("account-1", moving, "sell", 5, 100)).get(5, TimeUnit.SECONDS);
+
+        Node third = start("node-3", List.of("node-1", "node-2"));
+
+        assertEachMarketServedOnce();
+        assertTrue(third.sequencer.isAttached(moving));
+        ExecutionReport fill = first.router.submit(Order.create("account-2", moving, "buy", 2, 100))
+                .get(5, TimeUnit.SECONDS);
+        assertEquals(2, fill.fillQuantity());
+        assertEquals(1, fill.sequence());
+
+        third.coordinator.stop();
+
+        assertEachMarketServedOnce();
+        assertFalse(third.sequencer.isAttached(moving));
+        fill = first.router.submit(Order.create("account-2", moving, "buy", 3, 100)).get(5, TimeUnit.SECONDS);
+        assertEquals(3, fill.fillQuantity());
+        assertEquals(2, fill.sequence());
+    }
+
+    @Test
+    @DisplayName("Should take over the markets of a silent node from a shared journal store")
+    void shouldTakeOverSilentNode() {
+        Node first = start("node-1", List.of("node-1", "node-2"), true);
+        Node second = start("node-2", List.of("node-1", "node-2"), true);
+        String orphan = marketOwnedBy(first.router, "node-2");
+        nodes.remove("node-2");
+
+        now += HEARTBEAT_TIMEOUT + 1;
+        first.coordinator.tick(now);
+
+        assertEquals("node-1", first.router.ownerOf(orphan));
+        assertFalse(first.sequencer.isAttached(orphan));
+        assertThrows(IllegalStateException.class,
+                () -> first.router.submit(Order.create("account-1", orphan, "buy", 1, 100)));
+
+        now += HAND_OFF_TIMEOUT;
+        first.coordinator.tick(now);
+
+        for (String market : MARKETS) {
+            assertTrue(first.sequencer.isAttached(market), market);
+        }
+        second.sequencer.stop();
+    }
+
+    @Test
+    @DisplayName("Should not take over the markets of a silent node without a shared journal store")
+    void shouldNotTakeOverSilentNodeWithoutSharedJournal() {
+        Node first = start("node-1", List.of("node-1", "node-2"));
+        Node second = start("node-2", List.of("node-1", "node-2"));
+        String orphan = marketOwnedBy(first.router, "node-2");
+        nodes.remove("node-2");
+
+        now += HEARTBEAT_TIMEOUT + 1;
+        first.coordinator.tick(now);
+        now += HAND_OFF_TIMEOUT;
+        first.coordinator.tick(now);
+
+        assertEquals("node-1", first.router.ownerOf(orphan));
+        assertFalse(first.sequencer.isAttached(orphan));
+        assertTrue(second.sequencer.isAttached(orphan));
+        second.sequencer.stop();
+    }
+
+    @Test
+    @DisplayName("Should wait for a hand-off while the previous owner is alive")
+    void shouldWaitForHandOffFromLiveOwner() {
+        start("node-1", List.of("node-1"));
+        transport.dropHandOffs = true;
+
+        Node second = start("node-2", List.of("node-1"));
+        assertTrue(MARKETS.stream().anyMatch(market -> "node-2".equals(second.router.ownerOf(market))));
+        now += HAND_OFF_TIMEOUT + 1;
+        transport.announce("node-1", false);
+        second.coordinator.tick(now);
+
+        assertTrue(second.coordinator.ownedMarkets().isEmpty());
+    }
+
+    private Node start(String nodeId, List<String> seeds) {
+        return start(nodeId, seeds, false);
+    }
+
+    private Node start(String nodeId, List<String> seeds, boolean sharedJournal) {
+        OrderSequencer sequencer = OrderSequencer.builder()
+                .bufferSize(64)
+                .batchSize(16)
+                .waitStrategy(WaitStrategy.YIELD)
+                .build();
+        sequencer.start();
+        ShardRouter router = new ShardRouter(nodeId, MARKETS, sequencer, transport,
+                new ConsistentHashRing(List.of(nodeId), VIRTUAL_NODES));
+        ShardCoordinator coordinator = new ShardCoordinator(router, MARKETS, seeds, VIRTUAL_NODES,
+                HEARTBEAT_TIMEOUT, HAND_OFF_TIMEOUT, sharedJournal, sequencer, transport);
+        Node node = new Node(sequencer, router, coordinator);
+        nodes.put(nodeId, node);
+        coordinator.start(now);
+        return node;
+    }
+
+    private void assertEachMarketServedOnce() {
+        for (String market : MARKETS) {
+            List<String> serving = new ArrayList<>();
+            nodes.forEach((id, node) -> {
+                if (node.sequencer.isAttached(market)) {
+                    serving.add(id);
+                }
+            });
+            assertEquals(1, serving.size(), market + " served by " + serving);
+        }
+    }
+
+    private static String marketOwnedBy(ShardRouter router, String nodeId) {
+        return marketOwnedBy(router.ring(), nodeId);
+    }
+
+    private static String marketOwnedBy(ConsistentHashRing ring, String nodeId) {
+        return MARKETS.stream()
+                .filter(market -> nodeId.equals(ring.ownerOf(market)))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("no market owned by " + nodeId));
+    }
+
+    private record Node(OrderSequencer sequencer, ShardRouter router, ShardCoordinator coordinator) {
+    }
+
+    private final class InMemoryTransport implements ClusterTransport {
+        private boolean dropHandOffs;
+
+        @Override
+        public List<CompletableFuture<ExecutionReport>> send(String nodeId, ShardCommand command) {
+            return nodes.get(nodeId).router.execute(command);
+        }
+
+        @Override
+        public void handOff(String nodeId, String marketId, BookSnapshot snapshot) {
+            if (!dropHandOffs) {
+                nodes.get(nodeId).coordinator.onHandOff(marketId, snapshot);
+            }
+        }
+
+        @Override
+        public void announce(String nodeId, boolean leaving) {
+            for (Map.Entry<String, Node> entry : List.copyOf(nodes.entrySet())) {
+                if (!entry.getKey().equals(nodeId)) {
+                    entry.getValue().coordinator.onAnnouncement(nodeId, leaving, now);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.application.balances.OrderFunding;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import com.plataformtrade.infra.journal.MappedFileJournalStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderSequencer Tests")
+class OrderSequencerTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final AtomicInteger trades = new AtomicInteger();
+    private final OrderSequencer sequencer = sequencerBuilder()
+            .markets(List.of(MARKET, "ETH-BRL"))
+            .tradeListener((taker, maker, quantity, price) -> trades.incrementAndGet())
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        sequencer.stop();
+    }
+
+    @Test
+    @DisplayName("Should match commands in sequence order")
+    void shouldMatchCommandsInSequenceOrder() throws Exception {
+        sequencer.start();
+
+        ExecutionReport ask = sequencer.submit(Order.create("account-1", MARKET, "sell", 5, 100)).get(5, TimeUnit.SECONDS);
+        ExecutionReport bid = sequencer.submit(Order.create("account-2", MARKET, "buy", 5, 100)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, ask.sequence());
+        assertEquals(1, bid.sequence());
+        assertEquals("open", ask.status());
+        assertEquals("closed", bid.status());
+        assertEquals(5, bid.fillQuantity());
+        assertEquals(1, trades.get());
+    }
+
+    @Test
+    @DisplayName("Should assign gap-free sequence numbers across concurrent producers")
+    void shouldAssignGapFreeSequencesAcrossProducers() throws Exception {
+        sequencer.start();
+        int producers = 4;
+        int ordersPerProducer = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<List<CompletableFuture<ExecutionReport>>>> submissions = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            String side = p % 2 == 0 ? "buy" : "sell";
+            submissions.add(executor.submit(() -> {
+                List<CompletableFuture<ExecutionReport>> results = new ArrayList<>();
+                for (int i = 0; i < ordersPerProducer; i++) {
+                    results.add(sequencer.submit(Order.create("account-1", MARKET, side, 1, 100)));
+                }
+                return results;
+            }));
+        }
+
+        Set<Long> sequences = new TreeSet<>();
+        for (Future<List<CompletableFuture<ExecutionReport>>> submission : submissions) {
+            for (CompletableFuture<ExecutionReport> result : submission.get(10, TimeUnit.SECONDS)) {
+                sequences.add(result.get(10, TimeUnit.SECONDS).sequence());
+            }
+        }
+        executor.shutdown();
+
+        int total = producers * ordersPerProducer;
+        assertEquals(total, sequences.size());
+        assertEquals(0L, sequences.iterator().next());
+        assertEquals(total - 1L, ((TreeSet<Long>) sequences).last());
+        assertEquals(total / 2, trades.get());
+        assertEquals(0, sequencer.queueDepth(MARKET));
+        assertEquals(total - 1L, sequencer.lastSequence(MARKET));
+    }
+
+    @Test
+    @DisplayName("Should sequence a batch contiguously in submission order")
+    void shouldSequenceBatchContiguously() throws Exception {
+        sequencer.start();
+        sequencer.submit(Order.create("account-1", MARKET, "buy", 1, 90)).get(5, TimeUnit.SECONDS);
+        List<Order> batch = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            batch.add(Order.create("account-1", MARKET, i % 2 == 0 ? "sell" : "buy", 1, 100));
+        }
+
+        List<CompletableFuture<ExecutionReport>> results = sequencer.submitBatch(MARKET, batch);
+
+        assertEquals(batch.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            ExecutionReport report = results.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals(i + 1L, report.sequence());
+            assertEquals(batch.get(i).getOrderId(), report.orderId());
+        }
+        assertEquals(20, trades.get());
+    }
+
+    @Test
+    @DisplayName("Should defer snapshots until the engine's trades are durable")
+    void shouldDeferSnapshotsUntilTradesAreDurable() throws Exception {
+        List<Long> snapshots = new CopyOnWriteArrayList<>();
+        AtomicBoolean durable = new AtomicBoolean();
+        OrderSequencer journaled = sequencerBuilder()
+                .markets(List.of(MARKET))
+                .tradeSink(new TradeSink() {
+                    @Override
+                    public void onTrade(String marketId, long sequence, int matchIndex, Order taker, OrderView maker,
+                                        long quantity, long price) {
+                    }
+
+                    @Override
+                    public boolean isDurable(String marketId, long sequence, int matchIndex) {
+                        return durable.get();
+                    }
+                })
+                .journalStore(new JournalStore() {
+                    @Override
+                    public CommandJournal openJournal(String marketId) {
+                        return CommandJournal.NO_OP;
+                    }
+
+                    @Override
+                    public void saveSnapshot(String marketId, BookSnapshot snapshot) {
+                        snapshots.add(snapshot.sequence());
+                    }
+
+                    @Override
+                    public Optional<BookSnapshot> loadLatestSnapshot(String marketId) {
+                        return Optional.empty();
+                    }
+                })
+                .snapshotInterval(1)
+                .build();
+        journaled.start();
+        try {
+            journaled.submit(Order.create("account-1", MARKET, "sell", 1, 100)).get(5, TimeUnit.SECONDS);
+            journaled.submit(Order.create("account-2", MARKET, "buy", 1, 100)).get(5, TimeUnit.SECONDS);
+            journaled.submit(Order.create("account-2", MARKET, "buy", 1, 90)).get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(0L), snapshots);
+
+            durable.set(true);
+            journaled.submit(Order.create("account-2", MARKET, "buy", 1, 90)).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (snapshots.size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            // The deferred snapshot is taken at the first batch boundary after the
+            // trades became durable, which may already be the third command's,
+            // and the fourth command may then be snapshotted as well.
+            assertEquals(0L, snapshots.get(0));
+            assertTrue(snapshots.get(1) >= 2, "second snapshot was at " + snapshots.get(1));
+        } finally {
+            journaled.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep independent sequences per market")
+    void shouldKeepIndependentSequencesPerMarket() throws Exception {
+        sequencer.start();
+
+        ExecutionReport btc = sequencer.submit(Order.create("account-1", MARKET, "buy", 1, 100)).get(5, TimeUnit.SECONDS);
+        ExecutionReport eth = sequencer.submit(Order.create("account-1", "ETH-BRL", "buy", 1, 100)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, btc.sequence());
+        assertEquals(0, eth.sequence());
+    }
+
+    @Test
+    @DisplayName("Should complete the command exceptionally when the engine rejects it")
+    void shouldCompleteExceptionallyWhenEngineRejects() throws Exception {
+        sequencer.start();
+        Order order = Order.create("account-1", MARKET, "buy", 1, 100);
+        sequencer.submit(order).get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<ExecutionReport> duplicate = sequencer.submit(order);
+
+        Exception ex = assertThrows(Exception.class, () -> duplicate.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Should only cancel orders of the account that placed them")
+    void shouldOnlyCancelOwnOrders() throws Exception {
+        sequencer.start();
+        Order ask = Order.create("account-1", MARKET, "sell", 5, 100);
+        sequencer.submit(ask).get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<ExecutionReport> foreign = sequencer.cancel(MARKET, ask.getOrderId(), "account-2");
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> foreign.get(5, TimeUnit.SECONDS));
+        ExecutionReport cancelled = sequencer.cancel(MARKET, ask.getOrderId(), "account-1").get(5, TimeUnit.SECONDS);
+
+        assertInstanceOf(NotFoundException.class, rejected.getCause());
+        assertEquals(2, cancelled.sequence());
+        assertEquals("cancelled", cancelled.status());
+        assertEquals(5, cancelled.quantity());
+    }
+
+    @Test
+    @DisplayName("Should feed triggered stop orders back in as sequenced commands")
+    void shouldFeedTriggeredStopsBackIn() throws Exception {
+        sequencer.start();
+        Order stop = Order.create("account-1", MARKET, "buy", 2, 105);
+
+        ExecutionReport pending = sequencer.submitStop(stop, 101).get(5, TimeUnit.SECONDS);
+        sequencer.submit(Order.create("account-2", MARKET, "sell", 1, 101)).get(5, TimeUnit.SECONDS);
+        sequencer.submit(Order.create("account-3", MARKET, "sell", 1, 104)).get(5, TimeUnit.SECONDS);
+        ExecutionReport trigger = sequencer.submit(Order.create("account-4", MARKET, "buy", 1, 101)).get(5, TimeUnit.SECONDS);
+
+        assertEquals("pending", pending.status());
+        assertEquals(3, trigger.sequence());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sequencer.lastSequence(MARKET) < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(4, sequencer.lastSequence(MARKET));
+        assertEquals(2, trades.get());
+
+        ExecutionReport cancelled = sequencer.cancel(MARKET, stop.getOrderId(), "account-1").get(5, TimeUnit.SECONDS);
+        assertEquals("cancelled", cancelled.status());
+        assertEquals(1, cancelled.fillQuantity());
+        assertEquals(105, cancelled.price());
+    }
+
+    @Test
+    @DisplayName("Should cancel a pending stop order")
+    void shouldCancelPendingStop() throws Exception {
+        sequencer.start();
+        Order stop = Order.create("account-1", MARKET, "sell", 2, 95);
+        sequencer.submitStop(stop, 96).get(5, TimeUnit.SECONDS);
+
+        CompletableFuture<ExecutionReport> foreign = sequencer.cancel(MARKET, stop.getOrderId(), "account-2");
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> foreign.get(5, TimeUnit.SECONDS));
+        ExecutionReport cancelled = sequencer.cancel(MARKET, stop.getOrderId(), "account-1").get(5, TimeUnit.SECONDS);
+        CompletableFuture<ExecutionReport> again = sequencer.cancel(MARKET, stop.getOrderId(), "account-1");
+
+        assertInstanceOf(NotFoundException.class, rejected.getCause());
+        assertEquals("cancelled", cancelled.status());
+        assertThrows(ExecutionException.class, () -> again.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should detach a market and continue its book on another sequencer")
+    void shouldDetachAndAttachMarket() throws Exception {
+        sequencer.start();
+        Order ask = Order.create("account-1", MARKET, "sell", 5, 100);
+        sequencer.submit(ask).get(5, TimeUnit.SECONDS);
+        sequencer.submit(Order.create("account-2", MARKET, "buy", 2, 100)).get(5, TimeUnit.SECONDS);
+
+        BookSnapshot snapshot = sequencer.detach(MARKET);
+
+        assertFalse(sequencer.isAttached(MARKET));
+        assertTrue(sequencer.isAttached("ETH-BRL"));
+        assertThrows(NotFoundException.class, () -> sequencer.submit(Order.create("account-3", MARKET, "buy", 1, 100)));
+        assertEquals(1, snapshot.sequence());
+        assertEquals(1, snapshot.orders().size());
+
+        OrderSequencer other = sequencerBuilder().build();
+        other.start();
+        try {
+            other.attach(MARKET, snapshot);
+            ExecutionReport fill = other.submit(Order.create("account-3", MARKET, "buy", 3, 100)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(2, fill.sequence());
+            assertEquals(3, fill.fillQuantity());
+            assertThrows(IllegalArgumentException.class, () -> other.attach(MARKET, null));
+        } finally {
+            other.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer every accepted command when a market is detached under load")
+    void shouldAnswerEveryCommandWhenDetachedUnderLoad() throws Exception {
+        sequencer.start();
+        int producers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<List<CompletableFuture<ExecutionReport>>>> submissions = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String side = p % 2 == 0 ? "buy" : "sell";
+            submissions.add(executor.submit(() -> {
+                List<CompletableFuture<ExecutionReport>> results = new ArrayList<>();
+                try {
+                    while (true) {
+                        results.add(sequencer.submit(Order.create("account-1", MARKET, side, 1, 100)));
+                    }
+                } catch (IllegalStateException | NotFoundException stopped) {
+                    return results;
+                }
+            }));
+        }
+        while (sequencer.lastSequence(MARKET) < 1000) {
+            Thread.sleep(1);
+        }
+
+        sequencer.detach(MARKET);
+
+        for (Future<List<CompletableFuture<ExecutionReport>>> submission : submissions) {
+            for (CompletableFuture<ExecutionReport> result : submission.get(10, TimeUnit.SECONDS)) {
+                try {
+                    result.get(1, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(IllegalStateException.class, ex.getCause());
+                }
+            }
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should halt the market without applying a batch the journal fails to flush")
+    void shouldHaltWithoutApplyingWhenJournalFlushFails() throws Exception {
+        AtomicBoolean failFlush = new AtomicBoolean();
+        OrderSequencer journaled = sequencerBuilder()
+                .markets(List.of(MARKET))
+                .tradeListener((taker, maker, quantity, price) -> trades.incrementAndGet())
+                .journalStore(new JournalStore() {
+                    @Override
+                    public CommandJournal openJournal(String marketId) {
+                        return new FailingFlushJournal(failFlush);
+                    }
+
+                    @Override
+                    public void saveSnapshot(String marketId, BookSnapshot snapshot) {
+                    }
+
+                    @Override
+                    public Optional<BookSnapshot> loadLatestSnapshot(String marketId) {
+                        return Optional.empty();
+                    }
+                })
+                .build();
+        journaled.start();
+        try {
+            journaled.submit(Order.create("account-1", MARKET, "sell", 1, 100)).get(5, TimeUnit.SECONDS);
+
+            failFlush.set(true);
+            CompletableFuture<ExecutionReport> crossing = journaled.submit(Order.create("account-2", MARKET, "buy", 1, 100));
+
+            ExecutionException failed = assertThrows(ExecutionException.class, () -> crossing.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(UncheckedIOException.class, failed.getCause());
+            assertEquals(0, trades.get());
+            assertThrows(IllegalStateException.class,
+                    () -> journaled.submit(Order.create("account-2", MARKET, "buy", 1, 100)));
+        } finally {
+            journaled.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should rebuild the funding of recovered orders before accepting new ones")
+    void shouldRestoreFundingOfRecoveredOrders() throws Exception {
+        Order resting = Order.create("account-1", MARKET, "sell", 2, 100);
+        List<String> restored = new CopyOnWriteArrayList<>();
+        OrderSequencer recovered = sequencerBuilder()
+                .markets(List.of(MARKET))
+                .orderFunding(new OrderFunding() {
+                    @Override
+                    public void reserve(Order order) {
+                    }
+
+                    @Override
+                    public void release(OrderView order) {
+                    }
+
+                    @Override
+                    public void replace(OrderView order, long quantity, long price) {
+                    }
+
+                    @Override
+                    public void restore(Collection<? extends OrderView> workingOrders) {
+                        workingOrders.forEach(order -> restored.add(order.getOrderId()));
+                    }
+                })
+                .journalStore(new JournalStore() {
+                    @Override
+                    public CommandJournal openJournal(String marketId) {
+                        return CommandJournal.NO_OP;
+                    }
+
+                    @Override
+                    public void saveSnapshot(String marketId, BookSnapshot snapshot) {
+                    }
+
+                    @Override
+                    public Optional<BookSnapshot> loadLatestSnapshot(String marketId) {
+                        return Optional.of(new BookSnapshot(4, List.of(resting)));
+                    }
+                })
+                .build();
+        recovered.start();
+        try {
+            assertEquals(List.of(resting.getOrderId()), restored);
+
+            ExecutionReport fill = recovered.submit(Order.create("account-2", MARKET, "buy", 2, 100)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(5, fill.sequence());
+            assertEquals(2, fill.fillQuantity());
+        } finally {
+            recovered.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should give back the funding of a replace the book failed to apply")
+    void shouldRevertFundingOfFailedReplace() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean();
+        List<String> replaces = new CopyOnWriteArrayList<>();
+        OrderSequencer funded = sequencerBuilder()
+                .markets(List.of(MARKET))
+                .marketDataListener(new MarketDataListener() {
+                    @Override
+                    public void onDepth(String marketId, long sequence, boolean bid, long price, long quantity) {
+                        if (failing.get() && quantity == 0) {
+                            throw new IllegalStateException("depth feed unavailable");
+                        }
+                    }
+
+                    @Override
+                    public void onTrade(String marketId, long sequence, long price, long quantity, String takerSide,
+                                        long timestamp) {
+                    }
+                })
+                .orderFunding(new OrderFunding() {
+                    @Override
+                    public void reserve(Order order) {
+                    }
+
+                    @Override
+                    public void release(OrderView order) {
+                    }
+
+                    @Override
+                    public void replace(OrderView order, long quantity, long price) {
+                        replaces.add(order.getQuantity() + "@" + order.getPrice() + ">" + quantity + "@" + price);
+                    }
+
+                    @Override
+                    public void restore(Collection<? extends OrderView> workingOrders) {
+                    }
+                })
+                .build();
+        funded.start();
+        try {
+            Order ask = Order.create("account-1", MARKET, "sell", 5, 101);
+            funded.submit(ask).get(5, TimeUnit.SECONDS);
+            failing.set(true);
+
+            ExecutionException failed = assertThrows(ExecutionException.class, () -> funded
+                    .replace(MARKET, ask.getOrderId(), "account-1", 8, 102).get(5, TimeUnit.SECONDS));
+
+            assertInstanceOf(IllegalStateException.class, failed.getCause());
+            assertEquals(List.of("5@101>8@102", "8@102>5@101"), replaces);
+            failing.set(false);
+            ExecutionReport cancelled = funded.cancel(MARKET, ask.getOrderId(), "account-1").get(5, TimeUnit.SECONDS);
+            assertEquals(5, cancelled.quantity());
+            assertEquals(101, cancelled.price());
+        } finally {
+            funded.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should recover past a journaled command the engine failed with an unexpected exception")
+    void shouldRecoverPastUnexpectedlyFailedCommand(@TempDir Path directory) throws Exception {
+        MarketDataListener overflowing = new MarketDataListener() {
+            @Override
+            public void onDepth(String marketId, long sequence, boolean bid, long price, long quantity) {
+            }
+
+            @Override
+            public void onTrade(String marketId, long sequence, long price, long quantity, String takerSide, long timestamp) {
+                throw new IllegalStateException("market data ring is full");
+            }
+        };
+        OrderSequencer live = sequencerBuilder()
+                .markets(List.of(MARKET))
+                .marketDataListener(overflowing)
+                .journalStore(new MappedFileJournalStore(directory, 8192))
+                .snapshotInterval(0)
+                .build();
+        live.start();
+        try {
+            live.submit(Order.create("account-1", MARKET, "sell", 1, 100)).get(5, TimeUnit.SECONDS);
+            CompletableFuture<ExecutionReport> crossing = live.submit(Order.create("account-2", MARKET, "buy", 1, 100));
+
+            ExecutionException failed = assertThrows(ExecutionException.class, () -> crossing.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failed.getCause());
+        } finally {
+            live.stop();
+        }
+
+        OrderSequencer recovered = sequencerBuilder()
+                .markets(List.of(MARKET))
+                .marketDataListener(overflowing)
+                .journalStore(new MappedFileJournalStore(directory, 8192))
+                .snapshotInterval(0)
+                .build();
+        recovered.start();
+        try {
+            ExecutionReport next = recovered.submit(Order.create("account-3", MARKET, "buy", 1, 50)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(2, next.sequence());
+            assertEquals("open", next.status());
+        } finally {
+            recovered.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject unknown markets")
+    void shouldRejectUnknownMarkets() {
+        sequencer.start();
+
+        assertThrows(NotFoundException.class,
+                () -> sequencer.submit(Order.create("account-1", "DOGE-BRL", "buy", 1, 100)));
+    }
+
+    private static OrderSequencer.Builder sequencerBuilder() {
+        return OrderSequencer.builder()
+                .bufferSize(64)
+                .batchSize(16)
+                .waitStrategy(WaitStrategy.YIELD)
+                .expectedOrders(16);
+    }
+
+    private static final class FailingFlushJournal implements CommandJournal {
+        private final AtomicBoolean failFlush;
+
+        private FailingFlushJournal(AtomicBoolean failFlush) {
+            this.failFlush = failFlush;
+        }
+
+        @Override
+        public long recover(long fromSequence, ReplayHandler handler) {
+            return fromSequence;
+        }
+
+        @Override
+        public void append(long sequence, Order order) {
+        }
+
+        @Override
+        public void appendStop(long sequence, Order order, long stopPrice) {
+        }
+
+        @Override
+        public void appendTrigger(long sequence, Order order) {
+        }
+
+        @Override
+        public void appendCancel(long sequence, String orderId, String accountId) {
+        }
+
+        @Override
+        public void appendReplace(long sequence, String orderId, String accountId, long quantity, long price) {
+        }
+
+        @Override
+        public void flush() {
+            if (failFlush.get()) {
+                throw new UncheckedIOException(new IOException("disk full"));
+            }
+        }
+
+        @Override
+        public void truncateBefore(long sequence) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.plataformtrade.application.engine;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.book.OrderStorage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReplayHarness Tests")
+class ReplayHarnessTest {
+    private static final String MARKET = "BTC-BRL";
+
+    @Test
+    @DisplayName("Should produce identical trades and book on every run")
+    void shouldBeDeterministicAcrossRuns() {
+        ReplayHarness harness = new ReplayHarness(MARKET, OrderStorage.HEAP, 16);
+        List<Long> latencies = new ArrayList<>();
+
+        ReplayHarness.Result first = harness.run(recording(Optional.empty()), latencies::add);
+        ReplayHarness.Result second = harness.run(recording(Optional.empty()), latency -> { });
+
+        assertEquals(5, first.commands());
+        assertEquals(1, first.rejected());
+        assertEquals(2, first.trades());
+        assertEquals(5, latencies.size());
+        assertTrue(first.sameOutcome(second));
+        assertEquals(first.tradeDigest(), second.tradeDigest());
+        assertEquals(first.bookDigest(), second.bookDigest());
+    }
+
+    @Test
+    @DisplayName("Should start from the recording's snapshot")
+    void shouldStartFromSnapshot() {
+        ReplayHarness harness = new ReplayHarness(MARKET, OrderStorage.HEAP, 16);
+
+        ReplayHarness.Result empty = harness.run(recording(Optional.empty()), latency -> { });
+        ReplayHarness.Result seeded = harness.run(recording(Optional.of(
+                new BookSnapshot(-1, List.of(order("seed", "buy", 10, 99))))), latency -> { });
+
+        assertEquals(empty.tradeDigest(), seeded.tradeDigest());
+        assertNotEquals(empty.bookDigest(), seeded.bookDigest());
+        assertFalse(empty.sameOutcome(seeded));
+    }
+
+    /**
+     * Two asks, a bid that takes both, a cancel of a filled order, which is
+     * rejected, and a resting bid amended down.
+     */
+    private static ReplayHarness.Recording recording(Optional<BookSnapshot> snapshot) {
+        return new ReplayHarness.Recording() {
+            @Override
+            public Optional<BookSnapshot> loadSnapshot() {
+                return snapshot;
+            }
+
+            @Override
+            public void replay(long fromSequence, CommandJournal.ReplayHandler handler) {
+                handler.onCommand(0, order("ask-1", "sell", 2, 100));
+                handler.onCommand(1, order("ask-2", "sell", 3, 101));
+                handler.onCommand(2, order("bid-1", "buy", 5, 101));
+                handler.onCancel(3, "ask-1", "account-ask-1");
+                handler.onCommand(4, order("bid-2", "buy", 4, 98));
+            }
+        };
+    }
+
+    private static Order order(String id, String side, long quantity, long price) {
+        return Order.restore(id, "account-" + id, MARKET, side, quantity, price, 0, BigInteger.ZERO, "open", new Date(1_000));
+    }
+}
@@ -0,0 +1,111 @@
+package com.plataformtrade.application.marketdata;
+
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CandleAggregator Tests")
+class CandleAggregatorTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final List<Candle> stored = new ArrayList<>();
+    private final CandleAggregator aggregator = new CandleAggregator(List.of(MARKET), 3, stored::addAll);
+
+    @Test
+    @DisplayName("Should update open, high, low, close, volume and notional in place")
+    void shouldAggregateTradesIntoOpenCandle() {
+        aggregator.onTrade(MARKET, trade(100, 2, 60_000));
+        aggregator.onTrade(MARKET, trade(105, 1, 60_500));
+        aggregator.onTrade(MARKET, trade(98, 3, 61_000));
+        aggregator.onTrade(MARKET, trade(101, 4, 119_999));
+
+        Candle candle = aggregator.current(MARKET, CandleResolution.M1);
+
+        assertEquals(60_000, candle.openTime());
+        assertEquals(120_000, candle.closeTime());
+        assertEquals(100, candle.open());
+        assertEquals(105, candle.high());
+        assertEquals(98, candle.low());
+        assertEquals(101, candle.close());
+        assertEquals(10, candle.volume());
+        assertEquals(BigInteger.valueOf(200 + 105 + 294 + 404), candle.notional());
+        assertEquals(4, candle.tradeCount());
+        assertTrue(aggregator.closed(MARKET, CandleResolution.M1, 10).isEmpty());
+        assertEquals(2, aggregator.closed(MARKET, CandleResolution.S1, 10).size());
+    }
+
+    @Test
+    @DisplayName("Should close a candle when a trade lands in a later bucket and flush it")
+    void shouldCloseCandleOnLaterBucket() {
+        aggregator.onTrade(MARKET, trade(100, 1, 0));
+        aggregator.onTrade(MARKET, trade(110, 1, 300_000));
+
+        List<Candle> closed = aggregator.closed(MARKET, CandleResolution.M5, 10);
+        assertEquals(1, closed.size());
+        assertEquals(0, closed.get(0).openTime());
+        assertEquals(110, aggregator.current(MARKET, CandleResolution.M5).open());
+        assertEquals(300_000, aggregator.current(MARKET, CandleResolution.M5).openTime());
+        assertEquals(2, aggregator.current(MARKET, CandleResolution.H1).volume());
+
+        assertEquals(3, aggregator.flush());
+        assertEquals(0, aggregator.pendingFlush());
+        assertEquals(List.of(CandleResolution.S1, CandleResolution.M1, CandleResolution.M5),
+                stored.stream().map(Candle::resolution).toList());
+    }
+
+    @Test
+    @DisplayName("Should keep only the most recent closed candles")
+    void shouldBoundClosedCandles() {
+        for (int second = 0; second < 6; second++) {
+            aggregator.onTrade(MARKET, trade(100 + second, 1, second * 1_000L));
+        }
+
+        List<Candle> closed = aggregator.closed(MARKET, CandleResolution.S1, 10);
+
+        assertEquals(List.of(2_000L, 3_000L, 4_000L), closed.stream().map(Candle::openTime).toList());
+        assertEquals(List.of(4_000L), aggregator.closed(MARKET, CandleResolution.S1, 1).stream()
+                .map(Candle::openTime).toList());
+        assertEquals(5, aggregator.pendingFlush());
+    }
+
+    @Test
+    @DisplayName("Should keep closed candles queued when the store fails")
+    void shouldRequeueOnFailedFlush() {
+        CandleAggregator failing = new CandleAggregator(List.of(MARKET), 3, candles -> {
+            throw new IllegalStateException("database down");
+        });
+        failing.onTrade(MARKET, trade(100, 1, 0));
+        failing.onTrade(MARKET, trade(100, 1, 1_000));
+
+        assertThrows(IllegalStateException.class, failing::flush);
+        assertEquals(1, failing.pendingFlush());
+    }
+
+    @Test
+    @DisplayName("Should store the open candles on close")
+    void shouldStoreOpenCandlesOnClose() {
+        aggregator.onTrade(MARKET, trade(100, 1, 0));
+
+        aggregator.close();
+
+        assertEquals(CandleResolution.values().length, stored.size());
+    }
+
+    @Test
+    @DisplayName("Should report no candle before the first trade and reject unknown markets")
+    void shouldReportNoCandleBeforeFirstTrade() {
+        assertNull(aggregator.current(MARKET, CandleResolution.D1));
+        assertThrows(NotFoundException.class, () -> aggregator.current("DOGE-BRL", CandleResolution.D1));
+        assertThrows(IllegalArgumentException.class, () -> CandleResolution.fromCode("2m"));
+    }
+
+    private static TradeTick trade(long price, long quantity, long timestamp) {
+        return new TradeTick(0, price, quantity, "buy", timestamp);
+    }
+}
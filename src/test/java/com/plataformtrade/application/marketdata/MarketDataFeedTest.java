@@ -0,0 +1,119 @@
+package com.plataformtrade.application.marketdata;
+
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MarketDataFeed Tests")
+class MarketDataFeedTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final MarketDataFeed feed = new MarketDataFeed(List.of(MARKET), 4);
+    private final BlockingQueue<MarketDataMessage> received = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    @DisplayName("Should send a depth snapshot on subscribe and updates after it")
+    void shouldSendSnapshotThenUpdates() throws Exception {
+        feed.start();
+        feed.onDepth(MARKET, 0, true, 100, 5);
+        feed.onDepth(MARKET, 1, false, 101, 3);
+        feed.subscribe(MARKET, received::add);
+
+        MarketDataMessage snapshot = next();
+        assertEquals(MarketDataMessage.SNAPSHOT, snapshot.type());
+        assertEquals(1, snapshot.sequence());
+        assertEquals(List.of(new DepthLevel(100, 5)), snapshot.bids());
+        assertEquals(List.of(new DepthLevel(101, 3)), snapshot.asks());
+
+        feed.onTrade(MARKET, 2, 101, 3, "buy", 42);
+        feed.onDepth(MARKET, 2, false, 101, 0);
+
+        MarketDataMessage update = next();
+        assertEquals(MarketDataMessage.UPDATE, update.type());
+        assertEquals(2, update.sequence());
+        assertEquals(List.of(new DepthLevel(101, 0)), update.asks());
+        assertEquals(List.of(new TradeTick(2, 101, 3, "buy", 42)), update.trades());
+    }
+
+    @Test
+    @DisplayName("Should conflate level changes while a subscriber is busy")
+    void shouldConflateWhileSubscriberIsBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        feed.start();
+        feed.subscribe(MARKET, message -> {
+            received.add(message);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertEquals(MarketDataMessage.SNAPSHOT, next().type());
+
+        for (int i = 1; i <= 100; i++) {
+            feed.onDepth(MARKET, i, true, 100, i);
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        MarketDataMessage last = next();
+        while (!received.isEmpty()) {
+            last = next();
+        }
+        assertEquals(100, last.sequence());
+        assertEquals(List.of(new DepthLevel(100, 100)), last.bids());
+    }
+
+    @Test
+    @DisplayName("Should resend a snapshot when a subscriber falls too far behind on trades")
+    void shouldResyncSlowSubscriberWithSnapshot() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        feed.start();
+        feed.subscribe(MARKET, message -> {
+            received.add(message);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertEquals(MarketDataMessage.SNAPSHOT, next().type());
+
+        feed.onDepth(MARKET, 1, false, 101, 10);
+        for (int i = 2; i < 12; i++) {
+            feed.onTrade(MARKET, i, 101, 1, "buy", i);
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        MarketDataMessage resync = next();
+        assertEquals(MarketDataMessage.SNAPSHOT, resync.type());
+        assertEquals(List.of(new DepthLevel(101, 10)), resync.asks());
+    }
+
+    @Test
+    @DisplayName("Should reject subscriptions to unknown markets")
+    void shouldRejectUnknownMarket() {
+        assertThrows(NotFoundException.class, () -> feed.subscribe("DOGE-BRL", received::add));
+    }
+
+    private MarketDataMessage next() throws InterruptedException {
+        MarketDataMessage message = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message, "expected a market-data message");
+        return message;
+    }
+}
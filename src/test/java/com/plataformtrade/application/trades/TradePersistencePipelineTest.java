@@ -0,0 +1,149 @@
+package com.plataformtrade.application.trades;
+
+import com.plataformtrade.domain.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TradePersistencePipeline Tests")
+class TradePersistencePipelineTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final RecordingStore store = new RecordingStore();
+    private final Order taker = Order.create("account-1", MARKET, "buy", 100, 100);
+    private final Order maker = Order.create("account-2", MARKET, "sell", 100, 100);
+    private TradePersistencePipeline pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write trades in batches and advance the durable watermark")
+    void shouldWriteBatchesAndAdvanceWatermark() throws Exception {
+        pipeline = start(1024, 2, 10_000);
+
+        trade(0, 0);
+        trade(1, 0);
+        trade(1, 1);
+        trade(2, 0);
+
+        awaitTrue(() -> pipeline.isDurable(MARKET, 2, 0));
+        assertEquals(List.of(2, 2), store.batchSizes());
+        assertEquals(new TradePosition(2, 0), pipeline.durablePosition(MARKET));
+        assertFalse(pipeline.isDurable(MARKET, 2, 1));
+    }
+
+    @Test
+    @DisplayName("Should close a partial batch after the maximum delay")
+    void shouldClosePartialBatchAfterDelay() throws Exception {
+        pipeline = start(1024, 100, 20);
+
+        trade(0, 0);
+
+        awaitTrue(() -> pipeline.isDurable(MARKET, 0, 0));
+        assertEquals(List.of(1), store.batchSizes());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch without advancing the watermark")
+    void shouldRetryFailedBatch() throws Exception {
+        store.failures.set(1);
+        pipeline = start(1024, 1, 0);
+
+        trade(0, 0);
+
+        awaitTrue(() -> pipeline.isDurable(MARKET, 0, 0));
+        assertEquals(2, store.attempts.get());
+        assertEquals(1, store.trades.size());
+    }
+
+    @Test
+    @DisplayName("Should skip replayed trades already stored")
+    void shouldSkipReplayedTradesAlreadyStored() throws Exception {
+        store.last = new TradePosition(5, 1);
+        pipeline = start(1024, 10, 0);
+
+        trade(5, 0);
+        trade(5, 1);
+        trade(5, 2);
+        trade(6, 0);
+
+        awaitTrue(() -> pipeline.isDurable(MARKET, 6, 0));
+        assertTrue(pipeline.isDurable(MARKET, 5, 1));
+        assertEquals(List.of(new TradePosition(5, 2), new TradePosition(6, 0)),
+                store.trades.stream().map(TradeRecord::position).toList());
+    }
+
+    @Test
+    @DisplayName("Should write queued trades when stopped")
+    void shouldWriteQueuedTradesWhenStopped() {
+        pipeline = start(1024, 1_000, 60_000);
+        trade(0, 0);
+        trade(0, 1);
+
+        pipeline.stop();
+        pipeline = null;
+
+        assertEquals(2, store.trades.size());
+    }
+
+    private TradePersistencePipeline start(int capacity, int batchSize, long maxDelayMs) {
+        TradePersistencePipeline started = new TradePersistencePipeline(store, List.of(MARKET), capacity, batchSize, maxDelayMs);
+        started.start();
+        return started;
+    }
+
+    private void trade(long sequence, int matchIndex) {
+        pipeline.onTrade(MARKET, sequence, matchIndex, taker, maker, 1, 100);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("condition not met within 5 seconds");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static final class RecordingStore implements TradeStore {
+        private final List<TradeRecord> trades = new CopyOnWriteArrayList<>();
+        private final List<Integer> batches = new CopyOnWriteArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile TradePosition last = TradePosition.NONE;
+
+        @Override
+        public TradePosition lastPosition(String marketId) {
+            return last;
+        }
+
+        @Override
+        public void write(List<TradeRecord> batch) {
+            attempts.incrementAndGet();
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+            batches.add(batch.size());
+            trades.addAll(new ArrayList<>(batch));
+        }
+
+        private List<Integer> batchSizes() {
+            return List.copyOf(batches);
+        }
+    }
+}
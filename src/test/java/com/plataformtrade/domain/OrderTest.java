@@ -0,0 +1,75 @@
+package com.plataformtrade.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Order Domain Tests")
+class OrderTest {
+
+    @Test
+    @DisplayName("Should create an open order with nothing filled")
+    void shouldCreateOpenOrder() {
+        Order order = Order.create("account-1", "BTC-BRL", "buy", 10, 100);
+
+        assertNotNull(order.getOrderId());
+        assertEquals("open", order.getStatus());
+        assertEquals(10, order.getAvailableQuantity());
+        assertEquals(0, order.getFillQuantity());
+        assertEquals(0, order.getFillPrice());
+        assertEquals(BigInteger.ZERO, order.getFillNotional());
+    }
+
+    @Test
+    @DisplayName("Should accumulate the fill notional instead of re-truncating the average")
+    void shouldAccumulateFillNotional() {
+        Order order = Order.create("account-1", "BTC-BRL", "buy", 3, 200);
+
+        order.fill(1, 100);
+        order.fill(1, 101);
+        order.fill(1, 101);
+
+        // The old int formula truncated after every fill and ended at 100.
+        assertEquals(BigInteger.valueOf(302), order.getFillNotional());
+        assertEquals(100, order.getFillPrice());
+        assertEquals("closed", order.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not overflow when the notional exceeds a long")
+    void shouldNotOverflowBeyondLongNotional() {
+        long quantity = 4_000_000_000_000L;
+        long price = 5_000_000_000L;
+        Order order = Order.create("account-1", "BTC-BRL", "sell", quantity * 2, price);
+
+        order.fill(quantity, price);
+        order.fill(quantity, price);
+
+        BigInteger expected = BigInteger.valueOf(quantity).multiply(BigInteger.valueOf(price)).shiftLeft(1);
+        assertEquals(expected, order.getFillNotional());
+        assertEquals(price, order.getFillPrice());
+        assertEquals("closed", order.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should reject fills larger than the available quantity")
+    void shouldRejectOverfill() {
+        Order order = Order.create("account-1", "BTC-BRL", "buy", 5, 100);
+        order.fill(3, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> order.fill(3, 100));
+        assertEquals(3, order.getFillQuantity());
+    }
+
+    @Test
+    @DisplayName("Should validate create parameters")
+    void shouldValidateCreateParameters() {
+        assertThrows(IllegalArgumentException.class, () -> Order.create("account-1", "BTC-BRL", "hold", 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> Order.create("account-1", "BTC-BRL", "buy", 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Order.create("account-1", "BTC-BRL", "buy", 1, 0));
+        assertThrows(NullPointerException.class, () -> Order.create(null, "BTC-BRL", "buy", 1, 1));
+    }
+}
@@ -0,0 +1,51 @@
+package com.plataformtrade.domain.VOs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Price Value Object Tests")
+class PriceTest {
+    private static final BigDecimal TICK_SIZE = new BigDecimal("0.01");
+
+    @Test
+    @DisplayName("Should convert a decimal price to ticks")
+    void shouldConvertDecimalToTicks() {
+        Price price = Price.fromDecimal(new BigDecimal("123.45"), TICK_SIZE);
+
+        assertEquals(12_345, price.getTicks());
+        assertEquals(0, new BigDecimal("123.45").compareTo(price.toDecimal(TICK_SIZE)));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should reject prices off the tick grid or not positive")
+    @ValueSource(strings = {"123.456", "0.001", "0", "-1.00"})
+    void shouldRejectInvalidPrices(String value) {
+        assertThrows(IllegalArgumentException.class, () -> Price.fromDecimal(new BigDecimal(value), TICK_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should reject null price")
+    void shouldRejectNullPrice() {
+        assertThrows(IllegalArgumentException.class, () -> Price.fromDecimal(null, TICK_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should reject prices beyond the long range")
+    void shouldRejectOutOfRangePrice() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Price.fromDecimal(new BigDecimal("1e30"), TICK_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should compare by ticks")
+    void shouldCompareByTicks() {
+        assertEquals(new Price(100), Price.fromDecimal(new BigDecimal("1.00"), TICK_SIZE));
+        assertNotEquals(new Price(100), new Price(101));
+    }
+}
@@ -0,0 +1,38 @@
+package com.plataformtrade.domain.VOs;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Quantity Value Object Tests")
+class QuantityTest {
+    private static final BigDecimal LOT_SIZE = new BigDecimal("0.00000001");
+
+    @Test
+    @DisplayName("Should convert a decimal quantity to lots")
+    void shouldConvertDecimalToLots() {
+        Quantity quantity = Quantity.fromDecimal(new BigDecimal("1.5"), LOT_SIZE);
+
+        assertEquals(150_000_000, quantity.getLots());
+        assertEquals(0, new BigDecimal("1.5").compareTo(quantity.toDecimal(LOT_SIZE)));
+    }
+
+    @ParameterizedTest
+    @DisplayName("Should reject quantities off the lot grid or not positive")
+    @ValueSource(strings = {"0.000000001", "0", "-0.5"})
+    void shouldRejectInvalidQuantities(String value) {
+        assertThrows(IllegalArgumentException.class, () -> Quantity.fromDecimal(new BigDecimal(value), LOT_SIZE));
+    }
+
+    @Test
+    @DisplayName("Should compare by lots")
+    void shouldCompareByLots() {
+        assertEquals(new Quantity(5), new Quantity(5));
+        assertNotEquals(new Quantity(5), new Quantity(6));
+    }
+}
@@ -0,0 +1,147 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Off-heap OrderBook Tests")
+class OffHeapOrderBookTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final List<String> trades = new ArrayList<>();
+    private final OrderBook book = new OrderBook(MARKET, OrderStorage.OFF_HEAP, 4, (taker, maker, quantity, price) ->
+            trades.add(taker.getOrderId() + ">" + maker.getOrderId() + ":" + quantity + "@" + price
+                    + " " + maker.getAccountId() + " " + maker.getAvailableQuantity() + " " + maker.getStatus()),
+            DepthListener.NO_OP);
+
+    @Test
+    @DisplayName("Should match against off-heap makers in time priority")
+    void shouldMatchInTimePriority() {
+        Order first = Order.create("account-1", MARKET, "sell", 5, 100);
+        Order second = Order.create("account-2", MARKET, "sell", 5, 100);
+        Order bid = Order.create("account-3", MARKET, "buy", 7, 101);
+
+        book.place(first);
+        book.place(second);
+        book.place(bid);
+
+        assertEquals(List.of(
+                bid.getOrderId() + ">" + first.getOrderId() + ":5@100 account-1 0 closed",
+                bid.getOrderId() + ">" + second.getOrderId() + ":2@100 account-2 3 open"
+        ), trades);
+        assertEquals("closed", bid.getStatus());
+        assertEquals(100, bid.getFillPrice());
+        assertNull(book.findOrder(first.getOrderId()));
+        assertEquals(1, book.getOrderCount());
+        assertEquals(3, book.getAskLevel(0).getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("Should return copies with the same state as the stored order")
+    void shouldReturnCopiesOfStoredOrders() {
+        Order ask = Order.create("account-1", MARKET, "sell", 10, 100);
+        book.place(ask);
+        book.place(Order.create("account-2", MARKET, "buy", 4, 100));
+
+        Order stored = book.findOrder(ask.getOrderId());
+
+        assertNotSame(ask, stored);
+        assertEquals(ask.getOrderId(), stored.getOrderId());
+        assertEquals("account-1", stored.getAccountId());
+        assertEquals(MARKET, stored.getMarketId());
+        assertEquals("sell", stored.getSide());
+        assertEquals(10, stored.getQuantity());
+        assertEquals(100, stored.getPrice());
+        assertEquals(4, stored.getFillQuantity());
+        assertEquals(400, stored.getFillNotional().longValueExact());
+        assertEquals("open", stored.getStatus());
+        assertEquals(ask.getTimestamp(), stored.getTimestamp());
+        assertEquals(stored.getOrderId(), book.getAskLevel(0).getFirstOrder().getOrderId());
+    }
+
+    @Test
+    @DisplayName("Should keep the id index consistent across pages and removals")
+    void shouldKeepIndexConsistentAcrossPages() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 150_000; i++) {
+            Order order = Order.create("account-" + (i % 10), MARKET, "sell", 1, 1_000 + (i % 100));
+            orders.add(order);
+            book.place(order);
+        }
+
+        book.place(Order.create("account-x", MARKET, "buy", 75_000, 2_000));
+
+        assertEquals(75_000, book.getOrderCount());
+        int resting = 0;
+        List<String> visited = new ArrayList<>();
+        book.forEachOrder(order -> visited.add(order.getOrderId()));
+        for (Order order : orders) {
+            Order stored = book.findOrder(order.getOrderId());
+            if (stored != null) {
+                resting++;
+                assertEquals(order.getAccountId(), stored.getAccountId());
+            }
+        }
+        assertEquals(75_000, resting);
+        assertEquals(75_000, visited.size());
+
+        for (int i = 0; i < 75_000; i++) {
+            book.place(Order.create("account-y", MARKET, "sell", 1, 3_000));
+        }
+        assertEquals(150_000, book.getOrderCount());
+    }
+
+    @Test
+    @DisplayName("Should reject order ids that are not canonical UUIDs")
+    void shouldRejectNonUuidOrderIds() {
+        Order order = Order.restore("order-1", "account-1", MARKET, "buy", 1, 100, 0,
+                BigInteger.ZERO, "open", new Date());
+
+        assertThrows(IllegalArgumentException.class, () -> book.place(order));
+        assertNull(book.findOrder("order-1"));
+    }
+
+    @Test
+    @DisplayName("Should pack UUIDs into two longs and back")
+    void shouldPackUuids() {
+        String id = UUID.randomUUID().toString();
+
+        assertTrue(UuidCodec.isUuid(id));
+        assertEquals(id, UuidCodec.format(UuidCodec.high(id), UuidCodec.low(id)));
+        assertEquals(UUID.fromString(id).getMostSignificantBits(), UuidCodec.high(id));
+        assertEquals(UUID.fromString(id).getLeastSignificantBits(), UuidCodec.low(id));
+        assertFalse(UuidCodec.isUuid(id.toUpperCase()));
+    }
+
+    @Test
+    @DisplayName("Should cancel and amend orders stored off-heap")
+    void shouldCancelAndAmendOffHeapOrders() {
+        Order first = Order.create("account-1", MARKET, "sell", 5, 100);
+        Order second = Order.create("account-2", MARKET, "sell", 5, 100);
+        Order third = Order.create("account-3", MARKET, "sell", 5, 100);
+        book.place(first);
+        book.place(second);
+        book.place(third);
+
+        Order cancelled = book.cancel(second.getOrderId());
+        Order reduced = book.replace(first.getOrderId(), 2, 100);
+
+        assertEquals("cancelled", cancelled.getStatus());
+        assertEquals("account-2", cancelled.getAccountId());
+        assertEquals(2, reduced.getQuantity());
+        assertEquals(2, book.getOrderCount());
+        assertEquals(7, book.getAskLevel(0).getTotalQuantity());
+
+        book.place(Order.create("account-4", MARKET, "buy", 3, 100));
+        assertTrue(trades.get(0).contains(">" + first.getOrderId() + ":2@100"));
+        assertTrue(trades.get(1).contains(">" + third.getOrderId() + ":1@100"));
+    }
+}
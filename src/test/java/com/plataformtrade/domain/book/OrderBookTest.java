@@ -0,0 +1,301 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.OrderView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderBook Tests")
+class OrderBookTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final List<String> trades = new ArrayList<>();
+    private final OrderBook book = new OrderBook(MARKET, 4, (taker, maker, quantity, price) ->
+            trades.add(taker.getOrderId() + ">" + maker.getOrderId() + ":" + quantity + "@" + price));
+
+    @Test
+    @DisplayName("Should rest orders that do not cross")
+    void shouldRestOrdersThatDoNotCross() {
+        Order bid = Order.create("account-1", MARKET, "buy", 10, 100);
+        Order ask = Order.create("account-2", MARKET, "sell", 10, 101);
+
+        book.place(bid);
+        book.place(ask);
+
+        assertTrue(trades.isEmpty());
+        assertEquals(2, book.getOrderCount());
+        assertEquals(100, book.getBestBid());
+        assertEquals(101, book.getBestAsk());
+        assertSame(bid, book.findOrder(bid.getOrderId()));
+        assertSame(ask, book.findOrder(ask.getOrderId()));
+    }
+
+    @Test
+    @DisplayName("Should match at the resting price and fill both sides")
+    void shouldMatchAtRestingPrice() {
+        Order ask = Order.create("account-1", MARKET, "sell", 10, 100);
+        Order bid = Order.create("account-2", MARKET, "buy", 4, 105);
+
+        book.place(ask);
+        book.place(bid);
+
+        assertEquals(List.of(bid.getOrderId() + ">" + ask.getOrderId() + ":4@100"), trades);
+        assertEquals("closed", bid.getStatus());
+        assertEquals(100, bid.getFillPrice());
+        assertEquals(4, ask.getFillQuantity());
+        assertEquals(6, ask.getAvailableQuantity());
+        assertEquals("open", ask.getStatus());
+        assertNull(book.findOrder(bid.getOrderId()));
+        assertEquals(6, book.getAskLevel(0).getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("Should respect time priority within a price level")
+    void shouldRespectTimePriorityWithinLevel() {
+        Order first = Order.create("account-1", MARKET, "sell", 5, 100);
+        Order second = Order.create("account-2", MARKET, "sell", 5, 100);
+        Order bid = Order.create("account-3", MARKET, "buy", 7, 100);
+
+        book.place(first);
+        book.place(second);
+        book.place(bid);
+
+        assertEquals(List.of(
+                bid.getOrderId() + ">" + first.getOrderId() + ":5@100",
+                bid.getOrderId() + ">" + second.getOrderId() + ":2@100"
+        ), trades);
+        assertNull(book.findOrder(first.getOrderId()));
+        assertSame(second, book.getAskLevel(0).getFirstOrder());
+        assertEquals(1, book.getAskLevel(0).getOrderCount());
+    }
+
+    @Test
+    @DisplayName("Should sweep price levels best first and rest the remainder")
+    void shouldSweepLevelsBestFirst() {
+        Order ask101 = Order.create("account-1", MARKET, "sell", 3, 101);
+        Order ask100 = Order.create("account-1", MARKET, "sell", 3, 100);
+        Order ask103 = Order.create("account-1", MARKET, "sell", 3, 103);
+        Order bid = Order.create("account-2", MARKET, "buy", 10, 102);
+
+        book.place(ask101);
+        book.place(ask100);
+        book.place(ask103);
+        book.place(bid);
+
+        assertEquals(2, trades.size());
+        assertTrue(trades.get(0).endsWith(":3@100"));
+        assertTrue(trades.get(1).endsWith(":3@101"));
+        assertEquals(100, bid.getFillPrice());
+        assertEquals(4, bid.getAvailableQuantity());
+        assertEquals(102, book.getBestBid());
+        assertEquals(103, book.getBestAsk());
+        assertEquals(1, book.getAskDepth());
+        assertSame(bid, book.findOrder(bid.getOrderId()));
+    }
+
+    @Test
+    @DisplayName("Should keep bid levels sorted from best to worst")
+    void shouldKeepBidLevelsSorted() {
+        book.place(Order.create("account-1", MARKET, "buy", 1, 98));
+        book.place(Order.create("account-1", MARKET, "buy", 1, 100));
+        book.place(Order.create("account-1", MARKET, "buy", 1, 99));
+
+        assertEquals(3, book.getBidDepth());
+        assertEquals(100, book.getBidLevel(0).getPrice());
+        assertEquals(99, book.getBidLevel(1).getPrice());
+        assertEquals(98, book.getBidLevel(2).getPrice());
+    }
+
+    @Test
+    @DisplayName("Should index many resting orders beyond the initial capacity")
+    void shouldIndexManyRestingOrders() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Order order = Order.create("account-1", MARKET, "sell", 1, 1_000 + (i % 50));
+            orders.add(order);
+            book.place(order);
+        }
+
+        Order sweep = Order.create("account-2", MARKET, "buy", 2_500, 2_000);
+        book.place(sweep);
+
+        assertEquals(2_500, book.getOrderCount());
+        assertEquals("closed", sweep.getStatus());
+        for (Order order : orders) {
+            if (order.getAvailableQuantity() == 0) {
+                assertNull(book.findOrder(order.getOrderId()));
+            } else {
+                assertSame(order, book.findOrder(order.getOrderId()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject orders from another market")
+    void shouldRejectOrdersFromAnotherMarket() {
+        Order order = Order.create("account-1", "ETH-BRL", "buy", 1, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> book.place(order));
+    }
+
+    @Test
+    @DisplayName("Should reject an order that is already resting")
+    void shouldRejectDuplicateOrder() {
+        Order order = Order.create("account-1", MARKET, "buy", 1, 100);
+        book.place(order);
+
+        assertThrows(IllegalArgumentException.class, () -> book.place(order));
+    }
+
+    @Test
+    @DisplayName("Should report every price level change to the depth listener")
+    void shouldReportLevelChanges() {
+        List<String> depth = new ArrayList<>();
+        OrderBook tracked = new OrderBook(MARKET, TradeListener.NO_OP, (bid, price, quantity, orderCount) ->
+                depth.add((bid ? "bid " : "ask ") + price + "=" + quantity + "/" + orderCount));
+
+        tracked.place(Order.create("account-1", MARKET, "sell", 3, 100));
+        tracked.place(Order.create("account-1", MARKET, "sell", 2, 100));
+        tracked.place(Order.create("account-2", MARKET, "buy", 4, 100));
+        tracked.place(Order.create("account-2", MARKET, "buy", 2, 100));
+
+        assertEquals(List.of(
+                "ask 100=3/1",
+                "ask 100=5/2",
+                "ask 100=2/1",
+                "ask 100=1/1",
+                "ask 100=0/0",
+                "bid 100=1/1"
+        ), depth);
+    }
+
+    @Test
+    @DisplayName("Should cancel a resting order from the middle of its level")
+    void shouldCancelRestingOrder() {
+        Order first = Order.create("account-1", MARKET, "sell", 5, 100);
+        Order middle = Order.create("account-2", MARKET, "sell", 3, 100);
+        Order last = Order.create("account-3", MARKET, "sell", 2, 100);
+        book.place(first);
+        book.place(middle);
+        book.place(last);
+
+        Order cancelled = book.cancel(middle.getOrderId());
+
+        assertEquals("cancelled", cancelled.getStatus());
+        assertEquals(3, cancelled.getAvailableQuantity());
+        assertNull(book.findOrder(middle.getOrderId()));
+        assertEquals(2, book.getAskLevel(0).getOrderCount());
+        assertEquals(7, book.getAskLevel(0).getTotalQuantity());
+
+        book.place(Order.create("account-4", MARKET, "buy", 7, 100));
+        assertTrue(trades.get(0).contains(">" + first.getOrderId() + ":5@100"));
+        assertTrue(trades.get(1).contains(">" + last.getOrderId() + ":2@100"));
+        assertNull(book.cancel(middle.getOrderId()));
+    }
+
+    @Test
+    @DisplayName("Should drop the price level when its last order is cancelled")
+    void shouldDropEmptyLevelOnCancel() {
+        Order bid = Order.create("account-1", MARKET, "buy", 5, 99);
+        book.place(Order.create("account-1", MARKET, "buy", 5, 100));
+        book.place(bid);
+
+        book.cancel(bid.getOrderId());
+
+        assertEquals(1, book.getBidDepth());
+        assertEquals(100, book.getBestBid());
+    }
+
+    @Test
+    @DisplayName("Should keep time priority when the quantity is reduced")
+    void shouldKeepPriorityOnQuantityReduction() {
+        Order first = Order.create("account-1", MARKET, "sell", 5, 100);
+        Order second = Order.create("account-2", MARKET, "sell", 5, 100);
+        book.place(first);
+        book.place(second);
+
+        Order reduced = book.replace(first.getOrderId(), 2, 100);
+
+        assertEquals(2, reduced.getQuantity());
+        assertEquals(7, book.getAskLevel(0).getTotalQuantity());
+        assertEquals(first.getOrderId(), book.getAskLevel(0).getFirstOrder().getOrderId());
+
+        book.place(Order.create("account-3", MARKET, "buy", 3, 100));
+        assertTrue(trades.get(0).contains(">" + first.getOrderId() + ":2@100"));
+        assertTrue(trades.get(1).contains(">" + second.getOrderId() + ":1@100"));
+    }
+
+    @Test
+    @DisplayName("Should re-queue an order whose price changes")
+    void shouldRequeueOnPriceChange() {
+        Order first = Order.create("account-1", MARKET, "sell", 5, 101);
+        Order second = Order.create("account-2", MARKET, "sell", 5, 100);
+        book.place(first);
+        book.place(second);
+
+        Order moved = book.replace(first.getOrderId(), 5, 100);
+
+        assertEquals(first.getOrderId(), moved.getOrderId());
+        assertEquals(1, book.getAskDepth());
+        assertEquals(10, book.getAskLevel(0).getTotalQuantity());
+        assertEquals(second.getOrderId(), book.getAskLevel(0).getFirstOrder().getOrderId());
+    }
+
+    @Test
+    @DisplayName("Should match a replaced order that now crosses and keep its fills")
+    void shouldMatchReplacedOrderThatCrosses() {
+        Order bid = Order.create("account-1", MARKET, "buy", 10, 99);
+        book.place(bid);
+        book.place(Order.create("account-2", MARKET, "sell", 4, 99));
+        book.place(Order.create("account-3", MARKET, "sell", 3, 100));
+
+        Order replaced = book.replace(bid.getOrderId(), 12, 100);
+
+        assertEquals(7, replaced.getFillQuantity());
+        assertEquals(5, replaced.getAvailableQuantity());
+        assertEquals(99, replaced.getFillPrice());
+        assertFalse(book.hasAsks());
+        assertEquals(5, book.getBidLevel(0).getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("Should put the original order back when placing the new terms fails")
+    void shouldRestoreOriginalWhenReplaceFails() {
+        boolean[] failing = {false};
+        OrderBook failingBook = new OrderBook(MARKET, TradeListener.NO_OP, (bid, price, quantity, orderCount) -> {
+            if (failing[0] && orderCount == 0) {
+                throw new IllegalStateException("depth feed unavailable");
+            }
+        });
+        Order ask = Order.create("account-1", MARKET, "sell", 5, 101);
+        failingBook.place(ask);
+        failing[0] = true;
+
+        assertThrows(IllegalStateException.class, () -> failingBook.replace(ask.getOrderId(), 8, 102));
+
+        OrderView restored = failingBook.viewOrder(ask.getOrderId());
+        assertNotNull(restored);
+        assertEquals(5, restored.getQuantity());
+        assertEquals(101, restored.getPrice());
+        assertEquals(1, failingBook.getAskDepth());
+        assertEquals(5, failingBook.getAskLevel(0).getTotalQuantity());
+    }
+
+    @Test
+    @DisplayName("Should reject a replace that leaves nothing to fill")
+    void shouldRejectReplaceBelowFilledQuantity() {
+        Order ask = Order.create("account-1", MARKET, "sell", 10, 100);
+        book.place(ask);
+        book.place(Order.create("account-2", MARKET, "buy", 4, 100));
+
+        assertThrows(IllegalArgumentException.class, () -> book.replace(ask.getOrderId(), 4, 100));
+        assertThrows(IllegalArgumentException.class, () -> book.replace(ask.getOrderId(), 8, 0));
+        assertNull(book.replace("missing", 8, 100));
+        assertEquals(6, book.getAskLevel(0).getTotalQuantity());
+    }
+}
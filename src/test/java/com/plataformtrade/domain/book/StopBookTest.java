@@ -0,0 +1,108 @@
+package com.plataformtrade.domain.book;
+
+import com.plataformtrade.domain.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StopBook Tests")
+class StopBookTest {
+    private static final String MARKET = "BTC-BRL";
+
+    private final StopBook stops = new StopBook(MARKET);
+    private final List<Order> triggered = new ArrayList<>();
+
+    @Test
+    @DisplayName("Should trigger buy stops when the price rises to them, nearest first")
+    void shouldTriggerBuyStopsOnRise() {
+        Order far = add("buy", 110);
+        Order near = add("buy", 105);
+        Order untouched = add("buy", 120);
+
+        assertEquals(0, stops.trigger(104, triggered::add));
+        assertEquals(2, stops.trigger(110, triggered::add));
+
+        assertEquals(List.of(near, far), triggered);
+        assertEquals(1, stops.size());
+        assertSame(untouched, stops.find(untouched.getOrderId()).order());
+    }
+
+    @Test
+    @DisplayName("Should trigger sell stops when the price falls to them, nearest first")
+    void shouldTriggerSellStopsOnFall() {
+        Order near = add("sell", 95);
+        Order far = add("sell", 90);
+        add("sell", 80);
+
+        assertEquals(2, stops.trigger(89, triggered::add));
+
+        assertEquals(List.of(near, far), triggered);
+        assertEquals(1, stops.size());
+    }
+
+    @Test
+    @DisplayName("Should keep submission order within a stop price")
+    void shouldKeepSubmissionOrderWithinStopPrice() {
+        Order first = add("sell", 95);
+        Order second = add("sell", 95);
+        Order third = add("sell", 95);
+
+        stops.trigger(95, triggered::add);
+
+        assertEquals(List.of(first, second, third), triggered);
+    }
+
+    @Test
+    @DisplayName("Should remove a pending stop without triggering it")
+    void shouldRemovePendingStop() {
+        Order first = add("buy", 105);
+        Order second = add("buy", 105);
+
+        assertSame(first, stops.remove(first.getOrderId()));
+        assertNull(stops.remove(first.getOrderId()));
+        assertNull(stops.find(first.getOrderId()));
+
+        stops.trigger(200, triggered::add);
+        assertEquals(List.of(second), triggered);
+        assertNull(stops.find(second.getOrderId()));
+    }
+
+    @Test
+    @DisplayName("Should list pending stops in trigger order")
+    void shouldListPendingStopsInTriggerOrder() {
+        Order buy110 = add("buy", 110);
+        Order buy105 = add("buy", 105);
+        Order sell90 = add("sell", 90);
+
+        List<StopOrder> listed = new ArrayList<>();
+        stops.forEach(listed::add);
+
+        assertEquals(List.of(
+                new StopOrder(buy105, 105),
+                new StopOrder(buy110, 110),
+                new StopOrder(sell90, 90)
+        ), listed);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid and duplicate stops")
+    void shouldRejectInvalidStops() {
+        Order order = add("buy", 105);
+
+        assertThrows(IllegalArgumentException.class, () -> stops.add(order, 106));
+        assertThrows(IllegalArgumentException.class,
+                () -> stops.add(Order.create("account-1", MARKET, "buy", 1, 100), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> stops.add(Order.create("account-1", "ETH-BRL", "buy", 1, 100), 105));
+    }
+
+    private Order add(String side, long stopPrice) {
+        Order order = Order.create("account-1", MARKET, side, 1, stopPrice);
+        stops.add(order, stopPrice);
+        return order;
+    }
+}
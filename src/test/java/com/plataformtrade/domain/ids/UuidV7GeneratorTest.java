@@ -0,0 +1,71 @@
+package com.plataformtrade.domain.ids;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UuidV7Generator Tests")
+class UuidV7GeneratorTest {
+    private final UuidV7Generator generator = new UuidV7Generator();
+
+    @Test
+    @DisplayName("Should produce version 7 UUIDs carrying the current time")
+    void shouldProduceVersion7Uuids() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UUID.fromString(generator.nextId());
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1);
+    }
+
+    @Test
+    @DisplayName("Should produce strictly increasing ids within a thread")
+    void shouldBeMonotonicWithinThread() {
+        String previous = generator.nextId();
+        for (int i = 0; i < 200_000; i++) {
+            String next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Should produce unique ids across threads")
+    void shouldBeUniqueAcrossThreads() throws Exception {
+        int threads = 4;
+        int idsPerThread = 50_000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * idsPerThread, ids.size());
+    }
+}
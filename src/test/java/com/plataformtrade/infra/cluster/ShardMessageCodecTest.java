@@ -0,0 +1,98 @@
+package com.plataformtrade.infra.cluster;
+
+import com.plataformtrade.application.cluster.ShardCommand;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardMessageCodec Tests")
+class ShardMessageCodecTest {
+    private static final String MARKET = "BTC-BRL";
+
+    @Test
+    @DisplayName("Should round-trip a batch with the orders' ids and timestamps")
+    void shouldRoundTripBatch() {
+        Order first = Order.create("account-1", MARKET, "buy", 10, 100);
+        Order second = Order.create("account-2", MARKET, "sell", 3, 101);
+
+        ShardCommand decoded = ShardMessageCodec.decodeCommand(
+                ShardMessageCodec.encodeCommand(ShardCommand.batch(MARKET, List.of(first, second))));
+
+        assertEquals(ShardCommand.Type.BATCH, decoded.type());
+        assertEquals(MARKET, decoded.marketId());
+        assertEquals(2, decoded.resultCount());
+        Order copy = decoded.orders().get(1);
+        assertEquals(second.getOrderId(), copy.getOrderId());
+        assertEquals(second.getAccountId(), copy.getAccountId());
+        assertEquals("sell", copy.getSide());
+        assertEquals(3, copy.getQuantity());
+        assertEquals(101, copy.getPrice());
+        assertEquals(second.getTimestamp(), copy.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("Should round-trip stop, cancel and replace commands")
+    void shouldRoundTripOtherCommands() {
+        Order order = Order.create("account-1", MARKET, "sell", 2, 95);
+
+        ShardCommand stop = ShardMessageCodec.decodeCommand(ShardMessageCodec.encodeCommand(ShardCommand.stop(order, 96)));
+        ShardCommand cancel = ShardMessageCodec.decodeCommand(
+                ShardMessageCodec.encodeCommand(ShardCommand.cancel(MARKET, "order-1", "account-1")));
+        ShardCommand replace = ShardMessageCodec.decodeCommand(
+                ShardMessageCodec.encodeCommand(ShardCommand.replace(MARKET, "order-1", "account-1", 7, 99)));
+
+        assertEquals(96, stop.stopPrice());
+        assertEquals(order.getOrderId(), stop.orders().get(0).getOrderId());
+        assertEquals(ShardCommand.cancel(MARKET, "order-1", "account-1"), cancel);
+        assertEquals(ShardCommand.replace(MARKET, "order-1", "account-1", 7, 99), replace);
+    }
+
+    @Test
+    @DisplayName("Should carry reports and error kinds back to the sender")
+    void shouldRoundTripReply() {
+        ExecutionReport report = new ExecutionReport(4, "order-1", "account-1", MARKET, "buy",
+                10, 100, 4, BigInteger.valueOf(400), "open");
+        byte[] reply = ShardMessageCodec.encodeReply(List.of(
+                CompletableFuture.completedFuture(report),
+                CompletableFuture.failedFuture(new NotFoundException("Order not found: order-2")),
+                CompletableFuture.failedFuture(new IllegalArgumentException("price must be positive")),
+                CompletableFuture.failedFuture(new IllegalStateException("Market BTC-BRL is moving"))
+        ));
+        List<CompletableFuture<ExecutionReport>> results = List.of(
+                new CompletableFuture<>(), new CompletableFuture<>(), new CompletableFuture<>(), new CompletableFuture<>());
+
+        ShardMessageCodec.completeFromReply(reply, results);
+
+        assertEquals(report, results.get(0).join());
+        assertError(NotFoundException.class, "Order not found: order-2", results.get(1));
+        assertError(IllegalArgumentException.class, "price must be positive", results.get(2));
+        assertError(IllegalStateException.class, "Market BTC-BRL is moving", results.get(3));
+    }
+
+    @Test
+    @DisplayName("Should fail every result of a reply that does not match the command")
+    void shouldFailMismatchedReply() {
+        byte[] reply = ShardMessageCodec.encodeReply(List.of(CompletableFuture.failedFuture(new IllegalStateException("x"))));
+        List<CompletableFuture<ExecutionReport>> results = List.of(new CompletableFuture<>(), new CompletableFuture<>());
+
+        ShardMessageCodec.completeFromReply(reply, results);
+
+        results.forEach(result -> assertTrue(result.isCompletedExceptionally()));
+    }
+
+    private static void assertError(Class<? extends Throwable> type, String message,
+                                    CompletableFuture<ExecutionReport> result) {
+        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(type, error.getCause());
+        assertEquals(message, error.getCause().getMessage());
+    }
+}
@@ -0,0 +1,104 @@
+package com.plataformtrade.infra.codec;
+
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.marketdata.DepthLevel;
+import com.plataformtrade.application.marketdata.MarketDataMessage;
+import com.plataformtrade.application.marketdata.TradeTick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BinaryFrameCodec Tests")
+class BinaryFrameCodecTest {
+    private static final String MARKET = "BTC-BRL";
+
+    @Test
+    @DisplayName("Should round-trip a market-data update in exactly sizeOf bytes")
+    void shouldRoundTripMarketDataUpdate() {
+        MarketDataMessage update = MarketDataMessage.update(
+                MARKET,
+                42,
+                List.of(new DepthLevel(35_000_000, 120_000_000), new DepthLevel(34_999_999, 0)),
+                List.of(new DepthLevel(35_000_100, 5)),
+                List.of(new TradeTick(41, 35_000_100, 3, "buy", 1_700_000_000_000L))
+        );
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryFrameCodec.sizeOf(update));
+
+        BinaryFrameCodec.encode(update, buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(update, BinaryFrameCodec.decodeMarketData(buffer.flip()));
+    }
+
+    @Test
+    @DisplayName("Should round-trip a snapshot through a reused buffer")
+    void shouldRoundTripSnapshotThroughReusedBuffer() {
+        MarketDataMessage small = MarketDataMessage.snapshot(MARKET, 1, List.of(new DepthLevel(100, 1)), List.of());
+        MarketDataMessage large = MarketDataMessage.snapshot(MARKET, 2,
+                LongStream.range(0, 100).mapToObj(i -> new DepthLevel(1_000 - i, i + 1)).toList(),
+                List.of());
+
+        ByteBuffer buffer = BinaryFrameCodec.ensureCapacity(null, BinaryFrameCodec.sizeOf(small));
+        BinaryFrameCodec.encode(small, buffer);
+        assertEquals(small, BinaryFrameCodec.decodeMarketData(buffer.flip()));
+
+        buffer = BinaryFrameCodec.ensureCapacity(buffer, BinaryFrameCodec.sizeOf(large));
+        BinaryFrameCodec.encode(large, buffer);
+        assertEquals(large, BinaryFrameCodec.decodeMarketData(buffer.flip()));
+    }
+
+    @Test
+    @DisplayName("Should round-trip an execution report with a 128-bit fill notional")
+    void shouldRoundTripExecutionReport() {
+        BigInteger notional = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(3));
+        ExecutionReport report = new ExecutionReport(7, "order-1", "account-1", MARKET, "sell",
+                10, 35_000_000, 10, notional, "closed");
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryFrameCodec.sizeOf(report));
+
+        BinaryFrameCodec.encode(report, buffer);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(report, BinaryFrameCodec.decodeExecutionReport(buffer.flip()));
+    }
+
+    @Test
+    @DisplayName("Should keep the cancelled status of an execution report")
+    void shouldRoundTripCancelledExecutionReport() {
+        ExecutionReport report = new ExecutionReport(9, "order-1", "account-1", MARKET, "buy",
+                10, 35_000_000, 4, BigInteger.valueOf(140_000_000), "cancelled");
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryFrameCodec.sizeOf(report));
+
+        BinaryFrameCodec.encode(report, buffer);
+
+        assertEquals(report, BinaryFrameCodec.decodeExecutionReport(buffer.flip()));
+    }
+
+    @Test
+    @DisplayName("Should convert AMQP messages carrying the binary content type")
+    void shouldConvertAmqpMessages() {
+        BinaryFrameMessageConverter converter = new BinaryFrameMessageConverter();
+        ExecutionReport report = new ExecutionReport(1, "order-1", "account-1", MARKET, "buy",
+                5, 100, 0, BigInteger.ZERO, "open");
+
+        Message message = converter.toMessage(report, new MessageProperties());
+
+        assertEquals(WireFormat.BINARY.getContentType(), message.getMessageProperties().getContentType());
+        assertEquals(report, converter.fromMessage(message));
+    }
+
+    @Test
+    @DisplayName("Should reject frames of an unknown version")
+    void shouldRejectUnknownVersion() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{9, BinaryFrameCodec.TYPE_UPDATE, 0, 0});
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryFrameCodec.decodeMarketData(buffer));
+    }
+}
@@ -0,0 +1,65 @@
+package com.plataformtrade.infra.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OutboxPayloadCodec Tests")
+class OutboxPayloadCodecTest {
+    private static final byte[] SMALL = "{\"type\":\"account.created\",\"aggregateId\":\"a-1\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LARGE = ("{\"items\":[" + "{\"name\":\"account\",\"value\":12345},".repeat(200) + "{}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @DisplayName("Should keep small payloads as plain JSON")
+    void shouldKeepSmallPayloadsPlain() {
+        OutboxPayloadCodec codec = OutboxPayloadCodec.select(SMALL, 1024);
+
+        assertEquals(OutboxPayloadCodec.JSON, codec);
+        assertSame(SMALL, codec.encode(SMALL));
+        assertNull(codec.getContentEncoding());
+    }
+
+    @Test
+    @DisplayName("Should deflate large payloads and inflate them back")
+    void shouldRoundTripDeflatedPayload() {
+        OutboxPayloadCodec codec = OutboxPayloadCodec.select(LARGE, 1024);
+
+        byte[] encoded = codec.encode(LARGE);
+
+        assertEquals(OutboxPayloadCodec.JSON_DEFLATE, codec);
+        assertTrue(encoded.length < LARGE.length / 4, "deflated to " + encoded.length + " bytes");
+        assertArrayEquals(LARGE, codec.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("Should never compress when the threshold is negative")
+    void shouldNotCompressWhenDisabled() {
+        assertEquals(OutboxPayloadCodec.JSON, OutboxPayloadCodec.select(LARGE, -1));
+    }
+
+    @Test
+    @DisplayName("Should resolve codecs by stored id and by content encoding")
+    void shouldResolveCodecs() {
+        for (OutboxPayloadCodec codec : OutboxPayloadCodec.values()) {
+            assertEquals(codec, OutboxPayloadCodec.fromId(codec.getId()));
+            assertEquals(codec, OutboxPayloadCodec.fromContentEncoding(codec.getContentEncoding()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> OutboxPayloadCodec.fromId((short) 99));
+        assertThrows(IllegalArgumentException.class, () -> OutboxPayloadCodec.fromContentEncoding("lz4"));
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated deflated payload")
+    void shouldRejectTruncatedPayload() {
+        byte[] encoded = OutboxPayloadCodec.JSON_DEFLATE.encode(LARGE);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> OutboxPayloadCodec.JSON_DEFLATE.decode(Arrays.copyOf(encoded, encoded.length / 2)));
+    }
+}
@@ -0,0 +1,253 @@
+package com.plataformtrade.infra.events;
+
+import com.plataformtrade.infra.observability.CustomMetrics;
+import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
+import com.plataformtrade.infra.persistence.entities.OutboxStatus;
+import com.plataformtrade.infra.persistence.repositories.OutboxEventJpaRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("OutboxEventProcessor Tests")
+class OutboxEventProcessorTest {
+    private final List<OutboxEventEntity> outbox = new ArrayList<>();
+    private final List<Integer> claims = new ArrayList<>();
+    private final StubPublisher publisher = new StubPublisher();
+    private OutboxEventProcessor processor;
+
+    @AfterEach
+    void tearDown() {
+        if (processor != null) {
+            processor.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish each aggregate's events in order on one lane")
+    void shouldKeepAggregateOrderPerLane() {
+        for (int sequence = 0; sequence < 40; sequence++) {
+            outbox.add(event("a-" + (sequence % 8), sequence));
+        }
+        processor = processor(4, 64, 64);
+
+        assertEquals(40, processor.drain());
+
+        assertTrue(outbox.stream().allMatch(event -> event.getStatus() == OutboxStatus.SENT));
+        assertTrue(publisher.batches.size() > 1);
+        Set<String> seen = new HashSet<>();
+        for (List<OutboxEventEntity> lane : publisher.batches) {
+            List<String> aggregates = lane.stream().map(OutboxEventEntity::getAggregateId).distinct().toList();
+            for (String aggregate : aggregates) {
+                assertTrue(seen.add(aggregate), "aggregate split across lanes: " + aggregate);
+                List<Instant> order = lane.stream()
+                        .filter(event -> event.getAggregateId().equals(aggregate))
+                        .map(OutboxEventEntity::getOccurredOn)
+                        .toList();
+                assertEquals(order.stream().sorted().toList(), order);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish the lanes of a batch in parallel")
+    void shouldPublishLanesInParallel() {
+        outbox.add(event("a-0", 0));
+        outbox.add(event("a-1", 1));
+        processor = processor(2, 8, 8);
+        assertNotEquals(Math.floorMod("a-0".hashCode(), 2), Math.floorMod("a-1".hashCode(), 2));
+        CountDownLatch bothLanes = new CountDownLatch(2);
+        publisher.onPublish = events -> {
+            bothLanes.countDown();
+            await(bothLanes);
+        };
+
+        assertEquals(2, processor.drain());
+        assertEquals(0, bothLanes.getCount());
+        assertEquals(2, Set.copyOf(publisher.threads).size());
+    }
+
+    @Test
+    @DisplayName("Should grow the batch while batches come back full and shrink it when the outbox runs dry")
+    void shouldAdaptBatchSize() {
+        for (int sequence = 0; sequence < 14; sequence++) {
+            outbox.add(event("a-" + sequence, sequence));
+        }
+        processor = processor(2, 2, 8);
+
+        assertEquals(14, processor.drain());
+        assertEquals(List.of(2, 4, 8, 8), claims);
+        assertEquals(4, processor.batchSize());
+
+        claims.clear();
+        assertEquals(0, processor.drain());
+        assertEquals(List.of(4), claims);
+        assertEquals(2, processor.batchSize());
+    }
+
+    @Test
+    @DisplayName("Should keep unconfirmed events pending and stop draining")
+    void shouldKeepUnconfirmedPending() {
+        for (int sequence = 0; sequence < 4; sequence++) {
+            outbox.add(event("a-" + sequence, sequence));
+        }
+        OutboxEventEntity unconfirmed = outbox.get(1);
+        publisher.unconfirmed = event -> event == unconfirmed;
+        processor = processor(1, 4, 16);
+
+        assertEquals(4, processor.drain());
+
+        assertEquals(List.of(4), claims);
+        assertEquals(OutboxStatus.PENDING, unconfirmed.getStatus());
+        assertNotNull(unconfirmed.getErrorMessage());
+        assertEquals(3, outbox.stream().filter(event -> event.getStatus() == OutboxStatus.SENT).count());
+    }
+
+    @Test
+    @DisplayName("Should retry events after a backoff when publishing fails outright")
+    void shouldBackOffFailedEvents() {
+        outbox.add(event("a-0", 0));
+        outbox.add(event("a-0", 1));
+        publisher.unconfirmed = event -> true;
+        publisher.failure = new IllegalStateException("broker down");
+        processor = processor(1, 4, 4, 3, 60_000);
+
+        Instant before = Instant.now();
+        assertEquals(2, processor.drain());
+
+        for (OutboxEventEntity event : outbox) {
+            assertEquals(OutboxStatus.PENDING, event.getStatus());
+            assertEquals(1, event.getAttempts());
+            assertEquals("broker down", event.getErrorMessage());
+            assertFalse(event.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+        }
+        assertEquals(0, processor.drain());
+        assertEquals(1, publisher.batches.size());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter events once their last attempt fails")
+    void shouldDeadLetterAfterLastAttempt() {
+        outbox.add(event("a-0", 0));
+        publisher.unconfirmed = event -> true;
+        publisher.failure = new IllegalStateException("broker down");
+        processor = processor(1, 4, 4, 3, 0);
+
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            assertEquals(1, processor.drain());
+        }
+
+        OutboxEventEntity event = outbox.get(0);
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+        assertNull(event.getNextAttemptAt());
+        assertEquals(0, processor.drain());
+    }
+
+    private OutboxEventProcessor processor(int lanes, int minBatchSize, int maxBatchSize) {
+        return processor(lanes, minBatchSize, maxBatchSize, 10, 60_000);
+    }
+
+    private OutboxEventProcessor processor(int lanes, int minBatchSize, int maxBatchSize, int maxAttempts,
+                                           long retryBackoffMs) {
+        return new OutboxEventProcessor(repository(), publisher, mock(CustomMetrics.class), new DirectTransactionTemplate(),
+                lanes, minBatchSize, maxBatchSize, maxAttempts, retryBackoffMs);
+    }
+
+    /**
+     * Claims the oldest pending events that are due, the way the native
+     * claim query does for a single instance.
+     */
+    private OutboxEventJpaRepository repository() {
+        return (OutboxEventJpaRepository) Proxy.newProxyInstance(
+                OutboxEventJpaRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxEventJpaRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("claimPending")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    int limit = (Integer) args[0];
+                    claims.add(limit);
+                    return outbox.stream()
+                            .filter(event -> event.getStatus() == OutboxStatus.PENDING)
+                            .filter(event -> event.getNextAttemptAt() == null
+                                    || !event.getNextAttemptAt().isAfter(Instant.now()))
+                            .limit(limit)
+                            .toList();
+                });
+    }
+
+    private static OutboxEventEntity event(String aggregateId, int sequence) {
+        return new OutboxEventEntity("e-" + sequence, aggregateId, "account.created",
+                "{}".getBytes(StandardCharsets.UTF_8), (short) 1, Instant.EPOCH.plusSeconds(sequence),
+                OutboxStatus.PENDING);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    }
+
+    private static final class StubPublisher extends RabbitEventPublisher {
+        private final List<List<OutboxEventEntity>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        private volatile Predicate<OutboxEventEntity> unconfirmed = event -> false;
+        private volatile Exception failure;
+        private volatile Consumer<List<OutboxEventEntity>> onPublish = events -> {
+        };
+
+        private StubPublisher() {
+            super(confirmingTemplate(), "account.events", 4, 100,
+                    CircuitBreaker.ofDefaults("outbox-test"), Retry.ofDefaults("outbox-test"));
+        }
+
+        @Override
+        public PublishResult publishAll(List<OutboxEventEntity> events) {
+            batches.add(List.copyOf(events));
+            threads.add(Thread.currentThread().getName());
+            onPublish.accept(events);
+            List<OutboxEventEntity> confirmed = events.stream().filter(unconfirmed.negate()).toList();
+            List<OutboxEventEntity> left = events.stream().filter(unconfirmed).toList();
+            return new PublishResult(confirmed, left, left.isEmpty() ? null : failure);
+        }
+
+        private static RabbitTemplate confirmingTemplate() {
+            CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
+            connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+            return new RabbitTemplate(connectionFactory);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.plataformtrade.infra.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.plataformtrade.domain.events.AccountCreatedEvent;
+import com.plataformtrade.domain.events.DomainEvent;
+import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
+import com.plataformtrade.infra.persistence.repositories.OutboxEventJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OutboxEventPublisher Tests")
+class OutboxEventPublisherTest {
+    private final List<OutboxEventEntity> saved = new ArrayList<>();
+    private final List<DomainEvent> dispatched = new ArrayList<>();
+    private final CountingJdbcTemplate jdbcTemplate = new CountingJdbcTemplate();
+    private final OutboxEventPublisher publisher = new OutboxEventPublisher(repository(saved), dispatched::add,
+            new ObjectMapper().registerModule(new JavaTimeModule()), jdbcTemplate, "outbox_events", 1024);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should notify once per transaction, just before it commits")
+    void shouldNotifyOncePerTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        publisher.publishAll(List.of(event("a-1"), event("a-2"), event("a-1")));
+
+        assertEquals(3, saved.size());
+        assertEquals(3, dispatched.size());
+        assertEquals(0, jdbcTemplate.notifications);
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        assertEquals(1, jdbcTemplate.notifications);
+    }
+
+    @Test
+    @DisplayName("Should notify every transaction that saves events")
+    void shouldNotifyEachTransaction() {
+        for (int transaction = 0; transaction < 2; transaction++) {
+            TransactionSynchronizationManager.initSynchronization();
+            publisher.publish(event("a-1"));
+            publisher.publish(event("a-1"));
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(2, jdbcTemplate.notifications);
+    }
+
+    @Test
+    @DisplayName("Should notify straight away outside a transaction")
+    void shouldNotifyWithoutTransaction() {
+        publisher.publish(event("a-1"));
+        publisher.publish(event("a-2"));
+
+        assertEquals(2, jdbcTemplate.notifications);
+        assertEquals(2, saved.size());
+    }
+
+    private static DomainEvent event(String aggregateId) {
+        return new AccountCreatedEvent(aggregateId, "Ada", "ada@example.com", "52998224725");
+    }
+
+    private static OutboxEventJpaRepository repository(List<OutboxEventEntity> saved) {
+        return (OutboxEventJpaRepository) Proxy.newProxyInstance(
+                OutboxEventJpaRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxEventJpaRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("save")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    saved.add((OutboxEventEntity) args[0]);
+                    return args[0];
+                });
+    }
+
+    private static final class CountingJdbcTemplate extends JdbcTemplate {
+        private int notifications;
+
+        @Override
+        public <T> T execute(ConnectionCallback<T> action) {
+            notifications++;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.plataformtrade.infra.events;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OutboxNotificationListener Tests")
+class OutboxNotificationListenerTest {
+    private final CountingProcessor processor = new CountingProcessor();
+    private final BlockingQueue<PGNotification> notifications = new LinkedBlockingQueue<>();
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private OutboxNotificationListener listener;
+
+    @AfterEach
+    void tearDown() {
+        if (listener != null) {
+            listener.stop();
+        }
+        processor.stop();
+    }
+
+    @Test
+    @DisplayName("Should reject channel names that are not plain identifiers")
+    void shouldRejectInvalidChannel() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OutboxNotificationListener(new StubDataSource(0, true), processor, "outbox; DROP", 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OutboxNotificationListener(new StubDataSource(0, true), processor, "outbox_events", 0));
+    }
+
+    @Test
+    @DisplayName("Should listen, drain once on connect and again on every notification")
+    void shouldDrainOnNotification() throws InterruptedException {
+        listener = start(new StubDataSource(0, true));
+
+        assertTrue(processor.awaitDrains(1));
+        assertEquals(List.of("LISTEN outbox_events"), statements);
+
+        notifications.add(notification());
+        assertTrue(processor.awaitDrains(1));
+        notifications.add(notification());
+        assertTrue(processor.awaitDrains(1));
+        assertEquals(3, processor.drains.get());
+    }
+
+    @Test
+    @DisplayName("Should reconnect after a lost connection and drain what was missed")
+    void shouldReconnectAndDrain() throws InterruptedException {
+        StubDataSource dataSource = new StubDataSource(2, true);
+        listener = start(dataSource);
+
+        assertTrue(processor.awaitDrains(1));
+        assertEquals(3, dataSource.connections.get());
+        assertEquals(List.of("LISTEN outbox_events"), statements);
+    }
+
+    @Test
+    @DisplayName("Should keep draining after the processor fails")
+    void shouldSurviveFailingDrain() throws InterruptedException {
+        processor.failNext = true;
+        listener = start(new StubDataSource(0, true));
+
+        assertTrue(processor.awaitDrains(1));
+        notifications.add(notification());
+        assertTrue(processor.awaitDrains(1));
+    }
+
+    @Test
+    @DisplayName("Should stay idle on databases other than PostgreSQL")
+    void shouldStayIdleWithoutPostgres() throws InterruptedException {
+        StubDataSource dataSource = new StubDataSource(0, false);
+        listener = start(dataSource);
+
+        assertFalse(processor.awaitDrains(1));
+        assertEquals(1, dataSource.connections.get());
+        assertTrue(statements.isEmpty());
+    }
+
+    private OutboxNotificationListener start(StubDataSource dataSource) {
+        OutboxNotificationListener started = new OutboxNotificationListener(dataSource, processor, "outbox_events", 10);
+        started.start();
+        return started;
+    }
+
+    private static PGNotification notification() {
+        return (PGNotification) Proxy.newProxyInstance(PGNotification.class.getClassLoader(),
+                new Class<?>[]{PGNotification.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getName" -> "outbox_events";
+                    case "getParameter" -> "";
+                    default -> 0;
+                });
+    }
+
+    private PGNotification[] poll(int timeoutMillis) {
+        try {
+            PGNotification notification = notifications.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+            return notification != null ? new PGNotification[]{notification} : new PGNotification[0];
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new PGNotification[0];
+        }
+    }
+
+    /**
+     * Hands out connections that fail the first {@code failures} times and
+     * then behave as PostgreSQL connections, or as plain ones when
+     * {@code postgres} is false.
+     */
+    private final class StubDataSource extends AbstractDataSource {
+        private final int failures;
+        private final boolean postgres;
+        private final AtomicInteger connections = new AtomicInteger();
+
+        private StubDataSource(int failures, boolean postgres) {
+            this.failures = failures;
+            this.postgres = postgres;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (connections.incrementAndGet() <= failures) {
+                throw new SQLException("connection refused");
+            }
+            return connection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+
+        private Connection connection() {
+            Class<?>[] types = postgres
+                    ? new Class<?>[]{Connection.class, PGConnection.class}
+                    : new Class<?>[]{Connection.class};
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), types,
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "isWrapperFor" -> postgres;
+                        case "unwrap" -> proxy;
+                        case "createStatement" -> statement();
+                        case "getNotifications" -> poll((Integer) args[0]);
+                        case "setAutoCommit", "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        private Statement statement() {
+            return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "execute" -> statements.add((String) args[0]);
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+
+    private static final class CountingProcessor extends OutboxEventProcessor {
+        private final AtomicInteger drains = new AtomicInteger();
+        private final Semaphore drained = new Semaphore(0);
+        private volatile boolean failNext;
+
+        private CountingProcessor() {
+            super(null, null, null, null, 1, 1, 1, 1, 0);
+        }
+
+        @Override
+        public synchronized int drain() {
+            drains.incrementAndGet();
+            drained.release();
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("boom");
+            }
+            return 0;
+        }
+
+        private boolean awaitDrains(int count) throws InterruptedException {
+            return drained.tryAcquire(count, 500, TimeUnit.MILLISECONDS);
+        }
+    }
+}
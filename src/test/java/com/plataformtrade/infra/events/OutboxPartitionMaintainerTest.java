@@ -0,0 +1,56 @@
+package com.plataformtrade.infra.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OutboxPartitionMaintainer Tests")
+class OutboxPartitionMaintainerTest {
+
+    @Test
+    @DisplayName("Should name partitions by day and read the day back")
+    void shouldRoundTripPartitionNames() {
+        LocalDate day = LocalDate.of(2024, 2, 29);
+
+        assertEquals("outbox_events_p20240229", OutboxPartitionMaintainer.partitionName(day));
+        assertEquals(day, OutboxPartitionMaintainer.partitionDay("outbox_events_p20240229"));
+        assertNull(OutboxPartitionMaintainer.partitionDay("outbox_events_default"));
+        assertNull(OutboxPartitionMaintainer.partitionDay("outbox_events_p2024"));
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive retention")
+    void shouldRejectInvalidRetention() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new OutboxPartitionMaintainer(jdbcTemplate, new TransactionTemplate(), 0, 3, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OutboxPartitionMaintainer(jdbcTemplate, new TransactionTemplate(), 7, -1, true));
+    }
+
+    @Test
+    @DisplayName("Should leave databases other than PostgreSQL alone")
+    void shouldSkipWithoutPostgres() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox-maintainer;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE outbox_events (event_id varchar(36) PRIMARY KEY)");
+        OutboxPartitionMaintainer maintainer = new OutboxPartitionMaintainer(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), 7, 3, true);
+
+        maintainer.maintain();
+        maintainer.maintain();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE lower(table_name) LIKE 'outbox_events%'",
+                Integer.class));
+    }
+}
@@ -0,0 +1,173 @@
+package com.plataformtrade.infra.events;
+
+import com.plataformtrade.infra.codec.OutboxPayloadCodec;
+import com.plataformtrade.infra.persistence.entities.OutboxEventEntity;
+import com.plataformtrade.infra.persistence.entities.OutboxStatus;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("RabbitEventPublisher Tests")
+class RabbitEventPublisherTest {
+    private static final int PARTITIONS = 4;
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final RabbitOperations operations = mock(RabbitOperations.class);
+    private final Map<String, Deque<Boolean>> confirms = new HashMap<>();
+    private final List<String> sent = new ArrayList<>();
+    private final List<String> routingKeys = new ArrayList<>();
+    private final List<Message> messages = new ArrayList<>();
+    private int invocations;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation -> {
+            invocations++;
+            RabbitOperations.OperationsCallback<?> callback = invocation.getArgument(0);
+            return callback.doInRabbit(operations);
+        });
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            sent.add(correlation.getId());
+            routingKeys.add(invocation.getArgument(1));
+            messages.add(invocation.getArgument(2));
+            confirm(correlation);
+            return null;
+        }).when(operations).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    @DisplayName("Should send a batch on one channel and report every acked event as confirmed")
+    void shouldConfirmAckedBatch() {
+        List<OutboxEventEntity> events = List.of(event("e-1", "a-1"), event("e-2", "a-2"), event("e-3", "a-1"));
+        events.forEach(event -> acks(event, true));
+
+        RabbitEventPublisher.PublishResult result = publisher(3).publishAll(events);
+
+        assertEquals(events, result.confirmed());
+        assertTrue(result.unconfirmed().isEmpty());
+        assertNull(result.failure());
+        assertEquals(1, invocations);
+        assertEquals(List.of("e-1", "e-2", "e-3"), sent);
+        assertEquals("account.created." + EventPartitioner.partition("a-1", PARTITIONS), routingKeys.get(0));
+        assertEquals(routingKeys.get(0), routingKeys.get(2));
+        Message message = messages.get(0);
+        assertEquals("e-1", message.getMessageProperties().getMessageId());
+        assertEquals(OutboxPayloadCodec.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertArrayEquals(events.get(0).getPayload(), message.getBody());
+    }
+
+    @Test
+    @DisplayName("Should resend only the nacked events on retry")
+    void shouldRetryNackedEvents() {
+        OutboxEventEntity first = event("e-1", "a-1");
+        OutboxEventEntity second = event("e-2", "a-2");
+        acks(first, true);
+        acks(second, false, true);
+
+        RabbitEventPublisher.PublishResult result = publisher(3).publishAll(List.of(first, second));
+
+        assertEquals(List.of(first, second), result.confirmed());
+        assertTrue(result.unconfirmed().isEmpty());
+        assertEquals(2, invocations);
+        assertEquals(List.of("e-1", "e-2", "e-2"), sent);
+    }
+
+    @Test
+    @DisplayName("Should leave events the broker never confirms for a later drain")
+    void shouldLeaveUnconfirmedEvents() {
+        OutboxEventEntity confirmed = event("e-1", "a-1");
+        OutboxEventEntity silent = event("e-2", "a-2");
+        acks(confirmed, true);
+
+        RabbitEventPublisher.PublishResult result = publisher(2).publishAll(List.of(confirmed, silent));
+
+        assertEquals(List.of(confirmed), result.confirmed());
+        assertEquals(List.of(silent), result.unconfirmed());
+        assertNull(result.failure());
+        assertEquals(2, invocations);
+    }
+
+    @Test
+    @DisplayName("Should report a failure when the broker cannot be reached")
+    void shouldReportFailure() {
+        doThrow(new AmqpConnectException(new ConnectException("refused"))).when(rabbitTemplate).invoke(any());
+        List<OutboxEventEntity> events = List.of(event("e-1", "a-1"), event("e-2", "a-2"));
+
+        RabbitEventPublisher.PublishResult result = publisher(2).publishAll(events);
+
+        assertTrue(result.confirmed().isEmpty());
+        assertEquals(events, result.unconfirmed());
+        assertInstanceOf(AmqpConnectException.class, result.failure());
+    }
+
+    @Test
+    @DisplayName("Should refuse a template without publisher confirms")
+    void shouldRequirePublisherConfirms() {
+        when(rabbitTemplate.getConnectionFactory().isPublisherConfirms()).thenReturn(false);
+
+        assertThrows(IllegalStateException.class, () -> publisher(1));
+    }
+
+    private RabbitEventPublisher publisher(int attempts) {
+        Retry retry = Retry.of("outbox-test", RetryConfig.custom()
+                .maxAttempts(attempts)
+                .waitDuration(Duration.ofMillis(1))
+                .build());
+        return new RabbitEventPublisher(rabbitTemplate, "account.events", PARTITIONS, 50,
+                CircuitBreaker.ofDefaults("outbox-test"), retry);
+    }
+
+    /**
+     * Queues the broker's answers to the successive sends of {@code event};
+     * once they run out, sends go unconfirmed.
+     */
+    private void acks(OutboxEventEntity event, Boolean... answers) {
+        confirms.put(event.getEventId(), new ArrayDeque<>(List.of(answers)));
+    }
+
+    private void confirm(CorrelationData correlation) {
+        Deque<Boolean> answers = confirms.get(correlation.getId());
+        if (answers != null && !answers.isEmpty()) {
+            boolean ack = answers.poll();
+            correlation.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+        }
+    }
+
+    private static OutboxEventEntity event(String eventId, String aggregateId) {
+        return new OutboxEventEntity(eventId, aggregateId, "account.created",
+                ("{\"id\":\"" + eventId + "\"}").getBytes(StandardCharsets.UTF_8), OutboxPayloadCodec.JSON.getId(),
+                Instant.now(), OutboxStatus.PENDING);
+    }
+}
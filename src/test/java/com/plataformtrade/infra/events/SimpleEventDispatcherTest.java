@@ -0,0 +1,193 @@
+package com.plataformtrade.infra.events;
+
+import com.plataformtrade.application.events.DomainEventHandler;
+import com.plataformtrade.domain.events.DomainEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SimpleEventDispatcher Tests")
+class SimpleEventDispatcherTest {
+    private SimpleEventDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver events to handlers registered for a supertype")
+    void shouldDeliverToSupertypeHandlers() {
+        List<DomainEvent> received = Collections.synchronizedList(new ArrayList<>());
+        DomainEventHandler<?> otherHandler = handler(OtherEvent.class, event -> fail("unexpected " + event));
+        dispatcher = start(List.of(handler(DomainEvent.class, received::add), otherHandler), 2, 16);
+
+        TestEvent event = new TestEvent("a-1", 1);
+        dispatcher.dispatch(event);
+        dispatcher.stop();
+
+        assertEquals(List.of(event), received);
+        assertEquals(0, dispatcher.failures());
+    }
+
+    @Test
+    @DisplayName("Should hold events raised in a transaction until it commits")
+    void shouldDispatchAfterCommit() {
+        List<DomainEvent> received = Collections.synchronizedList(new ArrayList<>());
+        dispatcher = start(List.of(handler(TestEvent.class, received::add)), 1, 16);
+
+        TransactionSynchronizationManager.initSynchronization();
+        dispatcher.dispatch(new TestEvent("a-1", 1));
+        assertEquals(0, dispatcher.queued());
+        assertTrue(received.isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        dispatcher.stop();
+
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    @DisplayName("Should keep the order of each aggregate's events and isolate failing handlers")
+    void shouldKeepPerAggregateOrder() {
+        List<TestEvent> received = Collections.synchronizedList(new ArrayList<>());
+        DomainEventHandler<?> failing = handler(TestEvent.class, event -> {
+            if (event.sequence() % 50 == 0) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        dispatcher = start(List.of(failing, handler(TestEvent.class, received::add)), 4, 64);
+
+        for (int sequence = 0; sequence < 200; sequence++) {
+            dispatcher.dispatch(new TestEvent("a-" + (sequence % 5), sequence));
+        }
+        dispatcher.stop();
+
+        assertEquals(200, received.size());
+        assertEquals(4, dispatcher.failures());
+        for (int aggregate = 0; aggregate < 5; aggregate++) {
+            String aggregateId = "a-" + aggregate;
+            List<Integer> sequences = received.stream()
+                    .filter(event -> event.getAggregateId().equals(aggregateId))
+                    .map(TestEvent::sequence)
+                    .toList();
+            assertEquals(sequences.stream().sorted().toList(), sequences);
+        }
+    }
+
+    @Test
+    @DisplayName("Should make callers wait when a lane is full")
+    void shouldApplyBackpressure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch firstTaken = new CountDownLatch(1);
+        dispatcher = start(List.of(handler(TestEvent.class, event -> {
+            firstTaken.countDown();
+            await(release);
+        })), 1, 1);
+
+        dispatcher.dispatch(new TestEvent("a-1", 0));
+        assertTrue(firstTaken.await(5, TimeUnit.SECONDS));
+        dispatcher.dispatch(new TestEvent("a-1", 1));
+        Thread producer = Thread.ofVirtual().start(() -> dispatcher.dispatch(new TestEvent("a-1", 2)));
+
+        producer.join(200);
+        assertTrue(producer.isAlive());
+        assertEquals(1, dispatcher.waits());
+
+        release.countDown();
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        dispatcher.stop();
+        assertEquals(3, dispatcher.handled());
+    }
+
+    private static SimpleEventDispatcher start(List<DomainEventHandler<?>> handlers, int lanes, int capacity) {
+        SimpleEventDispatcher dispatcher = new SimpleEventDispatcher(handlers, lanes, capacity);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private static <T extends DomainEvent> DomainEventHandler<T> handler(Class<T> type, Consumer<T> body) {
+        return new DomainEventHandler<>() {
+            @Override
+            public Class<T> eventType() {
+                return type;
+            }
+
+            @Override
+            public void handle(T event) {
+                body.accept(event);
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record TestEvent(String aggregateId, int sequence) implements DomainEvent {
+        @Override
+        public String getEventId() {
+            return aggregateId + "-" + sequence;
+        }
+
+        @Override
+        public String getAggregateId() {
+            return aggregateId;
+        }
+
+        @Override
+        public String getType() {
+            return "test";
+        }
+
+        @Override
+        public Instant getOccurredOn() {
+            return Instant.EPOCH;
+        }
+    }
+
+    private record OtherEvent(String id) implements DomainEvent {
+        @Override
+        public String getEventId() {
+            return id;
+        }
+
+        @Override
+        public String getAggregateId() {
+            return id;
+        }
+
+        @Override
+        public String getType() {
+            return "other";
+        }
+
+        @Override
+        public Instant getOccurredOn() {
+            return Instant.EPOCH;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.plataformtrade.infra.events.consumers;
+
+import com.plataformtrade.infra.codec.OutboxPayloadCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccountCreatedRabbitListener Tests")
+class AccountCreatedRabbitListenerTest {
+    private static final byte[] JSON = "{\"aggregateId\":\"a-1\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @DisplayName("Should consume every message of a batch, plain or deflated")
+    void shouldConsumeBatch() {
+        AccountCreatedRabbitListener listener = new AccountCreatedRabbitListener(16);
+
+        listener.onMessageBatch(List.of(
+                message(OutboxPayloadCodec.JSON, "account.created.0", null),
+                message(OutboxPayloadCodec.JSON_DEFLATE, "account.created.0", null)));
+
+        assertEquals(2, listener.consumed());
+        assertEquals(1, listener.batches());
+        assertEquals(0, listener.rejected());
+    }
+
+    @Test
+    @DisplayName("Should skip unreadable messages without failing the batch")
+    void shouldSkipUnreadableMessages() {
+        AccountCreatedRabbitListener listener = new AccountCreatedRabbitListener(16);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentEncoding("lz4");
+
+        listener.onMessageBatch(List.of(new Message(JSON, properties), message(OutboxPayloadCodec.JSON, null, null)));
+
+        assertEquals(1, listener.consumed());
+        assertEquals(1, listener.rejected());
+    }
+
+    @Test
+    @DisplayName("Should track the lag of each partition queue")
+    void shouldTrackLagPerQueue() {
+        AccountCreatedRabbitListener listener = new AccountCreatedRabbitListener(16);
+        Date fiveSecondsAgo = new Date(System.currentTimeMillis() - 5000);
+
+        listener.onMessageBatch(List.of(message(OutboxPayloadCodec.JSON, "account.created.1", fiveSecondsAgo)));
+
+        assertTrue(listener.lagMs("account.created.1") >= 5000);
+        assertEquals(0, listener.lagMs("account.created.2"));
+    }
+
+    @Test
+    @DisplayName("Should skip redelivered messages within the dedupe window")
+    void shouldSkipDuplicates() {
+        AccountCreatedRabbitListener listener = new AccountCreatedRabbitListener(2);
+
+        listener.onMessageBatch(List.of(withId("e-1"), withId("e-2"), withId("e-1")));
+        assertEquals(2, listener.consumed());
+        assertEquals(1, listener.duplicates());
+
+        listener.onMessageBatch(List.of(withId("e-3"), withId("e-1")));
+        assertEquals(4, listener.consumed());
+        assertEquals(1, listener.duplicates());
+    }
+
+    private static Message withId(String messageId) {
+        Message message = message(OutboxPayloadCodec.JSON, "account.created.0", null);
+        message.getMessageProperties().setMessageId(messageId);
+        return message;
+    }
+
+    private static Message message(OutboxPayloadCodec codec, String queue, Date timestamp) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(OutboxPayloadCodec.CONTENT_TYPE);
+        properties.setContentEncoding(codec.getContentEncoding());
+        properties.setConsumerQueue(queue);
+        properties.setTimestamp(timestamp);
+        return new Message(codec.encode(JSON), properties);
+    }
+}
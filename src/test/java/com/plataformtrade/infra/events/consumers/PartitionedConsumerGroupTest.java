@@ -0,0 +1,139 @@
+package com.plataformtrade.infra.events.consumers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PartitionedConsumerGroup Tests")
+class PartitionedConsumerGroupTest {
+    private static final List<String> QUEUES = List.of("account.created.0", "account.created.1");
+
+    private final CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
+    private final RabbitListenerEndpointRegistry registry = new RabbitListenerEndpointRegistry();
+    private final AccountCreatedRabbitListener listener = new AccountCreatedRabbitListener(16);
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    @DisplayName("Should register one single-consumer batch container per partition queue")
+    void shouldRegisterContainerPerQueue() {
+        PartitionedConsumerGroup group = register(factory(100, 25));
+
+        assertEquals(Set.of(group.endpointId(QUEUES.get(0)), group.endpointId(QUEUES.get(1))),
+                registry.getListenerContainerIds());
+        for (String queue : QUEUES) {
+            SimpleMessageListenerContainer container =
+                    (SimpleMessageListenerContainer) registry.getListenerContainer(group.endpointId(queue));
+            assertArrayEquals(new String[]{queue}, container.getQueueNames());
+            assertSame(listener, container.getMessageListener());
+            assertTrue(container.isConsumerBatchEnabled());
+            assertEquals(AcknowledgeMode.AUTO, container.getAcknowledgeMode());
+            assertEquals(1, ReflectionTestUtils.getField(container, "concurrentConsumers"));
+            assertEquals(25, ReflectionTestUtils.getField(container, "batchSize"));
+            assertEquals(100, ReflectionTestUtils.getField(container, "prefetchCount"));
+            assertFalse(container.isRunning());
+        }
+        assertEquals(0, group.activeConsumers());
+    }
+
+    @Test
+    @DisplayName("Should run the configured number of consumers per partition queue")
+    void shouldApplyConcurrency() {
+        PartitionedConsumerGroup group = register(factory(3, 100, 25));
+
+        for (String queue : QUEUES) {
+            SimpleMessageListenerContainer container =
+                    (SimpleMessageListenerContainer) registry.getListenerContainer(group.endpointId(queue));
+            assertEquals(3, ReflectionTestUtils.getField(container, "concurrentConsumers"));
+            assertEquals(false, ReflectionTestUtils.getField(container, "exclusive"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should drain the legacy queue with one exclusive consumer")
+    void shouldDrainLegacyQueueExclusively() {
+        PartitionedConsumerGroup group = new PartitionedConsumerGroup("account-created", QUEUES, "account.created",
+                listener, factory(3, 100, 25));
+        register(group);
+
+        assertEquals(3, registry.getListenerContainerIds().size());
+        SimpleMessageListenerContainer container =
+                (SimpleMessageListenerContainer) registry.getListenerContainer(group.endpointId("account.created"));
+        assertArrayEquals(new String[]{"account.created"}, container.getQueueNames());
+        assertSame(listener, container.getMessageListener());
+        assertEquals(true, ReflectionTestUtils.getField(container, "exclusive"));
+        assertEquals(1, ReflectionTestUtils.getField(container, "concurrentConsumers"));
+        assertEquals(25, ReflectionTestUtils.getField(container, "batchSize"));
+        assertEquals(0, group.activeConsumers());
+    }
+
+    @Test
+    @DisplayName("Should leave the containers to the registry, which destroys them")
+    void shouldDestroyContainersWithRegistry() {
+        PartitionedConsumerGroup group = register(factory(100, 25));
+        List<SimpleMessageListenerContainer> containers = QUEUES.stream()
+                .map(queue -> (SimpleMessageListenerContainer) registry.getListenerContainer(group.endpointId(queue)))
+                .toList();
+        assertTrue(containers.stream().allMatch(PartitionedConsumerGroupTest::initialized));
+
+        registry.destroy();
+
+        assertTrue(containers.stream().noneMatch(PartitionedConsumerGroupTest::initialized));
+    }
+
+    @Test
+    @DisplayName("Should reject a batch larger than the prefetch")
+    void shouldRejectInvalidBatch() {
+        assertThrows(IllegalArgumentException.class, () -> factory(10, 25));
+        assertThrows(IllegalArgumentException.class, () -> factory(10, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive concurrency")
+    void shouldRejectInvalidConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> factory(0, 100, 25));
+    }
+
+    private PartitionedConsumerGroup register(SimpleRabbitListenerContainerFactory factory) {
+        return register(new PartitionedConsumerGroup("account-created", QUEUES, listener, factory));
+    }
+
+    private PartitionedConsumerGroup register(PartitionedConsumerGroup group) {
+        RabbitListenerEndpointRegistrar registrar = new RabbitListenerEndpointRegistrar();
+        registrar.setEndpointRegistry(registry);
+        group.configureRabbitListeners(registrar);
+        registrar.afterPropertiesSet();
+        return group;
+    }
+
+    private static boolean initialized(SimpleMessageListenerContainer container) {
+        return Boolean.TRUE.equals(ReflectionTestUtils.getField(container, "initialized"));
+    }
+
+    private SimpleRabbitListenerContainerFactory factory(int prefetch, int batchSize) {
+        return factory(1, prefetch, batchSize);
+    }
+
+    private SimpleRabbitListenerContainerFactory factory(int concurrency, int prefetch, int batchSize) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        PartitionedConsumerGroup.configure(factory, concurrency, prefetch, batchSize, 100);
+        return factory;
+    }
+}
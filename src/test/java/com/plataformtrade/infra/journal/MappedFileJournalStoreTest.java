@@ -0,0 +1,274 @@
+package com.plataformtrade.infra.journal;
+
+import com.plataformtrade.application.engine.BookSnapshot;
+import com.plataformtrade.application.engine.CommandJournal;
+import com.plataformtrade.application.engine.ExecutionReport;
+import com.plataformtrade.application.engine.OrderSequencer;
+import com.plataformtrade.application.engine.WaitStrategy;
+import com.plataformtrade.domain.Order;
+import com.plataformtrade.domain.exceptions.NotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("MappedFileJournalStore Tests")
+class MappedFileJournalStoreTest {
+    private static final String MARKET = "BTC-BRL";
+    private static final int SEGMENT_SIZE = 8192;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should replay journaled commands in sequence order after reopening")
+    void shouldReplayJournaledCommands() {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        List<Order> written = new ArrayList<>();
+        CommandJournal journal = store.openJournal(MARKET);
+        journal.recover(0, (sequence, order) -> fail("journal should be empty"));
+        for (int i = 0; i < 3; i++) {
+            Order order = Order.create("account-" + i, MARKET, i % 2 == 0 ? "buy" : "sell", 10 + i, 100 + i);
+            written.add(order);
+            journal.append(i, order);
+        }
+        journal.flush();
+        journal.close();
+
+        List<Order> replayed = new ArrayList<>();
+        CommandJournal reopened = store.openJournal(MARKET);
+        long next = reopened.recover(0, (sequence, order) -> replayed.add(order));
+        reopened.close();
+
+        assertEquals(3, next);
+        assertEquals(3, replayed.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(written.get(i).getOrderId(), replayed.get(i).getOrderId());
+            assertEquals(written.get(i).getAccountId(), replayed.get(i).getAccountId());
+            assertEquals(written.get(i).getSide(), replayed.get(i).getSide());
+            assertEquals(written.get(i).getQuantity(), replayed.get(i).getQuantity());
+            assertEquals(written.get(i).getPrice(), replayed.get(i).getPrice());
+            assertEquals(written.get(i).getTimestamp(), replayed.get(i).getTimestamp());
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll segments and replay only the tail after the snapshot")
+    void shouldRollSegmentsAndReplayTail() throws IOException {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        CommandJournal journal = store.openJournal(MARKET);
+        journal.recover(0, (sequence, order) -> { });
+        for (int i = 0; i < 500; i++) {
+            journal.append(i, Order.create("account-1", MARKET, "buy", 1, 100));
+        }
+        journal.flush();
+        journal.truncateBefore(400);
+        journal.close();
+        assertEquals(2, segmentCount());
+
+        List<Long> replayed = new ArrayList<>();
+        CommandJournal reopened = store.openJournal(MARKET);
+        long next = reopened.recover(400, (sequence, order) -> replayed.add(sequence));
+        reopened.close();
+
+        assertEquals(500, next);
+        assertEquals(100, replayed.size());
+        assertEquals(400, replayed.get(0));
+        assertEquals(499, replayed.get(99));
+    }
+
+    @Test
+    @DisplayName("Should read a journal without deleting or opening segments")
+    void shouldReadJournalWithoutModifyingIt() throws IOException {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        CommandJournal journal = store.openJournal(MARKET);
+        journal.recover(0, (sequence, order) -> { });
+        for (int i = 0; i < 500; i++) {
+            journal.append(i, Order.create("account-1", MARKET, "buy", 1, 100));
+        }
+        journal.close();
+        long segments = segmentCount();
+
+        List<Long> replayed = new ArrayList<>();
+        long next = store.readJournal(MARKET, 450, (sequence, order) -> replayed.add(sequence));
+
+        assertEquals(500, next);
+        assertEquals(50, replayed.size());
+        assertEquals(450, replayed.get(0));
+        assertEquals(segments, segmentCount());
+        assertEquals(0, store.readJournal("ETH-BRL", 0, (sequence, order) -> fail("no journal for market")));
+    }
+
+    @Test
+    @DisplayName("Should stop replay at a torn record")
+    void shouldStopReplayAtTornRecord() throws IOException {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        CommandJournal journal = store.openJournal(MARKET);
+        journal.recover(0, (sequence, order) -> { });
+        journal.append(0, Order.create("account-1", MARKET, "buy", 1, 100));
+        journal.append(1, Order.create("account-1", MARKET, "buy", 1, 100));
+        journal.close();
+
+        try (Stream<Path> files = Files.list(directory.resolve(MARKET));
+             RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+            int firstLength = file.readInt();
+            file.seek(8 + firstLength + 8 + 20);
+            file.writeByte(0x7F);
+        }
+
+        List<Long> replayed = new ArrayList<>();
+        CommandJournal reopened = store.openJournal(MARKET);
+        long next = reopened.recover(0, (sequence, order) -> replayed.add(sequence));
+        reopened.close();
+
+        assertEquals(1, next);
+        assertEquals(List.of(0L), replayed);
+    }
+
+    @Test
+    @DisplayName("Should load the latest snapshot and fall back when it is corrupted")
+    void shouldLoadLatestSnapshotWithFallback() throws IOException {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        Order partiallyFilled = Order.create("account-1", MARKET, "sell", 10, 100);
+        partiallyFilled.fill(4, 100);
+        store.saveSnapshot(MARKET, new BookSnapshot(9, List.of(partiallyFilled)));
+
+        Optional<BookSnapshot> loaded = store.loadLatestSnapshot(MARKET);
+
+        assertTrue(loaded.isPresent());
+        assertEquals(9, loaded.get().sequence());
+        Order restored = loaded.get().orders().get(0);
+        assertEquals(partiallyFilled.getOrderId(), restored.getOrderId());
+        assertEquals(4, restored.getFillQuantity());
+        assertEquals(partiallyFilled.getFillNotional(), restored.getFillNotional());
+        assertEquals(6, restored.getAvailableQuantity());
+
+        Path corrupted = directory.resolve(MARKET).resolve(String.format("snapshot-%020d.snap", 19));
+        Files.write(corrupted, new byte[]{1, 2, 3, 4});
+
+        assertEquals(9, store.loadLatestSnapshot(MARKET).orElseThrow().sequence());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the book from snapshot and journal after a restart")
+    void shouldRebuildBookAfterRestart() throws Exception {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        OrderSequencer first = sequencer(store);
+        first.start();
+        Order ask = Order.create("account-1", MARKET, "sell", 10, 100);
+        first.submit(ask).get(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 4; i++) {
+            first.submit(Order.create("account-2", MARKET, "buy", 1, 100)).get(5, TimeUnit.SECONDS);
+        }
+        first.stop();
+
+        OrderSequencer second = sequencer(store);
+        second.start();
+        try {
+            assertEquals(4, second.lastSequence(MARKET));
+            ExecutionReport report = second.submit(Order.create("account-3", MARKET, "buy", 6, 100)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(5, report.sequence());
+            assertEquals("closed", report.status());
+            assertEquals(6, report.fillQuantity());
+        } finally {
+            second.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should replay cancels and replaces after a restart")
+    void shouldReplayCancelsAndReplaces() throws Exception {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        OrderSequencer first = sequencer(store);
+        first.start();
+        Order cancelled = Order.create("account-1", MARKET, "sell", 10, 100);
+        Order amended = Order.create("account-1", MARKET, "sell", 5, 101);
+        first.submit(cancelled).get(5, TimeUnit.SECONDS);
+        first.submit(amended).get(5, TimeUnit.SECONDS);
+        first.submit(Order.create("account-2", MARKET, "buy", 1, 99)).get(5, TimeUnit.SECONDS);
+        first.cancel(MARKET, cancelled.getOrderId(), "account-1").get(5, TimeUnit.SECONDS);
+        first.replace(MARKET, amended.getOrderId(), "account-1", 2, 101).get(5, TimeUnit.SECONDS);
+        first.stop();
+
+        OrderSequencer second = sequencer(store);
+        second.start();
+        try {
+            assertEquals(4, second.lastSequence(MARKET));
+            ExecutionReport report = second.submit(Order.create("account-3", MARKET, "buy", 10, 101)).get(5, TimeUnit.SECONDS);
+
+            assertEquals(2, report.fillQuantity());
+            assertEquals("open", report.status());
+        } finally {
+            second.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep pending stop orders across snapshots and restarts")
+    void shouldRecoverPendingStops() throws Exception {
+        MappedFileJournalStore store = new MappedFileJournalStore(directory, SEGMENT_SIZE);
+        OrderSequencer first = sequencer(store);
+        first.start();
+        Order stop = Order.create("account-1", MARKET, "sell", 2, 90);
+        first.submitStop(stop, 95).get(5, TimeUnit.SECONDS);
+        first.submit(Order.create("account-2", MARKET, "sell", 1, 100)).get(5, TimeUnit.SECONDS);
+        first.submit(Order.create("account-3", MARKET, "buy", 1, 100)).get(5, TimeUnit.SECONDS);
+        first.submit(Order.create("account-2", MARKET, "buy", 5, 90)).get(5, TimeUnit.SECONDS);
+        first.stop();
+
+        BookSnapshot snapshot = store.loadLatestSnapshot(MARKET).orElseThrow();
+        assertEquals(2, snapshot.sequence());
+        assertEquals(100, snapshot.lastTradePrice());
+        assertEquals(1, snapshot.stops().size());
+        assertEquals(stop.getOrderId(), snapshot.stops().get(0).order().getOrderId());
+        assertEquals(95, snapshot.stops().get(0).stopPrice());
+
+        OrderSequencer second = sequencer(store);
+        second.start();
+        try {
+            second.submit(Order.create("account-2", MARKET, "sell", 1, 95)).get(5, TimeUnit.SECONDS);
+            second.submit(Order.create("account-3", MARKET, "buy", 1, 95)).get(5, TimeUnit.SECONDS);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (second.lastSequence(MARKET) < 6 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            assertEquals(6, second.lastSequence(MARKET));
+            ExecutionException cancelled = assertThrows(ExecutionException.class,
+                    () -> second.cancel(MARKET, stop.getOrderId(), "account-1").get(5, TimeUnit.SECONDS));
+            assertInstanceOf(NotFoundException.class, cancelled.getCause());
+        } finally {
+            second.stop();
+        }
+    }
+
+    private OrderSequencer sequencer(MappedFileJournalStore store) {
+        return OrderSequencer.builder()
+                .markets(List.of(MARKET))
+                .bufferSize(64)
+                .batchSize(16)
+                .waitStrategy(WaitStrategy.YIELD)
+                .journalStore(store)
+                .snapshotInterval(3)
+                .build();
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(MARKET))) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.application.dtos.AccountResponse;
+import com.plataformtrade.application.dtos.CreateAccountRequest;
+import com.plataformtrade.application.usecases.Signup;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SignupPersistenceE2ETest {
+    @Autowired
+    private Signup signup;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should insert the account and its outbox event without selecting them first")
+    void shouldInsertWithoutSelect() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AccountResponse account = signup.execute(
+                new CreateAccountRequest("Joao Silva", "joao@email.com", "Senha123", "12345678909"));
+
+        assertEquals(2, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE aggregate_id = ?", Integer.class, account.accountId()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.plataformtrade.infra.persistence.repositories;
+
+import com.plataformtrade.application.trades.TradePersistencePipeline;
+import com.plataformtrade.application.trades.TradePosition;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "engine.trades.persistence.enabled=true",
+                "engine.trades.persistence.max-delay-ms=10"
+        }
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class TradePersistenceE2ETest {
+    private static final String MARKET = "BTC-BRL";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TradePersistencePipeline pipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should persist every match of an order asynchronously")
+    void shouldPersistMatches() throws Exception {
+        place("account-1", "sell", 2, 100);
+        place("account-2", "sell", 3, 101);
+        ResponseEntity<String> sweep = place("account-3", "buy", 4, 105);
+        assertEquals(HttpStatus.CREATED, sweep.getStatusCode());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!pipeline.isDurable(MARKET, 2, 1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(new TradePosition(2, 1), pipeline.durablePosition(MARKET));
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT * FROM trades WHERE market_id = ? ORDER BY sequence, match_index", MARKET);
+        assertEquals(2, rows.size());
+        assertEquals("account-3", rows.get(0).get("TAKER_ACCOUNT_ID"));
+        assertEquals("account-1", rows.get(0).get("MAKER_ACCOUNT_ID"));
+        assertEquals(0, new BigDecimal("2").compareTo((BigDecimal) rows.get(0).get("QUANTITY")));
+        assertEquals(0, new BigDecimal("100").compareTo((BigDecimal) rows.get(0).get("PRICE")));
+        assertEquals(0, new BigDecimal("2").compareTo((BigDecimal) rows.get(1).get("QUANTITY")));
+        assertEquals(0, new BigDecimal("101").compareTo((BigDecimal) rows.get(1).get("PRICE")));
+    }
+
+    private ResponseEntity<String> place(String accountId, String side, int quantity, int price) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("accountId", accountId);
+        request.put("marketId", MARKET);
+        request.put("side", side);
+        request.put("quantity", quantity);
+        request.put("price", price);
+        return restTemplate.postForEntity("/api/v1/orders", request, String.class);
+    }
+}
@@ -0,0 +1,209 @@
+package com.plataformtrade.infra.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformtrade.application.balances.BalanceLedger;
+import com.plataformtrade.application.balances.BalanceStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "engine.balances.enabled=true"
+)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BalanceE2ETest {
+    private static final String ACCOUNTS_URL = "/api/v1/accounts";
+    private static final String ORDERS_URL = "/api/v1/orders";
+    private static final String MARKET = "BTC-BRL";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private BalanceLedger balanceLedger;
+
+    @Autowired
+    private BalanceStore balanceStore;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("POST /orders should reserve funds and settle them on fill")
+    void shouldReserveAndSettleFunds() throws Exception {
+        String seller = createAccount("Joao Silva", "joao@email.com", "12345678909");
+        String buyer = createAccount("Maria Souza", "maria@email.com", "11144477735");
+        deposit(seller, "BTC", "2");
+        deposit(buyer, "BRL", "1000");
+
+        ResponseEntity<String> ask = restTemplate.postForEntity(ORDERS_URL, order(seller, "sell", "2", "100"), String.class);
+        ResponseEntity<String> bid = restTemplate.postForEntity(ORDERS_URL, order(buyer, "buy", "1.5", "120"), String.class);
+
+        assertEquals(HttpStatus.CREATED, ask.getStatusCode());
+        assertEquals(HttpStatus.CREATED, bid.getStatusCode());
+
+        JsonNode buyerBalances = balances(buyer);
+        assertDecimal("850", buyerBalances.get(0).get("available"));
+        assertDecimal("0", buyerBalances.get(0).get("reserved"));
+        assertEquals("BTC", buyerBalances.get(1).get("asset").asText());
+        assertDecimal("1.5", buyerBalances.get(1).get("available"));
+
+        JsonNode sellerBalances = balances(seller);
+        assertDecimal("150", sellerBalances.get(0).get("available"));
+        assertDecimal("0.5", sellerBalances.get(1).get("reserved"));
+    }
+
+    @Test
+    @DisplayName("POST /orders should reject an order the account cannot fund")
+    void shouldRejectUnfundedOrder() throws Exception {
+        String buyer = createAccount("Maria Souza", "maria@email.com", "11144477735");
+        deposit(buyer, "BRL", "10");
+
+        ResponseEntity<String> response = restTemplate.postForEntity(ORDERS_URL, order(buyer, "buy", "1", "100"), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("Insufficient BRL balance for order", body.get("message").asText());
+        assertDecimal("10", balances(buyer).get(0).get("available"));
+    }
+
+    @Test
+    @DisplayName("DELETE /orders/{id} should release the cancelled order's funds")
+    void shouldReleaseFundsOnCancel() throws Exception {
+        String buyer = createAccount("Maria Souza", "maria@email.com", "11144477735");
+        deposit(buyer, "BRL", "100");
+        ResponseEntity<String> bid = restTemplate.postForEntity(ORDERS_URL, order(buyer, "buy", "0.5", "100"), String.class);
+        String orderId = objectMapper.readTree(bid.getBody()).get("data").get("orderId").asText();
+        assertDecimal("50", balances(buyer).get(0).get("reserved"));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                ORDERS_URL + "/" + orderId + "?marketId=" + MARKET + "&accountId=" + buyer,
+                HttpMethod.DELETE, null, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertDecimal("100", balances(buyer).get(0).get("available"));
+        assertDecimal("0", balances(buyer).get(0).get("reserved"));
+    }
+
+    @Test
+    @DisplayName("POST /orders/batch should reserve nothing for a batch over the configured limit")
+    void shouldReserveNothingForOversizedBatch() throws Exception {
+        String buyer = createAccount("Maria Souza", "maria@email.com", "11144477735");
+        deposit(buyer, "BRL", "100");
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            batch.add(order(buyer, "buy", "0.1", "100"));
+        }
+
+        ResponseEntity<String> response = restTemplate.postForEntity(ORDERS_URL + "/batch", batch, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertDecimal("100", balances(buyer).get(0).get("available"));
+        assertDecimal("0", balances(buyer).get(0).get("reserved"));
+    }
+
+    @Test
+    @DisplayName("POST /orders/batch should reserve nothing for a batch that cannot be read to the end")
+    void shouldReserveNothingForMalformedBatch() throws Exception {
+        String buyer = createAccount("Maria Souza", "maria@email.com", "11144477735");
+        deposit(buyer, "BRL", "100");
+        String validOrder = objectMapper.writeValueAsString(order(buyer, "buy", "0.1", "100"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(ORDERS_URL + "/batch",
+                new HttpEntity<>("[" + validOrder + "," + validOrder + ",{\"accountId\":", headers), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertDecimal("100", balances(buyer).get(0).get("available"));
+        assertDecimal("0", balances(buyer).get(0).get("reserved"));
+    }
+
+    @Test
+    @DisplayName("Should flush changed balances to the database")
+    void shouldFlushBalances() throws Exception {
+        String buyer = createAccount("Maria Souza", "maria@email.com", "11144477735");
+        deposit(buyer, "BRL", "10");
+        restTemplate.postForEntity(ORDERS_URL, order(buyer, "buy", "0.01", "100"), String.class);
+
+        balanceLedger.flush();
+
+        var stored = balanceStore.load(buyer, "BRL").orElseThrow();
+        assertEquals(0, new BigDecimal("9").compareTo(stored.available()));
+        assertEquals(0, BigDecimal.ONE.compareTo(stored.reserved()));
+    }
+
+    @Test
+    @DisplayName("POST /accounts/{id}/deposits should return 404 for an unknown account")
+    void shouldRejectDepositToUnknownAccount() {
+        Map<String, Object> request = new HashMap<>();
+        request.put("asset", "BRL");
+        request.put("amount", 10);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                ACCOUNTS_URL + "/missing/deposits", request, String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    private String createAccount(String name, String email, String document) throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        request.put("name", name);
+        request.put("email", email);
+        request.put("password", "Senha123");
+        request.put("document", document);
+        ResponseEntity<String> response = restTemplate.postForEntity(ACCOUNTS_URL, request, String.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        return objectMapper.readTree(response.getBody()).get("data").get("accountId").asText();
+    }
+
+    private void deposit(String accountId, String asset, String amount) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("asset", asset);
+        request.put("amount", new BigDecimal(amount));
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                ACCOUNTS_URL + "/" + accountId + "/deposits", request, String.class);
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+    }
+
+    private JsonNode balances(String accountId) throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                ACCOUNTS_URL + "/" + accountId + "/balances", String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertEquals("BRL", data.get(0).get("asset").asText());
+        return data;
+    }
+
+    private Map<String, Object> order(String accountId, String side, String quantity, String price) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("accountId", accountId);
+        request.put("marketId", MARKET);
+        request.put("side", side);
+        request.put("quantity", new BigDecimal(quantity));
+        request.put("price", new BigDecimal(price));
+        return request;
+    }
+
+    private void assertDecimal(String expected, JsonNode actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.decimalValue()), "was " + actual);
+    }
+}
@@ -0,0 +1,100 @@
+package com.plataformtrade.infra.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MarketControllerE2ETest {
+    private static final String MARKETS_URL = "/api/v1/markets";
+    private static final String MARKET = "BTC-BRL";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("GET /markets/{id}/candles should return the open candle built from trades")
+    void shouldReturnOpenCandle() throws Exception {
+        restTemplate.postForEntity("/api/v1/orders", order("account-1", "sell", "2", "100"), String.class);
+        restTemplate.postForEntity("/api/v1/orders", order("account-1", "sell", "2", "110"), String.class);
+        restTemplate.postForEntity("/api/v1/orders", order("account-2", "buy", "3", "110"), String.class);
+
+        JsonNode current = awaitCurrentCandle("1d");
+
+        assertEquals("1d", current.get("resolution").asText());
+        assertDecimal("100", current.get("open"));
+        assertDecimal("110", current.get("high"));
+        assertDecimal("100", current.get("low"));
+        assertDecimal("110", current.get("close"));
+        assertDecimal("3", current.get("volume"));
+        assertEquals(0, new BigDecimal("103.333333").compareTo(current.get("vwap").decimalValue()));
+        assertEquals(2, current.get("trades").asInt());
+        assertEquals(86_400_000, current.get("closeTime").asLong() - current.get("openTime").asLong());
+    }
+
+    @Test
+    @DisplayName("GET /markets/{id}/candles should return no open candle before the first trade")
+    void shouldReturnNoCandleBeforeFirstTrade() throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity(MARKETS_URL + "/" + MARKET + "/candles?resolution=1h", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertTrue(data.get("current").isNull());
+        assertEquals(0, data.get("closed").size());
+    }
+
+    @Test
+    @DisplayName("GET /markets/{id}/candles should reject unknown resolutions and markets")
+    void shouldRejectUnknownResolutionAndMarket() {
+        ResponseEntity<String> badResolution = restTemplate.getForEntity(MARKETS_URL + "/" + MARKET + "/candles?resolution=2m", String.class);
+        ResponseEntity<String> unknownMarket = restTemplate.getForEntity(MARKETS_URL + "/DOGE-BRL/candles", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, badResolution.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, unknownMarket.getStatusCode());
+    }
+
+    private JsonNode awaitCurrentCandle(String resolution) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (true) {
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    MARKETS_URL + "/" + MARKET + "/candles?resolution=" + resolution, String.class);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            JsonNode current = objectMapper.readTree(response.getBody()).get("data").get("current");
+            if (!current.isNull() && current.get("trades").asInt() == 2) {
+                return current;
+            }
+            assertTrue(System.currentTimeMillis() < deadline, "expected an open candle");
+            Thread.sleep(20);
+        }
+    }
+
+    private Map<String, Object> order(String accountId, String side, String quantity, String price) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("accountId", accountId);
+        request.put("marketId", MARKET);
+        request.put("side", side);
+        request.put("quantity", new BigDecimal(quantity));
+        request.put("price", new BigDecimal(price));
+        return request;
+    }
+
+    private static void assertDecimal(String expected, JsonNode actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual.decimalValue()), "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,265 @@
+package com.plataformtrade.infra.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OrderControllerE2ETest {
+    private static final String BASE_URL = "/api/v1/orders";
+    private static final String MARKET = "BTC-BRL";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("POST /orders should rest an order that does not cross")
+    void shouldPlaceRestingOrder() throws Exception {
+        Map<String, Object> request = createRequest("account-1", MARKET, "buy", 10, 100);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(BASE_URL, request, String.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertNotNull(data.get("orderId").asText());
+        assertEquals(MARKET, data.get("marketId").asText());
+        assertEquals("open", data.get("status").asText());
+        assertEquals(0, data.get("fillQuantity").decimalValue().signum());
+        assertEquals(0, data.get("sequence").asLong());
+    }
+
+    @Test
+    @DisplayName("POST /orders should match against resting liquidity")
+    void shouldMatchAgainstRestingOrder() throws Exception {
+        restTemplate.postForEntity(BASE_URL, createRequest("account-1", MARKET, "sell", 10, 100), String.class);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                BASE_URL,
+                createRequest("account-2", MARKET, "buy", 10, 101),
+                String.class
+        );
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertEquals("closed", data.get("status").asText());
+        assertEquals(0, new BigDecimal("10").compareTo(data.get("fillQuantity").decimalValue()));
+        assertEquals(0, new BigDecimal("100").compareTo(data.get("fillPrice").decimalValue()));
+        assertEquals(1, data.get("sequence").asLong());
+    }
+
+    @Test
+    @DisplayName("POST /orders should validate side")
+    void shouldValidateSide() throws Exception {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                BASE_URL,
+                createRequest("account-1", MARKET, "hold", 10, 100),
+                String.class
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("side must be 'buy' or 'sell'", body.get("message").asText());
+    }
+
+    @Test
+    @DisplayName("POST /orders should reject prices off the tick grid")
+    void shouldRejectPriceOffTickGrid() throws Exception {
+        Map<String, Object> request = createRequest("account-1", MARKET, "buy", 10, 100);
+        request.put("price", "100.005");
+
+        ResponseEntity<String> response = restTemplate.postForEntity(BASE_URL, request, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("price must be a multiple of the tick size 0.01", body.get("message").asText());
+    }
+
+    @Test
+    @DisplayName("POST /orders should return 404 for an unknown market")
+    void shouldReturnNotFoundForUnknownMarket() throws Exception {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                BASE_URL,
+                createRequest("account-1", "DOGE-BRL", "buy", 10, 100),
+                String.class
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("Market not found with id: DOGE-BRL", body.get("message").asText());
+    }
+
+    @Test
+    @DisplayName("POST /orders/batch should return per-order results in request order")
+    void shouldPlaceBatchInRequestOrder() throws Exception {
+        List<Map<String, Object>> batch = List.of(
+                createRequest("account-1", MARKET, "sell", 10, 100),
+                createRequest("account-1", MARKET, "hold", 10, 100),
+                createRequest("account-2", "DOGE-BRL", "buy", 10, 100),
+                createRequest("account-2", "ETH-BRL", "buy", 1, 50),
+                createRequest("account-2", MARKET, "buy", 4, 101)
+        );
+
+        ResponseEntity<String> response = restTemplate.postForEntity(BASE_URL + "/batch", batch, String.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertEquals(5, data.size());
+        for (int i = 0; i < data.size(); i++) {
+            assertEquals(i, data.get(i).get("index").asInt());
+        }
+        assertEquals("accepted", data.get(0).get("status").asText());
+        assertEquals("open", data.get(0).get("order").get("status").asText());
+        assertEquals(0, data.get(0).get("order").get("sequence").asLong());
+        assertEquals("rejected", data.get(1).get("status").asText());
+        assertEquals("side must be 'buy' or 'sell'", data.get(1).get("error").asText());
+        assertEquals("Market not found with id: DOGE-BRL", data.get(2).get("error").asText());
+        assertEquals("accepted", data.get(3).get("status").asText());
+        assertEquals(0, data.get(3).get("order").get("sequence").asLong());
+        assertEquals("closed", data.get(4).get("order").get("status").asText());
+        assertEquals(1, data.get(4).get("order").get("sequence").asLong());
+        assertEquals(0, new BigDecimal("100").compareTo(data.get(4).get("order").get("fillPrice").decimalValue()));
+    }
+
+    @Test
+    @DisplayName("POST /orders/batch should reject batches over the configured limit")
+    void shouldRejectOversizedBatch() throws Exception {
+        List<Map<String, Object>> batch = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            batch.add(createRequest("account-1", MARKET, "buy", 1, 100));
+        }
+
+        ResponseEntity<String> response = restTemplate.postForEntity(BASE_URL + "/batch", batch, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals("batch must not contain more than 5 orders", body.get("message").asText());
+    }
+
+    @Test
+    @DisplayName("POST /orders/batch should reject a body that is not an array")
+    void shouldRejectNonArrayBatch() throws Exception {
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                BASE_URL + "/batch",
+                createRequest("account-1", MARKET, "buy", 1, 100),
+                String.class
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("DELETE /orders/{id} should cancel a resting order")
+    void shouldCancelRestingOrder() throws Exception {
+        ResponseEntity<String> placed = restTemplate.postForEntity(
+                BASE_URL, createRequest("account-1", MARKET, "sell", 10, 100), String.class);
+        String orderId = objectMapper.readTree(placed.getBody()).get("data").get("orderId").asText();
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                BASE_URL + "/" + orderId + "?marketId=" + MARKET + "&accountId=account-1",
+                HttpMethod.DELETE, null, String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertEquals("cancelled", data.get("status").asText());
+        assertEquals(1, data.get("sequence").asLong());
+
+        ResponseEntity<String> again = restTemplate.exchange(
+                BASE_URL + "/" + orderId + "?marketId=" + MARKET + "&accountId=account-1",
+                HttpMethod.DELETE, null, String.class);
+        assertEquals(HttpStatus.NOT_FOUND, again.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("PUT /orders/{id} should amend a resting order")
+    void shouldReplaceRestingOrder() throws Exception {
+        ResponseEntity<String> placed = restTemplate.postForEntity(
+                BASE_URL, createRequest("account-1", MARKET, "sell", 10, 101), String.class);
+        String orderId = objectMapper.readTree(placed.getBody()).get("data").get("orderId").asText();
+        Map<String, Object> amendment = new HashMap<>();
+        amendment.put("accountId", "account-1");
+        amendment.put("marketId", MARKET);
+        amendment.put("quantity", 6);
+        amendment.put("price", 100);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                BASE_URL + "/" + orderId, HttpMethod.PUT, new HttpEntity<>(amendment), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertEquals(orderId, data.get("orderId").asText());
+        assertEquals(0, new BigDecimal("6").compareTo(data.get("quantity").decimalValue()));
+        assertEquals(0, new BigDecimal("100").compareTo(data.get("price").decimalValue()));
+
+        ResponseEntity<String> bid = restTemplate.postForEntity(
+                BASE_URL, createRequest("account-2", MARKET, "buy", 10, 100), String.class);
+        JsonNode filled = objectMapper.readTree(bid.getBody()).get("data");
+        assertEquals(0, new BigDecimal("6").compareTo(filled.get("fillQuantity").decimalValue()));
+    }
+
+    @Test
+    @DisplayName("POST /orders/stops should hold a stop order until the last price reaches it")
+    void shouldTriggerStopOrder() throws Exception {
+        Map<String, Object> stop = createRequest("account-1", MARKET, "buy", 2, 105);
+        stop.put("stopPrice", 101);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(BASE_URL + "/stops", stop, String.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        JsonNode data = objectMapper.readTree(response.getBody()).get("data");
+        assertEquals("pending", data.get("status").asText());
+        String orderId = data.get("orderId").asText();
+
+        restTemplate.postForEntity(BASE_URL, createRequest("account-2", MARKET, "sell", 1, 101), String.class);
+        restTemplate.postForEntity(BASE_URL, createRequest("account-3", MARKET, "buy", 1, 101), String.class);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        ResponseEntity<String> cancelled;
+        do {
+            cancelled = restTemplate.exchange(
+                    BASE_URL + "/" + orderId + "?marketId=" + MARKET + "&accountId=account-1",
+                    HttpMethod.DELETE, null, String.class);
+        } while (cancelled.getStatusCode() == HttpStatus.NOT_FOUND && System.currentTimeMillis() < deadline);
+
+        assertEquals(HttpStatus.OK, cancelled.getStatusCode());
+        JsonNode cancelledData = objectMapper.readTree(cancelled.getBody()).get("data");
+        assertEquals("cancelled", cancelledData.get("status").asText());
+        assertEquals(4, cancelledData.get("sequence").asLong());
+    }
+
+    private Map<String, Object> createRequest(String accountId, String marketId, String side, int quantity, int price) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("accountId", accountId);
+        request.put("marketId", marketId);
+        request.put("side", side);
+        request.put("quantity", quantity);
+        request.put("price", price);
+        return request;
+    }
+}
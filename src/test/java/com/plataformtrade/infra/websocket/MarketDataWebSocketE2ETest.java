@@ -0,0 +1,173 @@
+package com.plataformtrade.infra.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformtrade.application.marketdata.DepthLevel;
+import com.plataformtrade.application.marketdata.MarketDataMessage;
+import com.plataformtrade.infra.codec.BinaryFrameCodec;
+import com.plataformtrade.infra.codec.WireFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class MarketDataWebSocketE2ETest {
+    private static final String MARKET = "BTC-BRL";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("WS /ws/market-data should send a snapshot and then book updates and trades")
+    void shouldStreamSnapshotAndUpdates() throws Exception {
+        restTemplate.postForEntity("/api/v1/orders", createRequest("account-1", "sell", 2, 100), String.class);
+        BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+
+        WebSocketSession session = connect("/ws/market-data/" + MARKET, messages, new CompletableFuture<>());
+        try {
+            JsonNode snapshot = next(messages);
+            assertEquals("snapshot", snapshot.get("type").asText());
+            assertEquals(0, new BigDecimal("100").compareTo(snapshot.get("asks").get(0).get("price").decimalValue()));
+            assertEquals(0, new BigDecimal("2").compareTo(snapshot.get("asks").get(0).get("quantity").decimalValue()));
+
+            restTemplate.postForEntity("/api/v1/orders", createRequest("account-2", "buy", 1, 100), String.class);
+
+            JsonNode update = next(messages);
+            assertEquals("update", update.get("type").asText());
+            assertEquals(1, update.get("sequence").asLong());
+            assertEquals(0, new BigDecimal("1").compareTo(update.get("asks").get(0).get("quantity").decimalValue()));
+            JsonNode trade = update.get("trades").get(0);
+            assertEquals("buy", trade.get("side").asText());
+            assertEquals(0, new BigDecimal("100").compareTo(trade.get("price").decimalValue()));
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    @DisplayName("WS /ws/market-data should send binary frames when the binary subprotocol is negotiated")
+    void shouldStreamBinaryFramesWhenNegotiated() throws Exception {
+        restTemplate.postForEntity("/api/v1/orders", createRequest("account-1", "buy", 3, 100), String.class);
+        BlockingQueue<ByteBuffer> frames = new LinkedBlockingQueue<>();
+        BinaryWebSocketHandler handler = new BinaryWebSocketHandler() {
+            @Override
+            protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+                frames.add(message.getPayload());
+            }
+        };
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setSecWebSocketProtocol(WireFormat.BINARY.getSubprotocol());
+
+        WebSocketSession session = new StandardWebSocketClient()
+                .execute(handler, headers, URI.create("ws://localhost:" + port + "/ws/market-data/" + MARKET))
+                .get(5, TimeUnit.SECONDS);
+        try {
+            assertEquals(WireFormat.BINARY.getSubprotocol(), session.getAcceptedProtocol());
+            ByteBuffer frame = frames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame, "expected a binary frame");
+
+            MarketDataMessage snapshot = BinaryFrameCodec.decodeMarketData(frame);
+            assertEquals(MarketDataMessage.SNAPSHOT, snapshot.type());
+            assertEquals(List.of(new DepthLevel(10_000, 300_000_000)), snapshot.bids());
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    @DisplayName("WS /ws/market-data should close the session for an unknown market")
+    void shouldCloseSessionForUnknownMarket() throws Exception {
+        CompletableFuture<CloseStatus> closed = new CompletableFuture<>();
+
+        connect("/ws/market-data/DOGE-BRL", new LinkedBlockingQueue<>(), closed);
+
+        assertEquals(CloseStatus.POLICY_VIOLATION.getCode(), closed.get(5, TimeUnit.SECONDS).getCode());
+    }
+
+    @Test
+    @DisplayName("WS /ws/candles should push the open candle as trades update it")
+    void shouldPushOpenCandle() throws Exception {
+        BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        WebSocketSession session = connect("/ws/candles/" + MARKET + "?resolution=1d", messages, new CompletableFuture<>());
+        try {
+            restTemplate.postForEntity("/api/v1/orders", createRequest("account-1", "sell", 2, 100), String.class);
+            restTemplate.postForEntity("/api/v1/orders", createRequest("account-2", "buy", 1, 100), String.class);
+
+            JsonNode candle = next(messages);
+            assertEquals("1d", candle.get("resolution").asText());
+            assertEquals(0, new BigDecimal("100").compareTo(candle.get("close").decimalValue()));
+            assertEquals(0, new BigDecimal("1").compareTo(candle.get("volume").decimalValue()));
+
+            restTemplate.postForEntity("/api/v1/orders", createRequest("account-2", "buy", 1, 100), String.class);
+
+            assertEquals(0, new BigDecimal("2").compareTo(next(messages).get("volume").decimalValue()));
+        } finally {
+            session.close();
+        }
+    }
+
+    private WebSocketSession connect(String path, BlockingQueue<String> messages,
+                                     CompletableFuture<CloseStatus> closed) throws Exception {
+        TextWebSocketHandler handler = new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                messages.add(message.getPayload());
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+                closed.complete(status);
+            }
+        };
+        return new StandardWebSocketClient()
+                .execute(handler, "ws://localhost:" + port + path)
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private JsonNode next(BlockingQueue<String> messages) throws Exception {
+        String message = messages.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message, "expected a market-data message");
+        return objectMapper.readTree(message);
+    }
+
+    private Map<String, Object> createRequest(String accountId, String side, long quantity, long price) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("accountId", accountId);
+        request.put("marketId", MARKET);
+        request.put("side", side);
+        request.put("quantity", BigDecimal.valueOf(quantity));
+        request.put("price", BigDecimal.valueOf(price));
+        return request;
+    }
+}